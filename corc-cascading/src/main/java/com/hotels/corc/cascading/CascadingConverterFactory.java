@@ -58,10 +58,20 @@ public class CascadingConverterFactory extends DefaultConverterFactory {
 
     @Override
     protected Object toWritableObjectInternal(Object value) throws UnexpectedTypeException {
+      return new HiveCharWritable(toHiveChar(value));
+    }
+
+    @Override
+    protected Object toWritableObjectInternal(Object value, Object reuse) throws UnexpectedTypeException {
+      ((HiveCharWritable) reuse).set(toHiveChar(value));
+      return reuse;
+    }
+
+    private static HiveChar toHiveChar(Object value) {
       if (value instanceof String) {
-        value = new HiveChar((String) value, -1);
+        return new HiveChar((String) value, -1);
       }
-      return new HiveCharWritable((HiveChar) value);
+      return (HiveChar) value;
     }
 
     @Override
@@ -75,10 +85,20 @@ public class CascadingConverterFactory extends DefaultConverterFactory {
 
     @Override
     protected Object toWritableObjectInternal(Object value) throws UnexpectedTypeException {
+      return new HiveVarcharWritable(toHiveVarchar(value));
+    }
+
+    @Override
+    protected Object toWritableObjectInternal(Object value, Object reuse) throws UnexpectedTypeException {
+      ((HiveVarcharWritable) reuse).set(toHiveVarchar(value));
+      return reuse;
+    }
+
+    private static HiveVarchar toHiveVarchar(Object value) {
       if (value instanceof String) {
-        value = new HiveVarchar((String) value, -1);
+        return new HiveVarchar((String) value, -1);
       }
-      return new HiveVarcharWritable((HiveVarchar) value);
+      return (HiveVarchar) value;
     }
 
     @Override
@@ -92,12 +112,23 @@ public class CascadingConverterFactory extends DefaultConverterFactory {
 
     @Override
     protected Object toWritableObjectInternal(Object value) throws UnexpectedTypeException {
+      return new HiveDecimalWritable(toHiveDecimal(value));
+    }
+
+    @Override
+    protected Object toWritableObjectInternal(Object value, Object reuse) throws UnexpectedTypeException {
+      ((HiveDecimalWritable) reuse).set(toHiveDecimal(value));
+      return reuse;
+    }
+
+    private static HiveDecimal toHiveDecimal(Object value) {
       if (value instanceof String) {
-        value = HiveDecimal.create((String) value);
-      } else if (value instanceof BigDecimal) {
-        value = HiveDecimal.create((BigDecimal) value);
+        return HiveDecimal.create((String) value);
+      }
+      if (value instanceof BigDecimal) {
+        return HiveDecimal.create((BigDecimal) value);
       }
-      return new HiveDecimalWritable((HiveDecimal) value);
+      return (HiveDecimal) value;
     }
 
     @Override
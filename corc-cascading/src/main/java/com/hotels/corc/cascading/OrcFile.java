@@ -17,12 +17,13 @@ package com.hotels.corc.cascading;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hive.ql.io.RecordIdentifier;
 import org.apache.hadoop.hive.ql.io.orc.OrcStruct;
-import org.apache.hadoop.hive.ql.io.sarg.PredicateLeaf;
 import org.apache.hadoop.hive.ql.io.sarg.SearchArgument;
 import org.apache.hadoop.hive.ql.metadata.VirtualColumn;
 import org.apache.hadoop.hive.serde2.objectinspector.SettableStructObjectInspector;
@@ -36,7 +37,6 @@ import org.apache.hadoop.mapred.InputFormat;
 import org.apache.hadoop.mapred.OutputCollector;
 import org.apache.hadoop.mapred.OutputFormat;
 import org.apache.hadoop.mapred.RecordReader;
-import org.apache.hadoop.hive.ql.io.sarg.PredicateLeaf.Type;
 
 import cascading.flow.FlowProcess;
 import cascading.flow.planner.rule.UnsupportedPlanException;
@@ -44,12 +44,15 @@ import cascading.scheme.Scheme;
 import cascading.scheme.SinkCall;
 import cascading.scheme.SourceCall;
 import cascading.tap.Tap;
+import cascading.tap.TapException;
 import cascading.tuple.Fields;
 import cascading.tuple.Tuple;
 import cascading.tuple.TupleEntry;
 
 import com.hotels.corc.ConverterFactory;
 import com.hotels.corc.Corc;
+import com.hotels.corc.LazyConverterFactory;
+import com.hotels.corc.mapred.CombineCorcInputFormat;
 import com.hotels.corc.mapred.CorcInputFormat;
 import com.hotels.corc.mapred.CorcOutputFormat;
 
@@ -74,7 +77,7 @@ import com.hotels.corc.mapred.CorcOutputFormat;
  * amount of required read IO and improve performance.
  */
 @SuppressWarnings("rawtypes")
-public class OrcFile extends Scheme<Configuration, RecordReader, OutputCollector, Corc, Corc> {
+public class OrcFile extends Scheme<Configuration, RecordReader, OutputCollector, OrcFile.Context, OrcFile.Context> {
 
   /**
    * Returns an object to assist with building an {@link OrcFile} source.
@@ -101,27 +104,61 @@ public class OrcFile extends Scheme<Configuration, RecordReader, OutputCollector
   private final String searchArgumentKryo;
   private final SchemeType type;
   private final ConverterFactory converterFactory;
+  private final List<String> bloomFilterColumns;
+  private final double bloomFilterFpp;
+  private final boolean combineFiles;
+  private final boolean reuseWritables;
 
   /** Source constructor - see {@link SourceBuilder} for example usage. */
   public OrcFile(StructTypeInfo typeInfo, SearchArgument searchArgument, Fields fields, StructTypeInfo schemaTypeInfo,
       ConverterFactory converterFactory) {
-    this(typeInfo, searchArgument, fields, schemaTypeInfo, converterFactory, SchemeType.SOURCE);
+    this(typeInfo, searchArgument, fields, schemaTypeInfo, converterFactory, false);
+  }
+
+  /** Source constructor - see {@link SourceBuilder} for example usage. */
+  public OrcFile(StructTypeInfo typeInfo, SearchArgument searchArgument, Fields fields, StructTypeInfo schemaTypeInfo,
+      ConverterFactory converterFactory, boolean combineFiles) {
+    this(typeInfo, searchArgument, fields, schemaTypeInfo, converterFactory, SchemeType.SOURCE,
+        Collections.<String> emptyList(), CorcOutputFormat.DEFAULT_BLOOM_FILTER_FPP, combineFiles, false);
   }
 
   /** Sink constructor - see {@link SinkBuilder} for example usage. */
   public OrcFile(Fields fields, StructTypeInfo schemaTypeInfo, ConverterFactory converterFactory) {
-    this(schemaTypeInfo, null, fields, schemaTypeInfo, converterFactory, SchemeType.SINK);
+    this(fields, schemaTypeInfo, converterFactory, Collections.<String> emptyList(),
+        CorcOutputFormat.DEFAULT_BLOOM_FILTER_FPP);
+  }
+
+  /** Sink constructor - see {@link SinkBuilder} for example usage. */
+  public OrcFile(Fields fields, StructTypeInfo schemaTypeInfo, ConverterFactory converterFactory,
+      List<String> bloomFilterColumns, double bloomFilterFpp) {
+    this(fields, schemaTypeInfo, converterFactory, bloomFilterColumns, bloomFilterFpp, false);
+  }
+
+  /** Sink constructor - see {@link SinkBuilder} for example usage. */
+  public OrcFile(Fields fields, StructTypeInfo schemaTypeInfo, ConverterFactory converterFactory,
+      List<String> bloomFilterColumns, double bloomFilterFpp, boolean reuseWritables) {
+    this(schemaTypeInfo, null, fields, schemaTypeInfo, converterFactory, SchemeType.SINK, bloomFilterColumns,
+        bloomFilterFpp, false, reuseWritables);
   }
 
   private OrcFile(StructTypeInfo typeInfo, SearchArgument searchArgument, Fields fields, StructTypeInfo schemaTypeInfo,
-      ConverterFactory converterFactory, SchemeType type) {
+      ConverterFactory converterFactory, SchemeType type, List<String> bloomFilterColumns, double bloomFilterFpp,
+      boolean combineFiles, boolean reuseWritables) {
     super(fields, fields);
     validateNamesUnique(typeInfo.getAllStructFieldNames());
+    if (type == SchemeType.SOURCE && converterFactory instanceof LazyConverterFactory) {
+      throw new IllegalArgumentException(LazyConverterFactory.class.getSimpleName()
+          + " values are only valid until the next row is read and cannot be used in tuples.");
+    }
     this.typeInfo = typeInfo;
     this.schemaTypeInfo = schemaTypeInfo;
     searchArgumentKryo = searchArgument == null ? null : CorcInputFormat.toKryo(searchArgument);
     this.converterFactory = converterFactory;
     this.type = type;
+    this.bloomFilterColumns = new ArrayList<>(bloomFilterColumns);
+    this.bloomFilterFpp = bloomFilterFpp;
+    this.combineFiles = combineFiles;
+    this.reuseWritables = reuseWritables;
   }
 
   /**
@@ -142,14 +179,29 @@ public class OrcFile extends Scheme<Configuration, RecordReader, OutputCollector
 
   /**
    * Sets the {@link InputFormat} to {@link CorcInputFormat} and stores the {@link StructTypeInfo} in the {@link Configuration}.
+   * If the schema is to be read from the files, it is resolved here from a sample of the input files with
+   * {@link CorcInputFormat#readSchemaTypeInfo(Configuration, StructTypeInfo)} so that the tasks need not each read it.
+   * If files are to be combined, the {@link InputFormat} is set to {@link CombineCorcInputFormat} instead.
    */
   @Override
   public void sourceConfInit(FlowProcess<? extends Configuration> flowProcess,
       Tap<Configuration, RecordReader, OutputCollector> tap, Configuration conf) {
     conf.setBoolean("mapred.mapper.new-api", false);
-    conf.setClass("mapred.input.format.class", CorcInputFormat.class, InputFormat.class);
-    // ORC cannot be combined.
+    if (combineFiles) {
+      conf.setClass("mapred.input.format.class", CombineCorcInputFormat.class, InputFormat.class);
+    } else {
+      conf.setClass("mapred.input.format.class", CorcInputFormat.class, InputFormat.class);
+    }
+    // ORC cannot be combined by Hfs, which reuses the value of the first file for files of other schemas.
     conf.setBoolean("cascading.hadoop.hfs.combine.files", false);
+    StructTypeInfo schemaTypeInfo = this.schemaTypeInfo;
+    if (schemaTypeInfo == null) {
+      try {
+        schemaTypeInfo = CorcInputFormat.readSchemaTypeInfo(conf, typeInfo);
+      } catch (IOException e) {
+        throw new TapException("Unable to read the schema of: " + tap, e);
+      }
+    }
     CorcInputFormat.setSchemaTypeInfo(conf, schemaTypeInfo);
     CorcInputFormat.setTypeInfo(conf, typeInfo);
     CorcInputFormat.setSearchArgumentKryo(conf, searchArgumentKryo);
@@ -160,9 +212,9 @@ public class OrcFile extends Scheme<Configuration, RecordReader, OutputCollector
    * Creates an {@link Corc} instance and stores it in the context to be reused for all rows.
    */
   @Override
-  public void sourcePrepare(FlowProcess<? extends Configuration> flowProcess, SourceCall<Corc, RecordReader> sourceCall)
-      throws IOException {
-    sourceCall.setContext((Corc) sourceCall.getInput().createValue());
+  public void sourcePrepare(FlowProcess<? extends Configuration> flowProcess,
+      SourceCall<Context, RecordReader> sourceCall) throws IOException {
+    sourceCall.setContext(new Context((Corc) sourceCall.getInput().createValue()));
   }
 
   /**
@@ -170,20 +222,30 @@ public class OrcFile extends Scheme<Configuration, RecordReader, OutputCollector
    * incoming {@link TupleEntry}.
    */
   @Override
-  public boolean source(FlowProcess<? extends Configuration> flowProcess, SourceCall<Corc, RecordReader> sourceCall)
+  public boolean source(FlowProcess<? extends Configuration> flowProcess, SourceCall<Context, RecordReader> sourceCall)
       throws IOException {
-    Corc corc = sourceCall.getContext();
+    Context context = sourceCall.getContext();
+    Corc corc = context.corc;
     @SuppressWarnings("unchecked")
     boolean next = sourceCall.getInput().next(NullWritable.get(), corc);
     if (!next) {
       return false;
     }
     TupleEntry tupleEntry = sourceCall.getIncomingEntry();
+    int[] indexes = context.getIndexes(tupleEntry.getFields());
+    StructProjection[] projections = context.getProjections(typeInfo);
+    int i = 0;
     for (Comparable<?> fieldName : tupleEntry.getFields()) {
-      if (ROW_ID_NAME.equals(fieldName)) {
-        tupleEntry.setObject(ROW_ID_NAME, corc.getRecordIdentifier());
+      StructProjection projection = projections[i];
+      int index = indexes[i++];
+      if (index == Context.ROW_ID_INDEX) {
+        tupleEntry.setObject(fieldName, corc.getRecordIdentifier());
+      } else if (index == Context.MISSING_INDEX) {
+        tupleEntry.setObject(fieldName, null);
+      } else if (projection != null) {
+        tupleEntry.setObject(fieldName, projection.project(corc.get(index)));
       } else {
-        tupleEntry.setObject(fieldName, corc.get(fieldName.toString()));
+        tupleEntry.setObject(fieldName, corc.get(index));
       }
     }
     return true;
@@ -200,15 +262,21 @@ public class OrcFile extends Scheme<Configuration, RecordReader, OutputCollector
     conf.setClass("mapred.output.format.class", CorcOutputFormat.class, OutputFormat.class);
     conf.setClass("mapreduce.job.output.key.class", NullWritable.class, Writable.class);
     conf.setClass("mapreduce.job.output.value.class", Corc.class, Writable.class);
+    if (!bloomFilterColumns.isEmpty()) {
+      CorcOutputFormat.setBloomFilterColumns(conf, bloomFilterColumns);
+      CorcOutputFormat.setBloomFilterFpp(conf, bloomFilterFpp);
+    }
   }
 
   /**
-   * Creates an {@link Corc} instance and stores it in the context to be reused for all rows.
+   * Creates an {@link Corc} instance and stores it in the context to be reused for all rows. When enabled with
+   * {@link SinkBuilder#reuseWritables()} the {@link Writable Writables} held by the {@link Corc} are updated in place,
+   * as each row is serialized as soon as it is collected.
    */
   @Override
-  public void sinkPrepare(FlowProcess<? extends Configuration> flowProcess, SinkCall<Corc, OutputCollector> sinkCall)
+  public void sinkPrepare(FlowProcess<? extends Configuration> flowProcess, SinkCall<Context, OutputCollector> sinkCall)
       throws IOException {
-    sinkCall.setContext(new Corc(typeInfo, converterFactory));
+    sinkCall.setContext(new Context(new Corc(typeInfo, converterFactory, reuseWritables)));
   }
 
   /**
@@ -216,12 +284,18 @@ public class OrcFile extends Scheme<Configuration, RecordReader, OutputCollector
    */
   @SuppressWarnings("unchecked")
   @Override
-  public void sink(FlowProcess<? extends Configuration> flowProcess, SinkCall<Corc, OutputCollector> sinkCall)
+  public void sink(FlowProcess<? extends Configuration> flowProcess, SinkCall<Context, OutputCollector> sinkCall)
       throws IOException {
-    Corc corc = sinkCall.getContext();
+    Context context = sinkCall.getContext();
+    Corc corc = context.corc;
     TupleEntry tupleEntry = sinkCall.getOutgoingEntry();
+    int[] indexes = context.getIndexes(tupleEntry.getFields());
+    int i = 0;
     for (Comparable<?> fieldName : tupleEntry.getFields()) {
-      corc.set(fieldName.toString(), tupleEntry.getObject(fieldName));
+      int index = indexes[i++];
+      if (index >= 0) {
+        corc.set(index, tupleEntry.getObject(fieldName));
+      }
     }
     sinkCall.getOutput().collect(null, corc);
   }
@@ -252,6 +326,8 @@ public class OrcFile extends Scheme<Configuration, RecordReader, OutputCollector
     private SearchArgument searchArgument;
     private boolean includeRowId;
     private boolean schemaFromFile;
+    private boolean combineFiles;
+    private List<String> columnPaths;
     private ConverterFactory converterFactory = new CascadingConverterFactory();
 
     SourceBuilder() {
@@ -322,6 +398,29 @@ public class OrcFile extends Scheme<Configuration, RecordReader, OutputCollector
       return this;
     }
 
+    /**
+     * Specify the columns to read by their dotted paths, such as {@code context.device.os}, to read only some of the
+     * fields of {@code STRUCT} columns. The fields that are not read are neither read from storage nor decoded. A path
+     * to a {@code STRUCT} selects all of its fields. The columns are resolved against the
+     * {@link #schema(StructTypeInfo) schema(...)}, which must be specified, and are declared in the order of the
+     * schema. {@code STRUCT} values are returned with only the selected fields.
+     * <p/>
+     * A pruned {@link StructTypeInfo} may equally be specified with {@link #columns(StructTypeInfo)}.
+     */
+    public SourceBuilder columnPaths(String... columnPaths) {
+      checkExisting(columnTypeInfo, "columns");
+      checkExisting(this.columnPaths, "column paths");
+      checkNotNull(columnPaths, "columnPaths");
+      if (columnPaths.length == 0) {
+        throw new IllegalArgumentException("No column paths specified.");
+      }
+      for (String columnPath : columnPaths) {
+        checkNotNull(columnPath, "columnPath");
+      }
+      this.columnPaths = Arrays.asList(columnPaths);
+      return this;
+    }
+
     /**
      * Include the {@link VirtualColumn#ROWID ROW__ID} virtual column when reading ORC files that back a transactional
      * Hive table. The column will be prepended to the record's {@link Fields}.
@@ -397,6 +496,10 @@ public class OrcFile extends Scheme<Configuration, RecordReader, OutputCollector
      * Read the schema from the underlying ORC files - you must declare the {@link #declaredFields(Fields) fields}
      * and/or the {@link #columns(StructTypeInfo)} you wish to read if you select this option. Do not use this option
      * for ACID data sets.
+     * <p/>
+     * The schema is read from a sample of the input files when the flow is planned, see
+     * {@link CorcInputFormat#SCHEMA_SAMPLE_FILES}. Should the sampled files have different schemas, each task reads the
+     * schema of its own split instead, unless a column you read has different types, which fails the flow.
      */
     public SourceBuilder schemaFromFile() {
       checkExistingSchema();
@@ -410,19 +513,13 @@ public class OrcFile extends Scheme<Configuration, RecordReader, OutputCollector
     public SourceBuilder searchArgument(SearchArgument searchArgument) {
       checkExisting(this.searchArgument, "a search argument");
       checkNotNull(searchArgument, "searchArgument");
-      List<PredicateLeaf> leaves = searchArgument.getLeaves();
-      for (PredicateLeaf leaf : leaves) {
-        if (Type.TIMESTAMP.equals(leaf.getType())) {
-          //see OrcFileTest#readTimestampPredicatePushdown for info
-          throw new UnsupportedOperationException("Predicate pushdown for Timestamps is not currently supported by Corc");
-        }
-      }
       this.searchArgument = searchArgument;
       return this;
     }
 
     /**
-     * Provide a {@link ConverterFactory} if you want to use different java types than the defaults.
+     * Provide a {@link ConverterFactory} if you want to use different java types than the defaults. A
+     * {@link LazyConverterFactory} is not accepted, as its values are only valid until the next row is read.
      */
     public SourceBuilder converterFactory(ConverterFactory converterFactory) {
       checkNotNull(converterFactory, "converterFactory");
@@ -430,10 +527,26 @@ public class OrcFile extends Scheme<Configuration, RecordReader, OutputCollector
       return this;
     }
 
+    /**
+     * Read many files, or blocks of files, in each task with {@link CombineCorcInputFormat} rather than launching a
+     * task for every file. Suits data sets of many small files. The size of the combined splits is set with
+     * {@link CombineCorcInputFormat#MAX_SPLIT_SIZE}. Do not use this option for ACID data sets.
+     */
+    public SourceBuilder combineFiles() {
+      combineFiles = true;
+      return this;
+    }
+
     public OrcFile build() {
       if (!schemaFromFile && schemaTypeInfo == null) {
         throw new IllegalStateException("You must set a source for the file schema.");
       }
+      if (columnPaths != null) {
+        if (schemaTypeInfo == null) {
+          throw new IllegalStateException("You must specify the schema to read column paths.");
+        }
+        columnTypeInfo = SchemaFactory.newStructTypeInfo(schemaTypeInfo, columnPaths);
+      }
       if (columnTypeInfo == null) {
         if (fields != null) {
           columnTypeInfo = SchemaFactory.newStructTypeInfo(fields);
@@ -452,7 +565,7 @@ public class OrcFile extends Scheme<Configuration, RecordReader, OutputCollector
       } else {
         sourceFields = fields;
       }
-      return new OrcFile(columnTypeInfo, searchArgument, sourceFields, schemaTypeInfo, converterFactory);
+      return new OrcFile(columnTypeInfo, searchArgument, sourceFields, schemaTypeInfo, converterFactory, combineFiles);
     }
 
     private void checkExistingSchema() {
@@ -479,6 +592,9 @@ public class OrcFile extends Scheme<Configuration, RecordReader, OutputCollector
     private Fields fields;
     private StructTypeInfo schemaTypeInfo;
     private ConverterFactory converterFactory = new CascadingConverterFactory();
+    private List<String> bloomFilterColumns = Collections.emptyList();
+    private double bloomFilterFpp = CorcOutputFormat.DEFAULT_BLOOM_FILTER_FPP;
+    private boolean reuseWritables;
 
     SinkBuilder() {
     }
@@ -552,6 +668,49 @@ public class OrcFile extends Scheme<Configuration, RecordReader, OutputCollector
       return this;
     }
 
+    /**
+     * Create a bloom filter for each row group of the named top level columns, in addition to the column statistics.
+     * Reads with a {@link SearchArgument} use them to skip the row groups that cannot contain the literals of
+     * {@code EQUALS} and {@code IN} predicates, for which the minimum and maximum values of high cardinality columns,
+     * such as identifiers, are of little use.
+     */
+    public SinkBuilder bloomFilterColumns(String... columnNames) {
+      checkNotNull(columnNames, "columnNames");
+      if (!bloomFilterColumns.isEmpty()) {
+        throw new IllegalStateException("You've already specified the bloom filter columns: " + bloomFilterColumns);
+      }
+      List<String> names = new ArrayList<>(columnNames.length);
+      for (String columnName : columnNames) {
+        checkNotNull(columnName, "columnName");
+        names.add(columnName.toLowerCase());
+      }
+      bloomFilterColumns = names;
+      return this;
+    }
+
+    /**
+     * Set the false positive probability of the bloom filters, greater than 0 and less than 1. Defaults to
+     * {@link CorcOutputFormat#DEFAULT_BLOOM_FILTER_FPP}.
+     */
+    public SinkBuilder bloomFilterFpp(double fpp) {
+      if (!(fpp > 0.0 && fpp < 1.0)) {
+        throw new IllegalArgumentException("Bloom filter fpp must be greater than 0 and less than 1: " + fpp);
+      }
+      bloomFilterFpp = fpp;
+      return this;
+    }
+
+    /**
+     * Update the {@link Writable Writables} of each column in place for every row rather than creating new ones, where
+     * the {@link com.hotels.corc.Converter Converters} of the {@link ConverterFactory} support it. Converters that
+     * override {@code toWritableObjectInternal(Object)} of a {@link com.hotels.corc.BaseConverter} without also
+     * overriding its in place variant always create new {@link Writable Writables}.
+     */
+    public SinkBuilder reuseWritables() {
+      reuseWritables = true;
+      return this;
+    }
+
     public OrcFile build() {
       if (fields == null && schemaTypeInfo == null) {
         throw new IllegalArgumentException("You must declare at least the sink fields or the file schema.");
@@ -561,7 +720,20 @@ public class OrcFile extends Scheme<Configuration, RecordReader, OutputCollector
       } else if (schemaTypeInfo == null) {
         schemaTypeInfo = SchemaFactory.newStructTypeInfo(fields);
       }
-      return new OrcFile(fields, schemaTypeInfo, converterFactory);
+      checkBloomFilterColumns();
+      return new OrcFile(fields, schemaTypeInfo, converterFactory, bloomFilterColumns, bloomFilterFpp, reuseWritables);
+    }
+
+    private void checkBloomFilterColumns() {
+      List<String> names = new ArrayList<>();
+      for (String name : schemaTypeInfo.getAllStructFieldNames()) {
+        names.add(name.toLowerCase());
+      }
+      for (String columnName : bloomFilterColumns) {
+        if (!names.contains(columnName)) {
+          throw new IllegalArgumentException("Bloom filter column '" + columnName + "' not found in schema: " + names);
+        }
+      }
     }
 
     private void checkForExistingSchema() {
@@ -587,6 +759,71 @@ public class OrcFile extends Scheme<Configuration, RecordReader, OutputCollector
     }
   }
 
+  /**
+   * Holds the {@link Corc} that is reused for all rows, along with the position in the {@link Corc} of each of the
+   * {@link Fields} being read or written. The positions are resolved from the first {@link TupleEntry} so that field
+   * names need not be looked up for every row.
+   */
+  static final class Context {
+
+    static final int MISSING_INDEX = -1;
+    static final int ROW_ID_INDEX = -2;
+
+    final Corc corc;
+    private int[] indexes;
+    private StructProjection[] projections;
+
+    Context(Corc corc) {
+      this.corc = corc;
+    }
+
+    int[] getIndexes(Fields fields) {
+      if (indexes == null) {
+        indexes = new int[fields.size()];
+        for (int i = 0; i < indexes.length; i++) {
+          String fieldName = fields.get(i).toString();
+          if (ROW_ID_NAME.equals(fieldName)) {
+            indexes[i] = ROW_ID_INDEX;
+          } else {
+            indexes[i] = corc.fieldIndex(fieldName);
+          }
+        }
+      }
+      return indexes;
+    }
+
+    /**
+     * Resolves, after {@link #getIndexes(Fields)}, the projection of each {@code STRUCT} field that is read with a
+     * subset of its fields.
+     */
+    StructProjection[] getProjections(StructTypeInfo typeInfo) {
+      if (projections == null) {
+        projections = new StructProjection[indexes.length];
+        List<? extends StructField> structFields = corc.getInspector().getAllStructFieldRefs();
+        for (int i = 0; i < indexes.length; i++) {
+          if (indexes[i] >= 0) {
+            StructField structField = structFields.get(indexes[i]);
+            TypeInfo fileTypeInfo = TypeInfoUtils.getTypeInfoFromObjectInspector(structField.getFieldObjectInspector());
+            projections[i] = StructProjection.newInstance(getFieldTypeInfo(typeInfo, structField.getFieldName()),
+                fileTypeInfo);
+          }
+        }
+      }
+      return projections;
+    }
+
+    private static TypeInfo getFieldTypeInfo(StructTypeInfo typeInfo, String fieldName) {
+      List<String> names = typeInfo.getAllStructFieldNames();
+      for (int i = 0; i < names.size(); i++) {
+        if (names.get(i).equalsIgnoreCase(fieldName)) {
+          return typeInfo.getAllStructFieldTypeInfos().get(i);
+        }
+      }
+      return null;
+    }
+
+  }
+
   private static enum SchemeType {
     SOURCE,
     SINK;
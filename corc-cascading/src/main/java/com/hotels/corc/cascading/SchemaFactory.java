@@ -101,6 +101,72 @@ final class SchemaFactory {
     return (StructTypeInfo) TypeInfoFactory.getStructTypeInfo(names, typeInfos);
   }
 
+  /**
+   * Prunes the schema to the columns named by the dotted paths, such as {@code context.device.os}, keeping the order of
+   * the schema. A path to a {@code STRUCT} selects all of its fields.
+   */
+  static StructTypeInfo newStructTypeInfo(StructTypeInfo schemaTypeInfo, List<String> columnPaths) {
+    List<String[]> paths = new ArrayList<>(columnPaths.size());
+    for (String columnPath : columnPaths) {
+      paths.add(columnPath.toLowerCase().split("\\."));
+    }
+    List<String[]> unmatched = new ArrayList<>(paths);
+    StructTypeInfo typeInfo = prune(schemaTypeInfo, paths, 0, unmatched);
+    if (!unmatched.isEmpty()) {
+      throw new IllegalArgumentException("Column path '" + join(unmatched.get(0)) + "' not found in schema: "
+          + schemaTypeInfo);
+    }
+    return typeInfo;
+  }
+
+  private static StructTypeInfo prune(StructTypeInfo structTypeInfo, List<String[]> paths, int depth,
+      List<String[]> unmatched) {
+    List<String> names = new ArrayList<>();
+    List<TypeInfo> typeInfos = new ArrayList<>();
+    List<String> fieldNames = structTypeInfo.getAllStructFieldNames();
+    for (int i = 0; i < fieldNames.size(); i++) {
+      String fieldName = fieldNames.get(i);
+      TypeInfo fieldTypeInfo = structTypeInfo.getAllStructFieldTypeInfos().get(i);
+      boolean whole = false;
+      List<String[]> nestedPaths = new ArrayList<>();
+      for (String[] path : paths) {
+        if (path[depth].equalsIgnoreCase(fieldName)) {
+          if (path.length == depth + 1) {
+            whole = true;
+            unmatched.remove(path);
+          } else if (fieldTypeInfo instanceof StructTypeInfo) {
+            nestedPaths.add(path);
+          }
+        }
+      }
+      if (whole) {
+        names.add(fieldName);
+        typeInfos.add(fieldTypeInfo);
+        for (String[] path : nestedPaths) {
+          unmatched.remove(path);
+        }
+      } else if (!nestedPaths.isEmpty()) {
+        StructTypeInfo pruned = prune((StructTypeInfo) fieldTypeInfo, nestedPaths, depth + 1, unmatched);
+        if (!pruned.getAllStructFieldNames().isEmpty()) {
+          names.add(fieldName);
+          typeInfos.add(pruned);
+        }
+      }
+    }
+    return (StructTypeInfo) TypeInfoFactory.getStructTypeInfo(names, typeInfos);
+  }
+
+  private static String join(String[] path) {
+    StringBuilder builder = new StringBuilder();
+    for (String name : path) {
+      if (builder.length() > 0) {
+        builder.append('.');
+      }
+      builder.append(name);
+    }
+    return builder.toString();
+  }
+
   private static TypeInfo getTypeInfoFromClass(Class<?> type) {
     TypeInfo typeInfo = null;
     if (BigDecimal.class.equals(type)) {
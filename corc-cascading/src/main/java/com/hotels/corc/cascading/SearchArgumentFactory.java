@@ -15,6 +15,8 @@
  */
 package com.hotels.corc.cascading;
 
+import java.util.Collection;
+
 import org.apache.hadoop.hive.ql.io.sarg.SearchArgument;
 
 import cascading.tuple.Fields;
@@ -25,6 +27,10 @@ import static com.hotels.corc.cascading.FieldsTypeUtils.toType;
  * A {@link org.apache.hadoop.hive.ql.io.sarg.SearchArgumentFactory} that uses {@link Fields}. Extracts the column name
  * from the field and checks that the values passed conform to the type declared in the field.
  * <p/>
+ * Fields nested within {@code STRUCT} columns are referenced by their dotted path and the type of the nested field, for
+ * example {@code new Fields("context.device.os", String.class)}. Such predicates are evaluated against the nested
+ * value of each row.
+ * <p/>
  * Side note: according to the {@link org.apache.hadoop.hive.ql.io.sarg.PredicateLeaf.Operator ORC Javadoc}, if you wish
  * to apply operators not provided on the {@link org.apache.hadoop.hive.ql.io.sarg.SearchArgumentFactory ORC
  * SearchArgumentFactory} (such as GT, GTE, NE, ...), you must employ the {@link Builder#startNot() not} operator with
@@ -85,6 +91,14 @@ public final class SearchArgumentFactory {
       return this;
     }
 
+    /** See {@link org.apache.hadoop.hive.ql.io.sarg.SearchArgument.Builder#in(String, Object...)}. */
+    public Builder in(Fields fields, Collection<?> literals) {
+      if (literals == null) {
+        throw new IllegalArgumentException("literals == null");
+      }
+      return in(fields, literals.toArray());
+    }
+
     /** See {@link org.apache.hadoop.hive.ql.io.sarg.SearchArgument.Builder#isNull(String)}. */
     public Builder isNull(Fields fields) {
       checkFields(fields);
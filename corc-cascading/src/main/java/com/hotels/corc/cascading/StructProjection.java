@@ -0,0 +1,82 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.cascading;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector.Category;
+import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfo;
+
+/**
+ * Selects the declared fields of a {@code STRUCT} value that is read with a subset of its fields. The ORC reader
+ * returns such values with all of the fields of the file, leaving those that are not read {@code null}. Values that the
+ * {@link com.hotels.corc.ConverterFactory ConverterFactory} does not convert to a {@link List} are returned as they
+ * are.
+ */
+final class StructProjection {
+
+  private final int[] positions;
+  private final StructProjection[] children;
+
+  private StructProjection(int[] positions, StructProjection[] children) {
+    this.positions = positions;
+    this.children = children;
+  }
+
+  /**
+   * Returns the projection of {@code fileTypeInfo} values to {@code readTypeInfo}, or {@code null} if none is needed.
+   */
+  static StructProjection newInstance(TypeInfo readTypeInfo, TypeInfo fileTypeInfo) {
+    if (readTypeInfo == null || readTypeInfo.equals(fileTypeInfo) || readTypeInfo.getCategory() != Category.STRUCT
+        || fileTypeInfo.getCategory() != Category.STRUCT) {
+      return null;
+    }
+    List<String> readNames = ((StructTypeInfo) readTypeInfo).getAllStructFieldNames();
+    List<TypeInfo> readTypeInfos = ((StructTypeInfo) readTypeInfo).getAllStructFieldTypeInfos();
+    List<String> fileNames = ((StructTypeInfo) fileTypeInfo).getAllStructFieldNames();
+    List<TypeInfo> fileTypeInfos = ((StructTypeInfo) fileTypeInfo).getAllStructFieldTypeInfos();
+    int[] positions = new int[readNames.size()];
+    StructProjection[] children = new StructProjection[readNames.size()];
+    for (int i = 0; i < positions.length; i++) {
+      positions[i] = -1;
+      for (int j = 0; j < fileNames.size(); j++) {
+        if (fileNames.get(j).equalsIgnoreCase(readNames.get(i))) {
+          positions[i] = j;
+          children[i] = newInstance(readTypeInfos.get(i), fileTypeInfos.get(j));
+          break;
+        }
+      }
+    }
+    return new StructProjection(positions, children);
+  }
+
+  Object project(Object value) {
+    if (!(value instanceof List)) {
+      return value;
+    }
+    List<?> fields = (List<?>) value;
+    List<Object> result = new ArrayList<>(positions.length);
+    for (int i = 0; i < positions.length; i++) {
+      int position = positions[i];
+      Object field = position >= 0 && position < fields.size() ? fields.get(position) : null;
+      result.add(children[i] == null ? field : children[i].project(field));
+    }
+    return result;
+  }
+
+}
@@ -45,9 +45,9 @@ import org.apache.hadoop.hive.serde2.objectinspector.StandardUnionObjectInspecto
 import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
 import org.apache.hadoop.hive.serde2.typeinfo.TypeInfo;
 import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory;
+import org.apache.hadoop.mapred.FileInputFormat;
 import org.apache.hadoop.mapred.JobConf;
 import org.junit.Before;
-import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
@@ -65,7 +65,9 @@ import cascading.tuple.Tuple;
 import cascading.tuple.TupleEntry;
 import cascading.tuple.TupleException;
 
+import com.hotels.corc.LazyConverterFactory;
 import com.hotels.corc.StructTypeInfoBuilder;
+import com.hotels.corc.mapred.CombineCorcInputFormat;
 import com.hotels.corc.test.OrcReader;
 import com.hotels.corc.test.OrcWriter;
 import com.hotels.plunger.Data;
@@ -501,6 +503,152 @@ public class OrcFileTest {
     assertThat(list.get(3).getObject(0), is(nullValue()));
   }
 
+  @Test
+  public void sinkBloomFilterColumns() {
+    OrcFile orcFile = OrcFile.sink().schema(FIELDS_AB).bloomFilterColumns("A").bloomFilterFpp(0.01).build();
+
+    orcFile.sinkConfInit(null, null, conf);
+
+    assertThat(conf.get("orc.bloom.filter.columns"), is("a"));
+    assertThat(conf.getDouble("orc.bloom.filter.fpp", 0.0), is(0.01));
+  }
+
+  @Test
+  public void sinkNoBloomFilterColumns() {
+    OrcFile orcFile = OrcFile.sink().schema(FIELDS_AB).build();
+
+    orcFile.sinkConfInit(null, null, conf);
+
+    assertThat(conf.get("orc.bloom.filter.columns"), is(nullValue()));
+  }
+
+  @Test
+  public void readColumnPaths() throws IOException {
+    StructTypeInfo cTypeInfo = new StructTypeInfoBuilder()
+        .add("x", TypeInfoFactory.stringTypeInfo)
+        .add("y", TypeInfoFactory.stringTypeInfo)
+        .build();
+    StructTypeInfo schemaTypeInfo = new StructTypeInfoBuilder()
+        .add("a", TypeInfoFactory.stringTypeInfo)
+        .add("c", cTypeInfo)
+        .build();
+    try (OrcWriter writer = new OrcWriter.Builder(conf, new Path(path, "part-00000"))
+        .addField("a", TypeInfoFactory.stringTypeInfo)
+        .addField("c", cTypeInfo)
+        .build()) {
+      writer.addRow("A1", Arrays.asList("X1", "Y1"));
+    }
+
+    OrcFile orcFile = OrcFile.source().columnPaths("c.y").schema(schemaTypeInfo).build();
+    List<Tuple> actual = Plunger.readDataFromTap(new Hfs(orcFile, path)).asTupleList();
+
+    assertThat(orcFile.getSourceFields(), is(new Fields("c", Object.class)));
+    assertThat(actual.size(), is(1));
+    assertThat(actual.get(0).getObject(0), is((Object) Arrays.asList("Y1")));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void sourceLazyConverterFactory() {
+    OrcFile.source().declaredFields(FIELD_A).schemaFromFile().converterFactory(new LazyConverterFactory()).build();
+  }
+
+  @Test
+  public void writeReuseWritables() throws IOException {
+    OrcFile orcFile = OrcFile.sink().schema(FIELDS_AB).reuseWritables().build();
+    Data data = new DataBuilder(FIELDS_AB).addTuple("A1", "B1").addTuple("A2", null).addTuple("A3", "B3").build();
+
+    Plunger.writeData(data).toTap(new Hfs(orcFile, path));
+
+    try (OrcReader reader = getOrcReader()) {
+      assertThat(reader.next(), is(Arrays.<Object> asList("A1", "B1")));
+      assertThat(reader.next(), is(Arrays.<Object> asList("A2", null)));
+      assertThat(reader.next(), is(Arrays.<Object> asList("A3", "B3")));
+      assertThat(reader.hasNext(), is(false));
+    }
+  }
+
+  @Test
+  public void sinkLazyConverterFactory() {
+    OrcFile orcFile = OrcFile.sink().schema(FIELDS_AB).converterFactory(new LazyConverterFactory()).build();
+
+    assertThat(orcFile.getSinkFields(), is(FIELDS_AB));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void columnPathsWithoutSchema() {
+    OrcFile.source().columnPaths("c.y").schemaFromFile().build();
+  }
+
+  @Test
+  public void readCombinedFiles() throws IOException {
+    for (int i = 1; i <= 2; i++) {
+      try (OrcWriter writer = new OrcWriter.Builder(conf, new Path(path, "part-0000" + i))
+          .addField("a", TypeInfoFactory.stringTypeInfo)
+          .addField("b", TypeInfoFactory.stringTypeInfo)
+          .build()) {
+        writer.addRow("A" + i, "B" + i);
+      }
+    }
+
+    OrcFile orcFile = OrcFile.source().declaredFields(FIELD_A).schemaFromFile().combineFiles().build();
+    List<Tuple> actual = Plunger.readDataFromTap(new Hfs(orcFile, path)).asTupleList();
+
+    assertThat(actual.size(), is(2));
+    List<Object> values = Arrays.asList(actual.get(0).getObject(0), actual.get(1).getObject(0));
+    assertThat(values.contains("A1") && values.contains("A2"), is(true));
+  }
+
+  @Test
+  public void sourceConfInitCombineFiles() {
+    OrcFile orcFile = OrcFile.source().schema(FIELDS_AB).combineFiles().build();
+
+    orcFile.sourceConfInit(null, null, conf);
+
+    assertThat(conf.get("mapred.input.format.class"), is(CombineCorcInputFormat.class.getName()));
+  }
+
+  @Test
+  public void sourceConfInitSchemaFromFile() throws IOException {
+    try (OrcWriter writer = new OrcWriter.Builder(conf, new Path(path, "part-00000"))
+        .addField("a", TypeInfoFactory.stringTypeInfo)
+        .addField("b", TypeInfoFactory.stringTypeInfo)
+        .build()) {
+      writer.addRow("A1", "B1");
+    }
+    FileInputFormat.setInputPaths(conf, path);
+
+    OrcFile.source().declaredFields(FIELD_A).schemaFromFile().build().sourceConfInit(null, null, conf);
+
+    assertThat(conf.get("com.hotels.corc.mapred.schema.type.info"), is("struct<a:string,b:string>"));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void sourceConfInitSchemaFromFileDifferentTypes() throws IOException {
+    try (OrcWriter writer = new OrcWriter.Builder(conf, new Path(path, "part-00000"))
+        .addField("a", TypeInfoFactory.stringTypeInfo)
+        .build()) {
+      writer.addRow("A1");
+    }
+    try (OrcWriter writer = new OrcWriter.Builder(conf, new Path(path, "part-00001"))
+        .addField("a", TypeInfoFactory.intTypeInfo)
+        .build()) {
+      writer.addRow(1);
+    }
+    FileInputFormat.setInputPaths(conf, path);
+
+    OrcFile.source().declaredFields(FIELD_A).schemaFromFile().build().sourceConfInit(null, null, conf);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void sinkBloomFilterColumnNotInSchema() {
+    OrcFile.sink().schema(FIELDS_AB).bloomFilterColumns("C").build();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void sinkBloomFilterFppInvalid() {
+    OrcFile.sink().schema(FIELDS_AB).bloomFilterFpp(0.0);
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void missingFieldsTypes() {
     OrcFile.source().declaredFields(new Fields("A")).schemaFromFile().build();
@@ -803,7 +951,6 @@ public class OrcFileTest {
     assertThat((list.get(0).getObject(0)), is((Object)date1));
   }
 
-  @Ignore("Below runs into an issue where Timestamp object is re-used when Tuples from file are iterated over")
   @Test
   public void readTimestampPredicatePushdown() throws IOException {
     TypeInfo typeInfo = TypeInfoFactory.timestampTypeInfo;
@@ -836,20 +983,38 @@ public class OrcFileTest {
     assertThat(((Timestamp) list.get(0).getObject(0)), is(timestamp1));
   }
   
-  @Test(expected=UnsupportedOperationException.class)
-  public void readTimestampNotSupported() throws IOException {
+  @Test
+  public void readTimestampRangePredicatePushdown() throws IOException {
+    TypeInfo typeInfo = TypeInfoFactory.timestampTypeInfo;
+
     Timestamp timestamp1 = Timestamp.valueOf("1970-01-01 00:00:00");
-    
+    Timestamp timestamp2 = Timestamp.valueOf("1970-01-02 00:00:00.123456789");
+    Timestamp timestamp3 = Timestamp.valueOf("1971-01-02 00:00:00");
+
+    try (OrcWriter writer = getOrcWriter(typeInfo)) {
+      writer.addRow(timestamp1);
+      writer.addRow(timestamp2);
+      writer.addRow(timestamp3);
+    }
+
+    StructTypeInfo structTypeInfo = new StructTypeInfoBuilder().add("a", TypeInfoFactory.timestampTypeInfo).build();
+
     SearchArgument searchArgument = SearchArgumentFactory
         .newBuilder()
         .startAnd()
-        .equals("a", PredicateLeaf.Type.TIMESTAMP, timestamp1)
+        .between("a", PredicateLeaf.Type.TIMESTAMP, Timestamp.valueOf("1970-01-01 12:00:00"),
+            Timestamp.valueOf("1970-01-03 00:00:00"))
         .end()
         .build();
-    
-     OrcFile.source().searchArgument(searchArgument).build();
+
+    OrcFile orcFile = OrcFile.source().columns(structTypeInfo).schemaFromFile().searchArgument(searchArgument).build();
+    Tap<?, ?, ?> tap = new Hfs(orcFile, path);
+
+    List<Tuple> list = Plunger.readDataFromTap(tap).asTupleList();
+
+    assertThat(list.size(), is(1));
+    assertThat(((Timestamp) list.get(0).getObject(0)), is(timestamp2));
   }
-  
 
   @Test
   public void readDecimalPredicatePushdown() throws IOException {
@@ -27,6 +27,7 @@ import java.util.List;
 import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
 import org.apache.hadoop.hive.serde2.typeinfo.TypeInfo;
 import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoUtils;
 import org.junit.Test;
 
 import cascading.tuple.Fields;
@@ -87,6 +88,34 @@ public class SchemaFactoryTest {
     assertThat(typeInfo.getStructFieldTypeInfo("k"), is((TypeInfo) TypeInfoFactory.binaryTypeInfo));
   }
 
+  @Test
+  public void createStructTypeInfoFromColumnPaths() {
+    StructTypeInfo schemaTypeInfo = (StructTypeInfo) TypeInfoUtils
+        .getTypeInfoFromTypeString("struct<a:string,c:struct<x:string,y:struct<p:int,q:int>,z:string>,d:int>");
+
+    StructTypeInfo typeInfo = SchemaFactory.newStructTypeInfo(schemaTypeInfo, Arrays.asList("d", "C.y.q", "c.x"));
+
+    assertThat(typeInfo.getTypeName(), is("struct<c:struct<x:string,y:struct<q:int>>,d:int>"));
+  }
+
+  @Test
+  public void createStructTypeInfoFromColumnPathsWholeStruct() {
+    StructTypeInfo schemaTypeInfo = (StructTypeInfo) TypeInfoUtils
+        .getTypeInfoFromTypeString("struct<a:string,c:struct<x:string,y:string>>");
+
+    StructTypeInfo typeInfo = SchemaFactory.newStructTypeInfo(schemaTypeInfo, Arrays.asList("c", "c.x"));
+
+    assertThat(typeInfo.getTypeName(), is("struct<c:struct<x:string,y:string>>"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void createStructTypeInfoFromColumnPathsNotFound() {
+    StructTypeInfo schemaTypeInfo = (StructTypeInfo) TypeInfoUtils
+        .getTypeInfoFromTypeString("struct<a:string,c:struct<x:string,y:string>>");
+
+    SchemaFactory.newStructTypeInfo(schemaTypeInfo, Arrays.asList("c.w"));
+  }
+
   @Test(expected = NullPointerException.class)
   public void createStructTypeInfoComplex() {
     String[] names = new String[] { "a" };
@@ -24,6 +24,8 @@ import static org.mockito.Matchers.same;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+
 import com.hotels.corc.mapred.CorcInputFormat;
 import org.apache.hadoop.hive.ql.io.sarg.PredicateLeaf;
 import org.apache.hadoop.hive.ql.io.sarg.SearchArgument;
@@ -97,6 +99,13 @@ public class SearchArgumentFactoryTest {
     verify(mockInternal).equals("a", ONE_TYPE, 1);
   }
 
+  @Test
+  public void equalsNestedField() {
+    Builder chain = builder.equals(new Fields("Context.Device.OS", String.class), "ios");
+    assertThat(chain, is(sameInstance(builder)));
+    verify(mockInternal).equals("context.device.os", PredicateLeaf.Type.STRING, "ios");
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void equalsOneThanOneField() {
     builder.equals(TWO, 1);
@@ -290,6 +299,18 @@ public class SearchArgumentFactoryTest {
     verify(mockInternal).in("a", ONE_TYPE, 1, 2, 3);
   }
 
+  @Test
+  public void inCollection() {
+    Builder chain = builder.in(ONE, Arrays.asList(1, 2, 3));
+    assertThat(chain, is(sameInstance(builder)));
+    verify(mockInternal).in("a", ONE_TYPE, 1, 2, 3);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void inCollectionArgTypeIncorrect() {
+    builder.in(ONE, Arrays.asList(1, "Y", 3));
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void inOneThanOneField() {
     builder.in(TWO, 1, 2, 3);
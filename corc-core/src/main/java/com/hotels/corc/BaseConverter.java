@@ -15,7 +15,9 @@
  */
 package com.hotels.corc;
 
-public abstract class BaseConverter implements Converter {
+public abstract class BaseConverter implements ReusableWritableConverter {
+
+  private final boolean reuseSupported = isReuseSupported(getClass());
 
   @Override
   public Object toWritableObject(Object value) throws UnexpectedTypeException {
@@ -31,6 +33,55 @@ public abstract class BaseConverter implements Converter {
 
   protected abstract Object toWritableObjectInternal(Object value) throws UnexpectedTypeException;
 
+  @Override
+  public Object toWritableObject(Object value, Object reuse) throws UnexpectedTypeException {
+    if (value == null) {
+      return null;
+    }
+    if (reuse == null || !reuseSupported) {
+      return toWritableObject(value);
+    }
+    try {
+      return toWritableObjectInternal(value, reuse);
+    } catch (ClassCastException e) {
+      throw new UnexpectedTypeException(value);
+    }
+  }
+
+  /**
+   * Override to update {@code reuse} in place. By default a new {@link Writable} is created. Subclasses that override
+   * {@link #toWritableObjectInternal(Object)} without also overriding this method are never given a {@code reuse}, as
+   * an inherited in place update would bypass their conversion.
+   */
+  protected Object toWritableObjectInternal(Object value, Object reuse) throws UnexpectedTypeException {
+    return toWritableObjectInternal(value);
+  }
+
+  /**
+   * Whether the most specific {@link #toWritableObjectInternal(Object, Object)} of {@code type} is declared by the same
+   * class as, or a subclass of, the one that declares its most specific {@link #toWritableObjectInternal(Object)}.
+   */
+  private static boolean isReuseSupported(Class<?> type) {
+    for (Class<?> c = type; c != BaseConverter.class; c = c.getSuperclass()) {
+      if (declaresToWritableObjectInternal(c, Object.class, Object.class)) {
+        return true;
+      }
+      if (declaresToWritableObjectInternal(c, Object.class)) {
+        return false;
+      }
+    }
+    return false;
+  }
+
+  private static boolean declaresToWritableObjectInternal(Class<?> type, Class<?>... parameterTypes) {
+    try {
+      type.getDeclaredMethod("toWritableObjectInternal", parameterTypes);
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
   @Override
   public Object toJavaObject(Object value) throws UnexpectedTypeException {
     if (value == null) {
@@ -18,15 +18,25 @@ package com.hotels.corc;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.hadoop.hive.ql.io.RecordIdentifier;
 import org.apache.hadoop.hive.ql.io.orc.OrcSerde;
 import org.apache.hadoop.hive.ql.io.orc.OrcStruct;
+import org.apache.hadoop.hive.serde2.io.DoubleWritable;
+import org.apache.hadoop.hive.serde2.io.HiveBaseCharWritable;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector.PrimitiveCategory;
 import org.apache.hadoop.hive.serde2.objectinspector.SettableStructObjectInspector;
 import org.apache.hadoop.hive.serde2.objectinspector.StructField;
 import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
+import org.apache.hadoop.io.BooleanWritable;
+import org.apache.hadoop.io.BytesWritable;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
 import org.apache.hadoop.io.Writable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,6 +44,14 @@ import org.slf4j.LoggerFactory;
 /**
  * {@link OrcStruct} wrapper, allowing access by field name with automatic {@link Writable} to Java type conversion
  * using the provided {@link ConverterFactory}.
+ * <p/>
+ * Fields may also be accessed by position. Resolve the position of a field once with {@link #fieldIndex(String)} and
+ * then use the {@code int} variants of the accessors to avoid a name lookup for every row.
+ * <p/>
+ * The primitive accessors, such as {@link #getLong(int)} and {@link #setLong(int, long)}, bypass the
+ * {@link ConverterFactory} and read or update the underlying {@link Writable} in place, avoiding boxing. Likewise
+ * {@link #getText(int)}, {@link #getByteBuffer(int)} and {@link #copyBytes(int, byte[], int)} expose {@code STRING} and
+ * {@code BINARY} values without decoding or copying them into new objects.
  */
 public class Corc implements Writable {
   private static final Logger LOG = LoggerFactory.getLogger(Corc.class);
@@ -41,31 +59,62 @@ public class Corc implements Writable {
   private final OrcSerde serde = new OrcSerde();
   private final SettableStructObjectInspector inspector;
   private final OrcStruct struct;
-  private final ConverterFactory factory;
-  private final Map<String, ValueMarshaller> cache = new HashMap<>();
+  private final ValueMarshaller[] marshallers;
+  private final StructField[] structFields;
+  private final PrimitiveCategory[] categories;
+  private final Map<String, Integer> indexes = new HashMap<>();
   private final RecordIdentifier recordIdentifier;
 
   public Corc(StructTypeInfo typeInfo, ConverterFactory factory) {
-    LOG.debug("TypeInfo: {}", typeInfo);
-    inspector = (SettableStructObjectInspector) OrcStruct.createObjectInspector(typeInfo);
+    this(typeInfo, factory, false);
+  }
+
+  /**
+   * When {@code reuseWritables} is {@code true}, setting a value updates the {@link Writable} already held for that
+   * field in place, where the {@link Converter} supports it, rather than creating a new one. Only enable this if
+   * {@link Writable Writables} obtained from this instance are not retained between calls to {@code set}.
+   */
+  public Corc(StructTypeInfo typeInfo, ConverterFactory factory, boolean reuseWritables) {
+    this(new CorcSchema(typeInfo, factory, reuseWritables));
+  }
+
+  /**
+   * Creates an instance using the {@link ObjectInspector} and {@link Converter Converters} of a {@link CorcSchema}
+   * which may be shared with other instances.
+   */
+  public Corc(CorcSchema schema) {
+    LOG.debug("TypeInfo: {}", schema.getTypeInfo());
+    inspector = schema.inspector;
     struct = (OrcStruct) inspector.create();
-    this.factory = factory;
+    marshallers = schema.marshallers;
+    structFields = schema.structFields;
+    categories = schema.categories;
     recordIdentifier = new RecordIdentifier();
   }
 
-  private ValueMarshaller getValueMarshaller(String fieldName) {
-    ValueMarshaller valueMarshaller = cache.get(fieldName);
-    if (valueMarshaller == null) {
+  /**
+   * Gets the position of {@code fieldName} in the underlying {@link OrcStruct}, or {@code -1} if the field does not
+   * exist. Field names are matched case insensitively.
+   */
+  public int fieldIndex(String fieldName) {
+    Integer index = indexes.get(fieldName);
+    if (index == null) {
+      index = -1;
       StructField structField = inspector.getStructFieldRef(fieldName.toLowerCase());
-      if (structField == null) {
-        valueMarshaller = ValueMarshaller.NULL;
-      } else {
-        Converter converter = factory.newConverter(structField.getFieldObjectInspector());
-        valueMarshaller = new ValueMarshallerImpl(inspector, structField, converter);
+      if (structField != null) {
+        index = inspector.getAllStructFieldRefs().indexOf(structField);
       }
-      cache.put(fieldName, valueMarshaller);
+      indexes.put(fieldName, index);
+    }
+    return index;
+  }
+
+  private ValueMarshaller getValueMarshaller(String fieldName) {
+    int index = fieldIndex(fieldName);
+    if (index == -1) {
+      return ValueMarshaller.NULL;
     }
-    return valueMarshaller;
+    return marshallers[index];
   }
 
   /**
@@ -79,6 +128,20 @@ public class Corc implements Writable {
     return value;
   }
 
+  /**
+   * Gets the value at {@code index} converted to the appropriate java type
+   *
+   * @throws IOException
+   * @see #fieldIndex(String)
+   */
+  public Object get(int index) throws IOException {
+    Object value = marshallers[index].getJavaObject(struct);
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Fetched [{}]={}", index, value);
+    }
+    return value;
+  }
+
   /**
    * Gets the raw {@link Writable} value for {@code fieldName}
    *
@@ -90,6 +153,19 @@ public class Corc implements Writable {
     return value;
   }
 
+  /**
+   * Gets the raw {@link Writable} value at {@code index}
+   *
+   * @see #fieldIndex(String)
+   */
+  public Object getWritable(int index) {
+    Object value = marshallers[index].getWritableObject(struct);
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Fetched writable [{}]={}", index, value);
+    }
+    return value;
+  }
+
   /**
    * Sets the value for {@code fieldName}, first converting it to the appropriate {@link Writable} type
    *
@@ -100,6 +176,392 @@ public class Corc implements Writable {
     LOG.debug("Set {}={}", fieldName, value);
   }
 
+  /**
+   * Sets the value at {@code index}, first converting it to the appropriate {@link Writable} type
+   *
+   * @throws IOException
+   * @see #fieldIndex(String)
+   */
+  public void set(int index, Object value) throws IOException {
+    marshallers[index].setWritableObject(struct, value);
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Set [{}]={}", index, value);
+    }
+  }
+
+  /**
+   * Returns {@code true} if the value for {@code fieldName} is {@code null} or the field does not exist
+   */
+  public boolean isNull(String fieldName) {
+    int index = fieldIndex(fieldName);
+    return index == -1 || isNull(index);
+  }
+
+  /**
+   * Returns {@code true} if the value at {@code index} is {@code null}
+   *
+   * @see #fieldIndex(String)
+   */
+  public boolean isNull(int index) {
+    return getFieldData(index) == null;
+  }
+
+  /**
+   * Gets the {@code BOOLEAN} value for {@code fieldName} without boxing. Returns {@code false} if the value is
+   * {@code null} or the field does not exist.
+   *
+   * @throws UnexpectedTypeException
+   */
+  public boolean getBoolean(String fieldName) throws UnexpectedTypeException {
+    int index = fieldIndex(fieldName);
+    return index != -1 && getBoolean(index);
+  }
+
+  /**
+   * Gets the {@code BOOLEAN} value at {@code index} without boxing. Returns {@code false} if the value is {@code null}.
+   *
+   * @throws UnexpectedTypeException
+   * @see #fieldIndex(String)
+   */
+  public boolean getBoolean(int index) throws UnexpectedTypeException {
+    Object writable = getFieldData(index);
+    if (writable == null) {
+      return false;
+    }
+    try {
+      return ((BooleanWritable) writable).get();
+    } catch (ClassCastException e) {
+      throw new UnexpectedTypeException(writable, structFields[index].getFieldName(), e);
+    }
+  }
+
+  /**
+   * Gets the {@code INT} value for {@code fieldName} without boxing. Returns {@code 0} if the value is {@code null} or
+   * the field does not exist.
+   *
+   * @throws UnexpectedTypeException
+   */
+  public int getInt(String fieldName) throws UnexpectedTypeException {
+    int index = fieldIndex(fieldName);
+    return index == -1 ? 0 : getInt(index);
+  }
+
+  /**
+   * Gets the {@code INT} value at {@code index} without boxing. Returns {@code 0} if the value is {@code null}.
+   *
+   * @throws UnexpectedTypeException
+   * @see #fieldIndex(String)
+   */
+  public int getInt(int index) throws UnexpectedTypeException {
+    Object writable = getFieldData(index);
+    if (writable == null) {
+      return 0;
+    }
+    try {
+      return ((IntWritable) writable).get();
+    } catch (ClassCastException e) {
+      throw new UnexpectedTypeException(writable, structFields[index].getFieldName(), e);
+    }
+  }
+
+  /**
+   * Gets the {@code BIGINT} value for {@code fieldName} without boxing. Returns {@code 0} if the value is {@code null}
+   * or the field does not exist.
+   *
+   * @throws UnexpectedTypeException
+   */
+  public long getLong(String fieldName) throws UnexpectedTypeException {
+    int index = fieldIndex(fieldName);
+    return index == -1 ? 0L : getLong(index);
+  }
+
+  /**
+   * Gets the {@code BIGINT} value at {@code index} without boxing. Returns {@code 0} if the value is {@code null}.
+   *
+   * @throws UnexpectedTypeException
+   * @see #fieldIndex(String)
+   */
+  public long getLong(int index) throws UnexpectedTypeException {
+    Object writable = getFieldData(index);
+    if (writable == null) {
+      return 0L;
+    }
+    try {
+      return ((LongWritable) writable).get();
+    } catch (ClassCastException e) {
+      throw new UnexpectedTypeException(writable, structFields[index].getFieldName(), e);
+    }
+  }
+
+  /**
+   * Gets the {@code DOUBLE} value for {@code fieldName} without boxing. Returns {@code 0} if the value is {@code null}
+   * or the field does not exist.
+   *
+   * @throws UnexpectedTypeException
+   */
+  public double getDouble(String fieldName) throws UnexpectedTypeException {
+    int index = fieldIndex(fieldName);
+    return index == -1 ? 0D : getDouble(index);
+  }
+
+  /**
+   * Gets the {@code DOUBLE} value at {@code index} without boxing. Returns {@code 0} if the value is {@code null}.
+   *
+   * @throws UnexpectedTypeException
+   * @see #fieldIndex(String)
+   */
+  public double getDouble(int index) throws UnexpectedTypeException {
+    Object writable = getFieldData(index);
+    if (writable == null) {
+      return 0D;
+    }
+    try {
+      return ((DoubleWritable) writable).get();
+    } catch (ClassCastException e) {
+      throw new UnexpectedTypeException(writable, structFields[index].getFieldName(), e);
+    }
+  }
+
+  /**
+   * Sets the {@code BOOLEAN} value for {@code fieldName}, updating the existing {@link Writable} in place where possible
+   *
+   * @throws UnexpectedTypeException
+   */
+  public void setBoolean(String fieldName, boolean value) throws UnexpectedTypeException {
+    int index = fieldIndex(fieldName);
+    if (index != -1) {
+      setBoolean(index, value);
+    }
+  }
+
+  /**
+   * Sets the {@code BOOLEAN} value at {@code index}, updating the existing {@link Writable} in place where possible
+   *
+   * @throws UnexpectedTypeException
+   * @see #fieldIndex(String)
+   */
+  public void setBoolean(int index, boolean value) throws UnexpectedTypeException {
+    if (categories[index] != PrimitiveCategory.BOOLEAN) {
+      throw new UnexpectedTypeException(value, structFields[index].getFieldName(), null);
+    }
+    BooleanWritable writable = (BooleanWritable) getFieldData(index);
+    if (writable == null) {
+      setFieldData(index, new BooleanWritable(value));
+    } else {
+      writable.set(value);
+    }
+  }
+
+  /**
+   * Sets the {@code INT} value for {@code fieldName}, updating the existing {@link Writable} in place where possible
+   *
+   * @throws UnexpectedTypeException
+   */
+  public void setInt(String fieldName, int value) throws UnexpectedTypeException {
+    int index = fieldIndex(fieldName);
+    if (index != -1) {
+      setInt(index, value);
+    }
+  }
+
+  /**
+   * Sets the {@code INT} value at {@code index}, updating the existing {@link Writable} in place where possible
+   *
+   * @throws UnexpectedTypeException
+   * @see #fieldIndex(String)
+   */
+  public void setInt(int index, int value) throws UnexpectedTypeException {
+    if (categories[index] != PrimitiveCategory.INT) {
+      throw new UnexpectedTypeException(value, structFields[index].getFieldName(), null);
+    }
+    IntWritable writable = (IntWritable) getFieldData(index);
+    if (writable == null) {
+      setFieldData(index, new IntWritable(value));
+    } else {
+      writable.set(value);
+    }
+  }
+
+  /**
+   * Sets the {@code BIGINT} value for {@code fieldName}, updating the existing {@link Writable} in place where possible
+   *
+   * @throws UnexpectedTypeException
+   */
+  public void setLong(String fieldName, long value) throws UnexpectedTypeException {
+    int index = fieldIndex(fieldName);
+    if (index != -1) {
+      setLong(index, value);
+    }
+  }
+
+  /**
+   * Sets the {@code BIGINT} value at {@code index}, updating the existing {@link Writable} in place where possible
+   *
+   * @throws UnexpectedTypeException
+   * @see #fieldIndex(String)
+   */
+  public void setLong(int index, long value) throws UnexpectedTypeException {
+    if (categories[index] != PrimitiveCategory.LONG) {
+      throw new UnexpectedTypeException(value, structFields[index].getFieldName(), null);
+    }
+    LongWritable writable = (LongWritable) getFieldData(index);
+    if (writable == null) {
+      setFieldData(index, new LongWritable(value));
+    } else {
+      writable.set(value);
+    }
+  }
+
+  /**
+   * Sets the {@code DOUBLE} value for {@code fieldName}, updating the existing {@link Writable} in place where possible
+   *
+   * @throws UnexpectedTypeException
+   */
+  public void setDouble(String fieldName, double value) throws UnexpectedTypeException {
+    int index = fieldIndex(fieldName);
+    if (index != -1) {
+      setDouble(index, value);
+    }
+  }
+
+  /**
+   * Sets the {@code DOUBLE} value at {@code index}, updating the existing {@link Writable} in place where possible
+   *
+   * @throws UnexpectedTypeException
+   * @see #fieldIndex(String)
+   */
+  public void setDouble(int index, double value) throws UnexpectedTypeException {
+    if (categories[index] != PrimitiveCategory.DOUBLE) {
+      throw new UnexpectedTypeException(value, structFields[index].getFieldName(), null);
+    }
+    DoubleWritable writable = (DoubleWritable) getFieldData(index);
+    if (writable == null) {
+      setFieldData(index, new DoubleWritable(value));
+    } else {
+      writable.set(value);
+    }
+  }
+
+  /**
+   * Gets the {@link Text} held for {@code fieldName} without decoding it. Returns {@code null} if the value is
+   * {@code null} or the field does not exist.
+   *
+   * @throws UnexpectedTypeException
+   */
+  public Text getText(String fieldName) throws UnexpectedTypeException {
+    int index = fieldIndex(fieldName);
+    return index == -1 ? null : getText(index);
+  }
+
+  /**
+   * Gets the {@link Text} held at {@code index} without decoding it. Supports {@code STRING}, {@code CHAR} and
+   * {@code VARCHAR} fields. Returns {@code null} if the value is {@code null}.
+   * <p/>
+   * The returned {@link Text} is owned by this instance and will be overwritten when the next row is read. Copy it if
+   * it must be retained.
+   *
+   * @throws UnexpectedTypeException
+   * @see #fieldIndex(String)
+   */
+  public Text getText(int index) throws UnexpectedTypeException {
+    Object writable = getFieldData(index);
+    if (writable == null) {
+      return null;
+    }
+    if (writable instanceof Text) {
+      return (Text) writable;
+    }
+    if (writable instanceof HiveBaseCharWritable) {
+      return ((HiveBaseCharWritable) writable).getTextValue();
+    }
+    throw new UnexpectedTypeException(writable, structFields[index].getFieldName(), null);
+  }
+
+  /**
+   * Gets a read-only view of the bytes held for {@code fieldName}. Returns {@code null} if the value is {@code null} or
+   * the field does not exist.
+   *
+   * @throws UnexpectedTypeException
+   */
+  public ByteBuffer getByteBuffer(String fieldName) throws UnexpectedTypeException {
+    int index = fieldIndex(fieldName);
+    return index == -1 ? null : getByteBuffer(index);
+  }
+
+  /**
+   * Gets a read-only view of the bytes held at {@code index} without copying them. Supports {@code BINARY} and
+   * {@code STRING} fields. The returned {@link ByteBuffer} is sized to the value, excluding any unused capacity of the
+   * underlying {@link Writable}. Returns {@code null} if the value is {@code null}.
+   * <p/>
+   * The returned {@link ByteBuffer} shares the buffer of a {@link Writable} that is owned by this instance and will be
+   * overwritten when the next row is read.
+   *
+   * @throws UnexpectedTypeException
+   * @see #fieldIndex(String)
+   */
+  public ByteBuffer getByteBuffer(int index) throws UnexpectedTypeException {
+    Object writable = getFieldData(index);
+    if (writable == null) {
+      return null;
+    }
+    if (writable instanceof BytesWritable) {
+      BytesWritable bytesWritable = (BytesWritable) writable;
+      return ByteBuffer.wrap(bytesWritable.getBytes(), 0, bytesWritable.getLength()).slice().asReadOnlyBuffer();
+    }
+    if (writable instanceof Text) {
+      Text text = (Text) writable;
+      return ByteBuffer.wrap(text.getBytes(), 0, text.getLength()).slice().asReadOnlyBuffer();
+    }
+    throw new UnexpectedTypeException(writable, structFields[index].getFieldName(), null);
+  }
+
+  /**
+   * Copies the bytes held for {@code fieldName} into {@code buffer}, starting at {@code offset}. Returns the number of
+   * bytes copied, or {@code -1} if the value is {@code null} or the field does not exist.
+   *
+   * @throws UnexpectedTypeException
+   */
+  public int copyBytes(String fieldName, byte[] buffer, int offset) throws UnexpectedTypeException {
+    int index = fieldIndex(fieldName);
+    return index == -1 ? -1 : copyBytes(index, buffer, offset);
+  }
+
+  /**
+   * Copies the bytes held at {@code index} into {@code buffer}, starting at {@code offset}. Supports {@code BINARY} and
+   * {@code STRING} fields. Returns the number of bytes copied, or {@code -1} if the value is {@code null}. An
+   * {@link IndexOutOfBoundsException} is thrown if {@code buffer} is too small.
+   *
+   * @throws UnexpectedTypeException
+   * @see #fieldIndex(String)
+   */
+  public int copyBytes(int index, byte[] buffer, int offset) throws UnexpectedTypeException {
+    Object writable = getFieldData(index);
+    if (writable == null) {
+      return -1;
+    }
+    byte[] bytes;
+    int length;
+    if (writable instanceof BytesWritable) {
+      bytes = ((BytesWritable) writable).getBytes();
+      length = ((BytesWritable) writable).getLength();
+    } else if (writable instanceof Text) {
+      bytes = ((Text) writable).getBytes();
+      length = ((Text) writable).getLength();
+    } else {
+      throw new UnexpectedTypeException(writable, structFields[index].getFieldName(), null);
+    }
+    System.arraycopy(bytes, 0, buffer, offset, length);
+    return length;
+  }
+
+  private Object getFieldData(int index) {
+    return inspector.getStructFieldData(struct, structFields[index]);
+  }
+
+  private void setFieldData(int index, Object writable) {
+    inspector.setStructFieldData(struct, structFields[index], writable);
+  }
+
   public RecordIdentifier getRecordIdentifier() {
     RecordIdentifier copy = new RecordIdentifier();
     copy.set(recordIdentifier);
@@ -0,0 +1,177 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.apache.hadoop.hive.common.type.HiveDecimal;
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.ColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DecimalColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DoubleColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.TimestampColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.Writable;
+
+/**
+ * {@link VectorizedRowBatch} wrapper, allowing typed access to the values of many rows at a time by column position.
+ * Resolve the position of a column once with {@link #columnIndex(String)}, then iterate over the rows of the batch:
+ *
+ * <pre>
+ * int column = batch.columnIndex(&quot;amount&quot;);
+ * for (int row = 0; row &lt; batch.size(); row++) {
+ *   if (!batch.isNull(column, row)) {
+ *     total += batch.getLong(column, row);
+ *   }
+ * }
+ * </pre>
+ * <p/>
+ * The typed accessors read directly from the underlying {@link ColumnVector ColumnVectors}; only
+ * {@link #getString(int, int)} and {@link #getDecimal(int, int)} allocate. The vector read by each accessor depends on
+ * the Hive type of the column:
+ * <ul>
+ * <li>{@link #getLong(int, int)}: {@code BOOLEAN}, {@code TINYINT}, {@code SMALLINT}, {@code INT}, {@code BIGINT} and
+ * {@code DATE} (as days since the epoch)</li>
+ * <li>{@link #getDouble(int, int)}: {@code FLOAT} and {@code DOUBLE}</li>
+ * <li>{@link #getText(int, int, Text)}: {@code STRING}, {@code CHAR}, {@code VARCHAR} and {@code BINARY}</li>
+ * <li>{@link #getTimestamp(int, int)}: {@code TIMESTAMP}</li>
+ * <li>{@link #getDecimal(int, int)}: {@code DECIMAL}</li>
+ * </ul>
+ * Complex types are available via {@link #getColumnVector(int)}.
+ */
+public class CorcBatch implements Writable {
+
+  private final StructTypeInfo typeInfo;
+  private final VectorizedRowBatch batch;
+
+  public CorcBatch(StructTypeInfo typeInfo, VectorizedRowBatch batch) {
+    this.typeInfo = typeInfo;
+    this.batch = batch;
+  }
+
+  /**
+   * Gets the position of {@code columnName} in the batch, or {@code -1} if the column does not exist. Column names are
+   * matched case insensitively.
+   */
+  public int columnIndex(String columnName) {
+    List<String> names = typeInfo.getAllStructFieldNames();
+    for (int i = 0; i < names.size(); i++) {
+      if (names.get(i).equalsIgnoreCase(columnName)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * The number of rows in the batch.
+   */
+  public int size() {
+    return batch.size;
+  }
+
+  public boolean isNull(int column, int row) {
+    ColumnVector vector = batch.cols[column];
+    if (vector.noNulls) {
+      return false;
+    }
+    return vector.isNull[index(vector, row)];
+  }
+
+  public long getLong(int column, int row) {
+    LongColumnVector vector = (LongColumnVector) batch.cols[column];
+    return vector.vector[index(vector, row)];
+  }
+
+  public boolean getBoolean(int column, int row) {
+    return getLong(column, row) != 0;
+  }
+
+  public double getDouble(int column, int row) {
+    DoubleColumnVector vector = (DoubleColumnVector) batch.cols[column];
+    return vector.vector[index(vector, row)];
+  }
+
+  /**
+   * Copies the bytes of the value into {@code text} and returns it.
+   */
+  public Text getText(int column, int row, Text text) {
+    BytesColumnVector vector = (BytesColumnVector) batch.cols[column];
+    int index = index(vector, row);
+    text.set(vector.vector[index], vector.start[index], vector.length[index]);
+    return text;
+  }
+
+  public String getString(int column, int row) {
+    BytesColumnVector vector = (BytesColumnVector) batch.cols[column];
+    int index = index(vector, row);
+    return new String(vector.vector[index], vector.start[index], vector.length[index], StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Returns a scratch {@link Timestamp} that is reused by subsequent calls for the same column.
+   */
+  public Timestamp getTimestamp(int column, int row) {
+    TimestampColumnVector vector = (TimestampColumnVector) batch.cols[column];
+    return vector.asScratchTimestamp(index(vector, row));
+  }
+
+  public HiveDecimal getDecimal(int column, int row) {
+    DecimalColumnVector vector = (DecimalColumnVector) batch.cols[column];
+    return vector.vector[index(vector, row)].getHiveDecimal();
+  }
+
+  public ColumnVector getColumnVector(int column) {
+    return batch.cols[column];
+  }
+
+  public StructTypeInfo getTypeInfo() {
+    return typeInfo;
+  }
+
+  public VectorizedRowBatch getVectorizedRowBatch() {
+    return batch;
+  }
+
+  private int index(ColumnVector vector, int row) {
+    if (vector.isRepeating) {
+      return 0;
+    }
+    if (batch.selectedInUse) {
+      return batch.selected[row];
+    }
+    return row;
+  }
+
+  @Override
+  public void write(DataOutput out) throws IOException {
+    throw new UnsupportedOperationException(CorcBatch.class.getName() + " cannot be used for writing.");
+  }
+
+  @Override
+  public void readFields(DataInput in) throws IOException {
+    throw new UnsupportedOperationException(CorcBatch.class.getName() + " cannot be used for reading.");
+  }
+
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc;
+
+import java.util.List;
+
+import org.apache.hadoop.hive.ql.io.orc.OrcStruct;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector.Category;
+import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector.PrimitiveCategory;
+import org.apache.hadoop.hive.serde2.objectinspector.SettableStructObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.StructField;
+import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
+
+/**
+ * The {@link OrcStruct} {@link ObjectInspector} and the {@link Converter Converters} for each field of a
+ * {@link StructTypeInfo}. These are immutable, provided that the {@link Converter Converters} created by the
+ * {@link ConverterFactory} are stateless, so a single instance may be shared by many {@link Corc} instances, including
+ * across threads, to avoid building them for each {@link Corc}.
+ */
+public final class CorcSchema {
+
+  private final StructTypeInfo typeInfo;
+  final SettableStructObjectInspector inspector;
+  final ValueMarshaller[] marshallers;
+  final StructField[] structFields;
+  final PrimitiveCategory[] categories;
+
+  public CorcSchema(StructTypeInfo typeInfo, ConverterFactory factory) {
+    this(typeInfo, factory, false);
+  }
+
+  /**
+   * See {@link Corc#Corc(StructTypeInfo, ConverterFactory, boolean)} for the meaning of {@code reuseWritables}.
+   */
+  public CorcSchema(StructTypeInfo typeInfo, ConverterFactory factory, boolean reuseWritables) {
+    this.typeInfo = typeInfo;
+    inspector = (SettableStructObjectInspector) OrcStruct.createObjectInspector(typeInfo);
+    marshallers = newValueMarshallers(inspector, factory, reuseWritables);
+    structFields = inspector.getAllStructFieldRefs().toArray(new StructField[0]);
+    categories = new PrimitiveCategory[structFields.length];
+    for (int i = 0; i < structFields.length; i++) {
+      ObjectInspector fieldInspector = structFields[i].getFieldObjectInspector();
+      if (fieldInspector.getCategory() == Category.PRIMITIVE) {
+        categories[i] = ((PrimitiveObjectInspector) fieldInspector).getPrimitiveCategory();
+      }
+    }
+  }
+
+  private static ValueMarshaller[] newValueMarshallers(SettableStructObjectInspector inspector,
+      ConverterFactory factory, boolean reuseWritables) {
+    List<? extends StructField> structFields = inspector.getAllStructFieldRefs();
+    ValueMarshaller[] marshallers = new ValueMarshaller[structFields.size()];
+    for (int i = 0; i < marshallers.length; i++) {
+      StructField structField = structFields.get(i);
+      Converter converter = factory.newConverter(structField.getFieldObjectInspector());
+      marshallers[i] = new ValueMarshallerImpl(inspector, structField, converter, reuseWritables);
+    }
+    return marshallers;
+  }
+
+  public StructTypeInfo getTypeInfo() {
+    return typeInfo;
+  }
+
+}
@@ -18,6 +18,7 @@ package com.hotels.corc;
 import java.sql.Date;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -111,6 +112,12 @@ public class DefaultConverterFactory implements ConverterFactory {
       return new Text((String) value);
     }
 
+    @Override
+    protected Object toWritableObjectInternal(Object value, Object reuse) throws UnexpectedTypeException {
+      ((Text) reuse).set((String) value);
+      return reuse;
+    }
+
     @Override
     protected Object toJavaObjectInternal(Object value) throws UnexpectedTypeException {
       return value.toString();
@@ -125,6 +132,12 @@ public class DefaultConverterFactory implements ConverterFactory {
       return new BooleanWritable((Boolean) value);
     }
 
+    @Override
+    protected Object toWritableObjectInternal(Object value, Object reuse) throws UnexpectedTypeException {
+      ((BooleanWritable) reuse).set((Boolean) value);
+      return reuse;
+    }
+
     @Override
     protected Object toJavaObjectInternal(Object value) throws UnexpectedTypeException {
       return ((BooleanWritable) value).get();
@@ -139,6 +152,12 @@ public class DefaultConverterFactory implements ConverterFactory {
       return new ByteWritable((Byte) value);
     }
 
+    @Override
+    protected Object toWritableObjectInternal(Object value, Object reuse) throws UnexpectedTypeException {
+      ((ByteWritable) reuse).set((Byte) value);
+      return reuse;
+    }
+
     @Override
     protected Object toJavaObjectInternal(Object value) throws UnexpectedTypeException {
       return ((ByteWritable) value).get();
@@ -153,6 +172,12 @@ public class DefaultConverterFactory implements ConverterFactory {
       return new ShortWritable((Short) value);
     }
 
+    @Override
+    protected Object toWritableObjectInternal(Object value, Object reuse) throws UnexpectedTypeException {
+      ((ShortWritable) reuse).set((Short) value);
+      return reuse;
+    }
+
     @Override
     protected Object toJavaObjectInternal(Object value) throws UnexpectedTypeException {
       return ((ShortWritable) value).get();
@@ -167,6 +192,12 @@ public class DefaultConverterFactory implements ConverterFactory {
       return new IntWritable((Integer) value);
     }
 
+    @Override
+    protected Object toWritableObjectInternal(Object value, Object reuse) throws UnexpectedTypeException {
+      ((IntWritable) reuse).set((Integer) value);
+      return reuse;
+    }
+
     @Override
     protected Object toJavaObjectInternal(Object value) throws UnexpectedTypeException {
       return ((IntWritable) value).get();
@@ -181,6 +212,12 @@ public class DefaultConverterFactory implements ConverterFactory {
       return new LongWritable((Long) value);
     }
 
+    @Override
+    protected Object toWritableObjectInternal(Object value, Object reuse) throws UnexpectedTypeException {
+      ((LongWritable) reuse).set((Long) value);
+      return reuse;
+    }
+
     @Override
     protected Object toJavaObjectInternal(Object value) throws UnexpectedTypeException {
       return ((LongWritable) value).get();
@@ -195,6 +232,12 @@ public class DefaultConverterFactory implements ConverterFactory {
       return new FloatWritable((Float) value);
     }
 
+    @Override
+    protected Object toWritableObjectInternal(Object value, Object reuse) throws UnexpectedTypeException {
+      ((FloatWritable) reuse).set((Float) value);
+      return reuse;
+    }
+
     @Override
     protected Object toJavaObjectInternal(Object value) throws UnexpectedTypeException {
       return ((FloatWritable) value).get();
@@ -209,6 +252,12 @@ public class DefaultConverterFactory implements ConverterFactory {
       return new DoubleWritable((Double) value);
     }
 
+    @Override
+    protected Object toWritableObjectInternal(Object value, Object reuse) throws UnexpectedTypeException {
+      ((DoubleWritable) reuse).set((Double) value);
+      return reuse;
+    }
+
     @Override
     protected Object toJavaObjectInternal(Object value) throws UnexpectedTypeException {
       return ((DoubleWritable) value).get();
@@ -223,9 +272,25 @@ public class DefaultConverterFactory implements ConverterFactory {
       return new TimestampWritable((Timestamp) value);
     }
 
+    @Override
+    protected Object toWritableObjectInternal(Object value, Object reuse) throws UnexpectedTypeException {
+      ((TimestampWritable) reuse).set((Timestamp) value);
+      return reuse;
+    }
+
     @Override
     protected Object toJavaObjectInternal(Object value) throws UnexpectedTypeException {
-      return ((TimestampWritable) value).getTimestamp();
+      return copy(((TimestampWritable) value).getTimestamp());
+    }
+
+    /**
+     * {@link TimestampWritable#getTimestamp()} returns the instance held by the writable, which is updated as the reader
+     * moves to the next row, so a copy is returned instead.
+     */
+    static Timestamp copy(Timestamp timestamp) {
+      Timestamp copy = new Timestamp(timestamp.getTime());
+      copy.setNanos(timestamp.getNanos());
+      return copy;
     }
 
   }
@@ -237,6 +302,12 @@ public class DefaultConverterFactory implements ConverterFactory {
       return new DateWritable((Date) value);
     }
 
+    @Override
+    protected Object toWritableObjectInternal(Object value, Object reuse) throws UnexpectedTypeException {
+      ((DateWritable) reuse).set((Date) value);
+      return reuse;
+    }
+
     @Override
     protected Object toJavaObjectInternal(Object value) throws UnexpectedTypeException {
       return ((DateWritable) value).get();
@@ -251,9 +322,22 @@ public class DefaultConverterFactory implements ConverterFactory {
       return new BytesWritable((byte[]) value);
     }
 
+    @Override
+    protected Object toWritableObjectInternal(Object value, Object reuse) throws UnexpectedTypeException {
+      byte[] bytes = (byte[]) value;
+      ((BytesWritable) reuse).set(bytes, 0, bytes.length);
+      return reuse;
+    }
+
     @Override
     protected Object toJavaObjectInternal(Object value) throws UnexpectedTypeException {
-      return ((BytesWritable) value).getBytes();
+      BytesWritable bytesWritable = (BytesWritable) value;
+      byte[] bytes = bytesWritable.getBytes();
+      if (bytes.length == bytesWritable.getLength()) {
+        return bytes;
+      }
+      // the backing array may be padded beyond the length of the value
+      return Arrays.copyOf(bytes, bytesWritable.getLength());
     }
 
   }
@@ -265,6 +349,12 @@ public class DefaultConverterFactory implements ConverterFactory {
       return new HiveCharWritable((HiveChar) value);
     }
 
+    @Override
+    protected Object toWritableObjectInternal(Object value, Object reuse) throws UnexpectedTypeException {
+      ((HiveCharWritable) reuse).set((HiveChar) value);
+      return reuse;
+    }
+
     @Override
     protected Object toJavaObjectInternal(Object value) throws UnexpectedTypeException {
       return ((HiveCharWritable) value).getHiveChar();
@@ -279,6 +369,12 @@ public class DefaultConverterFactory implements ConverterFactory {
       return new HiveVarcharWritable((HiveVarchar) value);
     }
 
+    @Override
+    protected Object toWritableObjectInternal(Object value, Object reuse) throws UnexpectedTypeException {
+      ((HiveVarcharWritable) reuse).set((HiveVarchar) value);
+      return reuse;
+    }
+
     @Override
     protected Object toJavaObjectInternal(Object value) throws UnexpectedTypeException {
       return ((HiveVarcharWritable) value).getHiveVarchar();
@@ -293,6 +389,12 @@ public class DefaultConverterFactory implements ConverterFactory {
       return new HiveDecimalWritable((HiveDecimal) value);
     }
 
+    @Override
+    protected Object toWritableObjectInternal(Object value, Object reuse) throws UnexpectedTypeException {
+      ((HiveDecimalWritable) reuse).set((HiveDecimal) value);
+      return reuse;
+    }
+
     @Override
     protected Object toJavaObjectInternal(Object value) throws UnexpectedTypeException {
       return ((HiveDecimalWritable) value).getHiveDecimal();
@@ -406,22 +508,50 @@ public class DefaultConverterFactory implements ConverterFactory {
 
   }
 
+  /**
+   * Writes a value as the first union member whose {@link Converter} accepts it. The member chosen for each Java class
+   * is remembered, and {@link List} and {@link Map} values are matched to the only member of their shape, so that later
+   * values are converted directly. The {@code OrcUnion} previously held for the field is updated in place when
+   * writables are reused.
+   */
   public static class UnionConverter extends BaseConverter {
 
-    private final List<Converter> converters = new ArrayList<>();
+    private final Converter[] converters;
+    private final UnionTags tags;
 
     public UnionConverter(ConverterFactory factory, UnionObjectInspector inspector) {
-      for (ObjectInspector child : inspector.getObjectInspectors()) {
-        converters.add(factory.newConverter(child));
+      List<ObjectInspector> children = inspector.getObjectInspectors();
+      converters = new Converter[children.size()];
+      for (int i = 0; i < converters.length; i++) {
+        converters[i] = factory.newConverter(children.get(i));
       }
+      tags = new UnionTags(children);
     }
 
     @Override
     protected Object toWritableObjectInternal(Object value) throws UnexpectedTypeException {
-      for (byte i = 0; i < converters.size(); i++) {
+      return toUnion(value, null);
+    }
+
+    @Override
+    protected Object toWritableObjectInternal(Object value, Object reuse) throws UnexpectedTypeException {
+      return toUnion(value, OrcUnionFactory.isOrcUnion(reuse) ? (UnionObject) reuse : null);
+    }
+
+    private Object toUnion(Object value, UnionObject reuse) throws UnexpectedTypeException {
+      byte tag = tags.get(value);
+      if (tag != UnionTags.UNKNOWN) {
+        try {
+          return toUnion(tag, value, reuse);
+        } catch (UnexpectedTypeException e) {
+          // the class of the value does not determine the member, try them all
+        }
+      }
+      for (byte i = 0; i < converters.length; i++) {
         try {
-          Object writable = converters.get(i).toWritableObject(value);
-          return OrcUnionFactory.newInstance(i, writable);
+          Object union = toUnion(i, value, reuse);
+          tags.put(value, i);
+          return union;
         } catch (UnexpectedTypeException e) {
           // try the next one
           continue;
@@ -430,12 +560,24 @@ public class DefaultConverterFactory implements ConverterFactory {
       throw new UnexpectedTypeException(value);
     }
 
+    private Object toUnion(byte tag, Object value, UnionObject reuse) throws UnexpectedTypeException {
+      Converter converter = converters[tag];
+      if (reuse == null) {
+        return OrcUnionFactory.newInstance(tag, converter.toWritableObject(value));
+      }
+      Object writable;
+      if (reuse.getTag() == tag && converter instanceof ReusableWritableConverter) {
+        writable = ((ReusableWritableConverter) converter).toWritableObject(value, reuse.getObject());
+      } else {
+        writable = converter.toWritableObject(value);
+      }
+      return OrcUnionFactory.set(reuse, tag, writable);
+    }
+
     @Override
     protected Object toJavaObjectInternal(Object value) throws UnexpectedTypeException {
       UnionObject union = (UnionObject) value;
-      byte tag = union.getTag();
-      Converter converter = converters.get(tag);
-      return converter.toJavaObject(union.getObject());
+      return converters[union.getTag()].toJavaObject(union.getObject());
     }
 
   }
@@ -0,0 +1,364 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.RandomAccess;
+import java.util.Set;
+
+import org.apache.hadoop.hive.ql.io.orc.OrcStruct;
+import org.apache.hadoop.hive.serde2.objectinspector.ListObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.MapObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.SettableStructObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.StructField;
+
+/**
+ * A {@link DefaultConverterFactory} that avoids copying nested values.
+ * <p/>
+ * When reading, {@code STRUCT}, {@code LIST} and {@code MAP} values are returned as read-only {@link List} and
+ * {@link Map} views over the underlying {@link OrcStruct}, {@link List} and {@link Map} of writables. Each element is
+ * converted when it is accessed rather than all elements being copied up front. As the underlying writables are reused
+ * by the reader, a view is only valid until the next row is read: a view that is retained must be copied, together with
+ * any views nested within it. When serialized, a view is replaced by an {@link ArrayList} or {@link HashMap} copy.
+ * Views are therefore not suitable for frameworks that may retain values, and the Cascading {@code OrcFile} source does
+ * not accept this factory. A value that does not match the declared type is reported with an
+ * {@link IllegalStateException} caused by an {@link UnexpectedTypeException} when it is accessed.
+ * <p/>
+ * {@link Map#get(Object) get} and {@link Map#containsKey(Object) containsKey} of a {@code MAP} view convert only the
+ * key to a writable and look it up in the underlying {@link Map}. Iterating over the view, and the other methods
+ * inherited from {@link AbstractMap} such as {@code containsValue}, {@code equals} and {@code hashCode}, convert every
+ * entry.
+ * <p/>
+ * When writing with a {@link Corc} that reuses writables, the {@link OrcStruct} and {@link List} previously held for a
+ * {@code STRUCT} or {@code LIST} field, and the writables they contain, are updated in place rather than being
+ * recreated for every row.
+ */
+public class LazyConverterFactory extends DefaultConverterFactory {
+
+  private static final long serialVersionUID = 1L;
+
+  @Override
+  public Converter newConverter(ObjectInspector inspector) {
+    switch (inspector.getCategory()) {
+    case STRUCT:
+      return new LazyStructConverter(this, (SettableStructObjectInspector) inspector);
+    case LIST:
+      return new LazyListConverter(this, (ListObjectInspector) inspector);
+    case MAP:
+      return new LazyMapConverter(this, (MapObjectInspector) inspector);
+    default:
+      return super.newConverter(inspector);
+    }
+  }
+
+  public static class LazyStructConverter extends BaseConverter {
+
+    private final SettableStructObjectInspector inspector;
+    private final StructField[] fields;
+    private final Converter[] converters;
+
+    public LazyStructConverter(ConverterFactory factory, SettableStructObjectInspector inspector) {
+      this.inspector = inspector;
+      fields = inspector.getAllStructFieldRefs().toArray(new StructField[0]);
+      converters = new Converter[fields.length];
+      for (int i = 0; i < fields.length; i++) {
+        converters[i] = factory.newConverter(fields[i].getFieldObjectInspector());
+      }
+    }
+
+    @Override
+    protected Object toWritableObjectInternal(Object value) throws UnexpectedTypeException {
+      @SuppressWarnings("unchecked")
+      List<Object> list = (List<Object>) value;
+      OrcStruct result = (OrcStruct) inspector.create();
+      result.setNumFields(list.size());
+      for (int i = 0; i < fields.length; i++) {
+        inspector.setStructFieldData(result, fields[i], converters[i].toWritableObject(list.get(i)));
+      }
+      return result;
+    }
+
+    @Override
+    protected Object toWritableObjectInternal(Object value, Object reuse) throws UnexpectedTypeException {
+      @SuppressWarnings("unchecked")
+      List<Object> list = (List<Object>) value;
+      OrcStruct struct = (OrcStruct) reuse;
+      if (list.size() != fields.length || struct.getNumFields() != fields.length) {
+        return toWritableObjectInternal(value);
+      }
+      for (int i = 0; i < fields.length; i++) {
+        Object writable = inspector.getStructFieldData(struct, fields[i]);
+        inspector.setStructFieldData(struct, fields[i], toWritable(converters[i], list.get(i), writable));
+      }
+      return struct;
+    }
+
+    @Override
+    protected Object toJavaObjectInternal(Object value) throws UnexpectedTypeException {
+      return new StructView(inspector, fields, converters, (OrcStruct) value);
+    }
+
+  }
+
+  public static class LazyListConverter extends BaseConverter {
+
+    private final Converter converter;
+
+    public LazyListConverter(ConverterFactory factory, ListObjectInspector inspector) {
+      converter = factory.newConverter(inspector.getListElementObjectInspector());
+    }
+
+    @Override
+    protected Object toWritableObjectInternal(Object value) throws UnexpectedTypeException {
+      @SuppressWarnings("unchecked")
+      List<Object> list = (List<Object>) value;
+      List<Object> result = new ArrayList<>(list.size());
+      for (Object item : list) {
+        result.add(converter.toWritableObject(item));
+      }
+      return result;
+    }
+
+    @Override
+    protected Object toWritableObjectInternal(Object value, Object reuse) throws UnexpectedTypeException {
+      if (!(reuse instanceof ArrayList)) {
+        return toWritableObjectInternal(value);
+      }
+      @SuppressWarnings("unchecked")
+      List<Object> list = (List<Object>) value;
+      @SuppressWarnings("unchecked")
+      List<Object> result = (List<Object>) reuse;
+      int size = list.size();
+      int reusable = Math.min(size, result.size());
+      for (int i = 0; i < reusable; i++) {
+        result.set(i, toWritable(converter, list.get(i), result.get(i)));
+      }
+      for (int i = reusable; i < size; i++) {
+        result.add(converter.toWritableObject(list.get(i)));
+      }
+      if (result.size() > size) {
+        result.subList(size, result.size()).clear();
+      }
+      return result;
+    }
+
+    @Override
+    protected Object toJavaObjectInternal(Object value) throws UnexpectedTypeException {
+      @SuppressWarnings("unchecked")
+      List<Object> list = (List<Object>) value;
+      return new ListView(converter, list);
+    }
+
+  }
+
+  public static class LazyMapConverter extends BaseConverter {
+
+    private final Converter keyConverter;
+    private final Converter valueConverter;
+
+    public LazyMapConverter(ConverterFactory factory, MapObjectInspector inspector) {
+      keyConverter = factory.newConverter(inspector.getMapKeyObjectInspector());
+      valueConverter = factory.newConverter(inspector.getMapValueObjectInspector());
+    }
+
+    @Override
+    protected Object toWritableObjectInternal(Object value) throws UnexpectedTypeException {
+      @SuppressWarnings("unchecked")
+      Map<Object, Object> map = (Map<Object, Object>) value;
+      Map<Object, Object> result = new HashMap<>(map.size());
+      for (Entry<Object, Object> entry : map.entrySet()) {
+        result.put(keyConverter.toWritableObject(entry.getKey()), valueConverter.toWritableObject(entry.getValue()));
+      }
+      return result;
+    }
+
+    @Override
+    protected Object toJavaObjectInternal(Object value) throws UnexpectedTypeException {
+      @SuppressWarnings("unchecked")
+      Map<Object, Object> map = (Map<Object, Object>) value;
+      return new MapView(keyConverter, valueConverter, map);
+    }
+
+  }
+
+  private static Object toWritable(Converter converter, Object value, Object reuse) throws UnexpectedTypeException {
+    if (reuse != null && converter instanceof ReusableWritableConverter) {
+      return ((ReusableWritableConverter) converter).toWritableObject(value, reuse);
+    }
+    return converter.toWritableObject(value);
+  }
+
+  private static Object toJava(Converter converter, Object writable) {
+    try {
+      return converter.toJavaObject(writable);
+    } catch (UnexpectedTypeException e) {
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+  }
+
+  private static final class StructView extends AbstractList<Object> implements RandomAccess, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final SettableStructObjectInspector inspector;
+    private final StructField[] fields;
+    private final Converter[] converters;
+    private final OrcStruct struct;
+
+    private StructView(SettableStructObjectInspector inspector, StructField[] fields, Converter[] converters,
+        OrcStruct struct) {
+      this.inspector = inspector;
+      this.fields = fields;
+      this.converters = converters;
+      this.struct = struct;
+    }
+
+    @Override
+    public Object get(int index) {
+      return toJava(converters[index], inspector.getStructFieldData(struct, fields[index]));
+    }
+
+    @Override
+    public int size() {
+      return fields.length;
+    }
+
+    private Object writeReplace() {
+      return new ArrayList<>(this);
+    }
+
+  }
+
+  private static final class ListView extends AbstractList<Object> implements RandomAccess, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Converter converter;
+    private final List<Object> list;
+
+    private ListView(Converter converter, List<Object> list) {
+      this.converter = converter;
+      this.list = list;
+    }
+
+    @Override
+    public Object get(int index) {
+      return toJava(converter, list.get(index));
+    }
+
+    @Override
+    public int size() {
+      return list.size();
+    }
+
+    private Object writeReplace() {
+      return new ArrayList<>(this);
+    }
+
+  }
+
+  private static final class MapView extends AbstractMap<Object, Object> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Converter keyConverter;
+    private final Converter valueConverter;
+    private final Map<Object, Object> map;
+
+    private MapView(Converter keyConverter, Converter valueConverter, Map<Object, Object> map) {
+      this.keyConverter = keyConverter;
+      this.valueConverter = valueConverter;
+      this.map = map;
+    }
+
+    @Override
+    public Object get(Object key) {
+      Object writableKey = toWritableKey(key);
+      if (writableKey == null) {
+        return null;
+      }
+      return toJava(valueConverter, map.get(writableKey));
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      Object writableKey = toWritableKey(key);
+      return writableKey != null && map.containsKey(writableKey);
+    }
+
+    @Override
+    public int size() {
+      return map.size();
+    }
+
+    @Override
+    public Set<Entry<Object, Object>> entrySet() {
+      return new AbstractSet<Entry<Object, Object>>() {
+        @Override
+        public Iterator<Entry<Object, Object>> iterator() {
+          final Iterator<Entry<Object, Object>> iterator = map.entrySet().iterator();
+          return new Iterator<Entry<Object, Object>>() {
+            @Override
+            public boolean hasNext() {
+              return iterator.hasNext();
+            }
+
+            @Override
+            public Entry<Object, Object> next() {
+              Entry<Object, Object> entry = iterator.next();
+              return new SimpleImmutableEntry<>(toJava(keyConverter, entry.getKey()),
+                  toJava(valueConverter, entry.getValue()));
+            }
+
+            @Override
+            public void remove() {
+              throw new UnsupportedOperationException();
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return map.size();
+        }
+      };
+    }
+
+    private Object writeReplace() {
+      return new HashMap<>(this);
+    }
+
+    private Object toWritableKey(Object key) {
+      try {
+        return keyConverter.toWritableObject(key);
+      } catch (UnexpectedTypeException e) {
+        return null;
+      }
+    }
+
+  }
+
+}
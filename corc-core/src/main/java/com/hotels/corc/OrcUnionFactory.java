@@ -15,8 +15,10 @@
  */
 package com.hotels.corc;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 import org.apache.hadoop.hive.ql.io.orc.OrcStruct;
@@ -28,22 +30,29 @@ import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoUtils;
  * approach is to use {@link TypeInfoUtils#getStandardWritableObjectInspectorFromTypeInfo} for writing. It's preferable
  * to consistently use {@link OrcStruct#createObjectInspector} for both reading and writing and put up with this small
  * (hopefully temporary) workaround for this rarely used type.
+ * <p/>
+ * The constructor and {@code set} method are resolved once as {@code static final} {@link MethodHandle MethodHandles}
+ * which the JIT can inline, unlike reflective calls.
  */
 final class OrcUnionFactory {
 
-  private static final Constructor<? extends UnionObject> CONSTRUCTOR;
-  private static final Method SET_METHOD;
+  private static final Class<? extends UnionObject> ORC_UNION_CLASS;
+  private static final MethodHandle CONSTRUCTOR;
+  private static final MethodHandle SET_METHOD;
 
   static {
     try {
-      Class<? extends UnionObject> orcUnionClass = Class
-          .forName("org.apache.hadoop.hive.ql.io.orc.OrcUnion")
-          .asSubclass(UnionObject.class);
-      CONSTRUCTOR = orcUnionClass.getDeclaredConstructor();
-      CONSTRUCTOR.setAccessible(true);
-      SET_METHOD = orcUnionClass.getDeclaredMethod("set", byte.class, Object.class);
-      SET_METHOD.setAccessible(true);
-    } catch (ClassNotFoundException | NoSuchMethodException | SecurityException e) {
+      ORC_UNION_CLASS = Class.forName("org.apache.hadoop.hive.ql.io.orc.OrcUnion").asSubclass(UnionObject.class);
+      Constructor<? extends UnionObject> constructor = ORC_UNION_CLASS.getDeclaredConstructor();
+      constructor.setAccessible(true);
+      Method setMethod = ORC_UNION_CLASS.getDeclaredMethod("set", byte.class, Object.class);
+      setMethod.setAccessible(true);
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      CONSTRUCTOR = lookup.unreflectConstructor(constructor).asType(MethodType.methodType(UnionObject.class));
+      SET_METHOD = lookup
+          .unreflect(setMethod)
+          .asType(MethodType.methodType(void.class, UnionObject.class, byte.class, Object.class));
+    } catch (ClassNotFoundException | NoSuchMethodException | SecurityException | IllegalAccessException e) {
       throw new RuntimeException(e);
     }
   }
@@ -53,10 +62,26 @@ final class OrcUnionFactory {
 
   static UnionObject newInstance(byte tag, Object value) {
     try {
-      UnionObject orcUnion = CONSTRUCTOR.newInstance();
-      SET_METHOD.invoke(orcUnion, tag, value);
+      UnionObject orcUnion = (UnionObject) CONSTRUCTOR.invokeExact();
+      SET_METHOD.invokeExact(orcUnion, tag, value);
       return orcUnion;
-    } catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+    } catch (Throwable e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Returns {@code true} if {@code value} is an {@code OrcUnion} that can be updated with {@link #set}.
+   */
+  static boolean isOrcUnion(Object value) {
+    return ORC_UNION_CLASS.isInstance(value);
+  }
+
+  static UnionObject set(UnionObject orcUnion, byte tag, Object value) {
+    try {
+      SET_METHOD.invokeExact(orcUnion, tag, value);
+      return orcUnion;
+    } catch (Throwable e) {
       throw new RuntimeException(e);
     }
   }
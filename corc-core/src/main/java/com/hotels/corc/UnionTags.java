@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector.Category;
+
+/**
+ * Maps a value to the tag of the union member that accepts it. The Java type produced for each primitive member is
+ * decided by the {@link ConverterFactory}, so the tags of other classes are recorded as values are first written
+ * rather than up front. {@link List} and {@link Map} values are instead resolved by their shape from the categories of
+ * the members: a {@link List} to the only {@code STRUCT} or {@code LIST} member and a {@link Map} to the only
+ * {@code MAP} member. If there are several such members the value is ambiguous and {@link #UNKNOWN} is returned.
+ */
+final class UnionTags {
+
+  static final byte UNKNOWN = -1;
+
+  private final ConcurrentMap<Class<?>, Byte> tags = new ConcurrentHashMap<>();
+  private final byte listTag;
+  private final byte mapTag;
+
+  UnionTags(List<? extends ObjectInspector> members) {
+    byte listTag = UNKNOWN;
+    byte mapTag = UNKNOWN;
+    int lists = 0;
+    int maps = 0;
+    for (byte i = 0; i < members.size(); i++) {
+      Category category = members.get(i).getCategory();
+      if (category == Category.STRUCT || category == Category.LIST) {
+        listTag = i;
+        lists++;
+      } else if (category == Category.MAP) {
+        mapTag = i;
+        maps++;
+      }
+    }
+    this.listTag = lists == 1 ? listTag : UNKNOWN;
+    this.mapTag = maps == 1 ? mapTag : UNKNOWN;
+  }
+
+  byte get(Object value) {
+    if (value instanceof List) {
+      return listTag;
+    }
+    if (value instanceof Map) {
+      return mapTag;
+    }
+    Byte tag = tags.get(value.getClass());
+    if (tag == null) {
+      return UNKNOWN;
+    }
+    return tag;
+  }
+
+  void put(Object value, byte tag) {
+    if (!(value instanceof List) && !(value instanceof Map)) {
+      tags.putIfAbsent(value.getClass(), tag);
+    }
+  }
+
+}
@@ -24,11 +24,22 @@ class ValueMarshallerImpl implements ValueMarshaller {
   private final SettableStructObjectInspector inspector;
   private final StructField structField;
   private final Converter converter;
+  private final ReusableWritableConverter reusableConverter;
 
   ValueMarshallerImpl(SettableStructObjectInspector inspector, StructField structField, Converter converter) {
+    this(inspector, structField, converter, false);
+  }
+
+  ValueMarshallerImpl(SettableStructObjectInspector inspector, StructField structField, Converter converter,
+      boolean reuseWritables) {
     this.inspector = inspector;
     this.structField = structField;
     this.converter = converter;
+    if (reuseWritables && converter instanceof ReusableWritableConverter) {
+      reusableConverter = (ReusableWritableConverter) converter;
+    } else {
+      reusableConverter = null;
+    }
   }
 
   @Override
@@ -50,7 +61,11 @@ class ValueMarshallerImpl implements ValueMarshaller {
   public void setWritableObject(OrcStruct struct, Object javaObject) throws UnexpectedTypeException {
     Object writable;
     try {
-      writable = converter.toWritableObject(javaObject);
+      if (reusableConverter != null) {
+        writable = reusableConverter.toWritableObject(javaObject, inspector.getStructFieldData(struct, structField));
+      } else {
+        writable = converter.toWritableObject(javaObject);
+      }
     } catch (UnexpectedTypeException e) {
       throw new UnexpectedTypeException(javaObject, structField.getFieldName(), e);
     }
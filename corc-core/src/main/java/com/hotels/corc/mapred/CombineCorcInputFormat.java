@@ -0,0 +1,69 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.mapred;
+
+import java.io.IOException;
+
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapred.InputSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.RecordReader;
+import org.apache.hadoop.mapred.Reporter;
+import org.apache.hadoop.mapred.lib.CombineFileInputFormat;
+import org.apache.hadoop.mapred.lib.CombineFileSplit;
+
+import com.hotels.corc.Corc;
+
+/**
+ * Combines many small ORC files, or the blocks of larger ones, into each split so that a task is not launched for
+ * every file. Splits are packed with {@link CombineFileInputFormat} to up to {@link #MAX_SPLIT_SIZE} bytes, preferring
+ * blocks on the same host and then the same rack. Each file of a split is read with {@link CorcInputFormat}, so column
+ * projection and the {@link org.apache.hadoop.hive.ql.io.sarg.SearchArgument SearchArgument} are applied per file,
+ * with the same configuration options. The rows of a block are those of the stripes that start in it.
+ * <p/>
+ * The rows of every file are read into the {@link Corc} created by the first file of the split. Files with another
+ * schema, which can only occur when the schema is read from the files, are read into a {@link Corc} of their own and
+ * copied by field name. Transactional data sets are not supported.
+ */
+public class CombineCorcInputFormat extends CombineFileInputFormat<NullWritable, Corc> {
+
+  /**
+   * The maximum number of bytes of the files combined into each split. Defaults to {@link #DEFAULT_MAX_SPLIT_SIZE}.
+   */
+  public static final String MAX_SPLIT_SIZE = "com.hotels.corc.mapred.input.combine.max.split.size";
+  public static final long DEFAULT_MAX_SPLIT_SIZE = 256L * 1024L * 1024L;
+
+  private final CorcInputFormat corcInputFormat = new CorcInputFormat();
+
+  @Override
+  public InputSplit[] getSplits(JobConf conf, int numSplits) throws IOException {
+    setMaxSplitSize(conf.getLong(MAX_SPLIT_SIZE, DEFAULT_MAX_SPLIT_SIZE));
+    return super.getSplits(conf, numSplits);
+  }
+
+  @Override
+  public RecordReader<NullWritable, Corc> getRecordReader(InputSplit inputSplit, JobConf conf, Reporter reporter)
+      throws IOException {
+    if (reporter == null) {
+      reporter = Reporter.NULL;
+    }
+    if (!(inputSplit instanceof CombineFileSplit)) {
+      throw new IOException("Unsupported InputSplit " + inputSplit.getClass().getName());
+    }
+    return new CombineCorcRecordReader(corcInputFormat, (CombineFileSplit) inputSplit, conf, reporter);
+  }
+
+}
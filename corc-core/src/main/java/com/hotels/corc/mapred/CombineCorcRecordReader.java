@@ -0,0 +1,158 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.mapred;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.hadoop.hive.serde2.objectinspector.StructField;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapred.FileSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.RecordReader;
+import org.apache.hadoop.mapred.Reporter;
+import org.apache.hadoop.mapred.lib.CombineFileSplit;
+
+import com.hotels.corc.Corc;
+
+/**
+ * Reads the files of a {@link CombineFileSplit} one after the other with the {@link CorcRecordReader
+ * CorcRecordReaders} of {@link CorcInputFormat}.
+ */
+class CombineCorcRecordReader implements RecordReader<NullWritable, Corc> {
+
+  private final CorcInputFormat corcInputFormat;
+  private final CombineFileSplit split;
+  private final JobConf conf;
+  private final Reporter reporter;
+  private int index;
+  private long completedLength;
+  private RecordReader<NullWritable, Corc> reader;
+  private String typeName;
+  private Corc fileValue;
+  private int[] fileIndexes;
+
+  CombineCorcRecordReader(CorcInputFormat corcInputFormat, CombineFileSplit split, JobConf conf, Reporter reporter)
+      throws IOException {
+    this.corcInputFormat = corcInputFormat;
+    this.split = split;
+    this.conf = conf;
+    this.reporter = reporter;
+    nextReader();
+  }
+
+  @Override
+  public boolean next(NullWritable key, Corc value) throws IOException {
+    while (reader != null) {
+      if (fileValue == null && !typeName.equals(value.getInspector().getTypeName())) {
+        fileValue = reader.createValue();
+        fileIndexes = getFileIndexes(value, fileValue);
+      }
+      if (fileValue == null) {
+        if (reader.next(key, value)) {
+          return true;
+        }
+      } else if (reader.next(key, fileValue)) {
+        copy(fileValue, value);
+        return true;
+      }
+      completedLength += split.getLength(index - 1);
+      nextReader();
+    }
+    return false;
+  }
+
+  /*
+   * Each file is read with a copy of the configuration as CorcInputFormat sets the columns to read from the schema of
+   * the file.
+   */
+  private void nextReader() throws IOException {
+    if (reader != null) {
+      reader.close();
+      reader = null;
+    }
+    fileValue = null;
+    fileIndexes = null;
+    if (index < split.getNumPaths()) {
+      FileSplit fileSplit = new FileSplit(split.getPath(index), split.getOffset(index), split.getLength(index),
+          split.getLocations());
+      index++;
+      reporter.progress();
+      reader = corcInputFormat.getRecordReader(fileSplit, new JobConf(conf), reporter);
+      typeName = reader.createValue().getInspector().getTypeName();
+    }
+  }
+
+  private static int[] getFileIndexes(Corc value, Corc fileValue) {
+    List<? extends StructField> fields = value.getInspector().getAllStructFieldRefs();
+    int[] indexes = new int[fields.size()];
+    for (int i = 0; i < indexes.length; i++) {
+      indexes[i] = fileValue.fieldIndex(fields.get(i).getFieldName());
+    }
+    return indexes;
+  }
+
+  private void copy(Corc from, Corc to) throws IOException {
+    for (int i = 0; i < fileIndexes.length; i++) {
+      int fileIndex = fileIndexes[i];
+      to.set(i, fileIndex == -1 ? null : from.get(fileIndex));
+    }
+  }
+
+  @Override
+  public NullWritable createKey() {
+    return NullWritable.get();
+  }
+
+  @Override
+  public Corc createValue() {
+    if (reader == null) {
+      throw new IllegalStateException("No files to read in split: " + split);
+    }
+    return reader.createValue();
+  }
+
+  @Override
+  public long getPos() throws IOException {
+    return completedLength + (long) (currentProgress() * currentLength());
+  }
+
+  @Override
+  public float getProgress() throws IOException {
+    long length = split.getLength();
+    if (length == 0) {
+      return reader == null ? 1.0F : 0.0F;
+    }
+    return Math.min(1.0F, (completedLength + currentProgress() * currentLength()) / length);
+  }
+
+  private float currentProgress() throws IOException {
+    return reader == null ? 0.0F : reader.getProgress();
+  }
+
+  private long currentLength() {
+    return reader == null ? 0L : split.getLength(index - 1);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (reader != null) {
+      reader.close();
+      reader = null;
+    }
+  }
+
+}
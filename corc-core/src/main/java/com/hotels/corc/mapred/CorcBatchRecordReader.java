@@ -0,0 +1,181 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.mapred;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.hadoop.hive.ql.exec.vector.ColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapred.RecordReader;
+import org.apache.hadoop.mapred.Reporter;
+import org.apache.orc.TypeDescription;
+
+import com.hotels.corc.CorcBatch;
+import com.hotels.corc.sarg.VectorizedSearchArgumentFilter;
+
+/**
+ * A wrapper for the vectorized ORC {@link org.apache.orc.RecordReader} exposing {@link CorcBatch}. When given a
+ * {@link VectorizedSearchArgumentFilter} only the accepted rows of each batch are selected, and batches without any
+ * are skipped.
+ * <p/>
+ * Optionally the columns are read in two phases: the reader decodes only the predicate columns, and a second payload
+ * reader over the same range decodes all the projected columns only once some rows of the batch have been accepted.
+ * The payload reader is moved past the batches without accepted rows with
+ * {@link org.apache.orc.RecordReader#seekToRow(long)}, which skips whole row groups by the row index rather than
+ * decoding them. Both readers apply the same {@link org.apache.hadoop.hive.ql.io.sarg.SearchArgument} to the row
+ * index of the same predicate columns, and the same batch size, so they select the same row groups and return batches
+ * of the same rows. The payload reader decodes into a batch of its own, as ORC resets the columns that a reader does
+ * not include, and only the payload columns are moved into the batch returned.
+ */
+class CorcBatchRecordReader implements RecordReader<NullWritable, CorcBatch> {
+  private final StructTypeInfo typeInfo;
+  private final TypeDescription schema;
+  private final org.apache.orc.RecordReader reader;
+  private final int batchSize;
+  private final PushdownCounters counters;
+  private final VectorizedSearchArgumentFilter filter;
+  private final org.apache.orc.RecordReader payloadReader;
+  private final int[] payloadColumnIds;
+  private VectorizedRowBatch payloadBatch;
+  private boolean exhausted;
+
+  CorcBatchRecordReader(StructTypeInfo typeInfo, TypeDescription schema, org.apache.orc.RecordReader reader,
+      int batchSize) {
+    this(typeInfo, schema, reader, batchSize, new PushdownCounters(Reporter.NULL, 0), null);
+  }
+
+  /**
+   * @param filter The row level filter of each batch, or {@code null} to select every row.
+   */
+  CorcBatchRecordReader(StructTypeInfo typeInfo, TypeDescription schema, org.apache.orc.RecordReader reader,
+      int batchSize, PushdownCounters counters, VectorizedSearchArgumentFilter filter) {
+    this(typeInfo, schema, reader, batchSize, counters, filter, null, null);
+  }
+
+  /**
+   * @param reader The reader of the columns referenced by {@code filter}.
+   * @param payloadReader The reader of all the projected columns, with the same range and search argument as
+   *          {@code reader}.
+   * @param payloadColumnIds The top level columns that only {@code payloadReader} reads.
+   */
+  CorcBatchRecordReader(StructTypeInfo typeInfo, TypeDescription schema, org.apache.orc.RecordReader reader,
+      int batchSize, PushdownCounters counters, VectorizedSearchArgumentFilter filter,
+      org.apache.orc.RecordReader payloadReader, List<Integer> payloadColumnIds) {
+    this.typeInfo = typeInfo;
+    this.schema = schema;
+    this.reader = reader;
+    this.batchSize = batchSize;
+    this.counters = counters;
+    this.filter = filter;
+    this.payloadReader = payloadReader;
+    if (payloadColumnIds == null) {
+      this.payloadColumnIds = null;
+    } else {
+      this.payloadColumnIds = new int[payloadColumnIds.size()];
+      for (int i = 0; i < this.payloadColumnIds.length; i++) {
+        this.payloadColumnIds[i] = payloadColumnIds.get(i);
+      }
+    }
+  }
+
+  @Override
+  public boolean next(NullWritable key, CorcBatch value) throws IOException {
+    VectorizedRowBatch batch = value.getVectorizedRowBatch();
+    batch.selectedInUse = false;
+    long firstRow = reader.getRowNumber();
+    while (reader.nextBatch(batch)) {
+      if (filter == null) {
+        counters.rowsRead(batch.size);
+        return true;
+      }
+      int rows = batch.size;
+      int accepted = filter.filter(batch);
+      counters.rowsRead(rows, accepted);
+      if (accepted > 0) {
+        if (payloadReader != null) {
+          materialize(batch, firstRow, rows);
+        }
+        return true;
+      }
+      if (payloadReader != null) {
+        counters.rowsNotMaterialized(rows);
+      }
+      batch.selectedInUse = false;
+      firstRow = reader.getRowNumber();
+    }
+    exhausted = true;
+    return false;
+  }
+
+  /**
+   * Reads the payload columns of the batch that {@link #reader} read from {@code firstRow} and swaps them into
+   * {@code batch}, leaving its predicate columns and selection as they are. Should {@code firstRow} fall in a row group
+   * that is not read, ORC moves the payload reader on to the next row group that is, as it did the predicate reader.
+   */
+  private void materialize(VectorizedRowBatch batch, long firstRow, int rows) throws IOException {
+    if (payloadBatch == null) {
+      payloadBatch = schema.createRowBatch(batch.getMaxSize());
+    }
+    if (payloadReader.getRowNumber() != firstRow) {
+      payloadReader.seekToRow(firstRow);
+    }
+    if (!payloadReader.nextBatch(payloadBatch) || payloadBatch.size != rows
+        || payloadReader.getRowNumber() != reader.getRowNumber()) {
+      throw new IOException("Payload columns out of step with the predicate columns at row " + firstRow);
+    }
+    for (int column : payloadColumnIds) {
+      ColumnVector vector = batch.cols[column];
+      batch.cols[column] = payloadBatch.cols[column];
+      payloadBatch.cols[column] = vector;
+    }
+  }
+
+  @Override
+  public NullWritable createKey() {
+    return NullWritable.get();
+  }
+
+  @Override
+  public CorcBatch createValue() {
+    return new CorcBatch(typeInfo, schema.createRowBatch(batchSize));
+  }
+
+  @Override
+  public long getPos() throws IOException {
+    return reader.getRowNumber();
+  }
+
+  @Override
+  public void close() throws IOException {
+    counters.report(exhausted, filter);
+    try {
+      reader.close();
+    } finally {
+      if (payloadReader != null) {
+        payloadReader.close();
+      }
+    }
+  }
+
+  @Override
+  public float getProgress() throws IOException {
+    return reader.getProgress();
+  }
+
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.mapred;
+
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument;
+import org.apache.hadoop.mapred.Reporter;
+
+/**
+ * Counters reported by {@link CorcInputFormat} via the task {@link Reporter}.
+ */
+public enum CorcCounter {
+  /** Schemas, search arguments and converters found in the JVM wide setup cache. */
+  SETUP_CACHE_HITS,
+  /** Schemas, search arguments and converters that had to be built as they were not in the setup cache. */
+  SETUP_CACHE_MISSES,
+  /** ORC readers created from a file tail found in the JVM wide file tail cache. */
+  FILE_TAIL_CACHE_HITS,
+  /** ORC readers that had to read the file tail from storage as it was not in the file tail cache. */
+  FILE_TAIL_CACHE_MISSES,
+  /** Stripes of the splits whose statistics may satisfy the {@link SearchArgument}, or all stripes without one. */
+  STRIPES_READ,
+  /** Stripes of the splits whose statistics show that no row satisfies the {@link SearchArgument}. */
+  STRIPES_SKIPPED,
+  /** Row groups of the stripes read that were not skipped by the row index. */
+  ROW_GROUPS_READ,
+  /** Row groups skipped, either with their stripe or by the row index. */
+  ROW_GROUPS_SKIPPED,
+  /**
+   * Row groups of the stripes read whose statistics may satisfy the {@link SearchArgument} but whose bloom filters show
+   * that no row does. Only reported when {@link CorcInputFormat#ENABLE_BLOOM_FILTER_COUNTERS} is set.
+   */
+  ROW_GROUPS_SKIPPED_BY_BLOOM_FILTER,
+  /** Rows returned by the ORC reader and evaluated at the row level. */
+  ROWS_READ,
+  /** Rows accepted at the row level and returned to the caller. */
+  ROWS_ACCEPTED,
+  /**
+   * Rows read whose payload columns were never decoded as no row of their batch was accepted. Only reported when
+   * {@link CorcInputFormat#ENABLE_LATE_MATERIALIZATION} is set.
+   */
+  ROWS_NOT_MATERIALIZED;
+
+  /**
+   * The group of the counters that record, for each {@link SearchArgument} leaf, the number of rows it was evaluated
+   * against and the number of rows it accepted. Only reported when
+   * {@link CorcInputFormat#ENABLE_DETAILED_PUSHDOWN_COUNTERS} is set.
+   */
+  public static final String LEAF_GROUP = "CORC search argument leaves";
+
+  /**
+   * The group of the counters that record the raw data size in bytes of each projected column in the stripes read, as
+   * estimated from the file statistics. Only reported when {@link CorcInputFormat#ENABLE_DETAILED_PUSHDOWN_COUNTERS}
+   * is set.
+   */
+  public static final String COLUMN_GROUP = "CORC column raw bytes";
+
+}
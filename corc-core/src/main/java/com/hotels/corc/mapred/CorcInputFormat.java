@@ -22,44 +22,59 @@ package com.hotels.corc.mapred;
 
 import java.io.IOException;
 import java.lang.reflect.Field;
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
 
 import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.PathFilter;
+import org.apache.hadoop.hive.conf.HiveConf;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
 import org.apache.hadoop.hive.ql.io.AcidInputFormat;
-import org.apache.hadoop.hive.ql.io.orc.OrcFile;
 import org.apache.hadoop.hive.ql.io.orc.OrcInputFormat;
 import org.apache.hadoop.hive.ql.io.orc.OrcRecordUpdater;
 import org.apache.hadoop.hive.ql.io.orc.OrcSplit;
 import org.apache.hadoop.hive.ql.io.orc.OrcStruct;
 import org.apache.hadoop.hive.ql.io.orc.Reader;
+import org.apache.hadoop.hive.ql.io.sarg.PredicateLeaf;
 import org.apache.hadoop.hive.ql.io.sarg.SearchArgument;
-import org.apache.hadoop.hive.ql.io.sarg.ConvertAstToSearchArg;
 import org.apache.hadoop.hive.serde2.ColumnProjectionUtils;
 import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector.Category;
 import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
 import org.apache.hadoop.hive.serde2.typeinfo.TypeInfo;
 import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoUtils;
 import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapred.FileInputFormat;
 import org.apache.hadoop.mapred.FileSplit;
 import org.apache.hadoop.mapred.InputFormat;
 import org.apache.hadoop.mapred.InputSplit;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.RecordReader;
 import org.apache.hadoop.mapred.Reporter;
-import org.apache.hadoop.util.ReflectionUtils;
 import org.apache.commons.codec.binary.Base64;
+import org.apache.orc.TypeDescription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.hotels.corc.ConverterFactory;
 import com.hotels.corc.Corc;
+import com.hotels.corc.CorcBatch;
+import com.hotels.corc.CorcSchema;
 import com.hotels.corc.Filter;
 import com.hotels.corc.sarg.SearchArgumentFilter;
+import com.hotels.corc.sarg.VectorizedSearchArgumentFilter;
 
 /**
  * A wrapper for {@link OrcInputFormat} to expose {@link Corc} as the value type instead of {@link OrcStruct}. This
@@ -82,6 +97,139 @@ public class CorcInputFormat implements InputFormat<NullWritable, Corc> {
    */
   public static final String ENABLE_ROW_LEVEL_SEARCH_ARGUMENT = "com.hotels.corc.mapred.input.enable.row.level.search.argument";
 
+  /**
+   * The number of rows of each split over which the cost and selectivity of the {@link SearchArgument} leaves are
+   * sampled before row level evaluation reorders them. Defaults to {@link SearchArgumentFilter#DEFAULT_SAMPLE_ROWS}. Set
+   * to zero to evaluate the leaves in the order in which the {@link SearchArgument} was built.
+   */
+  public static final String SEARCH_ARGUMENT_SAMPLE_ROWS = "com.hotels.corc.mapred.input.search.argument.sample.rows";
+
+  /**
+   * The maximum number of rows in each {@link CorcBatch} returned by {@link #getBatchRecordReader(InputSplit, JobConf,
+   * Reporter)}. Defaults to {@link VectorizedRowBatch#DEFAULT_SIZE}.
+   */
+  public static final String BATCH_SIZE = "com.hotels.corc.mapred.input.batch.size";
+
+  /**
+   * By default the schemas, {@link SearchArgument} and {@link ConverterFactory} parsed from the configuration are cached
+   * for the lifetime of the JVM and shared by all readers, which avoids rebuilding them for every split when task
+   * containers are reused. Set this configuration option to false to disable the cache. Cache hits and misses are
+   * reported with the {@link CorcCounter} counters.
+   */
+  public static final String ENABLE_SETUP_CACHE = "com.hotels.corc.mapred.input.enable.setup.cache";
+
+  /**
+   * By default the tails of the ORC files read, which hold their postscript, footer and metadata, are cached for the
+   * lifetime of the JVM. This lets schema detection, the pushdown counters and the record reader of a split, and the
+   * readers of other splits of the same file, share a single read of the tail. Set this configuration option to false
+   * to disable the cache. Cache hits and misses are reported with the {@link CorcCounter} counters.
+   */
+  public static final String ENABLE_FILE_TAIL_CACHE = "com.hotels.corc.mapred.input.enable.file.tail.cache";
+
+  /**
+   * By default each reader reports how effective predicate pushdown was for its split with the {@link CorcCounter}
+   * counters: the stripes and row groups read and skipped and the rows read and accepted. The stripes are evaluated
+   * against the file tail that the record reader uses, so no more of the file is read. Set this configuration option to
+   * false to disable the counters.
+   */
+  public static final String ENABLE_PUSHDOWN_COUNTERS = "com.hotels.corc.mapred.input.enable.pushdown.counters";
+
+  /**
+   * Set this configuration option to true to also report the rows each {@link SearchArgument} leaf was evaluated
+   * against and accepted, in the {@link CorcCounter#LEAF_GROUP} group, and the raw size of each projected column, in
+   * the {@link CorcCounter#COLUMN_GROUP} group. These add counters for every leaf and column, so they are disabled by
+   * default and at most {@link #MAX_DETAILED_PUSHDOWN_COUNTERS} are reported to stay clear of the job counter limit.
+   * Has no effect when {@link #ENABLE_PUSHDOWN_COUNTERS} is false.
+   */
+  public static final String ENABLE_DETAILED_PUSHDOWN_COUNTERS = "com.hotels.corc.mapred.input.enable.detailed.pushdown.counters";
+
+  /**
+   * The maximum number of leaf and column counters reported when {@link #ENABLE_DETAILED_PUSHDOWN_COUNTERS} is set.
+   */
+  public static final String MAX_DETAILED_PUSHDOWN_COUNTERS = "com.hotels.corc.mapred.input.max.detailed.pushdown.counters";
+  public static final int DEFAULT_MAX_DETAILED_PUSHDOWN_COUNTERS = 40;
+
+  /**
+   * Set this configuration option to true to also report the row groups that bloom filters eliminate, in addition to
+   * the column statistics, with {@link CorcCounter#ROW_GROUPS_SKIPPED_BY_BLOOM_FILTER}. This requires the row index and
+   * bloom filters of the predicate columns to be read once more for every stripe read, so it is disabled by default.
+   * Has no effect when {@link #ENABLE_PUSHDOWN_COUNTERS} is false.
+   */
+  public static final String ENABLE_BLOOM_FILTER_COUNTERS = "com.hotels.corc.mapred.input.enable.bloom.filter.counters";
+
+  /**
+   * Set this configuration option to true for {@link #getBatchRecordReader(InputSplit, JobConf, Reporter)} to decode
+   * the columns referenced by the {@link SearchArgument} first, and the remaining projected columns only for the
+   * batches in which row level evaluation accepts at least one row. Batches without accepted rows are skipped by the row
+   * index rather than decoded, which suits selective predicates over wide rows, especially when matching rows are
+   * clustered. The predicate columns of the accepted batches are decoded a second time, as ORC needs them to select the
+   * same row groups for the remaining columns. The rows whose remaining columns were never decoded are reported with
+   * {@link CorcCounter#ROWS_NOT_MATERIALIZED}. Has no effect without a {@link SearchArgument} or when
+   * {@link #ENABLE_ROW_LEVEL_SEARCH_ARGUMENT} is false.
+   */
+  public static final String ENABLE_LATE_MATERIALIZATION = "com.hotels.corc.mapred.input.enable.late.materialization";
+
+  /**
+   * The number of input files whose footers {@link #readSchemaTypeInfo(Configuration, StructTypeInfo)} reads to
+   * resolve the schema when the job is planned. Defaults to {@link #DEFAULT_SCHEMA_SAMPLE_FILES}. Set to zero to leave
+   * each task to read the schema of its own split.
+   */
+  public static final String SCHEMA_SAMPLE_FILES = "com.hotels.corc.mapred.input.schema.sample.files";
+  public static final int DEFAULT_SCHEMA_SAMPLE_FILES = 3;
+
+  /**
+   * How {@link #getSplits(JobConf, int)} plans the splits, see {@link SplitStrategy}. Defaults to
+   * {@link SplitStrategy#HIVE}.
+   */
+  public static final String SPLIT_STRATEGY = "com.hotels.corc.mapred.input.split.strategy";
+
+  /**
+   * The maximum number of bytes of the stripes of each split planned by {@link SplitStrategy#STRIPES}. Stripes larger
+   * than this have a split of their own. Defaults to {@link #DEFAULT_SPLIT_SIZE}.
+   */
+  public static final String SPLIT_SIZE = "com.hotels.corc.mapred.input.split.size";
+  public static final long DEFAULT_SPLIT_SIZE = 256L * 1024L * 1024L;
+
+  /**
+   * The number of threads with which {@link SplitStrategy#STRIPES} reads the footers of the input files. Defaults to
+   * {@link #DEFAULT_SPLIT_THREADS}.
+   */
+  public static final String SPLIT_THREADS = "com.hotels.corc.mapred.input.split.threads";
+  public static final int DEFAULT_SPLIT_THREADS = 10;
+
+  /**
+   * Strategies with which {@link CorcInputFormat#getSplits(JobConf, int)} plans the splits.
+   */
+  public static enum SplitStrategy {
+    /**
+     * Delegate to {@link OrcInputFormat}, which is configured with the Hive options such as
+     * {@code hive.exec.orc.split.strategy} ({@code ETL}, {@code BI} or {@code HYBRID}). Supports transactional data
+     * sets.
+     */
+    HIVE,
+    /**
+     * Read the footers of all files in parallel, drop the stripes and files that the {@link SearchArgument} eliminates
+     * and pack whole stripes into size balanced splits, largest first. Transactional data sets are left to
+     * {@link #HIVE}.
+     */
+    STRIPES;
+  }
+
+  private static final PathFilter VISIBLE_FILES = new PathFilter() {
+    @Override
+    public boolean accept(Path path) {
+      String name = path.getName();
+      return !name.startsWith("_") && !name.startsWith(".");
+    }
+  };
+
+  private static final Comparator<Path> PATH_ORDER = new Comparator<Path>() {
+    @Override
+    public int compare(Path a, Path b) {
+      return a.toString().compareTo(b.toString());
+    }
+  };
+
   static {
     ATOMIC_ROW_COLUMN_ID = getOrcAtomicRowColumnId();
   }
@@ -90,13 +238,17 @@ public class CorcInputFormat implements InputFormat<NullWritable, Corc> {
    * Gets the ConverterFactory from the configuration
    */
   static ConverterFactory getConverterFactory(Configuration conf) {
+    return getConverterFactory(conf, Reporter.NULL);
+  }
+
+  static ConverterFactory getConverterFactory(Configuration conf, Reporter reporter) {
     Class<? extends ConverterFactory> converterFactoryClass = conf.getClass(CONVERTER_FACTORY, null,
         ConverterFactory.class);
     if (converterFactoryClass == null) {
       throw new RuntimeException("ConverterFactory class was not set on the configuration");
     }
     LOG.debug("Got input ConverterFactory class from conf: {}", converterFactoryClass);
-    return ReflectionUtils.newInstance(converterFactoryClass, conf);
+    return getSetupCache(conf).getConverterFactory(converterFactoryClass, conf, reporter);
   }
 
   /**
@@ -112,7 +264,11 @@ public class CorcInputFormat implements InputFormat<NullWritable, Corc> {
    * Gets the StructTypeInfo that declares the columns to be read from the configuration
    */
   static StructTypeInfo getTypeInfo(Configuration conf) {
-    StructTypeInfo inputTypeInfo = (StructTypeInfo) TypeInfoUtils.getTypeInfoFromTypeString(conf.get(INPUT_TYPE_INFO));
+    return getTypeInfo(conf, Reporter.NULL);
+  }
+
+  static StructTypeInfo getTypeInfo(Configuration conf, Reporter reporter) {
+    StructTypeInfo inputTypeInfo = getSetupCache(conf).getTypeInfo(conf.get(INPUT_TYPE_INFO), reporter);
     LOG.debug("Got input typeInfo from conf: {}", inputTypeInfo);
     return inputTypeInfo;
   }
@@ -129,10 +285,14 @@ public class CorcInputFormat implements InputFormat<NullWritable, Corc> {
    * Gets the StructTypeInfo that declares the total schema of the file from the configuration
    */
   static StructTypeInfo getSchemaTypeInfo(Configuration conf) {
+    return getSchemaTypeInfo(conf, Reporter.NULL);
+  }
+
+  static StructTypeInfo getSchemaTypeInfo(Configuration conf, Reporter reporter) {
     String schemaTypeInfo = conf.get(SCHEMA_TYPE_INFO);
     if (schemaTypeInfo != null && !schemaTypeInfo.isEmpty()) {
       LOG.debug("Got schema typeInfo from conf: {}", schemaTypeInfo);
-      return (StructTypeInfo) TypeInfoUtils.getTypeInfoFromTypeString(conf.get(SCHEMA_TYPE_INFO));
+      return getSetupCache(conf).getTypeInfo(schemaTypeInfo, reporter);
     }
     return null;
   }
@@ -147,6 +307,143 @@ public class CorcInputFormat implements InputFormat<NullWritable, Corc> {
     }
   }
 
+  /**
+   * Reads the schema of the input paths of the job from the footers of up to {@link #SCHEMA_SAMPLE_FILES} of their
+   * files: the first, the last and others evenly spaced between them. This lets the schema be resolved once when the
+   * job is planned, rather than by every task, by passing it to {@link #setSchemaTypeInfo(Configuration,
+   * StructTypeInfo)}.
+   * <p/>
+   * Returns {@code null}, leaving each task to read the schema of its own split, when there are no input files yet,
+   * when the files are transactional or when the sampled files have different schemas. The latter is expected of data
+   * sets that have evolved, for example where older files do not contain newer columns. Should any of the
+   * {@code typeInfo} columns to be read have different types in the sampled files, an {@link IllegalStateException} is
+   * thrown so that the job fails before it starts rather than when the first such file is read. The files that were not
+   * sampled are checked by the task that reads them, which falls back to the schema of its file should it differ.
+   */
+  public static StructTypeInfo readSchemaTypeInfo(Configuration conf, StructTypeInfo typeInfo) throws IOException {
+    int sampleFiles = conf.getInt(SCHEMA_SAMPLE_FILES, DEFAULT_SCHEMA_SAMPLE_FILES);
+    if (sampleFiles <= 0) {
+      return null;
+    }
+    List<Path> files = listInputFiles(conf);
+    FileTailCache fileTailCache = getFileTailCache(conf);
+    StructTypeInfo schemaTypeInfo = null;
+    Path schemaPath = null;
+    boolean schemasAgree = true;
+    for (Path path : sample(files, sampleFiles)) {
+      Reader orcReader = fileTailCache.createReader(path, conf, Reporter.NULL);
+      if (isAtomic(orcReader)) {
+        LOG.info("Not reading the schema typeInfo of transactional file: {}", path);
+        return null;
+      }
+      if (orcReader.getNumberOfRows() == 0) {
+        continue;
+      }
+      ObjectInspector inspector = orcReader.getObjectInspector();
+      StructTypeInfo fileTypeInfo = (StructTypeInfo) TypeInfoUtils.getTypeInfoFromObjectInspector(inspector);
+      if (schemaTypeInfo == null) {
+        schemaTypeInfo = fileTypeInfo;
+        schemaPath = path;
+      } else if (!schemaTypeInfo.equals(fileTypeInfo)) {
+        checkColumnTypes(typeInfo, schemaTypeInfo, schemaPath, fileTypeInfo, path);
+        schemasAgree = false;
+      }
+    }
+    if (schemaTypeInfo == null) {
+      LOG.info("No input files to read the schema typeInfo from.");
+      return null;
+    }
+    if (!schemasAgree) {
+      LOG.warn("Input files have different schemas, each task will read the schema typeInfo of its split.");
+      return null;
+    }
+    LOG.info("Read schema typeInfo {} from {} of {} input files.", schemaTypeInfo, Math.min(files.size(), sampleFiles),
+        files.size());
+    return schemaTypeInfo;
+  }
+
+  static List<Path> listInputFiles(Configuration conf) throws IOException {
+    List<Path> files = new ArrayList<>();
+    for (Path inputPath : FileInputFormat.getInputPaths(new JobConf(conf))) {
+      FileSystem fs = inputPath.getFileSystem(conf);
+      FileStatus[] statuses = fs.globStatus(inputPath, VISIBLE_FILES);
+      if (statuses != null) {
+        for (FileStatus status : statuses) {
+          addFiles(fs, status, files);
+        }
+      }
+    }
+    Collections.sort(files, PATH_ORDER);
+    return files;
+  }
+
+  private static void addFiles(FileSystem fs, FileStatus status, List<Path> files) throws IOException {
+    if (status.isDirectory()) {
+      for (FileStatus child : fs.listStatus(status.getPath(), VISIBLE_FILES)) {
+        addFiles(fs, child, files);
+      }
+    } else if (status.getLen() > 0) {
+      files.add(status.getPath());
+    }
+  }
+
+  static List<Path> sample(List<Path> files, int sampleFiles) {
+    if (files.size() <= sampleFiles) {
+      return files;
+    }
+    if (sampleFiles == 1) {
+      return files.subList(0, 1);
+    }
+    List<Path> sample = new ArrayList<>(sampleFiles);
+    for (int i = 0; i < sampleFiles; i++) {
+      sample.add(files.get((int) ((long) i * (files.size() - 1) / (sampleFiles - 1))));
+    }
+    return sample;
+  }
+
+  /**
+   * Checks the schema typeInfo from the configuration, which may have been read from a sample of the input files that
+   * did not include the file of the split, against the schema of that file. Should they differ the file's schema is
+   * returned so that its rows are not read with the wrong inspector. Should any of the columns to be read have
+   * different types an {@link IllegalStateException} is thrown, as when the sampled files disagree.
+   */
+  private static StructTypeInfo checkSchemaTypeInfo(Configuration conf, StructTypeInfo schemaTypeInfo,
+      StructTypeInfo fileTypeInfo, Path path, Reporter reporter) {
+    if (schemaTypeInfo.equals(fileTypeInfo)) {
+      return schemaTypeInfo;
+    }
+    StructTypeInfo typeInfo = fileTypeInfo;
+    if (conf.get(INPUT_TYPE_INFO) != null) {
+      typeInfo = getTypeInfo(conf, reporter);
+    }
+    checkColumnTypes(typeInfo, schemaTypeInfo, SCHEMA_TYPE_INFO, fileTypeInfo, path);
+    LOG.warn("Schema typeInfo {} from {} differs from {} of {}, reading the split with the latter.", schemaTypeInfo,
+        SCHEMA_TYPE_INFO, fileTypeInfo, path);
+    return fileTypeInfo;
+  }
+
+  private static void checkColumnTypes(StructTypeInfo typeInfo, StructTypeInfo expected, Object expectedSource,
+      StructTypeInfo actual, Path actualPath) {
+    for (String name : typeInfo.getAllStructFieldNames()) {
+      TypeInfo expectedType = getFieldTypeInfo(expected, name);
+      TypeInfo actualType = getFieldTypeInfo(actual, name);
+      if (expectedType != null && actualType != null && !expectedType.equals(actualType)) {
+        throw new IllegalStateException("Column '" + name + "' is " + expectedType + " in " + expectedSource + " but "
+            + actualType + " in " + actualPath);
+      }
+    }
+  }
+
+  private static TypeInfo getFieldTypeInfo(StructTypeInfo typeInfo, String name) {
+    List<String> names = typeInfo.getAllStructFieldNames();
+    for (int i = 0; i < names.size(); i++) {
+      if (names.get(i).equalsIgnoreCase(name)) {
+        return typeInfo.getAllStructFieldTypeInfos().get(i);
+      }
+    }
+    return null;
+  }
+
   /**
    * Sets the SearchArgument predicate pushdown in the configuration
    */
@@ -166,18 +463,43 @@ public class CorcInputFormat implements InputFormat<NullWritable, Corc> {
   }
 
   static SearchArgument getSearchArgument(Configuration conf) {
+    return getSearchArgument(conf, Reporter.NULL);
+  }
+
+  static SearchArgument getSearchArgument(Configuration conf, Reporter reporter) {
     String searchArgumentKryo = conf.get(SEARCH_ARGUMENT);
     if (searchArgumentKryo == null) {
       return null;
     }
-    return ConvertAstToSearchArg.create(searchArgumentKryo);
+    return getSetupCache(conf).getSearchArgument(searchArgumentKryo, reporter);
+  }
+
+  static SetupCache getSetupCache(Configuration conf) {
+    if (conf.getBoolean(ENABLE_SETUP_CACHE, true)) {
+      return SetupCache.INSTANCE;
+    }
+    return SetupCache.DISABLED;
+  }
+
+  static FileTailCache getFileTailCache(Configuration conf) {
+    if (conf.getBoolean(ENABLE_FILE_TAIL_CACHE, true)) {
+      return FileTailCache.INSTANCE;
+    }
+    return FileTailCache.DISABLED;
   }
 
   /**
-   * Sets which fields are to be read from the ORC file
+   * Sets which fields are to be read from the ORC file. Unless row level {@link SearchArgument} evaluation is disabled,
+   * the fields referenced by the {@link SearchArgument} are also read so that they can be evaluated, even if they are
+   * not declared. Readers that emit only the declared fields, such as the Cascading {@code OrcFile} source, keep them
+   * out of their output.
    */
   static void setReadColumns(Configuration conf, StructTypeInfo actualStructTypeInfo) {
-    StructTypeInfo readStructTypeInfo = getTypeInfo(conf);
+    setReadColumns(conf, actualStructTypeInfo, Reporter.NULL);
+  }
+
+  static void setReadColumns(Configuration conf, StructTypeInfo actualStructTypeInfo, Reporter reporter) {
+    StructTypeInfo readStructTypeInfo = getTypeInfo(conf, reporter);
     LOG.info("Read StructTypeInfo: {}", readStructTypeInfo);
 
     List<Integer> ids = new ArrayList<>();
@@ -185,42 +507,119 @@ public class CorcInputFormat implements InputFormat<NullWritable, Corc> {
 
     List<String> readNames = readStructTypeInfo.getAllStructFieldNames();
     List<String> actualNames = actualStructTypeInfo.getAllStructFieldNames();
+    List<Integer> predicateIds = Collections.emptyList();
+    SearchArgument searchArgument = getSearchArgument(conf, reporter);
+    if (searchArgument != null && conf.getBoolean(ENABLE_ROW_LEVEL_SEARCH_ARGUMENT, true)) {
+      predicateIds = getSearchArgumentColumnIds(searchArgument, actualStructTypeInfo);
+    }
+    int declared = 0;
+    List<String> nestedColumnPaths = new ArrayList<>();
 
     for (int i = 0; i < actualNames.size(); i++) {
       String actualName = actualNames.get(i);
-      if (readNames.contains(actualName)) {
+      if (!readNames.contains(actualName) && predicateIds.contains(i)) {
+        LOG.info("Reading undeclared column {} referenced by the search argument", actualName);
+        ids.add(i);
+        names.add(actualName);
+      } else if (readNames.contains(actualName)) {
+        declared++;
         // make sure they are the same type
         TypeInfo actualTypeInfo = actualStructTypeInfo.getStructFieldTypeInfo(actualName);
         TypeInfo readTypeInfo = readStructTypeInfo.getStructFieldTypeInfo(actualName);
         if (!actualTypeInfo.equals(readTypeInfo)) {
-          throw new IllegalStateException("readTypeInfo [" + readTypeInfo + "] does not match actualTypeInfo ["
-              + actualTypeInfo + "]");
+          // a STRUCT may be read with a subset of its fields
+          List<String> paths = new ArrayList<>();
+          if (!addNestedColumnPaths(actualName.toLowerCase(), readTypeInfo, actualTypeInfo, paths)) {
+            throw new IllegalStateException("readTypeInfo [" + readTypeInfo + "] does not match actualTypeInfo ["
+                + actualTypeInfo + "]");
+          }
+          nestedColumnPaths.addAll(paths);
+          if (searchArgument != null) {
+            addSearchArgumentColumnPaths(actualName.toLowerCase(), searchArgument, nestedColumnPaths);
+          }
         }
         // mark the column as to-be-read
         ids.add(i);
         names.add(actualName);
       }
     }
-    if (ids.size() == 0) {
+    if (declared == 0) {
       throw new IllegalStateException("None of the selected columns were found in the ORC file.");
     }
-    LOG.info("Set column projection on columns: {} ({})", ids, names);
-    List<String> nestedColumnPaths = Collections.emptyList();
+    LOG.info("Set column projection on columns: {} ({}), nested column paths: {}", ids, names, nestedColumnPaths);
     ColumnProjectionUtils.appendReadColumns(conf, ids, names, nestedColumnPaths);
   }
 
+  /**
+   * Adds the dotted path of each field of {@code actualTypeInfo} selected by {@code readTypeInfo}. Returns false if
+   * {@code readTypeInfo} is neither {@code actualTypeInfo} nor a {@code STRUCT} with a subset of its fields, each of
+   * which is read in turn with the same or a subset of its type.
+   */
+  static boolean addNestedColumnPaths(String path, TypeInfo readTypeInfo, TypeInfo actualTypeInfo,
+      List<String> paths) {
+    if (readTypeInfo.equals(actualTypeInfo)) {
+      paths.add(path);
+      return true;
+    }
+    if (readTypeInfo.getCategory() != Category.STRUCT || actualTypeInfo.getCategory() != Category.STRUCT) {
+      return false;
+    }
+    StructTypeInfo readStructTypeInfo = (StructTypeInfo) readTypeInfo;
+    StructTypeInfo actualStructTypeInfo = (StructTypeInfo) actualTypeInfo;
+    for (String name : readStructTypeInfo.getAllStructFieldNames()) {
+      TypeInfo actualFieldTypeInfo = getFieldTypeInfo(actualStructTypeInfo, name);
+      if (actualFieldTypeInfo == null) {
+        return false;
+      }
+      String fieldPath = path + "." + name.toLowerCase();
+      if (!addNestedColumnPaths(fieldPath, readStructTypeInfo.getStructFieldTypeInfo(name), actualFieldTypeInfo,
+          paths)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /*
+   * The nested fields that the search argument references must also be read to be evaluated.
+   */
+  private static void addSearchArgumentColumnPaths(String columnName, SearchArgument searchArgument,
+      List<String> nestedColumnPaths) {
+    String prefix = columnName + ".";
+    for (PredicateLeaf leaf : searchArgument.getLeaves()) {
+      String leafColumnName = leaf.getColumnName().toLowerCase();
+      if (leafColumnName.startsWith(prefix) && !nestedColumnPaths.contains(leafColumnName)) {
+        nestedColumnPaths.add(leafColumnName);
+      }
+    }
+  }
+
   private final OrcInputFormat orcInputFormat = new OrcInputFormat();
 
+  /**
+   * Plans the splits with the {@link SplitStrategy} set with {@link #SPLIT_STRATEGY}.
+   */
   @Override
   public InputSplit[] getSplits(JobConf conf, int numSplits) throws IOException {
+    if (conf.getEnum(SPLIT_STRATEGY, SplitStrategy.HIVE) == SplitStrategy.STRIPES) {
+      List<FileSplit> splits = new StripeSplitPlanner(conf).getSplits();
+      if (splits != null) {
+        return splits.toArray(new InputSplit[splits.size()]);
+      }
+    }
     return orcInputFormat.getSplits(conf, numSplits);
   }
 
   static Filter getFilter(Configuration conf, StructTypeInfo typeInfo) {
+    return getFilter(conf, typeInfo, Reporter.NULL);
+  }
+
+  static Filter getFilter(Configuration conf, StructTypeInfo typeInfo, Reporter reporter) {
     if (conf.getBoolean(ENABLE_ROW_LEVEL_SEARCH_ARGUMENT, true)) {
-      SearchArgument searchArgument = getSearchArgument(conf);
+      SearchArgument searchArgument = getSearchArgument(conf, reporter);
       if (searchArgument != null) {
-        return new SearchArgumentFilter(searchArgument, typeInfo);
+        int sampleRows = conf.getInt(SEARCH_ARGUMENT_SAMPLE_ROWS, SearchArgumentFilter.DEFAULT_SAMPLE_ROWS);
+        return new SearchArgumentFilter(searchArgument, typeInfo, sampleRows);
       }
     }
     return Filter.ACCEPT;
@@ -229,23 +628,287 @@ public class CorcInputFormat implements InputFormat<NullWritable, Corc> {
   @Override
   public RecordReader<NullWritable, Corc> getRecordReader(InputSplit inputSplit, JobConf conf, Reporter reporter)
       throws IOException {
-    StructTypeInfo typeInfo = getSchemaTypeInfo(conf);
+    if (reporter == null) {
+      reporter = Reporter.NULL;
+    }
+    StructTypeInfo typeInfo = getSchemaTypeInfo(conf, reporter);
     LOG.info("Conf StructTypeInfo: {}", typeInfo);
     if (typeInfo == null) {
-      typeInfo = readStructTypeInfoFromSplit(inputSplit, conf);
+      typeInfo = readStructTypeInfoFromSplit(inputSplit, conf, reporter);
       LOG.info("File StructTypeInfo: {}", typeInfo);
+    } else if (isOriginal(inputSplit)) {
+      Path path = ((FileSplit) inputSplit).getPath();
+      Reader orcReader = getFileTailCache(conf).createReader(path, conf, reporter);
+      if (!isAtomic(orcReader)) {
+        ObjectInspector inspector = orcReader.getObjectInspector();
+        StructTypeInfo fileTypeInfo = (StructTypeInfo) TypeInfoUtils.getTypeInfoFromObjectInspector(inspector);
+        typeInfo = checkSchemaTypeInfo(conf, typeInfo, fileTypeInfo, path, reporter);
+      }
+    }
+    setReadColumns(conf, typeInfo, reporter);
+    RecordReader<NullWritable, OrcStruct> reader = createOrcRecordReader(inputSplit, conf, typeInfo, reporter);
+    ConverterFactory factory = getConverterFactory(conf, reporter);
+    CorcSchema schema = getSetupCache(conf).getSchema(typeInfo, factory, reporter);
+    PushdownCounters counters = newPushdownCounters(conf, reporter);
+    if (conf.getBoolean(ENABLE_PUSHDOWN_COUNTERS, true) && isOriginal(inputSplit)) {
+      FileSplit fileSplit = (FileSplit) inputSplit;
+      org.apache.orc.Reader orcReader = getFileTailCache(conf).createOrcReader(fileSplit.getPath(), conf, reporter);
+      evaluateStripes(counters, fileSplit, orcReader, typeInfo, conf, reporter);
+    }
+    return new CorcRecordReader(schema, reader, getFilter(conf, typeInfo, reporter), counters);
+  }
+
+  /**
+   * Opt-in alternative to {@link #getRecordReader(InputSplit, JobConf, Reporter)} that reads the split using the
+   * vectorized ORC reader, returning up to {@link #BATCH_SIZE} rows at a time in a {@link CorcBatch}. Column projection
+   * and row group level {@link SearchArgument} evaluation are applied as usual. Unless disabled with
+   * {@link #ENABLE_ROW_LEVEL_SEARCH_ARGUMENT}, the {@link SearchArgument} is also evaluated against each batch by a
+   * {@link VectorizedSearchArgumentFilter}, which selects only the accepted rows of the {@link CorcBatch}. Batches
+   * without any accepted rows are skipped. See {@link #ENABLE_LATE_MATERIALIZATION} to also skip decoding the other
+   * columns of these batches. Transactional data sets are not supported.
+   */
+  public RecordReader<NullWritable, CorcBatch> getBatchRecordReader(InputSplit inputSplit, JobConf conf,
+      Reporter reporter) throws IOException {
+    if (reporter == null) {
+      reporter = Reporter.NULL;
+    }
+    if (!(inputSplit instanceof FileSplit)) {
+      throw new IOException("Unsupported InputSplit " + inputSplit.getClass().getName());
+    }
+    FileSplit fileSplit = (FileSplit) inputSplit;
+    Path path = fileSplit.getPath();
+    if (fileSplit instanceof OrcSplit) {
+      OrcSplit orcSplit = (OrcSplit) fileSplit;
+      if (!orcSplit.isOriginal() || !orcSplit.getDeltas().isEmpty()) {
+        throw new IOException("Batch reads are not supported for transactional data: " + path);
+      }
+    }
+    org.apache.orc.Reader orcReader = getFileTailCache(conf).createOrcReader(path, conf, reporter);
+    TypeDescription schema = orcReader.getSchema();
+
+    StructTypeInfo fileTypeInfo = (StructTypeInfo) TypeInfoUtils.getTypeInfoFromTypeString(schema.toString());
+    StructTypeInfo typeInfo = getSchemaTypeInfo(conf, reporter);
+    LOG.info("Conf StructTypeInfo: {}", typeInfo);
+    if (typeInfo == null) {
+      typeInfo = fileTypeInfo;
+      LOG.info("File StructTypeInfo: {}", typeInfo);
+    } else {
+      typeInfo = checkSchemaTypeInfo(conf, typeInfo, fileTypeInfo, path, reporter);
+    }
+    setReadColumns(conf, typeInfo, reporter);
+
+    List<Integer> readColumnIds = ColumnProjectionUtils.getReadColumnIDs(conf);
+    Set<String> nestedColumnPaths = ColumnProjectionUtils.getNestedColumnPaths(conf);
+    SearchArgument searchArgument = getSearchArgument(conf, reporter);
+    org.apache.orc.Reader.Options options = newReaderOptions(conf, fileSplit, schema, typeInfo, readColumnIds,
+        nestedColumnPaths, searchArgument);
+    int batchSize = conf.getInt(BATCH_SIZE, VectorizedRowBatch.DEFAULT_SIZE);
+    PushdownCounters counters = newPushdownCounters(conf, reporter);
+    if (conf.getBoolean(ENABLE_PUSHDOWN_COUNTERS, true)) {
+      evaluateStripes(counters, fileSplit, orcReader, typeInfo, conf, reporter);
+    }
+    VectorizedSearchArgumentFilter filter = null;
+    if (searchArgument != null && conf.getBoolean(ENABLE_ROW_LEVEL_SEARCH_ARGUMENT, true)) {
+      filter = new VectorizedSearchArgumentFilter(searchArgument, typeInfo);
+    }
+    if (filter != null && conf.getBoolean(ENABLE_LATE_MATERIALIZATION, false)) {
+      List<Integer> predicateColumnIds = getSearchArgumentColumnIds(searchArgument, typeInfo);
+      List<Integer> payloadColumnIds = new ArrayList<>(readColumnIds);
+      payloadColumnIds.removeAll(predicateColumnIds);
+      if (!payloadColumnIds.isEmpty()) {
+        LOG.info("Predicate columns: {}, payload columns: {}", predicateColumnIds, payloadColumnIds);
+        org.apache.orc.RecordReader reader = orcReader.rows(newReaderOptions(conf, fileSplit, schema, typeInfo,
+            predicateColumnIds, nestedColumnPaths, searchArgument));
+        // reads the predicate columns too, so that ORC selects the same row groups with their row index
+        org.apache.orc.RecordReader payloadReader = orcReader.rows(options);
+        return new CorcBatchRecordReader(typeInfo, schema, reader, batchSize, counters, filter, payloadReader,
+            payloadColumnIds);
+      }
+    }
+    return new CorcBatchRecordReader(typeInfo, schema, orcReader.rows(options), batchSize, counters, filter);
+  }
+
+  /**
+   * Options for reading the split that start from the reader settings of {@code conf}, such as
+   * {@code orc.skip.corrupt.data} and {@code orc.use.zerocopy}.
+   */
+  static org.apache.orc.Reader.Options newReaderOptions(Configuration conf, FileSplit fileSplit,
+      TypeDescription schema, StructTypeInfo typeInfo, List<Integer> readColumnIds,
+      Collection<String> nestedColumnPaths, SearchArgument searchArgument) {
+    org.apache.orc.Reader.Options options = new org.apache.orc.Reader.Options(conf)
+        .range(fileSplit.getStart(), fileSplit.getLength())
+        .include(getIncludedColumns(schema, readColumnIds, nestedColumnPaths));
+    if (searchArgument != null) {
+      options.searchArgument(searchArgument, getSearchArgumentColumnNames(schema, typeInfo));
+    }
+    return options;
+  }
+
+  /**
+   * The indexes of the top level fields referenced by the leaves of the {@link SearchArgument}, including those that
+   * enclose a nested field referenced by its dotted path.
+   */
+  static List<Integer> getSearchArgumentColumnIds(SearchArgument searchArgument, StructTypeInfo typeInfo) {
+    List<String> names = typeInfo.getAllStructFieldNames();
+    List<Integer> columnIds = new ArrayList<>();
+    for (PredicateLeaf leaf : searchArgument.getLeaves()) {
+      String columnName = leaf.getColumnName();
+      int columnId = names.indexOf(columnName);
+      if (columnId < 0 && columnName.indexOf('.') > 0) {
+        columnId = names.indexOf(columnName.substring(0, columnName.indexOf('.')));
+      }
+      if (columnId >= 0 && !columnIds.contains(columnId)) {
+        columnIds.add(columnId);
+      }
+    }
+    Collections.sort(columnIds);
+    return columnIds;
+  }
+
+  private static PushdownCounters newPushdownCounters(Configuration conf, Reporter reporter) {
+    int maxDetailedCounters = 0;
+    if (conf.getBoolean(ENABLE_DETAILED_PUSHDOWN_COUNTERS, false)) {
+      maxDetailedCounters = conf.getInt(MAX_DETAILED_PUSHDOWN_COUNTERS, DEFAULT_MAX_DETAILED_PUSHDOWN_COUNTERS);
+    }
+    return new PushdownCounters(reporter, maxDetailedCounters);
+  }
+
+  private static void evaluateStripes(PushdownCounters counters, FileSplit fileSplit, org.apache.orc.Reader orcReader,
+      StructTypeInfo typeInfo, Configuration conf, Reporter reporter) throws IOException {
+    SearchArgument searchArgument = getSearchArgument(conf, reporter);
+    String[] columnNames = getSearchArgumentColumnNames(orcReader.getSchema(), typeInfo);
+    counters.evaluateStripes(orcReader, fileSplit.getStart(), fileSplit.getLength(), searchArgument, columnNames,
+        ColumnProjectionUtils.getReadColumnNames(conf));
+    if (conf.getBoolean(ENABLE_BLOOM_FILTER_COUNTERS, false)) {
+      counters.evaluateBloomFilters(orcReader, fileSplit.getStart(), fileSplit.getLength(), searchArgument,
+          columnNames);
+    }
+  }
+
+  /**
+   * Whether the split is of a plain, non transactional, ORC file.
+   */
+  private static boolean isOriginal(InputSplit inputSplit) {
+    if (inputSplit instanceof OrcSplit) {
+      OrcSplit orcSplit = (OrcSplit) inputSplit;
+      return orcSplit.isOriginal() && orcSplit.getDeltas().isEmpty();
+    }
+    return inputSplit instanceof FileSplit;
+  }
+
+  /**
+   * Marks the ORC column ids of the selected top level fields, and all of their children, as included. Of the
+   * {@code STRUCT} fields with nested column paths, such as {@code context.device.os}, only the fields on these paths
+   * are included, so that the other fields of the {@code STRUCT} are neither read nor decoded.
+   */
+  static boolean[] getIncludedColumns(TypeDescription schema, List<Integer> readColumnIds,
+      Collection<String> nestedColumnPaths) {
+    boolean[] included = new boolean[schema.getMaximumId() + 1];
+    included[0] = true;
+    List<TypeDescription> children = schema.getChildren();
+    List<String> fieldNames = schema.getFieldNames();
+    for (int readColumnId : readColumnIds) {
+      TypeDescription child = children.get(readColumnId);
+      String prefix = fieldNames.get(readColumnId).toLowerCase() + ".";
+      boolean pruned = false;
+      for (String nestedColumnPath : nestedColumnPaths) {
+        String path = nestedColumnPath.toLowerCase();
+        if (path.startsWith(prefix)) {
+          pruned = true;
+          included[child.getId()] = true;
+          includePath(child, path.substring(prefix.length()).split("\\."), 0, included);
+        }
+      }
+      if (!pruned) {
+        include(child, included);
+      }
     }
-    setReadColumns(conf, typeInfo);
-    RecordReader<NullWritable, OrcStruct> reader = orcInputFormat.getRecordReader(inputSplit, conf, reporter);
-    return new CorcRecordReader(typeInfo, reader, getConverterFactory(conf), getFilter(conf, typeInfo));
+    return included;
   }
 
-  private StructTypeInfo readStructTypeInfoFromSplit(InputSplit inputSplit, JobConf conf) throws IOException {
+  private static void includePath(TypeDescription struct, String[] names, int index, boolean[] included) {
+    if (struct.getCategory() != TypeDescription.Category.STRUCT) {
+      include(struct, included);
+      return;
+    }
+    List<String> fieldNames = struct.getFieldNames();
+    for (int i = 0; i < fieldNames.size(); i++) {
+      if (fieldNames.get(i).equalsIgnoreCase(names[index])) {
+        TypeDescription child = struct.getChildren().get(i);
+        if (index == names.length - 1) {
+          include(child, included);
+        } else {
+          included[child.getId()] = true;
+          includePath(child, names, index + 1, included);
+        }
+        return;
+      }
+    }
+  }
+
+  private static void include(TypeDescription type, boolean[] included) {
+    for (int id = type.getId(); id <= type.getMaximumId(); id++) {
+      included[id] = true;
+    }
+  }
+
+  /**
+   * Maps the ORC column id of each field to the field name used by the {@link SearchArgument}. Fields nested within
+   * {@code STRUCT} fields are named by their dotted path, such as {@code context.device.os}, so that ORC prunes row
+   * groups by the statistics of the nested column.
+   */
+  static String[] getSearchArgumentColumnNames(TypeDescription schema, StructTypeInfo typeInfo) {
+    String[] columnNames = new String[schema.getMaximumId() + 1];
+    addSearchArgumentColumnNames(columnNames, null, schema, typeInfo);
+    return columnNames;
+  }
+
+  private static void addSearchArgumentColumnNames(String[] columnNames, String prefix, TypeDescription schema,
+      StructTypeInfo typeInfo) {
+    List<TypeDescription> children = schema.getChildren();
+    List<String> names = typeInfo.getAllStructFieldNames();
+    List<TypeInfo> types = typeInfo.getAllStructFieldTypeInfos();
+    for (int i = 0; i < children.size() && i < names.size(); i++) {
+      TypeDescription child = children.get(i);
+      String name = prefix == null ? names.get(i) : prefix + "." + names.get(i);
+      columnNames[child.getId()] = name;
+      if (child.getCategory() == TypeDescription.Category.STRUCT && types.get(i).getCategory() == Category.STRUCT) {
+        addSearchArgumentColumnNames(columnNames, name, child, (StructTypeInfo) types.get(i));
+      }
+    }
+  }
+
+  /**
+   * Creates the ORC reader of the split. Splits of plain ORC files that do not already carry the file tail are read
+   * with the tail from the {@link FileTailCache}, which schema detection will have populated, and with the same
+   * included columns, including nested column paths, and {@link SearchArgument} as the batch reader. Other splits are
+   * left to {@link OrcInputFormat}, which also handles transactional data.
+   */
+  private RecordReader<NullWritable, OrcStruct> createOrcRecordReader(InputSplit inputSplit, JobConf conf,
+      StructTypeInfo typeInfo, Reporter reporter) throws IOException {
+    boolean hasFooter = inputSplit instanceof OrcSplit && ((OrcSplit) inputSplit).hasFooter();
+    if (isOriginal(inputSplit) && !hasFooter
+        && !conf.getBoolean(HiveConf.ConfVars.HIVE_TRANSACTIONAL_TABLE_SCAN.varname, false)) {
+      FileSplit fileSplit = (FileSplit) inputSplit;
+      Reader orcReader = getFileTailCache(conf).createReader(fileSplit.getPath(), conf, reporter);
+      TypeDescription schema = orcReader.getSchema();
+      org.apache.orc.Reader.Options options = newReaderOptions(conf, fileSplit, schema, typeInfo,
+          ColumnProjectionUtils.getReadColumnIDs(conf), ColumnProjectionUtils.getNestedColumnPaths(conf),
+          getSearchArgument(conf, reporter));
+      StructTypeInfo fileTypeInfo = (StructTypeInfo) TypeInfoUtils.getTypeInfoFromTypeString(schema.toString());
+      return new OrcStructRecordReader(orcReader.rowsOptions(options), fileTypeInfo, fileSplit.getStart(),
+          fileSplit.getLength());
+    }
+    return orcInputFormat.getRecordReader(inputSplit, conf, reporter);
+  }
+
+  private StructTypeInfo readStructTypeInfoFromSplit(InputSplit inputSplit, JobConf conf, Reporter reporter)
+      throws IOException {
     LOG.debug("Attempting to read schema typeInfo from split: {}", inputSplit);
     StructTypeInfo typeInfo;
     if (inputSplit instanceof FileSplit) {
       Path path = getSplitPath((FileSplit) inputSplit, conf);
-      Reader orcReader = OrcFile.createReader(path, OrcFile.readerOptions(conf));
+      Reader orcReader = getFileTailCache(conf).createReader(path, conf, reporter);
       ObjectInspector inspector = orcReader.getObjectInspector();
       typeInfo = (StructTypeInfo) TypeInfoUtils.getTypeInfoFromObjectInspector(inspector);
 
@@ -278,7 +941,7 @@ public class CorcInputFormat implements InputFormat<NullWritable, Corc> {
     return path;
   }
 
-  private boolean isAtomic(Reader orcReader) {
+  private static boolean isAtomic(Reader orcReader) {
     // Use org.apache.hadoop.hive.ql.io.orc.OrcInputFormat.isOriginal(Reader) from hive-exec:1.1.0
     boolean atomic = orcReader.hasMetadataValue(OrcRecordUpdater.ACID_KEY_INDEX_NAME);
     LOG.debug("Atomic ORCFile: {}", atomic);
@@ -323,9 +986,33 @@ public class CorcInputFormat implements InputFormat<NullWritable, Corc> {
    */
   public static String toKryo(SearchArgument sarg) {
     Output out = new Output(4 * 1024, 10 * 1024 * 1024);
-    new Kryo().writeObject(out, sarg);
+    Kryo kryo = new Kryo();
+    kryo.addDefaultSerializer(Timestamp.class, new TimestampSerializer());
+    kryo.writeObject(out, sarg);
     out.close();
     return Base64.encodeBase64String(out.toBytes());
   }
 
+  /**
+   * Writes {@link Timestamp} literals in the form read by the Kryo instances of Hive's {@code SerializationUtilities},
+   * which decode the {@link SearchArgument}. Kryo's default {@code java.util.Date} serializer drops the nanoseconds and
+   * is not understood by Hive.
+   */
+  static class TimestampSerializer extends Serializer<Timestamp> {
+
+    @Override
+    public void write(Kryo kryo, Output output, Timestamp timestamp) {
+      output.writeLong(timestamp.getTime());
+      output.writeInt(timestamp.getNanos());
+    }
+
+    @Override
+    public Timestamp read(Kryo kryo, Input input, Class<Timestamp> type) {
+      Timestamp timestamp = new Timestamp(input.readLong());
+      timestamp.setNanos(input.readInt());
+      return timestamp;
+    }
+
+  }
+
 }
@@ -16,7 +16,9 @@
 package com.hotels.corc.mapred;
 
 import java.io.IOException;
+import java.util.List;
 
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.hive.ql.io.orc.OrcOutputFormat;
 import org.apache.hadoop.hive.ql.io.orc.OrcStruct;
@@ -25,6 +27,10 @@ import org.apache.hadoop.mapred.FileOutputFormat;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.RecordWriter;
 import org.apache.hadoop.util.Progressable;
+import org.apache.hadoop.util.StringUtils;
+import org.apache.orc.OrcConf;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.hotels.corc.Corc;
 
@@ -34,6 +40,16 @@ import com.hotels.corc.Corc;
  */
 public class CorcOutputFormat extends FileOutputFormat<NullWritable, Corc> {
 
+  private static final Logger LOG = LoggerFactory.getLogger(CorcOutputFormat.class);
+
+  static final String BLOOM_FILTER_COLUMNS = OrcConf.BLOOM_FILTER_COLUMNS.getAttribute();
+  static final String BLOOM_FILTER_FPP = OrcConf.BLOOM_FILTER_FPP.getAttribute();
+
+  /**
+   * The false positive probability of the bloom filters when none is set, as used by the ORC writer.
+   */
+  public static final double DEFAULT_BLOOM_FILTER_FPP = 0.05;
+
   private final OrcOutputFormat orcOutputFormat = new OrcOutputFormat();
 
   @Override
@@ -44,4 +60,33 @@ public class CorcOutputFormat extends FileOutputFormat<NullWritable, Corc> {
     return new CorcRecordWriter(writer);
   }
 
+  /**
+   * Sets the top level columns for which the ORC writer creates a bloom filter in each row group, in addition to the
+   * column statistics. Readers use the bloom filters to skip the row groups that cannot contain the literals of
+   * {@code EQUALS}, {@code NULL_SAFE_EQUALS} and {@code IN} predicates, which the minimum and maximum values of high
+   * cardinality columns rarely allow.
+   */
+  public static void setBloomFilterColumns(Configuration conf, List<String> columnNames) {
+    if (columnNames != null && !columnNames.isEmpty()) {
+      conf.set(BLOOM_FILTER_COLUMNS, StringUtils.join(",", columnNames));
+      LOG.debug("Set bloom filter columns on conf: {}", columnNames);
+    }
+  }
+
+  /**
+   * Sets the false positive probability of the bloom filters, which must be greater than 0 and less than 1. Lower
+   * probabilities skip more row groups at the cost of larger bloom filters.
+   */
+  public static void setBloomFilterFpp(Configuration conf, double fpp) {
+    checkBloomFilterFpp(fpp);
+    conf.setDouble(BLOOM_FILTER_FPP, fpp);
+    LOG.debug("Set bloom filter fpp on conf: {}", fpp);
+  }
+
+  private static void checkBloomFilterFpp(double fpp) {
+    if (!(fpp > 0.0 && fpp < 1.0)) {
+      throw new IllegalArgumentException("Bloom filter fpp must be greater than 0 and less than 1: " + fpp);
+    }
+  }
+
 }
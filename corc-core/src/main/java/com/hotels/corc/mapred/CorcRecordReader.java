@@ -22,28 +22,40 @@ import org.apache.hadoop.hive.ql.io.orc.OrcStruct;
 import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.mapred.RecordReader;
+import org.apache.hadoop.mapred.Reporter;
 
 import com.hotels.corc.ConverterFactory;
 import com.hotels.corc.Corc;
+import com.hotels.corc.CorcSchema;
 import com.hotels.corc.Filter;
 
 /**
  * A wrapper for {@link OrcRecordReader} exposing {@link Corc} in place of {@link OrcStruct}.
  */
 class CorcRecordReader implements RecordReader<NullWritable, Corc> {
-  private final StructTypeInfo typeInfo;
+  private final CorcSchema schema;
   private final RecordReader<NullWritable, OrcStruct> reader;
-  private final ConverterFactory factory;
   private final Filter filter;
+  private final PushdownCounters counters;
   private final AcidRecordReader<NullWritable, OrcStruct> transactionalReader;
   private final boolean transactional;
+  private boolean exhausted;
 
   CorcRecordReader(StructTypeInfo typeInfo, RecordReader<NullWritable, OrcStruct> reader, ConverterFactory factory,
       Filter filter) {
-    this.typeInfo = typeInfo;
+    this(new CorcSchema(typeInfo, factory), reader, filter);
+  }
+
+  CorcRecordReader(CorcSchema schema, RecordReader<NullWritable, OrcStruct> reader, Filter filter) {
+    this(schema, reader, filter, new PushdownCounters(Reporter.NULL, 0));
+  }
+
+  CorcRecordReader(CorcSchema schema, RecordReader<NullWritable, OrcStruct> reader, Filter filter,
+      PushdownCounters counters) {
+    this.schema = schema;
     this.reader = reader;
-    this.factory = factory;
     this.filter = filter;
+    this.counters = counters;
     transactional = AcidRecordReader.class.isAssignableFrom(reader.getClass());
     if (transactional) {
       transactionalReader = (AcidRecordReader<NullWritable, OrcStruct>) reader;
@@ -55,13 +67,16 @@ class CorcRecordReader implements RecordReader<NullWritable, Corc> {
   @Override
   public boolean next(NullWritable key, Corc value) throws IOException {
     while (reader.next(key, value.getOrcStruct())) {
+      counters.rowRead();
       if (filter.accept(value)) {
+        counters.rowAccepted();
         if (transactional) {
           value.setRecordIdentifier(transactionalReader.getRecordIdentifier());
         }
         return true;
       }
     }
+    exhausted = true;
     return false;
   }
 
@@ -72,7 +87,7 @@ class CorcRecordReader implements RecordReader<NullWritable, Corc> {
 
   @Override
   public Corc createValue() {
-    return new Corc(typeInfo, factory);
+    return new Corc(schema);
   }
 
   @Override
@@ -82,6 +97,7 @@ class CorcRecordReader implements RecordReader<NullWritable, Corc> {
 
   @Override
   public void close() throws IOException {
+    counters.report(exhausted, filter);
     reader.close();
   }
 
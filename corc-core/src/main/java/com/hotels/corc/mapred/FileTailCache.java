@@ -0,0 +1,149 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.mapred;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.ql.io.orc.OrcFile;
+import org.apache.hadoop.hive.ql.io.orc.Reader;
+import org.apache.hadoop.mapred.Reporter;
+import org.apache.orc.impl.OrcTail;
+import org.apache.orc.impl.ReaderImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded, JVM wide cache of the parsed tails of ORC files. The tail holds the postscript, footer and metadata of a
+ * file. {@link CorcInputFormat} opens a split's file more than once: to detect its schema, to evaluate the pushdown
+ * counters and to read its rows. With this cache only the first reader reads the tail from storage. The others are
+ * created from the cached tail, as are the readers of other splits of the same file in the same JVM.
+ * <p/>
+ * Entries are keyed by the path, length and modification time of the file, so a file that is replaced is read again.
+ * Hits and misses are reported with the {@link CorcCounter} counters.
+ */
+final class FileTailCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(FileTailCache.class);
+
+  static final int MAX_ENTRIES = 256;
+
+  static final FileTailCache INSTANCE = new FileTailCache(MAX_ENTRIES);
+  static final FileTailCache DISABLED = new FileTailCache(0);
+
+  private final int maxEntries;
+  private final Map<String, OrcTail> entries;
+
+  FileTailCache(final int maxEntries) {
+    this.maxEntries = maxEntries;
+    entries = new LinkedHashMap<String, OrcTail>(16, 0.75F, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, OrcTail> eldest) {
+        return size() > maxEntries;
+      }
+    };
+  }
+
+  /**
+   * Creates a Hive ORC {@link Reader} of the file.
+   */
+  Reader createReader(Path path, Configuration conf, Reporter reporter) throws IOException {
+    FileSystem fs = path.getFileSystem(conf);
+    FileStatus status = fs.getFileStatus(path);
+    String key = key(path, status);
+    OrcTail tail = get(key, reporter);
+    OrcFile.ReaderOptions options = OrcFile.readerOptions(conf);
+    options.filesystem(fs);
+    options.maxLength(status.getLen());
+    if (tail != null) {
+      options.orcTail(tail);
+    }
+    Reader reader = OrcFile.createReader(path, options);
+    if (tail == null) {
+      put(key, reader, status);
+    }
+    return reader;
+  }
+
+  /**
+   * Creates an {@link org.apache.orc.Reader} of the file.
+   */
+  org.apache.orc.Reader createOrcReader(Path path, Configuration conf, Reporter reporter) throws IOException {
+    FileSystem fs = path.getFileSystem(conf);
+    FileStatus status = fs.getFileStatus(path);
+    String key = key(path, status);
+    OrcTail tail = get(key, reporter);
+    org.apache.orc.OrcFile.ReaderOptions options = org.apache.orc.OrcFile.readerOptions(conf);
+    options.filesystem(fs);
+    options.maxLength(status.getLen());
+    if (tail != null) {
+      options.orcTail(tail);
+    }
+    org.apache.orc.Reader reader = org.apache.orc.OrcFile.createReader(path, options);
+    if (tail == null) {
+      put(key, reader, status);
+    }
+    return reader;
+  }
+
+  synchronized int size() {
+    return entries.size();
+  }
+
+  synchronized void clear() {
+    entries.clear();
+  }
+
+  private static String key(Path path, FileStatus status) {
+    return path + ":" + status.getLen() + ":" + status.getModificationTime();
+  }
+
+  private OrcTail get(String key, Reporter reporter) {
+    if (maxEntries == 0) {
+      return null;
+    }
+    OrcTail tail;
+    synchronized (this) {
+      tail = entries.get(key);
+    }
+    if (tail == null) {
+      LOG.debug("File tail cache miss: {}", key);
+      reporter.incrCounter(CorcCounter.FILE_TAIL_CACHE_MISSES, 1L);
+    } else {
+      reporter.incrCounter(CorcCounter.FILE_TAIL_CACHE_HITS, 1L);
+    }
+    return tail;
+  }
+
+  private void put(String key, org.apache.orc.Reader reader, FileStatus status) throws IOException {
+    if (maxEntries == 0) {
+      return;
+    }
+    OrcTail tail = ReaderImpl.extractFileTail(reader.getSerializedFileFooter(), status.getLen(),
+        status.getModificationTime());
+    synchronized (this) {
+      entries.put(key, tail);
+    }
+  }
+
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.mapred;
+
+import java.io.IOException;
+
+import org.apache.hadoop.hive.ql.io.orc.OrcStruct;
+import org.apache.hadoop.hive.serde2.objectinspector.SettableStructObjectInspector;
+import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapred.RecordReader;
+
+/**
+ * Exposes the rows of a Hive ORC {@link org.apache.hadoop.hive.ql.io.orc.RecordReader} created with the options of
+ * {@link CorcInputFormat}, such as the nested columns to read, as a {@link RecordReader} of {@link OrcStruct}.
+ */
+class OrcStructRecordReader implements RecordReader<NullWritable, OrcStruct> {
+
+  private final org.apache.hadoop.hive.ql.io.orc.RecordReader reader;
+  private final StructTypeInfo typeInfo;
+  private final long start;
+  private final long length;
+
+  OrcStructRecordReader(org.apache.hadoop.hive.ql.io.orc.RecordReader reader, StructTypeInfo typeInfo, long start,
+      long length) {
+    this.reader = reader;
+    this.typeInfo = typeInfo;
+    this.start = start;
+    this.length = length;
+  }
+
+  @Override
+  public boolean next(NullWritable key, OrcStruct value) throws IOException {
+    if (!reader.hasNext()) {
+      return false;
+    }
+    // the ORC reader updates the fields of the previous row in place
+    reader.next(value);
+    return true;
+  }
+
+  @Override
+  public NullWritable createKey() {
+    return NullWritable.get();
+  }
+
+  @Override
+  public OrcStruct createValue() {
+    return (OrcStruct) ((SettableStructObjectInspector) OrcStruct.createObjectInspector(typeInfo)).create();
+  }
+
+  @Override
+  public long getPos() throws IOException {
+    return start + (long) (reader.getProgress() * length);
+  }
+
+  @Override
+  public float getProgress() throws IOException {
+    return reader.getProgress();
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+}
@@ -0,0 +1,384 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.mapred;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hadoop.hive.ql.io.sarg.PredicateLeaf;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument.TruthValue;
+import org.apache.hadoop.mapred.Reporter;
+import org.apache.orc.BloomFilterIO;
+import org.apache.orc.ColumnStatistics;
+import org.apache.orc.OrcProto;
+import org.apache.orc.Reader;
+import org.apache.orc.RecordReader;
+import org.apache.orc.StripeInformation;
+import org.apache.orc.StripeStatistics;
+import org.apache.orc.TypeDescription;
+import org.apache.orc.impl.ColumnStatisticsImpl;
+import org.apache.orc.impl.OrcIndex;
+import org.apache.orc.impl.RecordReaderImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.hotels.corc.Filter;
+import com.hotels.corc.sarg.SearchArgumentFilter;
+import com.hotels.corc.sarg.VectorizedSearchArgumentFilter;
+
+/**
+ * Collects the predicate pushdown {@link CorcCounter counters} of a single split and reports them via the task
+ * {@link Reporter} once the split has been read.
+ * <p/>
+ * The stripes of the split are evaluated against the {@link SearchArgument} with their column statistics, as the ORC
+ * reader does, when the reader is created. Stripes eliminated while planning the splits are not counted. The ORC reader
+ * does not expose the row groups it skips within the stripes it reads, so these are derived from the number of rows it
+ * returns once the split has been read in full: every row group but the last of a stripe spans the row index stride,
+ * so a skipped final row group of a stripe is only counted when it is a full stride long. Optionally the row groups
+ * that only the bloom filters eliminate are counted by evaluating the row index of the stripes read.
+ * <p/>
+ * The leaf and column counters add a counter for every {@link SearchArgument} leaf and projected column, so only as
+ * many as the detailed counter limit allows are reported, none by default.
+ */
+final class PushdownCounters {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PushdownCounters.class);
+
+  private final Reporter reporter;
+  private final int maxDetailedCounters;
+  private int detailedCounters;
+  private final List<Integer> readStripes = new ArrayList<>();
+  private boolean stripesEvaluated;
+  private long rowIndexStride;
+  private long rowsInReadStripes;
+  private long rowGroupsInReadStripes;
+  private long rowsRead;
+  private long rowsAccepted;
+  private long rowsNotMaterialized;
+  private boolean reported;
+
+  /**
+   * @param maxDetailedCounters The maximum number of leaf and column counters reported.
+   */
+  PushdownCounters(Reporter reporter, int maxDetailedCounters) {
+    this.reporter = reporter;
+    this.maxDetailedCounters = maxDetailedCounters;
+  }
+
+  /**
+   * Evaluates the stripes that start within the split, reporting the stripe counters and the row groups of the skipped
+   * stripes. Also reports the estimated raw data size of the read columns in the stripes that are read, within the
+   * detailed counter limit.
+   *
+   * @param columnNames The {@link SearchArgument} column name of each ORC column id.
+   */
+  void evaluateStripes(Reader reader, long start, long length, SearchArgument searchArgument, String[] columnNames,
+      String[] readColumnNames) {
+    rowIndexStride = reader.getRowIndexStride();
+    List<StripeInformation> stripes = reader.getStripes();
+    List<StripeStatistics> statistics = null;
+    List<PredicateLeaf> leaves = null;
+    int[] leafColumnIds = null;
+    TruthValue[] leafValues = null;
+    if (searchArgument != null) {
+      statistics = reader.getStripeStatistics();
+      leaves = searchArgument.getLeaves();
+      leafColumnIds = getColumnIds(leaves, columnNames);
+      leafValues = new TruthValue[leaves.size()];
+    }
+
+    long stripesRead = 0;
+    long stripesSkipped = 0;
+    long rowGroupsSkipped = 0;
+    int splitStripe = 0;
+    for (int i = 0; i < stripes.size(); i++) {
+      StripeInformation stripe = stripes.get(i);
+      if (stripe.getOffset() < start || stripe.getOffset() >= start + length) {
+        continue;
+      }
+      long rows = stripe.getNumberOfRows();
+      long rowGroups = rowIndexStride > 0 ? (rows + rowIndexStride - 1) / rowIndexStride : 1;
+      boolean read = true;
+      if (searchArgument != null && i < statistics.size()) {
+        read = isStripeNeeded(statistics.get(i), searchArgument, leafColumnIds, leafValues);
+      }
+      if (read) {
+        readStripes.add(splitStripe);
+        stripesRead++;
+        rowsInReadStripes += rows;
+        rowGroupsInReadStripes += rowGroups;
+      } else {
+        stripesSkipped++;
+        rowGroupsSkipped += rowGroups;
+      }
+      splitStripe++;
+    }
+    stripesEvaluated = true;
+    reporter.incrCounter(CorcCounter.STRIPES_READ, stripesRead);
+    reporter.incrCounter(CorcCounter.STRIPES_SKIPPED, stripesSkipped);
+    reporter.incrCounter(CorcCounter.ROW_GROUPS_SKIPPED, rowGroupsSkipped);
+    reportColumnBytes(reader, readColumnNames);
+  }
+
+  /**
+   * Reads the row index and bloom filters of the leaf columns in the stripes that {@link #evaluateStripes} found to be
+   * read, and reports the row groups whose column statistics may satisfy the {@link SearchArgument} but whose bloom
+   * filters show that no row does. The ORC reader skips these row groups itself; this reads their row index a second
+   * time.
+   *
+   * @param columnNames The {@link SearchArgument} column name of each ORC column id.
+   */
+  void evaluateBloomFilters(Reader reader, long start, long length, SearchArgument searchArgument,
+      String[] columnNames) throws IOException {
+    if (searchArgument == null || readStripes.isEmpty()) {
+      return;
+    }
+    List<PredicateLeaf> leaves = searchArgument.getLeaves();
+    int[] leafColumnIds = getColumnIds(leaves, columnNames);
+    boolean[] sargColumns = new boolean[columnNames.length];
+    for (int columnId : leafColumnIds) {
+      if (columnId >= 0) {
+        sargColumns[columnId] = true;
+      }
+    }
+    boolean[] included = new boolean[columnNames.length];
+    include(reader.getSchema(), sargColumns, included);
+    included[0] = true;
+
+    TruthValue[] statisticsValues = new TruthValue[leaves.size()];
+    TruthValue[] bloomFilterValues = new TruthValue[leaves.size()];
+    long rowGroupsSkipped = 0;
+    // the stripe indexes of the reader are relative to the stripes within its range
+    RecordReader rows = reader.rows(reader.options().include(included).range(start, length));
+    try {
+      for (int stripe : readStripes) {
+        OrcIndex index = ((RecordReaderImpl) rows).readRowIndex(stripe, included, sargColumns);
+        OrcProto.RowIndex[] rowIndex = index.getRowGroupIndex();
+        OrcProto.BloomFilterIndex[] bloomFilterIndex = index.getBloomFilterIndex();
+        int rowGroups = getRowGroups(rowIndex, leafColumnIds);
+        for (int rowGroup = 0; rowGroup < rowGroups; rowGroup++) {
+          for (int leaf = 0; leaf < leafColumnIds.length; leaf++) {
+            int columnId = leafColumnIds[leaf];
+            if (columnId < 0 || rowIndex[columnId] == null) {
+              statisticsValues[leaf] = TruthValue.YES_NO_NULL;
+              bloomFilterValues[leaf] = TruthValue.YES_NO_NULL;
+              continue;
+            }
+            ColumnStatistics statistics = ColumnStatisticsImpl
+                .deserialize(rowIndex[columnId].getEntry(rowGroup).getStatistics());
+            statisticsValues[leaf] = RecordReaderImpl.evaluatePredicate(statistics, leaves.get(leaf), null);
+            if (bloomFilterIndex != null && bloomFilterIndex[columnId] != null) {
+              BloomFilterIO bloomFilter = new BloomFilterIO(bloomFilterIndex[columnId].getBloomFilter(rowGroup));
+              bloomFilterValues[leaf] = RecordReaderImpl.evaluatePredicate(statistics, leaves.get(leaf), bloomFilter);
+            } else {
+              bloomFilterValues[leaf] = statisticsValues[leaf];
+            }
+          }
+          if (searchArgument.evaluate(statisticsValues).isNeeded()
+              && !searchArgument.evaluate(bloomFilterValues).isNeeded()) {
+            rowGroupsSkipped++;
+          }
+        }
+      }
+    } finally {
+      rows.close();
+    }
+    reporter.incrCounter(CorcCounter.ROW_GROUPS_SKIPPED_BY_BLOOM_FILTER, rowGroupsSkipped);
+  }
+
+  void rowRead() {
+    rowsRead++;
+  }
+
+  void rowAccepted() {
+    rowsAccepted++;
+  }
+
+  void rowsRead(long rows) {
+    rowsRead(rows, rows);
+  }
+
+  void rowsRead(long rows, long accepted) {
+    rowsRead += rows;
+    rowsAccepted += accepted;
+  }
+
+  void rowsNotMaterialized(long rows) {
+    rowsNotMaterialized += rows;
+  }
+
+  /**
+   * Reports the row counters, the row group counters of the stripes read if {@code exhausted} and the leaf counters if
+   * {@code filter} is a {@link SearchArgumentFilter}. Only the first call has any effect.
+   *
+   * @param exhausted Whether all the rows of the split were read.
+   */
+  void report(boolean exhausted, Filter filter) {
+    if (!reportRows(exhausted) || !(filter instanceof SearchArgumentFilter)) {
+      return;
+    }
+    SearchArgumentFilter searchArgumentFilter = (SearchArgumentFilter) filter;
+    List<PredicateLeaf> leaves = searchArgumentFilter.getLeaves();
+    for (int leaf = 0; leaf < leaves.size() && maxDetailedCounters > 0; leaf++) {
+      reportLeaf(leaf, leaves.get(leaf), searchArgumentFilter.getRowsEvaluated(leaf),
+          searchArgumentFilter.getRowsAccepted(leaf));
+    }
+  }
+
+  /**
+   * Reports the row counters, the row group counters of the stripes read if {@code exhausted} and the leaf counters of
+   * the batch {@code filter}, if any. Only the first call has any effect.
+   *
+   * @param exhausted Whether all the rows of the split were read.
+   */
+  void report(boolean exhausted, VectorizedSearchArgumentFilter filter) {
+    if (!reportRows(exhausted) || filter == null) {
+      return;
+    }
+    List<PredicateLeaf> leaves = filter.getLeaves();
+    for (int leaf = 0; leaf < leaves.size() && maxDetailedCounters > 0; leaf++) {
+      reportLeaf(leaf, leaves.get(leaf), filter.getRowsEvaluated(leaf), filter.getRowsAccepted(leaf));
+    }
+  }
+
+  /**
+   * @return Whether the counters were reported, which is only the case the first time.
+   */
+  private boolean reportRows(boolean exhausted) {
+    if (reported) {
+      return false;
+    }
+    reported = true;
+    reporter.incrCounter(CorcCounter.ROWS_READ, rowsRead);
+    reporter.incrCounter(CorcCounter.ROWS_ACCEPTED, rowsAccepted);
+    if (rowsNotMaterialized > 0) {
+      reporter.incrCounter(CorcCounter.ROWS_NOT_MATERIALIZED, rowsNotMaterialized);
+    }
+    if (exhausted && stripesEvaluated) {
+      long rowGroupsSkipped = 0;
+      if (rowIndexStride > 0 && rowsInReadStripes > rowsRead) {
+        rowGroupsSkipped = (rowsInReadStripes - rowsRead) / rowIndexStride;
+      }
+      reporter.incrCounter(CorcCounter.ROW_GROUPS_READ, rowGroupsInReadStripes - rowGroupsSkipped);
+      reporter.incrCounter(CorcCounter.ROW_GROUPS_SKIPPED, rowGroupsSkipped);
+    }
+    return true;
+  }
+
+  private void reportLeaf(int index, PredicateLeaf leaf, long rowsEvaluated, long rowsAccepted) {
+    String name = getLeafName(index, leaf);
+    incrDetailedCounter(CorcCounter.LEAF_GROUP, name + " evaluated", rowsEvaluated);
+    incrDetailedCounter(CorcCounter.LEAF_GROUP, name + " accepted", rowsAccepted);
+  }
+
+  private void reportColumnBytes(Reader reader, String[] readColumnNames) {
+    long rows = reader.getNumberOfRows();
+    if (readColumnNames == null || rows == 0 || maxDetailedCounters == 0) {
+      return;
+    }
+    List<String> fieldNames = reader.getSchema().getFieldNames();
+    for (String columnName : readColumnNames) {
+      if (fieldNames.contains(columnName)) {
+        long rawDataSize = reader.getRawDataSizeOfColumns(Collections.singletonList(columnName));
+        long bytes = (long) ((double) rawDataSize * rowsInReadStripes / rows);
+        incrDetailedCounter(CorcCounter.COLUMN_GROUP, columnName, bytes);
+      }
+    }
+  }
+
+  private void incrDetailedCounter(String group, String name, long amount) {
+    if (detailedCounters >= maxDetailedCounters) {
+      if (detailedCounters++ == maxDetailedCounters) {
+        LOG.warn("Reached the limit of {} leaf and column counters, not reporting '{}' and any further ones",
+            maxDetailedCounters, name);
+      }
+      return;
+    }
+    detailedCounters++;
+    reporter.incrCounter(group, name, amount);
+  }
+
+  /**
+   * Names leaves by position, operator and column, such as {@code "[0] EQUALS col0"}, so that leaves with the same
+   * operator and column have their own counters and the counter names stay within the length limits of Hadoop.
+   */
+  static String getLeafName(int index, PredicateLeaf leaf) {
+    return "[" + index + "] " + leaf.getOperator() + " " + leaf.getColumnName();
+  }
+
+  /**
+   * Includes the columns of {@code type} that are, or contain, a {@link SearchArgument} column.
+   */
+  private static boolean include(TypeDescription type, boolean[] sargColumns, boolean[] included) {
+    boolean include = sargColumns[type.getId()];
+    if (type.getChildren() != null) {
+      for (TypeDescription child : type.getChildren()) {
+        include |= include(child, sargColumns, included);
+      }
+    }
+    included[type.getId()] = include;
+    return include;
+  }
+
+  private static int getRowGroups(OrcProto.RowIndex[] rowIndex, int[] leafColumnIds) {
+    for (int columnId : leafColumnIds) {
+      if (columnId >= 0 && rowIndex[columnId] != null) {
+        return rowIndex[columnId].getEntryCount();
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Evaluates the {@link SearchArgument} against the column statistics of a stripe, as the ORC reader does.
+   *
+   * @param leafColumnIds The ORC column id of each leaf, see {@link #getColumnIds(List, String[])}.
+   * @param leafValues Holds the value of each leaf during evaluation.
+   */
+  static boolean isStripeNeeded(StripeStatistics statistics, SearchArgument searchArgument, int[] leafColumnIds,
+      TruthValue[] leafValues) {
+    List<PredicateLeaf> leaves = searchArgument.getLeaves();
+    ColumnStatistics[] columnStatistics = statistics.getColumnStatistics();
+    for (int leaf = 0; leaf < leafValues.length; leaf++) {
+      int columnId = leafColumnIds[leaf];
+      if (columnId < 0 || columnId >= columnStatistics.length) {
+        leafValues[leaf] = TruthValue.YES_NO_NULL;
+      } else {
+        leafValues[leaf] = RecordReaderImpl.evaluatePredicate(columnStatistics[columnId], leaves.get(leaf), null);
+      }
+    }
+    return searchArgument.evaluate(leafValues).isNeeded();
+  }
+
+  static int[] getColumnIds(List<PredicateLeaf> leaves, String[] columnNames) {
+    int[] columnIds = new int[leaves.size()];
+    for (int leaf = 0; leaf < columnIds.length; leaf++) {
+      columnIds[leaf] = -1;
+      String columnName = leaves.get(leaf).getColumnName();
+      for (int id = 0; id < columnNames.length; id++) {
+        if (columnName.equals(columnNames[id])) {
+          columnIds[leaf] = id;
+          break;
+        }
+      }
+    }
+    return columnIds;
+  }
+
+}
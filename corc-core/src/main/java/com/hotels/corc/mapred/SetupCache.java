@@ -0,0 +1,160 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.mapred;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.hadoop.conf.Configurable;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hive.ql.io.sarg.ConvertAstToSearchArg;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument;
+import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoUtils;
+import org.apache.hadoop.mapred.JobConfigurable;
+import org.apache.hadoop.mapred.Reporter;
+import org.apache.hadoop.util.ReflectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.hotels.corc.ConverterFactory;
+import com.hotels.corc.CorcSchema;
+
+/**
+ * A bounded, JVM wide cache of the immutable objects that {@link CorcInputFormat} builds from the configuration for
+ * each split: parsed {@link StructTypeInfo StructTypeInfos} and {@link SearchArgument SearchArguments},
+ * {@link ConverterFactory} instances and {@link CorcSchema CorcSchemas}. When task containers are reused these are
+ * shared by all readers in the JVM rather than being rebuilt for every split.
+ * <p/>
+ * {@link ConverterFactory} classes that are {@link Configurable} or {@link JobConfigurable}, and the
+ * {@link CorcSchema CorcSchemas} built with them, are not cached as they may depend on the configuration of the split.
+ * Hits and misses are reported with the {@link CorcCounter} counters.
+ */
+final class SetupCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SetupCache.class);
+
+  static final int MAX_ENTRIES = 256;
+
+  static final SetupCache INSTANCE = new SetupCache(MAX_ENTRIES);
+  static final SetupCache DISABLED = new SetupCache(0);
+
+  private static final String TYPE_INFO = "typeInfo:";
+  private static final String SEARCH_ARGUMENT = "searchArgument:";
+  private static final String CONVERTER_FACTORY = "converterFactory:";
+  private static final String SCHEMA = "schema:";
+
+  private final int maxEntries;
+  private final Map<String, Object> entries;
+
+  SetupCache(final int maxEntries) {
+    this.maxEntries = maxEntries;
+    entries = new LinkedHashMap<String, Object>(16, 0.75F, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+        return size() > maxEntries;
+      }
+    };
+  }
+
+  StructTypeInfo getTypeInfo(String typeString, Reporter reporter) {
+    String key = TYPE_INFO + typeString;
+    StructTypeInfo typeInfo = (StructTypeInfo) get(key, reporter);
+    if (typeInfo == null) {
+      typeInfo = (StructTypeInfo) TypeInfoUtils.getTypeInfoFromTypeString(typeString);
+      put(key, typeInfo);
+    }
+    return typeInfo;
+  }
+
+  SearchArgument getSearchArgument(String searchArgumentKryo, Reporter reporter) {
+    String key = SEARCH_ARGUMENT + searchArgumentKryo;
+    SearchArgument searchArgument = (SearchArgument) get(key, reporter);
+    if (searchArgument == null) {
+      searchArgument = ConvertAstToSearchArg.create(searchArgumentKryo);
+      put(key, searchArgument);
+    }
+    return searchArgument;
+  }
+
+  ConverterFactory getConverterFactory(Class<? extends ConverterFactory> factoryClass, Configuration conf,
+      Reporter reporter) {
+    if (!isCacheable(factoryClass)) {
+      return ReflectionUtils.newInstance(factoryClass, conf);
+    }
+    String key = CONVERTER_FACTORY + factoryClass.getName();
+    ConverterFactory factory = (ConverterFactory) get(key, reporter);
+    if (factory == null) {
+      factory = ReflectionUtils.newInstance(factoryClass, conf);
+      put(key, factory);
+    }
+    return factory;
+  }
+
+  CorcSchema getSchema(StructTypeInfo typeInfo, ConverterFactory factory, Reporter reporter) {
+    if (!isCacheable(factory.getClass())) {
+      return new CorcSchema(typeInfo, factory);
+    }
+    String key = SCHEMA + factory.getClass().getName() + ":" + typeInfo.getTypeName();
+    CorcSchema schema = (CorcSchema) get(key, reporter);
+    if (schema == null) {
+      schema = new CorcSchema(typeInfo, factory);
+      put(key, schema);
+    }
+    return schema;
+  }
+
+  synchronized int size() {
+    return entries.size();
+  }
+
+  synchronized void clear() {
+    entries.clear();
+  }
+
+  private static boolean isCacheable(Class<?> factoryClass) {
+    return !Configurable.class.isAssignableFrom(factoryClass) && !JobConfigurable.class.isAssignableFrom(factoryClass);
+  }
+
+  private Object get(String key, Reporter reporter) {
+    if (maxEntries == 0) {
+      return null;
+    }
+    Object value;
+    synchronized (this) {
+      value = entries.get(key);
+    }
+    if (value == null) {
+      LOG.debug("Setup cache miss: {}", key);
+      reporter.incrCounter(CorcCounter.SETUP_CACHE_MISSES, 1L);
+    } else {
+      reporter.incrCounter(CorcCounter.SETUP_CACHE_HITS, 1L);
+    }
+    return value;
+  }
+
+  private void put(String key, Object value) {
+    if (maxEntries == 0) {
+      return;
+    }
+    synchronized (this) {
+      entries.put(key, value);
+    }
+  }
+
+}
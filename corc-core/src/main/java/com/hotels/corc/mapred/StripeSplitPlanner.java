@@ -0,0 +1,254 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.mapred;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.hadoop.fs.BlockLocation;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.ql.io.orc.OrcRecordUpdater;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument.TruthValue;
+import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoUtils;
+import org.apache.hadoop.mapred.FileSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.Reporter;
+import org.apache.orc.Reader;
+import org.apache.orc.StripeInformation;
+import org.apache.orc.StripeStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Plans splits of whole stripes for {@link CorcInputFormat.SplitStrategy#STRIPES}. The footers of the input files are
+ * read in parallel by up to {@link CorcInputFormat#SPLIT_THREADS} threads. Stripes whose column statistics show that
+ * no row can satisfy the {@link SearchArgument} are dropped, as are files with no stripes left. The remaining stripes
+ * of each file are packed in order into splits of up to {@link CorcInputFormat#SPLIT_SIZE} bytes, so that a split never
+ * ends part way through a stripe, and are located on the hosts that hold most of their bytes. The splits are ordered
+ * largest first so that the longest tasks start first.
+ */
+final class StripeSplitPlanner {
+
+  private static final Logger LOG = LoggerFactory.getLogger(StripeSplitPlanner.class);
+
+  private static final int MAX_HOSTS = 3;
+
+  private static final Comparator<FileSplit> LARGEST_FIRST = new Comparator<FileSplit>() {
+    @Override
+    public int compare(FileSplit a, FileSplit b) {
+      return Long.compare(b.getLength(), a.getLength());
+    }
+  };
+
+  private final JobConf conf;
+  private final long splitSize;
+  private final int threads;
+
+  StripeSplitPlanner(JobConf conf) {
+    this.conf = conf;
+    splitSize = conf.getLong(CorcInputFormat.SPLIT_SIZE, CorcInputFormat.DEFAULT_SPLIT_SIZE);
+    threads = conf.getInt(CorcInputFormat.SPLIT_THREADS, CorcInputFormat.DEFAULT_SPLIT_THREADS);
+  }
+
+  /**
+   * Returns the splits, or {@code null} if any of the files are transactional, which are left to Hive.
+   */
+  List<FileSplit> getSplits() throws IOException {
+    List<Path> files = CorcInputFormat.listInputFiles(conf);
+    if (files.isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<FileSplit> splits = new ArrayList<>();
+    int filesDropped = 0;
+    for (FileStripes fileStripes : readFooters(files)) {
+      if (fileStripes.atomic) {
+        LOG.info("Transactional file {}, planning splits with Hive", fileStripes.path);
+        return null;
+      }
+      if (fileStripes.stripes.isEmpty()) {
+        filesDropped++;
+      } else {
+        splits.addAll(pack(fileStripes.path, fileStripes.stripes, fileStripes.blocks, splitSize));
+      }
+    }
+    Collections.sort(splits, LARGEST_FIRST);
+    LOG.info("Planned {} splits of the stripes of {} files, {} files dropped by the search argument.", splits.size(),
+        files.size() - filesDropped, filesDropped);
+    return splits;
+  }
+
+  private List<FileStripes> readFooters(List<Path> files) throws IOException {
+    final StructTypeInfo schemaTypeInfo = CorcInputFormat.getSchemaTypeInfo(conf);
+    final SearchArgument searchArgument = CorcInputFormat.getSearchArgument(conf);
+    ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, files.size())),
+        new ThreadFactory() {
+          @Override
+          public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "corc-split-planner");
+            thread.setDaemon(true);
+            return thread;
+          }
+        });
+    try {
+      List<Future<FileStripes>> futures = new ArrayList<>(files.size());
+      for (final Path path : files) {
+        futures.add(executor.submit(new Callable<FileStripes>() {
+          @Override
+          public FileStripes call() throws IOException {
+            return readFooter(path, schemaTypeInfo, searchArgument);
+          }
+        }));
+      }
+      List<FileStripes> fileStripes = new ArrayList<>(files.size());
+      for (Future<FileStripes> future : futures) {
+        fileStripes.add(future.get());
+      }
+      return fileStripes;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while reading ORC file footers", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("Unable to read ORC file footer", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private FileStripes readFooter(Path path, StructTypeInfo schemaTypeInfo, SearchArgument searchArgument)
+      throws IOException {
+    FileSystem fs = path.getFileSystem(conf);
+    FileStatus status = fs.getFileStatus(path);
+    Reader reader = CorcInputFormat.getFileTailCache(conf).createOrcReader(path, conf, Reporter.NULL);
+    if (reader.hasMetadataValue(OrcRecordUpdater.ACID_KEY_INDEX_NAME)) {
+      return new FileStripes(path, true, Collections.<StripeInformation> emptyList(), null);
+    }
+    List<StripeInformation> stripes = reader.getStripes();
+    if (searchArgument != null) {
+      StructTypeInfo typeInfo = schemaTypeInfo;
+      if (typeInfo == null) {
+        typeInfo = (StructTypeInfo) TypeInfoUtils.getTypeInfoFromTypeString(reader.getSchema().toString());
+      }
+      String[] columnNames = CorcInputFormat.getSearchArgumentColumnNames(reader.getSchema(), typeInfo);
+      int[] leafColumnIds = PushdownCounters.getColumnIds(searchArgument.getLeaves(), columnNames);
+      TruthValue[] leafValues = new TruthValue[leafColumnIds.length];
+      List<StripeStatistics> statistics = reader.getStripeStatistics();
+      List<StripeInformation> needed = new ArrayList<>(stripes.size());
+      for (int i = 0; i < stripes.size(); i++) {
+        if (i >= statistics.size()
+            || PushdownCounters.isStripeNeeded(statistics.get(i), searchArgument, leafColumnIds, leafValues)) {
+          needed.add(stripes.get(i));
+        }
+      }
+      stripes = needed;
+    }
+    BlockLocation[] blocks = fs.getFileBlockLocations(status, 0L, status.getLen());
+    return new FileStripes(path, false, stripes, blocks);
+  }
+
+  /**
+   * Packs the stripes of a file in order into splits of up to {@code splitSize} bytes, each of at least one stripe.
+   * Splits span any dropped stripes between the stripes they hold, which the ORC reader skips by their statistics, so
+   * only the bytes of the stripes held count towards their size.
+   */
+  static List<FileSplit> pack(Path path, List<StripeInformation> stripes, BlockLocation[] blocks, long splitSize)
+      throws IOException {
+    List<FileSplit> splits = new ArrayList<>();
+    long start = -1L;
+    long end = 0L;
+    long size = 0L;
+    for (StripeInformation stripe : stripes) {
+      if (start >= 0L && size + stripe.getLength() > splitSize) {
+        splits.add(new FileSplit(path, start, end - start, getHosts(blocks, start, end)));
+        start = -1L;
+        size = 0L;
+      }
+      if (start < 0L) {
+        start = stripe.getOffset();
+      }
+      end = stripe.getOffset() + stripe.getLength();
+      size += stripe.getLength();
+    }
+    if (start >= 0L) {
+      splits.add(new FileSplit(path, start, end - start, getHosts(blocks, start, end)));
+    }
+    return splits;
+  }
+
+  /**
+   * Returns the hosts that hold the most bytes of the range, most first.
+   */
+  static String[] getHosts(BlockLocation[] blocks, long start, long end) throws IOException {
+    final Map<String, Long> bytes = new HashMap<>();
+    if (blocks != null) {
+      for (BlockLocation block : blocks) {
+        long overlap = Math.min(end, block.getOffset() + block.getLength()) - Math.max(start, block.getOffset());
+        if (overlap > 0L) {
+          for (String host : block.getHosts()) {
+            Long total = bytes.get(host);
+            bytes.put(host, total == null ? overlap : total + overlap);
+          }
+        }
+      }
+    }
+    List<String> hosts = new ArrayList<>(bytes.keySet());
+    Collections.sort(hosts, new Comparator<String>() {
+      @Override
+      public int compare(String a, String b) {
+        int compare = Long.compare(bytes.get(b), bytes.get(a));
+        return compare != 0 ? compare : a.compareTo(b);
+      }
+    });
+    if (hosts.size() > MAX_HOSTS) {
+      hosts = hosts.subList(0, MAX_HOSTS);
+    }
+    return hosts.toArray(new String[hosts.size()]);
+  }
+
+  private static final class FileStripes {
+
+    private final Path path;
+    private final boolean atomic;
+    private final List<StripeInformation> stripes;
+    private final BlockLocation[] blocks;
+
+    private FileStripes(Path path, boolean atomic, List<StripeInformation> stripes, BlockLocation[] blocks) {
+      this.path = path;
+      this.atomic = atomic;
+      this.stripes = stripes;
+      this.blocks = blocks;
+    }
+
+  }
+
+}
@@ -0,0 +1,317 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.sarg;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.hadoop.hive.ql.io.sarg.ExpressionTree;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument.TruthValue;
+
+import com.hotels.corc.Corc;
+
+/**
+ * The {@link ExpressionTree} of a {@link SearchArgument} compiled into a tree of nodes that evaluate the leaves of a
+ * row directly. {@code AND} and {@code OR} nodes stop as soon as a child evaluates to {@link TruthValue#NO} and
+ * {@link TruthValue#YES} respectively, which cannot be changed by the remaining children. The result of each leaf is
+ * kept for the current row so that leaves referenced more than once in the tree are only evaluated once. No objects
+ * are allocated per row. The number of rows each leaf is evaluated against, and the number for which it evaluates to
+ * {@link TruthValue#YES}, are counted.
+ * <p/>
+ * Optionally the evaluation time of the children of each {@code AND} and {@code OR} node, and how often each one
+ * decides the result, are sampled for a number of rows. The children are then reordered so that the cheapest and most
+ * selective are evaluated first, which does not change the result.
+ * <p/>
+ * Instances hold the leaf results of the current row and so must not be shared between threads.
+ */
+class CompiledExpression {
+
+  private final Evaluator<?>[] evaluators;
+  private final TruthValue[] leafValues;
+  private final long[] leafRows;
+  private final long[] leafEvaluations;
+  private final long[] leafAccepts;
+  private final Node root;
+  private final long sampleRows;
+  private long row;
+
+  CompiledExpression(ExpressionTree expression, Evaluator<?>[] evaluators) {
+    this(expression, evaluators, 0);
+  }
+
+  /**
+   * @param sampleRows The number of rows to sample before the children of each {@code AND} and {@code OR} node are
+   *          reordered. Zero keeps the declared order.
+   */
+  CompiledExpression(ExpressionTree expression, Evaluator<?>[] evaluators, long sampleRows) {
+    this.evaluators = evaluators;
+    this.sampleRows = sampleRows;
+    leafValues = new TruthValue[evaluators.length];
+    leafRows = new long[evaluators.length];
+    leafEvaluations = new long[evaluators.length];
+    leafAccepts = new long[evaluators.length];
+    root = compile(expression);
+  }
+
+  /**
+   * Evaluates the expression against the current row of {@code corc}.
+   */
+  TruthValue evaluate(Corc corc) {
+    row++;
+    if (row > sampleRows) {
+      return root.evaluate(corc);
+    }
+    TruthValue result = root.evaluateSampled(corc);
+    if (row == sampleRows) {
+      root.reorder();
+    }
+    return result;
+  }
+
+  /**
+   * The number of rows the leaf has been evaluated against.
+   */
+  long getEvaluations(int leaf) {
+    return leafEvaluations[leaf];
+  }
+
+  /**
+   * The number of rows for which the leaf evaluated to {@link TruthValue#YES}.
+   */
+  long getAccepts(int leaf) {
+    return leafAccepts[leaf];
+  }
+
+  private TruthValue evaluateLeaf(int leaf, Corc corc) {
+    if (leafRows[leaf] != row) {
+      TruthValue value = evaluators[leaf].evaluate(corc);
+      leafValues[leaf] = value;
+      leafRows[leaf] = row;
+      leafEvaluations[leaf]++;
+      if (value == TruthValue.YES) {
+        leafAccepts[leaf]++;
+      }
+    }
+    return leafValues[leaf];
+  }
+
+  private Node compile(ExpressionTree expression) {
+    switch (expression.getOperator()) {
+    case OR:
+      return new OrNode(compile(expression.getChildren()));
+    case AND:
+      return new AndNode(compile(expression.getChildren()));
+    case NOT:
+      return new NotNode(compile(expression.getChildren().get(0)));
+    case LEAF:
+      return new LeafNode(expression.getLeaf());
+    case CONSTANT:
+      return new ConstantNode(expression.getConstant());
+    default:
+      throw new IllegalArgumentException("Unsupported operator: " + expression.getOperator());
+    }
+  }
+
+  private Node[] compile(List<ExpressionTree> expressions) {
+    Node[] nodes = new Node[expressions.size()];
+    for (int i = 0; i < nodes.length; i++) {
+      nodes[i] = compile(expressions.get(i));
+    }
+    return nodes;
+  }
+
+  private abstract static class Node {
+    abstract TruthValue evaluate(Corc corc);
+
+    /**
+     * Evaluates the node while recording the statistics used by {@link #reorder()}.
+     */
+    TruthValue evaluateSampled(Corc corc) {
+      return evaluate(corc);
+    }
+
+    /**
+     * Reorders the children of the node, and of its descendants, by the statistics recorded so far.
+     */
+    void reorder() {
+    }
+  }
+
+  /**
+   * An {@code AND} or {@code OR} node. As both are commutative in three valued logic, and {@link TruthValue#NO} and
+   * {@link TruthValue#YES} respectively are absorbing, the children may be evaluated in any order.
+   */
+  private abstract static class JunctionNode extends Node {
+    final Node[] children;
+    private final TruthValue decisive;
+    private final long[] evaluations;
+    private final long[] decisions;
+    private final long[] nanos;
+
+    private JunctionNode(Node[] children, TruthValue decisive) {
+      this.children = children;
+      this.decisive = decisive;
+      evaluations = new long[children.length];
+      decisions = new long[children.length];
+      nanos = new long[children.length];
+    }
+
+    abstract TruthValue combine(TruthValue left, TruthValue right);
+
+    @Override
+    TruthValue evaluateSampled(Corc corc) {
+      TruthValue result = null;
+      for (int i = 0; i < children.length; i++) {
+        long start = System.nanoTime();
+        TruthValue value = children[i].evaluateSampled(corc);
+        nanos[i] += System.nanoTime() - start;
+        evaluations[i]++;
+        result = result == null ? value : combine(result, value);
+        if (value == decisive) {
+          decisions[i]++;
+          break;
+        }
+      }
+      return result;
+    }
+
+    /**
+     * Orders the children by their mean evaluation time divided by the rate at which they decide the result of the
+     * node, so that cheap children that are likely to stop the evaluation come first. Children that never decided the
+     * result keep their relative order at the end.
+     */
+    @Override
+    void reorder() {
+      for (Node child : children) {
+        child.reorder();
+      }
+      final double[] scores = new double[children.length];
+      Integer[] order = new Integer[children.length];
+      for (int i = 0; i < children.length; i++) {
+        order[i] = i;
+        if (decisions[i] == 0) {
+          scores[i] = Double.POSITIVE_INFINITY;
+        } else {
+          scores[i] = (double) nanos[i] / decisions[i];
+        }
+      }
+      // stable, so ties keep the order in which the children were declared
+      Arrays.sort(order, new Comparator<Integer>() {
+        @Override
+        public int compare(Integer left, Integer right) {
+          return Double.compare(scores[left], scores[right]);
+        }
+      });
+      Node[] reordered = new Node[children.length];
+      for (int i = 0; i < children.length; i++) {
+        reordered[i] = children[order[i]];
+      }
+      System.arraycopy(reordered, 0, children, 0, children.length);
+    }
+  }
+
+  private static final class OrNode extends JunctionNode {
+    private OrNode(Node[] children) {
+      super(children, TruthValue.YES);
+    }
+
+    @Override
+    TruthValue combine(TruthValue left, TruthValue right) {
+      return left.or(right);
+    }
+
+    @Override
+    TruthValue evaluate(Corc corc) {
+      TruthValue result = children[0].evaluate(corc);
+      for (int i = 1; i < children.length && result != TruthValue.YES; i++) {
+        result = result.or(children[i].evaluate(corc));
+      }
+      return result;
+    }
+  }
+
+  private static final class AndNode extends JunctionNode {
+    private AndNode(Node[] children) {
+      super(children, TruthValue.NO);
+    }
+
+    @Override
+    TruthValue combine(TruthValue left, TruthValue right) {
+      return left.and(right);
+    }
+
+    @Override
+    TruthValue evaluate(Corc corc) {
+      TruthValue result = children[0].evaluate(corc);
+      for (int i = 1; i < children.length && result != TruthValue.NO; i++) {
+        result = result.and(children[i].evaluate(corc));
+      }
+      return result;
+    }
+  }
+
+  private static final class NotNode extends Node {
+    private final Node child;
+
+    private NotNode(Node child) {
+      this.child = child;
+    }
+
+    @Override
+    TruthValue evaluate(Corc corc) {
+      return child.evaluate(corc).not();
+    }
+
+    @Override
+    TruthValue evaluateSampled(Corc corc) {
+      return child.evaluateSampled(corc).not();
+    }
+
+    @Override
+    void reorder() {
+      child.reorder();
+    }
+  }
+
+  private final class LeafNode extends Node {
+    private final int leaf;
+
+    private LeafNode(int leaf) {
+      this.leaf = leaf;
+    }
+
+    @Override
+    TruthValue evaluate(Corc corc) {
+      return evaluateLeaf(leaf, corc);
+    }
+  }
+
+  private static final class ConstantNode extends Node {
+    private final TruthValue constant;
+
+    private ConstantNode(TruthValue constant) {
+      this.constant = constant;
+    }
+
+    @Override
+    TruthValue evaluate(Corc corc) {
+      return constant;
+    }
+  }
+
+}
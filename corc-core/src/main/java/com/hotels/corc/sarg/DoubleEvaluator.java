@@ -0,0 +1,189 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.sarg;
+
+import java.util.Arrays;
+
+import org.apache.hadoop.hive.ql.io.sarg.PredicateLeaf.Operator;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument.TruthValue;
+import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector.PrimitiveCategory;
+
+/**
+ * Evaluators for {@code FLOAT} and {@code DOUBLE} columns that compare {@code double} values rather than writables.
+ * Values are compared numerically, so {@code -0.0} equals {@code 0.0} and {@code NaN} satisfies no predicate.
+ */
+abstract class DoubleEvaluator<T extends Comparable<T>> extends Evaluator<T> {
+
+  private final PrimitiveCategory category;
+
+  DoubleEvaluator(String fieldName, PrimitiveCategory category) {
+    super(fieldName);
+    this.category = category;
+  }
+
+  @Override
+  protected TruthValue evaluate(T value) {
+    if (value == null) {
+      return TruthValue.NULL;
+    }
+    return evaluate(PrimitiveValues.toDouble(category, value));
+  }
+
+  protected abstract TruthValue evaluate(double value);
+
+  /**
+   * Evaluates the first {@code size} values, which must not be null, setting the bit of each row in either {@code yes}
+   * or {@code no}.
+   */
+  void evaluate(double[] values, int size, long[] yes, long[] no) {
+    for (int row = 0; row < size; row++) {
+      if (evaluate(values[row]) == TruthValue.YES) {
+        yes[row >>> 6] |= 1L << row;
+      } else {
+        no[row >>> 6] |= 1L << row;
+      }
+    }
+  }
+
+  static final class Equals<T extends Comparable<T>> extends DoubleEvaluator<T> {
+
+    private final double literal;
+
+    Equals(String fieldName, PrimitiveCategory category, Comparable<T> literal) {
+      super(fieldName, category);
+      this.literal = PrimitiveValues.toDouble(category, literal);
+    }
+
+    @Override
+    protected TruthValue evaluate(double value) {
+      return value == literal ? TruthValue.YES : TruthValue.NO;
+    }
+
+    @Override
+    void evaluate(double[] values, int size, long[] yes, long[] no) {
+      for (int row = 0; row < size; row++) {
+        long bit = values[row] == literal ? 1L : 0L;
+        yes[row >>> 6] |= bit << row;
+        no[row >>> 6] |= (bit ^ 1L) << row;
+      }
+    }
+
+  }
+
+  static final class LessThan<T extends Comparable<T>> extends DoubleEvaluator<T> {
+
+    private final double literal;
+    private final boolean orEquals;
+
+    LessThan(String fieldName, PrimitiveCategory category, Comparable<T> literal, Operator operator) {
+      super(fieldName, category);
+      this.literal = PrimitiveValues.toDouble(category, literal);
+      if (operator == Operator.LESS_THAN) {
+        orEquals = false;
+      } else if (operator == Operator.LESS_THAN_EQUALS) {
+        orEquals = true;
+      } else {
+        throw new IllegalArgumentException("Invalid operator: " + operator);
+      }
+    }
+
+    @Override
+    protected TruthValue evaluate(double value) {
+      return value < literal || orEquals && value == literal ? TruthValue.YES : TruthValue.NO;
+    }
+
+    @Override
+    void evaluate(double[] values, int size, long[] yes, long[] no) {
+      if (orEquals) {
+        for (int row = 0; row < size; row++) {
+          long bit = values[row] <= literal ? 1L : 0L;
+          yes[row >>> 6] |= bit << row;
+          no[row >>> 6] |= (bit ^ 1L) << row;
+        }
+      } else {
+        for (int row = 0; row < size; row++) {
+          long bit = values[row] < literal ? 1L : 0L;
+          yes[row >>> 6] |= bit << row;
+          no[row >>> 6] |= (bit ^ 1L) << row;
+        }
+      }
+    }
+
+  }
+
+  static final class Between<T extends Comparable<T>> extends DoubleEvaluator<T> {
+
+    private final double minLiteral;
+    private final double maxLiteral;
+
+    Between(String fieldName, PrimitiveCategory category, Comparable<T> minLiteral, Comparable<T> maxLiteral) {
+      super(fieldName, category);
+      this.minLiteral = PrimitiveValues.toDouble(category, minLiteral);
+      this.maxLiteral = PrimitiveValues.toDouble(category, maxLiteral);
+    }
+
+    @Override
+    protected TruthValue evaluate(double value) {
+      return minLiteral <= value && value <= maxLiteral ? TruthValue.YES : TruthValue.NO;
+    }
+
+    @Override
+    void evaluate(double[] values, int size, long[] yes, long[] no) {
+      for (int row = 0; row < size; row++) {
+        double value = values[row];
+        long bit = minLiteral <= value && value <= maxLiteral ? 1L : 0L;
+        yes[row >>> 6] |= bit << row;
+        no[row >>> 6] |= (bit ^ 1L) << row;
+      }
+    }
+
+  }
+
+  /**
+   * Binary searches the sorted literal values. {@code NaN} literals are dropped and {@code -0.0} literals stored as
+   * {@code 0.0} so that {@link Arrays#binarySearch(double[], double)} agrees with numeric equality.
+   */
+  static final class In<T extends Comparable<T>> extends DoubleEvaluator<T> {
+
+    private final double[] literals;
+
+    In(String fieldName, PrimitiveCategory category, Iterable<Comparable<T>> literals) {
+      super(fieldName, category);
+      double[] values = new double[16];
+      int size = 0;
+      for (Comparable<T> literal : literals) {
+        double literalValue = PrimitiveValues.toDouble(category, literal);
+        if (Double.isNaN(literalValue)) {
+          continue;
+        }
+        if (size == values.length) {
+          values = Arrays.copyOf(values, size * 2);
+        }
+        // adding 0.0 turns -0.0 into 0.0
+        values[size++] = literalValue + 0.0;
+      }
+      this.literals = Arrays.copyOf(values, size);
+      Arrays.sort(this.literals);
+    }
+
+    @Override
+    protected TruthValue evaluate(double value) {
+      return Arrays.binarySearch(literals, value + 0.0) >= 0 ? TruthValue.YES : TruthValue.NO;
+    }
+
+  }
+
+}
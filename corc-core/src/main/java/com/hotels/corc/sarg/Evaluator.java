@@ -16,12 +16,14 @@
 package com.hotels.corc.sarg;
 
 import org.apache.hadoop.hive.ql.io.sarg.SearchArgument.TruthValue;
+import org.apache.hadoop.hive.serde2.objectinspector.StructObjectInspector;
 
 import com.hotels.corc.Corc;
 
 abstract class Evaluator<T extends Comparable<T>> {
 
   private final String fieldName;
+  private FieldIndex fieldIndex;
 
   protected Evaluator(String fieldName) {
     this.fieldName = fieldName;
@@ -29,9 +31,41 @@ abstract class Evaluator<T extends Comparable<T>> {
 
   @SuppressWarnings("unchecked")
   TruthValue evaluate(Corc corc) {
-    return evaluate((T) corc.getWritable(fieldName));
+    return evaluate((T) getWritable(corc));
   }
 
   protected abstract TruthValue evaluate(T value);
 
+  /**
+   * Reads the field by its position, which is looked up by name only when the {@link Corc} has a different inspector,
+   * and therefore schema, to the previous one.
+   */
+  final Object getWritable(Corc corc) {
+    StructObjectInspector inspector = corc.getInspector();
+    FieldIndex fieldIndex = this.fieldIndex;
+    if (fieldIndex == null || fieldIndex.inspector != inspector) {
+      fieldIndex = new FieldIndex(inspector, corc.fieldIndex(fieldName));
+      this.fieldIndex = fieldIndex;
+    }
+    if (fieldIndex.index < 0) {
+      return null;
+    }
+    return corc.getWritable(fieldIndex.index);
+  }
+
+  /**
+   * The position of the field in the structs of an inspector.
+   */
+  private static final class FieldIndex {
+
+    private final StructObjectInspector inspector;
+    private final int index;
+
+    private FieldIndex(StructObjectInspector inspector, int index) {
+      this.inspector = inspector;
+      this.index = index;
+    }
+
+  }
+
 }
@@ -23,7 +23,9 @@ import java.util.List;
 import org.apache.hadoop.hive.common.type.HiveChar;
 import org.apache.hadoop.hive.common.type.HiveDecimal;
 import org.apache.hadoop.hive.common.type.HiveVarchar;
+import org.apache.hadoop.hive.ql.io.orc.OrcStruct;
 import org.apache.hadoop.hive.ql.io.sarg.PredicateLeaf;
+import org.apache.hadoop.hive.ql.io.sarg.PredicateLeaf.Operator;
 import org.apache.hadoop.hive.serde2.io.ByteWritable;
 import org.apache.hadoop.hive.serde2.io.DateWritable;
 import org.apache.hadoop.hive.serde2.io.DoubleWritable;
@@ -34,6 +36,8 @@ import org.apache.hadoop.hive.serde2.io.ShortWritable;
 import org.apache.hadoop.hive.serde2.io.TimestampWritable;
 import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector.Category;
 import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector.PrimitiveCategory;
+import org.apache.hadoop.hive.serde2.objectinspector.StructField;
+import org.apache.hadoop.hive.serde2.objectinspector.StructObjectInspector;
 import org.apache.hadoop.hive.serde2.typeinfo.PrimitiveTypeInfo;
 import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
 import org.apache.hadoop.hive.serde2.typeinfo.TypeInfo;
@@ -45,14 +49,49 @@ import org.apache.hadoop.io.Text;
 
 class EvaluatorFactory {
 
+  /**
+   * {@code IN} lists of up to this many literals are scanned linearly, larger lists are hashed or sorted. Integral,
+   * {@code DATE}, {@code FLOAT} and {@code DOUBLE} lists are always sorted.
+   */
+  static final int LINEAR_IN_THRESHOLD = 8;
+
   private final StructTypeInfo structTypeInfo;
 
   EvaluatorFactory(StructTypeInfo structTypeInfo) {
     this.structTypeInfo = structTypeInfo;
   }
 
+  /**
+   * Creates the evaluator of a leaf. Column names containing dots that do not name a top level field, such as
+   * {@code context.device.os}, are resolved as a path through nested {@code STRUCT} fields.
+   */
   Evaluator<?> newInstance(PredicateLeaf predicateLeaf) {
-    TypeInfo typeInfo = structTypeInfo.getStructFieldTypeInfo(predicateLeaf.getColumnName());
+    String columnName = predicateLeaf.getColumnName();
+    if (columnName.indexOf('.') < 0 || structTypeInfo.getAllStructFieldNames().contains(columnName)) {
+      return newInstance(predicateLeaf, structTypeInfo.getStructFieldTypeInfo(columnName));
+    }
+    return newNestedInstance(predicateLeaf, columnName.split("\\."));
+  }
+
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  private Evaluator<?> newNestedInstance(PredicateLeaf predicateLeaf, String[] path) {
+    StructObjectInspector[] inspectors = new StructObjectInspector[path.length - 1];
+    StructField[] fields = new StructField[path.length - 1];
+    TypeInfo typeInfo = structTypeInfo.getStructFieldTypeInfo(path[0]);
+    for (int i = 1; i < path.length; i++) {
+      if (typeInfo.getCategory() != Category.STRUCT) {
+        throw new IllegalArgumentException("Unsupported column type: " + typeInfo.getCategory() + " at " + path[i - 1]
+            + " of " + predicateLeaf.getColumnName());
+      }
+      StructTypeInfo parent = (StructTypeInfo) typeInfo;
+      typeInfo = parent.getStructFieldTypeInfo(path[i]);
+      inspectors[i - 1] = (StructObjectInspector) OrcStruct.createObjectInspector(parent);
+      fields[i - 1] = inspectors[i - 1].getStructFieldRef(path[i]);
+    }
+    return new NestedFieldEvaluator(path[0], inspectors, fields, newInstance(predicateLeaf, typeInfo));
+  }
+
+  private Evaluator<?> newInstance(PredicateLeaf predicateLeaf, TypeInfo typeInfo) {
     if (typeInfo.getCategory() != Category.PRIMITIVE) {
       throw new IllegalArgumentException("Unsupported column type: " + typeInfo.getCategory());
     }
@@ -82,13 +121,34 @@ class EvaluatorFactory {
   @SuppressWarnings({ "rawtypes", "unchecked" })
   private Evaluator<?> equalsEvaluator(PredicateLeaf predicateLeaf, PrimitiveCategory category) {
     Comparable<?> literal = toComparable(category, predicateLeaf.getLiteral());
-    return new EqualsEvaluator(predicateLeaf.getColumnName(), literal);
+    String columnName = predicateLeaf.getColumnName();
+    if (PrimitiveValues.isLong(category)) {
+      return new LongEvaluator.Equals(columnName, category, literal);
+    }
+    if (PrimitiveValues.isDouble(category)) {
+      return new DoubleEvaluator.Equals(columnName, category, literal);
+    }
+    if (category == PrimitiveCategory.STRING) {
+      return new TextEvaluator.Equals(columnName, literal);
+    }
+    return new EqualsEvaluator(columnName, literal);
   }
 
   @SuppressWarnings({ "rawtypes", "unchecked" })
   private Evaluator<?> lessThanEvaluator(PredicateLeaf predicateLeaf, PrimitiveCategory category) {
     Comparable<?> literal = toComparable(category, predicateLeaf.getLiteral());
-    return new LessThanEvaluator(predicateLeaf.getColumnName(), literal, predicateLeaf.getOperator());
+    String columnName = predicateLeaf.getColumnName();
+    Operator operator = predicateLeaf.getOperator();
+    if (PrimitiveValues.isLong(category)) {
+      return new LongEvaluator.LessThan(columnName, category, literal, operator);
+    }
+    if (PrimitiveValues.isDouble(category)) {
+      return new DoubleEvaluator.LessThan(columnName, category, literal, operator);
+    }
+    if (category == PrimitiveCategory.STRING) {
+      return new TextEvaluator.LessThan(columnName, literal, operator);
+    }
+    return new LessThanEvaluator(columnName, literal, operator);
   }
 
   @SuppressWarnings({ "rawtypes", "unchecked" })
@@ -97,7 +157,23 @@ class EvaluatorFactory {
     for (Object literalItem : predicateLeaf.getLiteralList()) {
       literals.add(toComparable(category, literalItem));
     }
-    return new InEvaluator(predicateLeaf.getColumnName(), literals);
+    String columnName = predicateLeaf.getColumnName();
+    if (PrimitiveValues.isLong(category)) {
+      return new LongEvaluator.In(columnName, category, literals);
+    }
+    if (PrimitiveValues.isDouble(category)) {
+      return new DoubleEvaluator.In(columnName, category, literals);
+    }
+    if (category == PrimitiveCategory.STRING) {
+      if (literals.size() <= LINEAR_IN_THRESHOLD) {
+        return new TextEvaluator.In(columnName, literals);
+      }
+      return new HashInEvaluator(columnName, literals);
+    }
+    if (literals.size() <= LINEAR_IN_THRESHOLD) {
+      return new InEvaluator(columnName, literals);
+    }
+    return new SortedInEvaluator(columnName, literals);
   }
 
   @SuppressWarnings({ "rawtypes", "unchecked" })
@@ -105,7 +181,17 @@ class EvaluatorFactory {
     List<Object> literalList = predicateLeaf.getLiteralList();
     Comparable<?> minLiteral = toComparable(category, literalList.get(0));
     Comparable<?> maxLiteral = toComparable(category, literalList.get(1));
-    return new BetweenEvaluator(predicateLeaf.getColumnName(), minLiteral, maxLiteral);
+    String columnName = predicateLeaf.getColumnName();
+    if (PrimitiveValues.isLong(category)) {
+      return new LongEvaluator.Between(columnName, category, minLiteral, maxLiteral);
+    }
+    if (PrimitiveValues.isDouble(category)) {
+      return new DoubleEvaluator.Between(columnName, category, minLiteral, maxLiteral);
+    }
+    if (category == PrimitiveCategory.STRING) {
+      return new TextEvaluator.Between(columnName, minLiteral, maxLiteral);
+    }
+    return new BetweenEvaluator(columnName, minLiteral, maxLiteral);
   }
 
   @SuppressWarnings("rawtypes")
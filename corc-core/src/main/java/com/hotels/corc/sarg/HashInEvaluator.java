@@ -0,0 +1,49 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.sarg;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument.TruthValue;
+
+/**
+ * {@code IN} using a hashed set of the literal writables. Only suitable for writables whose {@code equals} and
+ * {@code hashCode} are consistent with their {@code compareTo}.
+ */
+class HashInEvaluator<T extends Comparable<T>> extends Evaluator<T> {
+
+  private final Set<Object> literals = new HashSet<>();
+
+  HashInEvaluator(String fieldName, Iterable<Comparable<T>> literals) {
+    super(fieldName);
+    for (Comparable<T> literal : literals) {
+      this.literals.add(literal);
+    }
+  }
+
+  @Override
+  protected TruthValue evaluate(T value) {
+    if (value == null) {
+      return TruthValue.NULL;
+    }
+    if (literals.contains(value)) {
+      return TruthValue.YES;
+    }
+    return TruthValue.NO;
+  }
+
+}
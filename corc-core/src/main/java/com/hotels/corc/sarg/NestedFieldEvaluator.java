@@ -0,0 +1,69 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.sarg;
+
+import org.apache.hadoop.hive.ql.io.orc.OrcStruct;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument.TruthValue;
+import org.apache.hadoop.hive.serde2.objectinspector.StructField;
+import org.apache.hadoop.hive.serde2.objectinspector.StructObjectInspector;
+
+import com.hotels.corc.Corc;
+
+/**
+ * Evaluates a field nested within a top level {@code STRUCT} field, such as {@code context.device.os}, by navigating
+ * the {@link OrcStruct} of each level and passing the value found to the evaluator of the nested field. A {@code null}
+ * struct at any level yields a {@code null} value.
+ */
+class NestedFieldEvaluator<T extends Comparable<T>> extends Evaluator<T> {
+
+  private final StructObjectInspector[] inspectors;
+  private final StructField[] fields;
+  private final Evaluator<T> evaluator;
+
+  /**
+   * @param fieldName The top level field.
+   * @param inspectors The inspector of each struct along the path, starting with that of the top level field.
+   * @param fields The field of each struct along the path.
+   * @param evaluator The evaluator of the nested value.
+   */
+  NestedFieldEvaluator(String fieldName, StructObjectInspector[] inspectors, StructField[] fields,
+      Evaluator<T> evaluator) {
+    super(fieldName);
+    this.inspectors = inspectors;
+    this.fields = fields;
+    this.evaluator = evaluator;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  TruthValue evaluate(Corc corc) {
+    Object value = getWritable(corc);
+    for (int i = 0; i < fields.length && value != null; i++) {
+      value = inspectors[i].getStructFieldData(value, fields[i]);
+    }
+    return evaluator.evaluate((T) value);
+  }
+
+  @Override
+  protected TruthValue evaluate(T value) {
+    return evaluator.evaluate(value);
+  }
+
+  Evaluator<T> getEvaluator() {
+    return evaluator;
+  }
+
+}
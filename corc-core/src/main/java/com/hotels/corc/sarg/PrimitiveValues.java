@@ -0,0 +1,90 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.sarg;
+
+import org.apache.hadoop.hive.serde2.io.ByteWritable;
+import org.apache.hadoop.hive.serde2.io.DateWritable;
+import org.apache.hadoop.hive.serde2.io.DoubleWritable;
+import org.apache.hadoop.hive.serde2.io.ShortWritable;
+import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector.PrimitiveCategory;
+import org.apache.hadoop.io.FloatWritable;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.LongWritable;
+
+/**
+ * Extracts the primitive value held by the writable of a column.
+ */
+final class PrimitiveValues {
+
+  private PrimitiveValues() {
+  }
+
+  /**
+   * Returns {@code true} if the values of {@code category} can be read with {@link #toLong(PrimitiveCategory, Object)}.
+   */
+  static boolean isLong(PrimitiveCategory category) {
+    switch (category) {
+    case BYTE:
+    case SHORT:
+    case INT:
+    case LONG:
+    case DATE:
+      return true;
+    default:
+      return false;
+    }
+  }
+
+  /**
+   * Returns {@code true} if the values of {@code category} can be read with
+   * {@link #toDouble(PrimitiveCategory, Object)}.
+   */
+  static boolean isDouble(PrimitiveCategory category) {
+    return category == PrimitiveCategory.FLOAT || category == PrimitiveCategory.DOUBLE;
+  }
+
+  /**
+   * Integral values, and {@code DATE} values as days since the epoch.
+   */
+  static long toLong(PrimitiveCategory category, Object writable) {
+    switch (category) {
+    case BYTE:
+      return ((ByteWritable) writable).get();
+    case SHORT:
+      return ((ShortWritable) writable).get();
+    case INT:
+      return ((IntWritable) writable).get();
+    case LONG:
+      return ((LongWritable) writable).get();
+    case DATE:
+      return ((DateWritable) writable).getDays();
+    default:
+      throw new IllegalArgumentException("Not an integral category: " + category);
+    }
+  }
+
+  static double toDouble(PrimitiveCategory category, Object writable) {
+    switch (category) {
+    case FLOAT:
+      return ((FloatWritable) writable).get();
+    case DOUBLE:
+      return ((DoubleWritable) writable).get();
+    default:
+      throw new IllegalArgumentException("Not a floating point category: " + category);
+    }
+  }
+
+}
@@ -16,7 +16,6 @@
 package com.hotels.corc.sarg;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.hadoop.hive.ql.io.sarg.PredicateLeaf;
@@ -27,33 +26,66 @@ import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
 import com.hotels.corc.Corc;
 import com.hotels.corc.Filter;
 
+/**
+ * Evaluates a {@link SearchArgument} against each row. The {@link SearchArgument} is compiled into a
+ * {@link CompiledExpression} that short-circuits and does not allocate per row. The operands of each {@code AND} and
+ * {@code OR} are reordered by their cost and selectivity after a sample of rows. Instances are not thread safe.
+ */
 public class SearchArgumentFilter implements Filter {
 
-  private final SearchArgument searchArgument;
-  private final List<Evaluator<?>> evaluators;
+  /**
+   * The default number of rows sampled before the leaves are reordered by their cost and selectivity.
+   */
+  public static final int DEFAULT_SAMPLE_ROWS = 1000;
+
+  private final List<PredicateLeaf> leaves;
+  private final CompiledExpression expression;
 
   public SearchArgumentFilter(SearchArgument searchArgument, StructTypeInfo structTypeInfo) {
-    this.searchArgument = searchArgument;
+    this(searchArgument, structTypeInfo, DEFAULT_SAMPLE_ROWS);
+  }
+
+  /**
+   * @param sampleRows The number of rows over which the cost and selectivity of the leaves are sampled, after which the
+   *          operands of each {@code AND} and {@code OR} are reordered so that the cheapest and most selective are
+   *          evaluated first. Zero keeps the order in which the {@link SearchArgument} was built.
+   */
+  public SearchArgumentFilter(SearchArgument searchArgument, StructTypeInfo structTypeInfo, int sampleRows) {
     EvaluatorFactory evaluatorFactory = new EvaluatorFactory(structTypeInfo);
-    evaluators = new ArrayList<>(searchArgument.getLeaves().size());
-    for (PredicateLeaf predicateLeaf : searchArgument.getLeaves()) {
-      evaluators.add(evaluatorFactory.newInstance(predicateLeaf));
+    leaves = searchArgument.getLeaves();
+    Evaluator<?>[] evaluators = new Evaluator<?>[leaves.size()];
+    for (int i = 0; i < evaluators.length; i++) {
+      evaluators[i] = evaluatorFactory.newInstance(leaves.get(i));
     }
+    expression = new CompiledExpression(searchArgument.getExpression(), evaluators, sampleRows);
   }
 
   @Override
   public boolean accept(Corc corc) throws IOException {
-    TruthValue[] truthValues = new TruthValue[evaluators.size()];
-    for (int i = 0; i < evaluators.size(); i++) {
-      truthValues[i] = evaluators.get(i).evaluate(corc);
-    }
-    TruthValue truthValue = searchArgument.evaluate(truthValues);
-    switch (truthValue) {
-    case YES:
-      return true;
-    default:
-      return false;
-    }
+    return expression.evaluate(corc) == TruthValue.YES;
+  }
+
+  /**
+   * The leaves of the {@link SearchArgument}, indexed as in {@link #getRowsEvaluated(int)} and
+   * {@link #getRowsAccepted(int)}.
+   */
+  public List<PredicateLeaf> getLeaves() {
+    return leaves;
+  }
+
+  /**
+   * The number of rows the leaf has been evaluated against. Leaves are not evaluated when the result of the expression
+   * is already known from other leaves.
+   */
+  public long getRowsEvaluated(int leaf) {
+    return expression.getEvaluations(leaf);
+  }
+
+  /**
+   * The number of rows for which the leaf evaluated to {@link TruthValue#YES}.
+   */
+  public long getRowsAccepted(int leaf) {
+    return expression.getAccepts(leaf);
   }
 
 }
@@ -0,0 +1,52 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.sarg;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument.TruthValue;
+
+/**
+ * {@code IN} using a binary search of the literal writables, sorted by their {@code compareTo}.
+ */
+class SortedInEvaluator<T extends Comparable<T>> extends Evaluator<T> {
+
+  private final Object[] literals;
+
+  SortedInEvaluator(String fieldName, Iterable<Comparable<T>> literals) {
+    super(fieldName);
+    List<Object> values = new ArrayList<>();
+    for (Comparable<T> literal : literals) {
+      values.add(literal);
+    }
+    this.literals = values.toArray();
+    Arrays.sort(this.literals);
+  }
+
+  @Override
+  protected TruthValue evaluate(T value) {
+    if (value == null) {
+      return TruthValue.NULL;
+    }
+    if (Arrays.binarySearch(literals, value) >= 0) {
+      return TruthValue.YES;
+    }
+    return TruthValue.NO;
+  }
+
+}
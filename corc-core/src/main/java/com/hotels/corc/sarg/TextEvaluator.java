@@ -0,0 +1,153 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.sarg;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hadoop.hive.ql.io.sarg.PredicateLeaf.Operator;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument.TruthValue;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.WritableComparator;
+
+/**
+ * Evaluators for {@code STRING} columns that compare the UTF-8 bytes of the {@link Text} values directly, in the same
+ * order as {@link Text#compareTo(org.apache.hadoop.io.BinaryComparable)}.
+ */
+abstract class TextEvaluator<T extends Comparable<T>> extends Evaluator<T> {
+
+  TextEvaluator(String fieldName) {
+    super(fieldName);
+  }
+
+  @Override
+  protected TruthValue evaluate(T value) {
+    if (value == null) {
+      return TruthValue.NULL;
+    }
+    Text text = (Text) value;
+    return evaluate(text.getBytes(), 0, text.getLength());
+  }
+
+  /**
+   * Evaluates the {@code length} bytes of {@code bytes} from {@code start}.
+   */
+  protected abstract TruthValue evaluate(byte[] bytes, int start, int length);
+
+  static byte[] toBytes(Object literal) {
+    Text text = (Text) literal;
+    return Arrays.copyOf(text.getBytes(), text.getLength());
+  }
+
+  static int compare(byte[] bytes, int start, int length, byte[] literal) {
+    return WritableComparator.compareBytes(bytes, start, length, literal, 0, literal.length);
+  }
+
+  static boolean equal(byte[] bytes, int start, int length, byte[] literal) {
+    return length == literal.length && compare(bytes, start, length, literal) == 0;
+  }
+
+  static final class Equals<T extends Comparable<T>> extends TextEvaluator<T> {
+
+    private final byte[] literal;
+
+    Equals(String fieldName, Comparable<T> literal) {
+      super(fieldName);
+      this.literal = toBytes(literal);
+    }
+
+    @Override
+    protected TruthValue evaluate(byte[] bytes, int start, int length) {
+      return equal(bytes, start, length, literal) ? TruthValue.YES : TruthValue.NO;
+    }
+
+  }
+
+  static final class LessThan<T extends Comparable<T>> extends TextEvaluator<T> {
+
+    private final byte[] literal;
+    private final int threshold;
+
+    LessThan(String fieldName, Comparable<T> literal, Operator operator) {
+      super(fieldName);
+      this.literal = toBytes(literal);
+      if (operator == Operator.LESS_THAN) {
+        threshold = 0;
+      } else if (operator == Operator.LESS_THAN_EQUALS) {
+        threshold = 1;
+      } else {
+        throw new IllegalArgumentException("Invalid operator: " + operator);
+      }
+    }
+
+    @Override
+    protected TruthValue evaluate(byte[] bytes, int start, int length) {
+      return compare(bytes, start, length, literal) < threshold ? TruthValue.YES : TruthValue.NO;
+    }
+
+  }
+
+  static final class Between<T extends Comparable<T>> extends TextEvaluator<T> {
+
+    private final byte[] minLiteral;
+    private final byte[] maxLiteral;
+
+    Between(String fieldName, Comparable<T> minLiteral, Comparable<T> maxLiteral) {
+      super(fieldName);
+      this.minLiteral = toBytes(minLiteral);
+      this.maxLiteral = toBytes(maxLiteral);
+    }
+
+    @Override
+    protected TruthValue evaluate(byte[] bytes, int start, int length) {
+      if (compare(bytes, start, length, minLiteral) >= 0 && compare(bytes, start, length, maxLiteral) <= 0) {
+        return TruthValue.YES;
+      }
+      return TruthValue.NO;
+    }
+
+  }
+
+  /**
+   * Scans the literal bytes linearly, for short lists. Longer lists are better served by {@link HashInEvaluator}.
+   */
+  static final class In<T extends Comparable<T>> extends TextEvaluator<T> {
+
+    private final byte[][] literals;
+
+    In(String fieldName, Iterable<Comparable<T>> literals) {
+      super(fieldName);
+      List<byte[]> values = new ArrayList<>();
+      for (Comparable<T> literal : literals) {
+        values.add(toBytes(literal));
+      }
+      this.literals = values.toArray(new byte[values.size()][]);
+    }
+
+    @Override
+    protected TruthValue evaluate(byte[] bytes, int start, int length) {
+      for (byte[] literal : literals) {
+        if (equal(bytes, start, length, literal)) {
+          return TruthValue.YES;
+        }
+      }
+      return TruthValue.NO;
+    }
+
+  }
+
+}
@@ -0,0 +1,588 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.sarg;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.ColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DecimalColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DoubleColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.StructColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.TimestampColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.hadoop.hive.ql.io.sarg.ExpressionTree;
+import org.apache.hadoop.hive.ql.io.sarg.PredicateLeaf;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument.TruthValue;
+import org.apache.hadoop.hive.serde2.io.HiveCharWritable;
+import org.apache.hadoop.hive.serde2.io.HiveVarcharWritable;
+import org.apache.hadoop.hive.serde2.io.TimestampWritable;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector.Category;
+import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector.PrimitiveCategory;
+import org.apache.hadoop.hive.serde2.typeinfo.PrimitiveTypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfo;
+import org.apache.hadoop.io.BooleanWritable;
+import org.apache.hadoop.io.Text;
+
+/**
+ * Evaluates a {@link SearchArgument} against whole {@link VectorizedRowBatch VectorizedRowBatches}, with the same
+ * semantics as {@link SearchArgumentFilter}: a row is accepted only when the expression evaluates to
+ * {@link TruthValue#YES}.
+ * <p/>
+ * Each leaf is evaluated over its column vector in a loop, setting the bit of each row in a bitmap of the rows for
+ * which it is {@link TruthValue#YES} and another of the rows for which it is {@link TruthValue#NO}. Rows in neither,
+ * such as nulls, are {@link TruthValue#NULL}. The bitmaps of the leaves are combined word by word: {@code AND} takes
+ * the intersection of the {@code YES} bitmaps and the union of the {@code NO} bitmaps, {@code OR} the reverse, and
+ * {@code NOT} swaps them. The accepted rows are then written to the selection vector of the batch.
+ * <p/>
+ * Instances hold the bitmaps of the current batch and so must not be shared between threads.
+ */
+public class VectorizedSearchArgumentFilter {
+
+  private final List<PredicateLeaf> leaves;
+  private final LeafNode[] leafNodes;
+  private final Node root;
+  private long batches;
+  private long rowsEvaluated;
+  private long rowsAccepted;
+
+  public VectorizedSearchArgumentFilter(SearchArgument searchArgument, StructTypeInfo structTypeInfo) {
+    EvaluatorFactory evaluatorFactory = new EvaluatorFactory(structTypeInfo);
+    leaves = searchArgument.getLeaves();
+    leafNodes = new LeafNode[leaves.size()];
+    for (int i = 0; i < leafNodes.length; i++) {
+      PredicateLeaf leaf = leaves.get(i);
+      leafNodes[i] = newLeafNode(structTypeInfo, leaf.getColumnName(), evaluatorFactory.newInstance(leaf));
+    }
+    root = compile(searchArgument.getExpression(), leafNodes);
+  }
+
+  /**
+   * Evaluates the expression against the rows of {@code batch}, selected by {@link VectorizedRowBatch#selected} when
+   * {@link VectorizedRowBatch#selectedInUse} is set, and reduces the selection of the batch to the accepted rows.
+   *
+   * @return The number of accepted rows, which is the new {@link VectorizedRowBatch#size} of the batch.
+   */
+  public int filter(VectorizedRowBatch batch) {
+    int size = batch.size;
+    if (size == 0) {
+      return 0;
+    }
+    batches++;
+    rowsEvaluated += size;
+    int words = words(size);
+    root.evaluate(batch, size, words);
+    long[] accepted = root.yes;
+    int count = 0;
+    for (int word = 0; word < words; word++) {
+      long bits = accepted[word];
+      while (bits != 0) {
+        int row = (word << 6) + Long.numberOfTrailingZeros(bits);
+        // count never exceeds row, so the selection can be rewritten in place
+        batch.selected[count++] = batch.selectedInUse ? batch.selected[row] : row;
+        bits &= bits - 1;
+      }
+    }
+    if (count < size) {
+      batch.selectedInUse = true;
+      batch.size = count;
+    }
+    rowsAccepted += count;
+    return count;
+  }
+
+  /**
+   * The leaves of the {@link SearchArgument}, indexed as in {@link #getRowsEvaluated(int)} and
+   * {@link #getRowsAccepted(int)}.
+   */
+  public List<PredicateLeaf> getLeaves() {
+    return leaves;
+  }
+
+  /**
+   * The number of rows the leaf has been evaluated against. Every leaf is evaluated against every row of a batch.
+   */
+  public long getRowsEvaluated(int leaf) {
+    return leafNodes[leaf].rowsEvaluated;
+  }
+
+  /**
+   * The number of rows for which the leaf evaluated to {@link TruthValue#YES}.
+   */
+  public long getRowsAccepted(int leaf) {
+    return leafNodes[leaf].rowsAccepted;
+  }
+
+  /**
+   * The number of rows the expression has been evaluated against.
+   */
+  public long getRowsEvaluated() {
+    return rowsEvaluated;
+  }
+
+  /**
+   * The number of rows for which the expression evaluated to {@link TruthValue#YES}.
+   */
+  public long getRowsAccepted() {
+    return rowsAccepted;
+  }
+
+  private static int words(int size) {
+    return (size + 63) >>> 6;
+  }
+
+  /**
+   * Sets, or clears, the bits of the first {@code size} rows, clearing those beyond.
+   */
+  private static void fill(long[] bits, boolean set, int size, int words) {
+    for (int word = 0; word < words; word++) {
+      bits[word] = set ? -1L : 0L;
+    }
+    int remainder = size & 63;
+    if (remainder != 0) {
+      bits[words - 1] &= (1L << remainder) - 1;
+    }
+  }
+
+  private Node compile(ExpressionTree expression, LeafNode[] leafNodes) {
+    switch (expression.getOperator()) {
+    case OR:
+      return new OrNode(compile(expression.getChildren(), leafNodes));
+    case AND:
+      return new AndNode(compile(expression.getChildren(), leafNodes));
+    case NOT:
+      return new NotNode(compile(expression.getChildren().get(0), leafNodes));
+    case LEAF:
+      return leafNodes[expression.getLeaf()];
+    case CONSTANT:
+      return new ConstantNode(expression.getConstant());
+    default:
+      throw new IllegalArgumentException("Unsupported operator: " + expression.getOperator());
+    }
+  }
+
+  private Node[] compile(List<ExpressionTree> expressions, LeafNode[] leafNodes) {
+    Node[] nodes = new Node[expressions.size()];
+    for (int i = 0; i < nodes.length; i++) {
+      nodes[i] = compile(expressions.get(i), leafNodes);
+    }
+    return nodes;
+  }
+
+  /**
+   * Creates the node of a leaf, resolving the column, or the path of nested {@code STRUCT} fields, to the indexes of
+   * the column vectors in the batch.
+   */
+  private LeafNode newLeafNode(StructTypeInfo structTypeInfo, String columnName, Evaluator<?> evaluator) {
+    int[] path;
+    TypeInfo typeInfo;
+    List<String> fieldNames = structTypeInfo.getAllStructFieldNames();
+    if (evaluator instanceof NestedFieldEvaluator) {
+      evaluator = ((NestedFieldEvaluator<?>) evaluator).getEvaluator();
+      String[] names = columnName.split("\\.");
+      path = new int[names.length];
+      typeInfo = structTypeInfo;
+      for (int i = 0; i < names.length; i++) {
+        StructTypeInfo parent = (StructTypeInfo) typeInfo;
+        path[i] = parent.getAllStructFieldNames().indexOf(names[i]);
+        typeInfo = parent.getStructFieldTypeInfo(names[i]);
+      }
+    } else {
+      path = new int[] { fieldNames.indexOf(columnName) };
+      typeInfo = structTypeInfo.getStructFieldTypeInfo(columnName);
+    }
+    if (evaluator instanceof IsNullEvaluator) {
+      return new IsNullNode(this, path);
+    }
+    if (evaluator instanceof LongEvaluator) {
+      return new LongNode(this, path, (LongEvaluator<?>) evaluator);
+    }
+    if (evaluator instanceof DoubleEvaluator) {
+      return new DoubleNode(this, path, (DoubleEvaluator<?>) evaluator);
+    }
+    if (evaluator instanceof TextEvaluator) {
+      return new TextNode(this, path, (TextEvaluator<?>) evaluator);
+    }
+    if (typeInfo.getCategory() != Category.PRIMITIVE) {
+      throw new IllegalArgumentException("Unsupported column type: " + typeInfo.getCategory());
+    }
+    return new WritableNode(this, path, evaluator, ((PrimitiveTypeInfo) typeInfo).getPrimitiveCategory());
+  }
+
+  /**
+   * A node of the expression, holding the bitmaps of the rows of the current batch for which it evaluates to
+   * {@link TruthValue#YES} and {@link TruthValue#NO}.
+   */
+  private abstract static class Node {
+    long[] yes = new long[words(VectorizedRowBatch.DEFAULT_SIZE)];
+    long[] no = new long[words(VectorizedRowBatch.DEFAULT_SIZE)];
+
+    abstract void evaluate(VectorizedRowBatch batch, int size, int words);
+
+    void ensureCapacity(int words) {
+      if (yes.length < words) {
+        yes = new long[words];
+        no = new long[words];
+      }
+    }
+  }
+
+  private abstract static class JunctionNode extends Node {
+    final Node[] children;
+
+    private JunctionNode(Node[] children) {
+      this.children = children;
+    }
+
+    @Override
+    void evaluate(VectorizedRowBatch batch, int size, int words) {
+      ensureCapacity(words);
+      Node first = children[0];
+      first.evaluate(batch, size, words);
+      System.arraycopy(first.yes, 0, yes, 0, words);
+      System.arraycopy(first.no, 0, no, 0, words);
+      for (int i = 1; i < children.length; i++) {
+        Node child = children[i];
+        child.evaluate(batch, size, words);
+        combine(child.yes, child.no, words);
+      }
+    }
+
+    abstract void combine(long[] childYes, long[] childNo, int words);
+  }
+
+  private static final class OrNode extends JunctionNode {
+    private OrNode(Node[] children) {
+      super(children);
+    }
+
+    @Override
+    void combine(long[] childYes, long[] childNo, int words) {
+      for (int word = 0; word < words; word++) {
+        yes[word] |= childYes[word];
+        no[word] &= childNo[word];
+      }
+    }
+  }
+
+  private static final class AndNode extends JunctionNode {
+    private AndNode(Node[] children) {
+      super(children);
+    }
+
+    @Override
+    void combine(long[] childYes, long[] childNo, int words) {
+      for (int word = 0; word < words; word++) {
+        yes[word] &= childYes[word];
+        no[word] |= childNo[word];
+      }
+    }
+  }
+
+  private static final class NotNode extends Node {
+    private final Node child;
+
+    private NotNode(Node child) {
+      this.child = child;
+    }
+
+    @Override
+    void evaluate(VectorizedRowBatch batch, int size, int words) {
+      ensureCapacity(words);
+      child.evaluate(batch, size, words);
+      System.arraycopy(child.no, 0, yes, 0, words);
+      System.arraycopy(child.yes, 0, no, 0, words);
+    }
+  }
+
+  private static final class ConstantNode extends Node {
+    private final TruthValue constant;
+
+    private ConstantNode(TruthValue constant) {
+      this.constant = constant;
+    }
+
+    @Override
+    void evaluate(VectorizedRowBatch batch, int size, int words) {
+      ensureCapacity(words);
+      fill(yes, constant == TruthValue.YES, size, words);
+      fill(no, constant == TruthValue.NO, size, words);
+    }
+
+  }
+
+  /**
+   * The node of a leaf, evaluated at most once per batch however often it is referenced in the expression. Rows that
+   * are null, or whose enclosing {@code STRUCT} is null, evaluate to {@link #nullValue()}.
+   */
+  private abstract static class LeafNode extends Node {
+    private final VectorizedSearchArgumentFilter filter;
+    private final int[] path;
+    private final ColumnVector[] vectors;
+    private long batchEvaluated;
+    private long rowsEvaluated;
+    private long rowsAccepted;
+
+    private LeafNode(VectorizedSearchArgumentFilter filter, int[] path) {
+      this.filter = filter;
+      this.path = path;
+      vectors = new ColumnVector[path.length];
+    }
+
+    @Override
+    void evaluate(VectorizedRowBatch batch, int size, int words) {
+      if (batchEvaluated == filter.batches) {
+        return;
+      }
+      batchEvaluated = filter.batches;
+      ensureCapacity(words);
+      for (int word = 0; word < words; word++) {
+        yes[word] = 0L;
+        no[word] = 0L;
+      }
+      ColumnVector vector = batch.cols[path[0]];
+      vectors[0] = vector;
+      for (int i = 1; i < path.length; i++) {
+        vector = ((StructColumnVector) vector).fields[path[i]];
+        vectors[i] = vector;
+      }
+
+      if (path.length == 1 && vector.isRepeating) {
+        TruthValue value = !vector.noNulls && vector.isNull[0] ? nullValue() : evaluate(vector, 0);
+        if (value == TruthValue.YES || value == TruthValue.NO) {
+          fill(value == TruthValue.YES ? yes : no, true, size, words);
+        }
+      } else if (path.length == 1 && !batch.selectedInUse && (vector.noNulls || evaluatesNulls())) {
+        evaluateAll(vector, size);
+        if (!vector.noNulls) {
+          boolean[] isNull = vector.isNull;
+          TruthValue nullValue = nullValue();
+          for (int row = 0; row < size; row++) {
+            if (isNull[row]) {
+              yes[row >>> 6] &= ~(1L << row);
+              no[row >>> 6] &= ~(1L << row);
+              set(nullValue, row);
+            }
+          }
+        }
+      } else {
+        for (int position = 0; position < size; position++) {
+          int row = batch.selectedInUse ? batch.selected[position] : position;
+          if (isNull(row)) {
+            set(nullValue(), position);
+          } else {
+            set(evaluate(vector, vector.isRepeating ? 0 : row), position);
+          }
+        }
+      }
+      rowsEvaluated += size;
+      for (int word = 0; word < words; word++) {
+        rowsAccepted += Long.bitCount(yes[word]);
+      }
+    }
+
+    private boolean isNull(int row) {
+      for (ColumnVector vector : vectors) {
+        if (!vector.noNulls && vector.isNull[vector.isRepeating ? 0 : row]) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private void set(TruthValue value, int position) {
+      if (value == TruthValue.YES) {
+        yes[position >>> 6] |= 1L << position;
+      } else if (value == TruthValue.NO) {
+        no[position >>> 6] |= 1L << position;
+      }
+    }
+
+    /**
+     * Evaluates the first {@code size} rows of a vector that is neither repeating nor selected. Null rows are
+     * evaluated only if {@link #evaluatesNulls()}, and are then corrected to {@link #nullValue()}.
+     */
+    void evaluateAll(ColumnVector vector, int size) {
+      for (int row = 0; row < size; row++) {
+        set(evaluate(vector, row), row);
+      }
+    }
+
+    /**
+     * Whether the values held by the vector for null rows may be evaluated, the results being discarded.
+     */
+    boolean evaluatesNulls() {
+      return false;
+    }
+
+    TruthValue nullValue() {
+      return TruthValue.NULL;
+    }
+
+    abstract TruthValue evaluate(ColumnVector vector, int index);
+  }
+
+  private static final class IsNullNode extends LeafNode {
+    private IsNullNode(VectorizedSearchArgumentFilter filter, int[] path) {
+      super(filter, path);
+    }
+
+    @Override
+    void evaluateAll(ColumnVector vector, int size) {
+      fill(no, true, size, words(size));
+    }
+
+    @Override
+    boolean evaluatesNulls() {
+      return true;
+    }
+
+    @Override
+    TruthValue nullValue() {
+      return TruthValue.YES;
+    }
+
+    @Override
+    TruthValue evaluate(ColumnVector vector, int index) {
+      return TruthValue.NO;
+    }
+  }
+
+  private static final class LongNode extends LeafNode {
+    private final LongEvaluator<?> evaluator;
+
+    private LongNode(VectorizedSearchArgumentFilter filter, int[] path, LongEvaluator<?> evaluator) {
+      super(filter, path);
+      this.evaluator = evaluator;
+    }
+
+    @Override
+    void evaluateAll(ColumnVector vector, int size) {
+      evaluator.evaluate(((LongColumnVector) vector).vector, size, yes, no);
+    }
+
+    @Override
+    boolean evaluatesNulls() {
+      return true;
+    }
+
+    @Override
+    TruthValue evaluate(ColumnVector vector, int index) {
+      return evaluator.evaluate(((LongColumnVector) vector).vector[index]);
+    }
+  }
+
+  private static final class DoubleNode extends LeafNode {
+    private final DoubleEvaluator<?> evaluator;
+
+    private DoubleNode(VectorizedSearchArgumentFilter filter, int[] path, DoubleEvaluator<?> evaluator) {
+      super(filter, path);
+      this.evaluator = evaluator;
+    }
+
+    @Override
+    void evaluateAll(ColumnVector vector, int size) {
+      evaluator.evaluate(((DoubleColumnVector) vector).vector, size, yes, no);
+    }
+
+    @Override
+    boolean evaluatesNulls() {
+      return true;
+    }
+
+    @Override
+    TruthValue evaluate(ColumnVector vector, int index) {
+      return evaluator.evaluate(((DoubleColumnVector) vector).vector[index]);
+    }
+  }
+
+  private static final class TextNode extends LeafNode {
+    private final TextEvaluator<?> evaluator;
+
+    private TextNode(VectorizedSearchArgumentFilter filter, int[] path, TextEvaluator<?> evaluator) {
+      super(filter, path);
+      this.evaluator = evaluator;
+    }
+
+    @Override
+    TruthValue evaluate(ColumnVector vector, int index) {
+      BytesColumnVector bytes = (BytesColumnVector) vector;
+      return evaluator.evaluate(bytes.vector[index], bytes.start[index], bytes.length[index]);
+    }
+  }
+
+  /**
+   * Evaluates the remaining leaves against a writable, reused between rows, holding the value of the vector.
+   */
+  private static final class WritableNode extends LeafNode {
+    @SuppressWarnings("rawtypes")
+    private final Evaluator evaluator;
+    private final PrimitiveCategory category;
+    private final BooleanWritable booleanWritable = new BooleanWritable();
+    private final Text text = new Text();
+    private final TimestampWritable timestampWritable = new TimestampWritable();
+    private final HiveCharWritable charWritable = new HiveCharWritable();
+    private final HiveVarcharWritable varcharWritable = new HiveVarcharWritable();
+
+    private WritableNode(VectorizedSearchArgumentFilter filter, int[] path, Evaluator<?> evaluator,
+        PrimitiveCategory category) {
+      super(filter, path);
+      this.evaluator = evaluator;
+      this.category = category;
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    @Override
+    TruthValue evaluate(ColumnVector vector, int index) {
+      return evaluator.evaluate((Comparable) toWritable(vector, index));
+    }
+
+    private Object toWritable(ColumnVector vector, int index) {
+      switch (category) {
+      case BOOLEAN:
+        booleanWritable.set(((LongColumnVector) vector).vector[index] != 0);
+        return booleanWritable;
+      case STRING:
+        BytesColumnVector bytes = (BytesColumnVector) vector;
+        text.set(bytes.vector[index], bytes.start[index], bytes.length[index]);
+        return text;
+      case CHAR:
+        charWritable.set(toString(vector, index));
+        return charWritable;
+      case VARCHAR:
+        varcharWritable.set(toString(vector, index));
+        return varcharWritable;
+      case TIMESTAMP:
+        timestampWritable.set(((TimestampColumnVector) vector).asScratchTimestamp(index));
+        return timestampWritable;
+      case DECIMAL:
+        return ((DecimalColumnVector) vector).vector[index];
+      default:
+        throw new IllegalArgumentException("Unsupported column type: " + category);
+      }
+    }
+
+    private static String toString(ColumnVector vector, int index) {
+      BytesColumnVector bytes = (BytesColumnVector) vector;
+      return new String(bytes.vector[index], bytes.start[index], bytes.length[index], StandardCharsets.UTF_8);
+    }
+  }
+
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DoubleColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory;
+import org.apache.hadoop.io.Text;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CorcBatchTest {
+
+  private final StructTypeInfo typeInfo = new StructTypeInfoBuilder()
+      .add("a", TypeInfoFactory.longTypeInfo)
+      .add("b", TypeInfoFactory.doubleTypeInfo)
+      .add("c", TypeInfoFactory.stringTypeInfo)
+      .build();
+
+  private VectorizedRowBatch batch;
+  private LongColumnVector a;
+  private DoubleColumnVector b;
+  private BytesColumnVector c;
+  private CorcBatch corcBatch;
+
+  @Before
+  public void before() {
+    batch = new VectorizedRowBatch(3);
+    a = new LongColumnVector();
+    b = new DoubleColumnVector();
+    c = new BytesColumnVector();
+    c.initBuffer();
+    batch.cols[0] = a;
+    batch.cols[1] = b;
+    batch.cols[2] = c;
+
+    a.vector[0] = 1L;
+    a.vector[1] = 2L;
+    b.vector[0] = 1.5D;
+    b.vector[1] = 2.5D;
+    c.setVal(0, "x".getBytes(StandardCharsets.UTF_8));
+    c.setVal(1, "y".getBytes(StandardCharsets.UTF_8));
+    batch.size = 2;
+
+    corcBatch = new CorcBatch(typeInfo, batch);
+  }
+
+  @Test
+  public void columnIndex() {
+    assertThat(corcBatch.columnIndex("a"), is(0));
+    assertThat(corcBatch.columnIndex("C"), is(2));
+    assertThat(corcBatch.columnIndex("d"), is(-1));
+  }
+
+  @Test
+  public void size() {
+    assertThat(corcBatch.size(), is(2));
+  }
+
+  @Test
+  public void typedAccess() {
+    assertThat(corcBatch.getLong(0, 1), is(2L));
+    assertThat(corcBatch.getDouble(1, 1), is(2.5D));
+    assertThat(corcBatch.getString(2, 1), is("y"));
+    assertThat(corcBatch.getText(2, 0, new Text()), is(new Text("x")));
+  }
+
+  @Test
+  public void isNull() {
+    assertThat(corcBatch.isNull(0, 1), is(false));
+
+    a.noNulls = false;
+    a.isNull[1] = true;
+
+    assertThat(corcBatch.isNull(0, 0), is(false));
+    assertThat(corcBatch.isNull(0, 1), is(true));
+  }
+
+  @Test
+  public void repeating() {
+    a.isRepeating = true;
+
+    assertThat(corcBatch.getLong(0, 1), is(1L));
+  }
+
+  @Test
+  public void selected() {
+    batch.selectedInUse = true;
+    batch.selected[0] = 1;
+    batch.size = 1;
+
+    assertThat(corcBatch.getLong(0, 0), is(2L));
+    assertThat(corcBatch.getString(2, 0), is("y"));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void readFields() throws IOException {
+    corcBatch.readFields(null);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void write() throws IOException {
+    corcBatch.write(null);
+  }
+
+}
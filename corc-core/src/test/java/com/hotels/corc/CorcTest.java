@@ -20,11 +20,12 @@ import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
-import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import org.apache.hadoop.hive.ql.io.RecordIdentifier;
 import org.apache.hadoop.hive.ql.io.orc.OrcStruct;
@@ -33,6 +34,8 @@ import org.apache.hadoop.hive.serde2.objectinspector.SettableStructObjectInspect
 import org.apache.hadoop.hive.serde2.objectinspector.StructField;
 import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
 import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory;
+import org.apache.hadoop.io.BytesWritable;
+import org.apache.hadoop.io.IntWritable;
 import org.apache.hadoop.io.Text;
 import org.junit.Before;
 import org.junit.Test;
@@ -86,7 +89,22 @@ public class CorcTest {
   public void setNotExists() throws IOException {
     corc.set("b", VALUE);
 
-    verify(factory, never()).newConverter(any(ObjectInspector.class));
+    // only for field "a", when the Corc was created
+    verify(factory, times(1)).newConverter(any(ObjectInspector.class));
+  }
+
+  @Test
+  public void setByIndex() throws UnexpectedTypeException, IOException {
+    when(converter.toWritableObject(VALUE)).thenReturn(new Text(VALUE));
+
+    corc.set(corc.fieldIndex("a"), VALUE);
+
+    SettableStructObjectInspector inspector = corc.getInspector();
+    OrcStruct struct = corc.getOrcStruct();
+    StructField structField = inspector.getStructFieldRef("a");
+    Object data = inspector.getStructFieldData(struct, structField);
+
+    assertThat(data, is((Object) new Text(VALUE)));
   }
 
   @Test
@@ -105,12 +123,133 @@ public class CorcTest {
 
   @Test
   public void getNotExists() throws IOException {
-    StructTypeInfo typeInfo = new StructTypeInfoBuilder().add("a", TypeInfoFactory.stringTypeInfo).build();
+    assertThat(corc.get("b"), is(nullValue()));
+
+    // only for field "a", when the Corc was created
+    verify(factory, times(1)).newConverter(any(ObjectInspector.class));
+  }
+
+  @Test
+  public void getByIndex() throws IOException, UnexpectedTypeException {
+    when(converter.toJavaObject(new Text(VALUE))).thenReturn(VALUE);
+
+    SettableStructObjectInspector inspector = corc.getInspector();
+    OrcStruct struct = corc.getOrcStruct();
+    StructField structField = inspector.getStructFieldRef("a");
+    inspector.setStructFieldData(struct, structField, new Text(VALUE));
+
+    assertThat(corc.get(corc.fieldIndex("a")), is((Object) VALUE));
+    assertThat(corc.getWritable(corc.fieldIndex("a")), is((Object) new Text(VALUE)));
+  }
+
+  @Test
+  public void fieldIndex() {
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder()
+        .add("a", TypeInfoFactory.stringTypeInfo)
+        .add("b", TypeInfoFactory.stringTypeInfo)
+        .build();
     Corc corc = new Corc(typeInfo, factory);
 
-    assertThat(corc.get("b"), is(nullValue()));
+    assertThat(corc.fieldIndex("a"), is(0));
+    assertThat(corc.fieldIndex("b"), is(1));
+    assertThat(corc.fieldIndex("B"), is(1));
+    assertThat(corc.fieldIndex("c"), is(-1));
+  }
+
+  @Test
+  public void primitives() throws IOException {
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder()
+        .add("i", TypeInfoFactory.intTypeInfo)
+        .add("l", TypeInfoFactory.longTypeInfo)
+        .add("d", TypeInfoFactory.doubleTypeInfo)
+        .add("b", TypeInfoFactory.booleanTypeInfo)
+        .build();
+    Corc corc = new Corc(typeInfo, factory);
+
+    assertTrue(corc.isNull("i"));
+    assertThat(corc.getInt("i"), is(0));
 
-    verify(factory, never()).newConverter(any(ObjectInspector.class));
+    corc.setInt("i", 1);
+    corc.setLong("l", 2L);
+    corc.setDouble("d", 3.0D);
+    corc.setBoolean("b", true);
+
+    assertThat(corc.isNull("i"), is(false));
+    assertThat(corc.getInt("i"), is(1));
+    assertThat(corc.getLong("l"), is(2L));
+    assertThat(corc.getDouble("d"), is(3.0D));
+    assertThat(corc.getBoolean("b"), is(true));
+    assertThat(corc.getWritable("i"), is((Object) new IntWritable(1)));
+  }
+
+  @Test
+  public void primitiveSetInPlace() throws IOException {
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder().add("l", TypeInfoFactory.longTypeInfo).build();
+    Corc corc = new Corc(typeInfo, factory);
+    int index = corc.fieldIndex("l");
+
+    corc.setLong(index, 1L);
+    Object writable = corc.getWritable(index);
+    corc.setLong(index, 2L);
+
+    assertTrue(writable == corc.getWritable(index));
+    assertThat(corc.getLong(index), is(2L));
+  }
+
+  @Test
+  public void primitiveNotExists() throws IOException {
+    assertTrue(corc.isNull("b"));
+    assertThat(corc.getLong("b"), is(0L));
+
+    corc.setLong("b", 1L);
+  }
+
+  @Test(expected = UnexpectedTypeException.class)
+  public void primitiveGetIncorrectType() throws IOException {
+    SettableStructObjectInspector inspector = corc.getInspector();
+    inspector.setStructFieldData(corc.getOrcStruct(), inspector.getStructFieldRef("a"), new Text(VALUE));
+
+    corc.getLong("a");
+  }
+
+  @Test(expected = UnexpectedTypeException.class)
+  public void primitiveSetIncorrectType() throws IOException {
+    corc.setLong("a", 1L);
+  }
+
+  @Test
+  public void text() throws IOException {
+    Text text = new Text(VALUE);
+    SettableStructObjectInspector inspector = corc.getInspector();
+    inspector.setStructFieldData(corc.getOrcStruct(), inspector.getStructFieldRef("a"), text);
+
+    assertTrue(corc.getText("a") == text);
+    assertThat(corc.getText("b"), is(nullValue()));
+  }
+
+  @Test
+  public void bytes() throws IOException {
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder().add("a", TypeInfoFactory.binaryTypeInfo).build();
+    Corc corc = new Corc(typeInfo, factory);
+    BytesWritable writable = new BytesWritable(new byte[] { 1, 2, 3 });
+    writable.setCapacity(10);
+    SettableStructObjectInspector inspector = corc.getInspector();
+    inspector.setStructFieldData(corc.getOrcStruct(), inspector.getStructFieldRef("a"), writable);
+
+    ByteBuffer buffer = corc.getByteBuffer("a");
+    assertThat(buffer.remaining(), is(3));
+    assertThat(buffer.get(2), is((byte) 3));
+    assertTrue(buffer.isReadOnly());
+
+    byte[] copy = new byte[4];
+    assertThat(corc.copyBytes("a", copy, 1), is(3));
+    assertThat(copy, is(new byte[] { 0, 1, 2, 3 }));
+  }
+
+  @Test
+  public void bytesNull() throws IOException {
+    assertThat(corc.getByteBuffer("a"), is(nullValue()));
+    assertThat(corc.copyBytes("a", new byte[0], 0), is(-1));
   }
 
   @Test(expected = UnsupportedOperationException.class)
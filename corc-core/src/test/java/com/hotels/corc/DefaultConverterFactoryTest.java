@@ -80,6 +80,65 @@ public class DefaultConverterFactoryTest {
     assertThat(converter.toWritableObject("x"), is((Object) new Text("x")));
   }
 
+  @Test
+  public void stringWritableReuse() throws UnexpectedTypeException {
+    ReusableWritableConverter converter = (ReusableWritableConverter) factory
+        .newConverter(PrimitiveObjectInspectorFactory.javaStringObjectInspector);
+    Text reuse = new Text("x");
+    Object writable = converter.toWritableObject("yy", reuse);
+    assertTrue(writable == reuse);
+    assertThat(writable, is((Object) new Text("yy")));
+  }
+
+  @Test
+  public void stringWritableReuseNull() throws UnexpectedTypeException {
+    ReusableWritableConverter converter = (ReusableWritableConverter) factory
+        .newConverter(PrimitiveObjectInspectorFactory.javaStringObjectInspector);
+    assertThat(converter.toWritableObject("x", null), is((Object) new Text("x")));
+    assertThat(converter.toWritableObject(null, new Text("x")), is(nullValue()));
+  }
+
+  @Test
+  public void stringWritableReuseSubclassConversion() throws UnexpectedTypeException {
+    ReusableWritableConverter converter = new DefaultConverterFactory.StringConverter() {
+      @Override
+      protected Object toWritableObjectInternal(Object value) throws UnexpectedTypeException {
+        return new Text(((String) value).toUpperCase());
+      }
+    };
+    Text reuse = new Text("x");
+    Object writable = converter.toWritableObject("yy", reuse);
+    assertTrue(writable != reuse);
+    assertThat(writable, is((Object) new Text("YY")));
+  }
+
+  @Test
+  public void stringWritableReuseSubclassReuse() throws UnexpectedTypeException {
+    ReusableWritableConverter converter = new DefaultConverterFactory.StringConverter() {
+      @Override
+      protected Object toWritableObjectInternal(Object value) throws UnexpectedTypeException {
+        return new Text(((String) value).toUpperCase());
+      }
+
+      @Override
+      protected Object toWritableObjectInternal(Object value, Object reuse) throws UnexpectedTypeException {
+        ((Text) reuse).set(((String) value).toUpperCase());
+        return reuse;
+      }
+    };
+    Text reuse = new Text("x");
+    Object writable = converter.toWritableObject("yy", reuse);
+    assertTrue(writable == reuse);
+    assertThat(writable, is((Object) new Text("YY")));
+  }
+
+  @Test(expected = UnexpectedTypeException.class)
+  public void stringWritableReuseIncorrectType() throws UnexpectedTypeException {
+    ReusableWritableConverter converter = (ReusableWritableConverter) factory
+        .newConverter(PrimitiveObjectInspectorFactory.javaStringObjectInspector);
+    converter.toWritableObject(1, new Text("x"));
+  }
+
   @Test
   public void stringNullJava() throws UnexpectedTypeException {
     Converter converter = factory.newConverter(PrimitiveObjectInspectorFactory.javaStringObjectInspector);
@@ -104,6 +163,16 @@ public class DefaultConverterFactoryTest {
     assertThat(converter.toWritableObject(true), is((Object) new BooleanWritable(true)));
   }
 
+  @Test
+  public void booleanWritableReuse() throws UnexpectedTypeException {
+    ReusableWritableConverter converter = (ReusableWritableConverter) factory
+        .newConverter(PrimitiveObjectInspectorFactory.javaBooleanObjectInspector);
+    BooleanWritable reuse = new BooleanWritable(false);
+    Object writable = converter.toWritableObject(true, reuse);
+    assertTrue(writable == reuse);
+    assertThat(writable, is((Object) new BooleanWritable(true)));
+  }
+
   @Test
   public void byteJava() throws UnexpectedTypeException {
     Converter converter = factory.newConverter(PrimitiveObjectInspectorFactory.javaByteObjectInspector);
@@ -182,6 +251,18 @@ public class DefaultConverterFactoryTest {
     assertThat(converter.toJavaObject(new TimestampWritable(new Timestamp(0L))), is((Object) new Timestamp(0L)));
   }
 
+  @Test
+  public void timestampJavaIsCopied() throws UnexpectedTypeException {
+    Converter converter = factory.newConverter(PrimitiveObjectInspectorFactory.javaTimestampObjectInspector);
+    Timestamp timestamp = Timestamp.valueOf("2019-01-01 00:00:00.123456789");
+    TimestampWritable writable = new TimestampWritable(timestamp);
+
+    Object javaObject = converter.toJavaObject(writable);
+    writable.set(new Timestamp(0L));
+
+    assertThat(javaObject, is((Object) timestamp));
+  }
+
   @Test
   public void timestampWritable() throws UnexpectedTypeException {
     Converter converter = factory.newConverter(PrimitiveObjectInspectorFactory.javaTimestampObjectInspector);
@@ -207,6 +288,14 @@ public class DefaultConverterFactoryTest {
     assertThat(converter.toJavaObject(new BytesWritable(new byte[] { 0, 1 })), is((Object) new byte[] { 0, 1 }));
   }
 
+  @Test
+  public void binaryJavaPadded() throws UnexpectedTypeException {
+    Converter converter = factory.newConverter(PrimitiveObjectInspectorFactory.javaByteArrayObjectInspector);
+    BytesWritable writable = new BytesWritable(new byte[] { 0, 1 });
+    writable.setCapacity(10);
+    assertThat(converter.toJavaObject(writable), is((Object) new byte[] { 0, 1 }));
+  }
+
   @Test
   public void binaryWritable() throws UnexpectedTypeException {
     Converter converter = factory.newConverter(PrimitiveObjectInspectorFactory.javaByteArrayObjectInspector);
@@ -351,6 +440,70 @@ public class DefaultConverterFactoryTest {
     fail();
   }
 
+  @Test
+  public void unionStringLongWritableRepeated() throws UnexpectedTypeException {
+    List<TypeInfo> typeInfos = Arrays.asList((TypeInfo) TypeInfoFactory.stringTypeInfo, TypeInfoFactory.longTypeInfo);
+    Converter converter = getConverter(TypeInfoFactory.getUnionTypeInfo(typeInfos));
+
+    for (long i = 0; i < 3; i++) {
+      UnionObject union = (UnionObject) converter.toWritableObject(i);
+      assertThat(union.getTag(), is((byte) 1));
+      assertThat(union.getObject(), is((Object) new LongWritable(i)));
+    }
+    UnionObject union = (UnionObject) converter.toWritableObject("a");
+    assertThat(union.getTag(), is((byte) 0));
+  }
+
+  @Test
+  public void unionListStructWritable() throws UnexpectedTypeException {
+    StructTypeInfo struct = new StructTypeInfoBuilder()
+        .add("a", TypeInfoFactory.stringTypeInfo)
+        .add("b", TypeInfoFactory.stringTypeInfo)
+        .build();
+    List<TypeInfo> typeInfos = Arrays.asList((TypeInfo) TypeInfoFactory.getListTypeInfo(TypeInfoFactory.longTypeInfo),
+        struct);
+    Converter converter = factory
+        .newConverter(OrcStruct.createObjectInspector(TypeInfoFactory.getUnionTypeInfo(typeInfos)));
+
+    assertThat(((UnionObject) converter.toWritableObject(Arrays.asList(1L))).getTag(), is((byte) 0));
+    assertThat(((UnionObject) converter.toWritableObject(Arrays.asList("x", "y"))).getTag(), is((byte) 1));
+  }
+
+  @Test
+  public void unionStringMapListWritable() throws UnexpectedTypeException {
+    List<TypeInfo> typeInfos = Arrays.asList((TypeInfo) TypeInfoFactory.stringTypeInfo,
+        TypeInfoFactory.getMapTypeInfo(TypeInfoFactory.stringTypeInfo, TypeInfoFactory.longTypeInfo),
+        TypeInfoFactory.getListTypeInfo(TypeInfoFactory.longTypeInfo));
+    Converter converter = factory
+        .newConverter(OrcStruct.createObjectInspector(TypeInfoFactory.getUnionTypeInfo(typeInfos)));
+
+    Map<Object, Object> map = new HashMap<>();
+    map.put("a", 1L);
+    UnionObject union = (UnionObject) converter.toWritableObject(map);
+    assertThat(union.getTag(), is((byte) 1));
+    union = (UnionObject) converter.toWritableObject(Arrays.asList(1L, 2L));
+    assertThat(union.getTag(), is((byte) 2));
+    assertThat(union.getObject(), is((Object) Arrays.asList(new LongWritable(1L), new LongWritable(2L))));
+  }
+
+  @Test
+  public void unionWritableReuse() throws UnexpectedTypeException {
+    List<TypeInfo> typeInfos = Arrays.asList((TypeInfo) TypeInfoFactory.stringTypeInfo, TypeInfoFactory.longTypeInfo);
+    ObjectInspector inspector = OrcStruct.createObjectInspector(TypeInfoFactory.getUnionTypeInfo(typeInfos));
+    ReusableWritableConverter converter = (ReusableWritableConverter) factory.newConverter(inspector);
+
+    UnionObject reuse = (UnionObject) converter.toWritableObject(1L);
+    Object longWritable = reuse.getObject();
+
+    assertTrue(converter.toWritableObject(2L, reuse) == reuse);
+    assertTrue(reuse.getObject() == longWritable);
+    assertThat(reuse.getObject(), is((Object) new LongWritable(2L)));
+
+    assertTrue(converter.toWritableObject("a", reuse) == reuse);
+    assertThat(reuse.getTag(), is((byte) 0));
+    assertThat(reuse.getObject(), is((Object) new Text("a")));
+  }
+
   @Test
   public void toJava() throws UnexpectedTypeException {
     StructTypeInfo nested = new StructTypeInfoBuilder().add("char1", TypeInfoFactory.getCharTypeInfo(1)).build();
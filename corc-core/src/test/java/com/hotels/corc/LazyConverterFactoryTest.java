@@ -0,0 +1,255 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hadoop.hive.ql.io.orc.OrcStruct;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.SettableStructObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.StructField;
+import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoUtils;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.junit.Test;
+
+public class LazyConverterFactoryTest {
+
+  private final ConverterFactory factory = new LazyConverterFactory();
+
+  @Test
+  public void listJava() throws UnexpectedTypeException {
+    Converter converter = getConverter(TypeInfoFactory.getListTypeInfo(TypeInfoFactory.stringTypeInfo));
+
+    List<Object> writableList = new ArrayList<>();
+    writableList.add(new Text("a"));
+    @SuppressWarnings("unchecked")
+    List<Object> view = (List<Object>) converter.toJavaObject(writableList);
+
+    assertThat(view, is((List<Object>) Arrays.<Object> asList("a")));
+    ((Text) writableList.get(0)).set("b");
+    assertThat(view.get(0), is((Object) "b"));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void listJavaReadOnly() throws UnexpectedTypeException {
+    Converter converter = getConverter(TypeInfoFactory.getListTypeInfo(TypeInfoFactory.stringTypeInfo));
+
+    @SuppressWarnings("unchecked")
+    List<Object> view = (List<Object>) converter.toJavaObject(Arrays.asList(new Text("a")));
+    view.add("b");
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void listJavaIncorrectType() throws UnexpectedTypeException {
+    Converter converter = getConverter(TypeInfoFactory.getListTypeInfo(TypeInfoFactory.longTypeInfo));
+
+    @SuppressWarnings("unchecked")
+    List<Object> view = (List<Object>) converter.toJavaObject(Arrays.asList(new Text("a")));
+    view.get(0);
+  }
+
+  @Test
+  public void listWritable() throws UnexpectedTypeException {
+    Converter converter = getConverter(TypeInfoFactory.getListTypeInfo(TypeInfoFactory.stringTypeInfo));
+
+    assertThat(converter.toWritableObject(Arrays.asList("a")), is((Object) Arrays.asList(new Text("a"))));
+  }
+
+  @Test
+  public void listWritableReuse() throws UnexpectedTypeException {
+    ReusableWritableConverter converter = (ReusableWritableConverter) getConverter(
+        TypeInfoFactory.getListTypeInfo(TypeInfoFactory.stringTypeInfo));
+
+    Text text = new Text("x");
+    List<Object> reuse = new ArrayList<>();
+    reuse.add(text);
+    reuse.add(new Text("y"));
+    Object writable = converter.toWritableObject(Arrays.asList("a"), reuse);
+
+    assertTrue(writable == reuse);
+    assertTrue(reuse.get(0) == text);
+    assertThat(reuse, is((List<Object>) Arrays.<Object> asList(new Text("a"))));
+
+    converter.toWritableObject(Arrays.asList("b", "c"), reuse);
+    assertThat(reuse, is((List<Object>) Arrays.<Object> asList(new Text("b"), new Text("c"))));
+  }
+
+  @Test
+  public void mapJava() throws UnexpectedTypeException {
+    TypeInfo typeInfo = TypeInfoFactory.getMapTypeInfo(TypeInfoFactory.stringTypeInfo, TypeInfoFactory.longTypeInfo);
+    Converter converter = getConverter(typeInfo);
+
+    Map<Object, Object> writableMap = new HashMap<>();
+    writableMap.put(new Text("a"), new LongWritable(1L));
+    @SuppressWarnings("unchecked")
+    Map<Object, Object> view = (Map<Object, Object>) converter.toJavaObject(writableMap);
+
+    Map<Object, Object> javaMap = new HashMap<>();
+    javaMap.put("a", 1L);
+    assertThat(view, is(javaMap));
+    assertThat(view.get("a"), is((Object) 1L));
+    assertThat(view.get("b"), is(nullValue()));
+    assertThat(view.get(1), is(nullValue()));
+    assertThat(view.containsKey("a"), is(true));
+    assertThat(view.size(), is(1));
+  }
+
+  @Test
+  public void mapWritable() throws UnexpectedTypeException {
+    TypeInfo typeInfo = TypeInfoFactory.getMapTypeInfo(TypeInfoFactory.stringTypeInfo, TypeInfoFactory.longTypeInfo);
+    Converter converter = getConverter(typeInfo);
+
+    Map<Object, Object> javaMap = new HashMap<>();
+    javaMap.put("a", 1L);
+    Map<Object, Object> writableMap = new HashMap<>();
+    writableMap.put(new Text("a"), new LongWritable(1L));
+    assertThat(converter.toWritableObject(javaMap), is((Object) writableMap));
+  }
+
+  @Test
+  public void struct() throws UnexpectedTypeException {
+    StructTypeInfo nested = new StructTypeInfoBuilder().add("b", TypeInfoFactory.longTypeInfo).build();
+    TypeInfo typeInfo = new StructTypeInfoBuilder()
+        .add("a", TypeInfoFactory.stringTypeInfo)
+        .add("nested", TypeInfoFactory.getListTypeInfo(nested))
+        .build();
+    SettableStructObjectInspector inspector = (SettableStructObjectInspector) OrcStruct.createObjectInspector(typeInfo);
+    Converter converter = factory.newConverter(inspector);
+
+    List<Object> list = new ArrayList<>();
+    list.add("x");
+    list.add(Arrays.asList(Arrays.asList(1L), Arrays.asList(2L)));
+
+    Object struct = converter.toWritableObject(list);
+    Object expected = new DefaultConverterFactory().newConverter(inspector).toWritableObject(list);
+    assertThat(struct, is(expected));
+    assertThat(converter.toJavaObject(struct), is((Object) list));
+  }
+
+  @Test
+  public void structJavaSerializedAsCopy() throws Exception {
+    StructTypeInfo nested = new StructTypeInfoBuilder().add("b", TypeInfoFactory.longTypeInfo).build();
+    TypeInfo typeInfo = new StructTypeInfoBuilder()
+        .add("a", TypeInfoFactory.stringTypeInfo)
+        .add("nested", TypeInfoFactory.getListTypeInfo(nested))
+        .build();
+    SettableStructObjectInspector inspector = (SettableStructObjectInspector) OrcStruct.createObjectInspector(typeInfo);
+    Converter converter = factory.newConverter(inspector);
+
+    List<Object> list = new ArrayList<>();
+    list.add("x");
+    list.add(Arrays.asList(Arrays.asList(1L), Arrays.asList(2L)));
+    Object view = converter.toJavaObject(converter.toWritableObject(list));
+
+    Object copy = serializeAndDeserialize(view);
+    assertThat(copy, instanceOf(ArrayList.class));
+    assertThat(copy, is((Object) list));
+    assertThat(((List<?>) copy).get(1), instanceOf(ArrayList.class));
+  }
+
+  @Test
+  public void mapJavaSerializedAsCopy() throws Exception {
+    TypeInfo typeInfo = TypeInfoFactory.getMapTypeInfo(TypeInfoFactory.stringTypeInfo, TypeInfoFactory.longTypeInfo);
+    Converter converter = getConverter(typeInfo);
+
+    Map<Object, Object> writableMap = new HashMap<>();
+    writableMap.put(new Text("a"), new LongWritable(1L));
+    Object view = converter.toJavaObject(writableMap);
+
+    Object copy = serializeAndDeserialize(view);
+    writableMap.put(new Text("a"), new LongWritable(2L));
+
+    Map<Object, Object> javaMap = new HashMap<>();
+    javaMap.put("a", 1L);
+    assertThat(copy, instanceOf(HashMap.class));
+    assertThat(copy, is((Object) javaMap));
+  }
+
+  @Test
+  public void structWritableReuse() throws UnexpectedTypeException {
+    StructTypeInfo nested = new StructTypeInfoBuilder().add("b", TypeInfoFactory.longTypeInfo).build();
+    TypeInfo typeInfo = new StructTypeInfoBuilder()
+        .add("a", TypeInfoFactory.stringTypeInfo)
+        .add("nested", TypeInfoFactory.getListTypeInfo(nested))
+        .build();
+    SettableStructObjectInspector inspector = (SettableStructObjectInspector) OrcStruct.createObjectInspector(typeInfo);
+    ReusableWritableConverter converter = (ReusableWritableConverter) factory.newConverter(inspector);
+
+    List<Object> list = new ArrayList<>();
+    list.add("x");
+    list.add(Arrays.asList(Arrays.asList(1L)));
+    OrcStruct reuse = (OrcStruct) converter.toWritableObject(list);
+    StructField field = inspector.getStructFieldRef("nested");
+    Object nestedStruct = ((List<?>) inspector.getStructFieldData(reuse, field)).get(0);
+
+    list.set(0, "y");
+    list.set(1, Arrays.asList(Arrays.asList(2L)));
+    Object writable = converter.toWritableObject(list, reuse);
+
+    assertTrue(writable == reuse);
+    assertTrue(((List<?>) inspector.getStructFieldData(reuse, field)).get(0) == nestedStruct);
+    assertThat(converter.toJavaObject(reuse), is((Object) list));
+  }
+
+  @Test
+  public void corc() throws Exception {
+    StructTypeInfo nested = new StructTypeInfoBuilder().add("b", TypeInfoFactory.longTypeInfo).build();
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder().add("nested", nested).build();
+    Corc corc = new Corc(typeInfo, factory, true);
+
+    corc.set("nested", Arrays.asList(1L));
+    Object struct = corc.getWritable("nested");
+    corc.set("nested", Arrays.asList(2L));
+
+    assertTrue(corc.getWritable("nested") == struct);
+    assertThat(corc.get("nested"), is((Object) Arrays.asList(2L)));
+  }
+
+  private static Object serializeAndDeserialize(Object value) throws IOException, ClassNotFoundException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(value);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      return in.readObject();
+    }
+  }
+
+  private Converter getConverter(TypeInfo typeInfo) {
+    ObjectInspector inspector = TypeInfoUtils.getStandardJavaObjectInspectorFromTypeInfo(typeInfo);
+    return factory.newConverter(inspector);
+  }
+
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoUtils;
+import org.junit.Test;
+
+public class UnionTagsTest {
+
+  private static final TypeInfo LIST = TypeInfoFactory.getListTypeInfo(TypeInfoFactory.longTypeInfo);
+  private static final TypeInfo MAP = TypeInfoFactory.getMapTypeInfo(TypeInfoFactory.stringTypeInfo,
+      TypeInfoFactory.longTypeInfo);
+  private static final TypeInfo STRUCT = new StructTypeInfoBuilder().add("a", TypeInfoFactory.stringTypeInfo).build();
+
+  @Test
+  public void primitiveRecorded() {
+    UnionTags tags = newUnionTags(TypeInfoFactory.stringTypeInfo, TypeInfoFactory.longTypeInfo);
+
+    assertThat(tags.get(1L), is(UnionTags.UNKNOWN));
+    tags.put(1L, (byte) 1);
+    assertThat(tags.get(2L), is((byte) 1));
+    assertThat(tags.get("a"), is(UnionTags.UNKNOWN));
+  }
+
+  @Test
+  public void listAndMapResolvedByShape() {
+    UnionTags tags = newUnionTags(TypeInfoFactory.stringTypeInfo, MAP, LIST);
+
+    assertThat(tags.get(Collections.singletonMap("a", 1L)), is((byte) 1));
+    assertThat(tags.get(Arrays.asList(1L)), is((byte) 2));
+    assertThat(tags.get(new ArrayList<>()), is((byte) 2));
+  }
+
+  @Test
+  public void structResolvedByShape() {
+    UnionTags tags = newUnionTags(TypeInfoFactory.longTypeInfo, STRUCT);
+
+    assertThat(tags.get(Arrays.asList("x")), is((byte) 1));
+    assertThat(tags.get(Collections.emptyMap()), is(UnionTags.UNKNOWN));
+  }
+
+  @Test
+  public void listAndStructAmbiguous() {
+    UnionTags tags = newUnionTags(LIST, STRUCT);
+
+    tags.put(Arrays.asList(1L), (byte) 0);
+    assertThat(tags.get(Arrays.asList(1L)), is(UnionTags.UNKNOWN));
+  }
+
+  private static UnionTags newUnionTags(TypeInfo... typeInfos) {
+    List<ObjectInspector> members = new ArrayList<>();
+    for (TypeInfo typeInfo : typeInfos) {
+      members.add(TypeInfoUtils.getStandardJavaObjectInspectorFromTypeInfo(typeInfo));
+    }
+    return new UnionTags(members);
+  }
+
+}
@@ -18,6 +18,8 @@ package com.hotels.corc;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -91,6 +93,30 @@ public class ValueMarshallerImplTest {
     verify(inspector).setStructFieldData(null, structField, text);
   }
 
+  @Test
+  public void setWritableReuse() throws UnexpectedTypeException {
+    ReusableWritableConverter converter = mock(ReusableWritableConverter.class);
+    ValueMarshaller marshaller = new ValueMarshallerImpl(inspector, structField, converter, true);
+    Text reuse = new Text();
+    when(inspector.getStructFieldData(null, structField)).thenReturn(reuse);
+    when(converter.toWritableObject(string, reuse)).thenReturn(reuse);
+
+    marshaller.setWritableObject(null, string);
+
+    verify(converter, never()).toWritableObject(string);
+    verify(inspector).setStructFieldData(null, structField, reuse);
+  }
+
+  @Test
+  public void setWritableReuseNotSupported() throws UnexpectedTypeException {
+    ValueMarshaller marshaller = new ValueMarshallerImpl(inspector, structField, converter, true);
+    when(converter.toWritableObject(string)).thenReturn(text);
+
+    marshaller.setWritableObject(null, string);
+
+    verify(inspector).setStructFieldData(null, structField, text);
+  }
+
   @Test(expected = UnexpectedTypeException.class)
   public void setWritableException() throws UnexpectedTypeException {
     doThrow(new UnexpectedTypeException()).when(converter).toWritableObject(string);
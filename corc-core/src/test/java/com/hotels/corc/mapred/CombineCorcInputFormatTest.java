@@ -0,0 +1,170 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.mapred;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.ql.io.sarg.PredicateLeaf;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgumentFactory;
+import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapred.FileInputFormat;
+import org.apache.hadoop.mapred.InputSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.RecordReader;
+import org.apache.hadoop.mapred.Reporter;
+import org.apache.hadoop.mapred.lib.CombineFileSplit;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.hotels.corc.Corc;
+import com.hotels.corc.DefaultConverterFactory;
+import com.hotels.corc.StructTypeInfoBuilder;
+import com.hotels.corc.test.OrcWriter;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CombineCorcInputFormatTest {
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Mock
+  private Reporter reporter;
+
+  private final JobConf conf = new JobConf();
+  private final CombineCorcInputFormat inputFormat = new CombineCorcInputFormat();
+
+  private File folder;
+
+  @Before
+  public void before() throws IOException {
+    folder = temporaryFolder.newFolder("data");
+    for (int i = 0; i < 3; i++) {
+      Path path = new Path(new File(folder, "part-0000" + i).getCanonicalPath());
+      try (OrcWriter writer = new OrcWriter.Builder(conf, path)
+          .addField("a", TypeInfoFactory.stringTypeInfo)
+          .addField("b", TypeInfoFactory.stringTypeInfo)
+          .build()) {
+        writer.addRow("A" + i, "B" + i);
+      }
+    }
+    FileInputFormat.setInputPaths(conf, new Path(folder.getCanonicalPath()));
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder().add("a", TypeInfoFactory.stringTypeInfo).build();
+    CorcInputFormat.setTypeInfo(conf, typeInfo);
+    CorcInputFormat.setConverterFactoryClass(conf, DefaultConverterFactory.class);
+  }
+
+  @Test
+  public void combineFiles() throws IOException {
+    InputSplit[] splits = inputFormat.getSplits(conf, 1);
+
+    assertThat(splits.length, is(1));
+    assertThat(((CombineFileSplit) splits[0]).getNumPaths(), is(3));
+    assertThat(read(splits[0]), is(values("A0", "A1", "A2")));
+  }
+
+  @Test
+  public void maxSplitSize() throws IOException {
+    long length = new File(folder, "part-00000").length();
+    conf.setLong(CombineCorcInputFormat.MAX_SPLIT_SIZE, length * 2);
+
+    InputSplit[] splits = inputFormat.getSplits(conf, 1);
+
+    assertThat(splits.length, is(2));
+  }
+
+  @Test
+  public void searchArgument() throws IOException {
+    SearchArgument searchArgument = SearchArgumentFactory
+        .newBuilder()
+        .startAnd()
+        .equals("a", PredicateLeaf.Type.STRING, "A1")
+        .end()
+        .build();
+    CorcInputFormat.setSearchArgument(conf, searchArgument);
+
+    InputSplit[] splits = inputFormat.getSplits(conf, 1);
+
+    assertThat(read(splits[0]), is(values("A1")));
+  }
+
+  @Test
+  public void differentSchemas() throws IOException {
+    try (OrcWriter writer = new OrcWriter.Builder(conf, new Path(new File(folder, "part-00003").getCanonicalPath()))
+        .addField("b", TypeInfoFactory.stringTypeInfo)
+        .addField("a", TypeInfoFactory.stringTypeInfo)
+        .build()) {
+      writer.addRow("B3", "A3");
+    }
+
+    InputSplit[] splits = inputFormat.getSplits(conf, 1);
+
+    RecordReader<NullWritable, Corc> reader = inputFormat.getRecordReader(splits[0], conf, reporter);
+    Corc corc = reader.createValue();
+    List<String> a = new ArrayList<>();
+    List<Object> b = new ArrayList<>();
+    while (reader.next(NullWritable.get(), corc)) {
+      a.add((String) corc.get("a"));
+      b.add(corc.get("b"));
+    }
+    reader.close();
+    Collections.sort(a);
+    assertThat(a, is(values("A0", "A1", "A2", "A3")));
+    // b is neither declared nor read
+    assertThat(b, is(Arrays.asList(null, null, null, null)));
+  }
+
+  @Test(expected = IOException.class)
+  public void notACombineFileSplit() throws IOException {
+    inputFormat.getRecordReader(mock(InputSplit.class), conf, reporter);
+  }
+
+  /* CombineFileInputFormat does not order the files of a split. */
+  private List<String> read(InputSplit split) throws IOException {
+    RecordReader<NullWritable, Corc> reader = inputFormat.getRecordReader(split, conf, reporter);
+    Corc corc = reader.createValue();
+    List<String> values = new ArrayList<>();
+    while (reader.next(NullWritable.get(), corc)) {
+      values.add((String) corc.get("a"));
+    }
+    assertThat(reader.getProgress(), is(1.0F));
+    reader.close();
+    Collections.sort(values);
+    return values;
+  }
+
+  private static List<String> values(String... values) {
+    return Arrays.asList(values);
+  }
+
+}
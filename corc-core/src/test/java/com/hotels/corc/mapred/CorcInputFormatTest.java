@@ -19,10 +19,22 @@ import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import java.io.File;
 import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hive.ql.io.orc.OrcSplit;
@@ -32,12 +44,16 @@ import org.apache.hadoop.hive.ql.io.sarg.SearchArgumentFactory;
 import org.apache.hadoop.hive.serde2.ColumnProjectionUtils;
 import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
 import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoUtils;
 import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapred.FileInputFormat;
 import org.apache.hadoop.mapred.FileSplit;
 import org.apache.hadoop.mapred.InputSplit;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.RecordReader;
 import org.apache.hadoop.mapred.Reporter;
+import org.apache.orc.OrcConf;
+import org.apache.orc.TypeDescription;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -47,6 +63,7 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import com.hotels.corc.Corc;
+import com.hotels.corc.CorcBatch;
 import com.hotels.corc.DefaultConverterFactory;
 import com.hotels.corc.Filter;
 import com.hotels.corc.StructTypeInfoBuilder;
@@ -71,6 +88,8 @@ public class CorcInputFormatTest {
 
   @Before
   public void before() throws IOException {
+    SetupCache.INSTANCE.clear();
+    FileTailCache.INSTANCE.clear();
     file = new File(temporaryFolder.getRoot(), "part-00000");
     path = new Path(file.getCanonicalPath());
 
@@ -106,6 +125,351 @@ public class CorcInputFormatTest {
     reader.close();
   }
 
+  @Test
+  public void readUndeclaredSearchArgumentColumn() throws IOException {
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder().add("a", TypeInfoFactory.stringTypeInfo).build();
+    CorcInputFormat.setTypeInfo(conf, typeInfo);
+    CorcInputFormat.setConverterFactoryClass(conf, DefaultConverterFactory.class);
+    SearchArgument searchArgument = SearchArgumentFactory.newBuilder().startAnd().equals("b", PredicateLeaf.Type.STRING, "B1").end().build();
+    CorcInputFormat.setSearchArgument(conf, searchArgument);
+
+    RecordReader<NullWritable, Corc> reader = inputFormat.getRecordReader(split, conf, reporter);
+
+    Corc corc = reader.createValue();
+
+    assertThat(reader.next(NullWritable.get(), corc), is(true));
+    assertThat(corc.get("a"), is((Object) "A1"));
+    reader.close();
+  }
+
+  @Test
+  public void setupCache() throws IOException {
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder().add("a", TypeInfoFactory.stringTypeInfo).build();
+    CorcInputFormat.setTypeInfo(conf, typeInfo);
+    CorcInputFormat.setSchemaTypeInfo(conf, typeInfo);
+    CorcInputFormat.setConverterFactoryClass(conf, DefaultConverterFactory.class);
+
+    inputFormat.getRecordReader(split, conf, reporter).close();
+    verify(reporter, atLeastOnce()).incrCounter(CorcCounter.SETUP_CACHE_MISSES, 1L);
+
+    RecordReader<NullWritable, Corc> reader = inputFormat.getRecordReader(split, conf, reporter);
+    verify(reporter, atLeastOnce()).incrCounter(CorcCounter.SETUP_CACHE_HITS, 1L);
+
+    Corc corc = reader.createValue();
+    reader.next(NullWritable.get(), corc);
+    assertThat(corc.get("a"), is((Object) "A1"));
+    reader.close();
+  }
+
+  @Test
+  public void fileTailCache() throws IOException {
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder().add("a", TypeInfoFactory.stringTypeInfo).build();
+    CorcInputFormat.setTypeInfo(conf, typeInfo);
+    CorcInputFormat.setConverterFactoryClass(conf, DefaultConverterFactory.class);
+
+    RecordReader<NullWritable, Corc> reader = inputFormat.getRecordReader(split, conf, reporter);
+
+    Corc corc = reader.createValue();
+    reader.next(NullWritable.get(), corc);
+    assertThat(corc.get("a"), is((Object) "A1"));
+    reader.close();
+    // schema detection reads the tail, the pushdown counters and the record reader reuse it
+    verify(reporter).incrCounter(CorcCounter.FILE_TAIL_CACHE_MISSES, 1L);
+    verify(reporter, times(2)).incrCounter(CorcCounter.FILE_TAIL_CACHE_HITS, 1L);
+  }
+
+  @Test
+  public void setupCacheDisabled() throws IOException {
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder().add("a", TypeInfoFactory.stringTypeInfo).build();
+    CorcInputFormat.setTypeInfo(conf, typeInfo);
+    CorcInputFormat.setConverterFactoryClass(conf, DefaultConverterFactory.class);
+    conf.setBoolean(CorcInputFormat.ENABLE_SETUP_CACHE, false);
+
+    inputFormat.getRecordReader(split, conf, reporter).close();
+    inputFormat.getRecordReader(split, conf, reporter).close();
+
+    verify(reporter, never()).incrCounter(CorcCounter.SETUP_CACHE_HITS, 1L);
+    assertThat(SetupCache.INSTANCE.size(), is(0));
+  }
+
+  @Test
+  public void readBatch() throws IOException {
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder().add("a", TypeInfoFactory.stringTypeInfo).build();
+    CorcInputFormat.setTypeInfo(conf, typeInfo);
+
+    RecordReader<NullWritable, CorcBatch> reader = inputFormat.getBatchRecordReader(split, conf, reporter);
+
+    CorcBatch batch = reader.createValue();
+
+    assertThat(reader.next(NullWritable.get(), batch), is(true));
+    assertThat(batch.size(), is(1));
+    assertThat(batch.getString(batch.columnIndex("a"), 0), is("A1"));
+    assertThat(reader.next(NullWritable.get(), batch), is(false));
+    reader.close();
+  }
+
+  @Test
+  public void readBatchRowLevelSearchArgument() throws IOException {
+    File batchFile = new File(temporaryFolder.getRoot(), "part-00001");
+    Path batchPath = new Path(batchFile.getCanonicalPath());
+    try (OrcWriter writer = new OrcWriter.Builder(conf, batchPath)
+        .addField("a", TypeInfoFactory.stringTypeInfo)
+        .build()) {
+      writer.addRow("A1");
+      writer.addRow("A2");
+      writer.addRow("A3");
+    }
+    FileSplit batchSplit = new FileSplit(batchPath, 0L, batchFile.length(), (String[]) null);
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder().add("a", TypeInfoFactory.stringTypeInfo).build();
+    CorcInputFormat.setTypeInfo(conf, typeInfo);
+    SearchArgument searchArgument = SearchArgumentFactory.newBuilder().startAnd().equals("a", PredicateLeaf.Type.STRING, "A2").end().build();
+    CorcInputFormat.setSearchArgument(conf, searchArgument);
+
+    RecordReader<NullWritable, CorcBatch> reader = inputFormat.getBatchRecordReader(batchSplit, conf, reporter);
+    CorcBatch batch = reader.createValue();
+
+    assertThat(reader.next(NullWritable.get(), batch), is(true));
+    assertThat(batch.size(), is(1));
+    assertThat(batch.getString(batch.columnIndex("a"), 0), is("A2"));
+    assertThat(reader.next(NullWritable.get(), batch), is(false));
+    reader.close();
+
+    verify(reporter).incrCounter(CorcCounter.ROWS_READ, 3L);
+    verify(reporter).incrCounter(CorcCounter.ROWS_ACCEPTED, 1L);
+  }
+
+  @Test
+  public void readBatchLateMaterialization() throws IOException {
+    File batchFile = new File(temporaryFolder.getRoot(), "part-00001");
+    Path batchPath = new Path(batchFile.getCanonicalPath());
+    // every batch spans the same values so that no row group can be skipped
+    try (OrcWriter writer = new OrcWriter.Builder(conf, batchPath)
+        .addField("a", TypeInfoFactory.longTypeInfo)
+        .addField("b", TypeInfoFactory.stringTypeInfo)
+        .build()) {
+      for (int i = 0; i < 3000; i++) {
+        long a = i < 1000 ? i : 999 - i % 1000;
+        writer.addRow(a, "B" + i);
+      }
+    }
+    FileSplit batchSplit = new FileSplit(batchPath, 0L, batchFile.length(), (String[]) null);
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder()
+        .add("a", TypeInfoFactory.longTypeInfo)
+        .add("b", TypeInfoFactory.stringTypeInfo)
+        .build();
+    CorcInputFormat.setTypeInfo(conf, typeInfo);
+    SearchArgument searchArgument = SearchArgumentFactory.newBuilder().startAnd().equals("a", PredicateLeaf.Type.LONG, 5L).end().build();
+    CorcInputFormat.setSearchArgument(conf, searchArgument);
+    conf.setInt(CorcInputFormat.BATCH_SIZE, 500);
+    conf.setBoolean(CorcInputFormat.ENABLE_LATE_MATERIALIZATION, true);
+
+    RecordReader<NullWritable, CorcBatch> reader = inputFormat.getBatchRecordReader(batchSplit, conf, reporter);
+    CorcBatch batch = reader.createValue();
+    int a = batch.columnIndex("a");
+    int b = batch.columnIndex("b");
+
+    assertThat(reader.next(NullWritable.get(), batch), is(true));
+    assertThat(batch.size(), is(1));
+    assertThat(batch.getLong(a, 0), is(5L));
+    assertThat(batch.getString(b, 0), is("B5"));
+    assertThat(reader.next(NullWritable.get(), batch), is(true));
+    assertThat(batch.size(), is(1));
+    assertThat(batch.getLong(a, 0), is(5L));
+    assertThat(batch.getString(b, 0), is("B1994"));
+    assertThat(reader.next(NullWritable.get(), batch), is(true));
+    assertThat(batch.size(), is(1));
+    assertThat(batch.getLong(a, 0), is(5L));
+    assertThat(batch.getString(b, 0), is("B2994"));
+    assertThat(reader.next(NullWritable.get(), batch), is(false));
+    reader.close();
+
+    verify(reporter).incrCounter(CorcCounter.ROWS_READ, 3000L);
+    verify(reporter).incrCounter(CorcCounter.ROWS_ACCEPTED, 3L);
+    verify(reporter).incrCounter(CorcCounter.ROWS_NOT_MATERIALIZED, 1500L);
+  }
+
+  @Test
+  public void readBatchLateMaterializationSkippedRowGroups() throws IOException {
+    File batchFile = new File(temporaryFolder.getRoot(), "part-00001");
+    Path batchPath = new Path(batchFile.getCanonicalPath());
+    JobConf writerConf = new JobConf();
+    writerConf.setInt("orc.row.index.stride", 1000);
+    // ascending values so that the row groups between the accepted rows are skipped by the row index
+    try (OrcWriter writer = new OrcWriter.Builder(writerConf, batchPath)
+        .addField("a", TypeInfoFactory.longTypeInfo)
+        .addField("b", TypeInfoFactory.stringTypeInfo)
+        .build()) {
+      for (int i = 0; i < 5000; i++) {
+        writer.addRow((long) i, "B" + i);
+      }
+    }
+    FileSplit batchSplit = new FileSplit(batchPath, 0L, batchFile.length(), (String[]) null);
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder()
+        .add("a", TypeInfoFactory.longTypeInfo)
+        .add("b", TypeInfoFactory.stringTypeInfo)
+        .build();
+    CorcInputFormat.setTypeInfo(conf, typeInfo);
+    SearchArgument searchArgument = SearchArgumentFactory
+        .newBuilder()
+        .startOr()
+        .equals("a", PredicateLeaf.Type.LONG, 1500L)
+        .equals("a", PredicateLeaf.Type.LONG, 3500L)
+        .end()
+        .build();
+    CorcInputFormat.setSearchArgument(conf, searchArgument);
+    conf.setInt(CorcInputFormat.BATCH_SIZE, 500);
+    conf.setBoolean(CorcInputFormat.ENABLE_LATE_MATERIALIZATION, true);
+
+    RecordReader<NullWritable, CorcBatch> reader = inputFormat.getBatchRecordReader(batchSplit, conf, reporter);
+    CorcBatch batch = reader.createValue();
+    int a = batch.columnIndex("a");
+    int b = batch.columnIndex("b");
+
+    assertThat(reader.next(NullWritable.get(), batch), is(true));
+    assertThat(batch.size(), is(1));
+    assertThat(batch.getLong(a, 0), is(1500L));
+    assertThat(batch.getString(b, 0), is("B1500"));
+    assertThat(reader.next(NullWritable.get(), batch), is(true));
+    assertThat(batch.size(), is(1));
+    assertThat(batch.getLong(a, 0), is(3500L));
+    assertThat(batch.getString(b, 0), is("B3500"));
+    assertThat(reader.next(NullWritable.get(), batch), is(false));
+    reader.close();
+
+    verify(reporter).incrCounter(CorcCounter.ROWS_READ, 2000L);
+    verify(reporter).incrCounter(CorcCounter.ROWS_ACCEPTED, 2L);
+    verify(reporter).incrCounter(CorcCounter.ROWS_NOT_MATERIALIZED, 1000L);
+  }
+
+  @Test
+  public void pushdownCounters() throws IOException {
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder().add("a", TypeInfoFactory.stringTypeInfo).build();
+    CorcInputFormat.setTypeInfo(conf, typeInfo);
+    SearchArgument searchArgument = SearchArgumentFactory.newBuilder().startAnd().equals("a", PredicateLeaf.Type.STRING, "A1").end().build();
+    CorcInputFormat.setSearchArgument(conf, searchArgument);
+    conf.setBoolean(CorcInputFormat.ENABLE_DETAILED_PUSHDOWN_COUNTERS, true);
+
+    RecordReader<NullWritable, Corc> reader = inputFormat.getRecordReader(split, conf, reporter);
+    Corc corc = reader.createValue();
+    while (reader.next(NullWritable.get(), corc)) {
+    }
+    reader.close();
+
+    verify(reporter).incrCounter(CorcCounter.STRIPES_READ, 1L);
+    verify(reporter).incrCounter(CorcCounter.STRIPES_SKIPPED, 0L);
+    verify(reporter).incrCounter(CorcCounter.ROW_GROUPS_READ, 1L);
+    verify(reporter).incrCounter(CorcCounter.ROWS_READ, 1L);
+    verify(reporter).incrCounter(CorcCounter.ROWS_ACCEPTED, 1L);
+    verify(reporter).incrCounter(CorcCounter.LEAF_GROUP, "[0] EQUALS a evaluated", 1L);
+    verify(reporter).incrCounter(CorcCounter.LEAF_GROUP, "[0] EQUALS a accepted", 1L);
+    verify(reporter).incrCounter(eq(CorcCounter.COLUMN_GROUP), eq("a"), anyLong());
+  }
+
+  @Test
+  public void pushdownCountersSkippedStripe() throws IOException {
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder().add("a", TypeInfoFactory.stringTypeInfo).build();
+    CorcInputFormat.setTypeInfo(conf, typeInfo);
+    SearchArgument searchArgument = SearchArgumentFactory.newBuilder().startAnd().equals("a", PredicateLeaf.Type.STRING, "Z").end().build();
+    CorcInputFormat.setSearchArgument(conf, searchArgument);
+
+    RecordReader<NullWritable, CorcBatch> reader = inputFormat.getBatchRecordReader(split, conf, reporter);
+    CorcBatch batch = reader.createValue();
+    while (reader.next(NullWritable.get(), batch)) {
+    }
+    reader.close();
+
+    verify(reporter).incrCounter(CorcCounter.STRIPES_READ, 0L);
+    verify(reporter).incrCounter(CorcCounter.STRIPES_SKIPPED, 1L);
+    verify(reporter).incrCounter(CorcCounter.ROW_GROUPS_SKIPPED, 1L);
+    verify(reporter).incrCounter(CorcCounter.ROWS_READ, 0L);
+  }
+
+  @Test
+  public void detailedPushdownCountersDisabledByDefault() throws IOException {
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder().add("a", TypeInfoFactory.stringTypeInfo).build();
+    CorcInputFormat.setTypeInfo(conf, typeInfo);
+    SearchArgument searchArgument = SearchArgumentFactory.newBuilder().startAnd().equals("a", PredicateLeaf.Type.STRING, "A1").end().build();
+    CorcInputFormat.setSearchArgument(conf, searchArgument);
+
+    RecordReader<NullWritable, Corc> reader = inputFormat.getRecordReader(split, conf, reporter);
+    Corc corc = reader.createValue();
+    while (reader.next(NullWritable.get(), corc)) {
+    }
+    reader.close();
+
+    verify(reporter).incrCounter(CorcCounter.ROWS_ACCEPTED, 1L);
+    verify(reporter, never()).incrCounter(eq(CorcCounter.LEAF_GROUP), anyString(), anyLong());
+    verify(reporter, never()).incrCounter(eq(CorcCounter.COLUMN_GROUP), anyString(), anyLong());
+  }
+
+  @Test
+  public void pushdownCountersDisabled() throws IOException {
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder().add("a", TypeInfoFactory.stringTypeInfo).build();
+    CorcInputFormat.setTypeInfo(conf, typeInfo);
+    conf.setBoolean(CorcInputFormat.ENABLE_PUSHDOWN_COUNTERS, false);
+
+    inputFormat.getRecordReader(split, conf, reporter).close();
+
+    verify(reporter, never()).incrCounter(eq(CorcCounter.STRIPES_READ), anyLong());
+  }
+
+  @Test
+  public void pushdownCountersBloomFilter() throws IOException {
+    File bloomFile = new File(temporaryFolder.getRoot(), "part-00001");
+    Path bloomPath = new Path(bloomFile.getCanonicalPath());
+    JobConf writerConf = new JobConf();
+    CorcOutputFormat.setBloomFilterColumns(writerConf, Arrays.asList("a"));
+    writerConf.setInt("orc.row.index.stride", 1000);
+    // every row group spans "A" to "Z" so that only the bloom filters can eliminate one
+    try (OrcWriter writer = new OrcWriter.Builder(writerConf, bloomPath)
+        .addField("a", TypeInfoFactory.stringTypeInfo)
+        .build()) {
+      for (int rowGroup = 0; rowGroup < 3; rowGroup++) {
+        writer.addRow("A");
+        for (int i = 1; i < 999; i++) {
+          writer.addRow("B" + rowGroup + "-" + i);
+        }
+        writer.addRow("Z");
+      }
+    }
+    FileSplit bloomSplit = new FileSplit(bloomPath, 0L, bloomFile.length(), (String[]) null);
+
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder().add("a", TypeInfoFactory.stringTypeInfo).build();
+    CorcInputFormat.setTypeInfo(conf, typeInfo);
+    SearchArgument searchArgument = SearchArgumentFactory.newBuilder().startAnd().equals("a", PredicateLeaf.Type.STRING, "B0-5").end().build();
+    CorcInputFormat.setSearchArgument(conf, searchArgument);
+    conf.setBoolean(CorcInputFormat.ENABLE_BLOOM_FILTER_COUNTERS, true);
+
+    RecordReader<NullWritable, Corc> reader = inputFormat.getRecordReader(bloomSplit, conf, reporter);
+    Corc corc = reader.createValue();
+    while (reader.next(NullWritable.get(), corc)) {
+    }
+    reader.close();
+
+    verify(reporter).incrCounter(CorcCounter.ROW_GROUPS_SKIPPED_BY_BLOOM_FILTER, 2L);
+    verify(reporter).incrCounter(CorcCounter.ROWS_READ, 1000L);
+    verify(reporter).incrCounter(CorcCounter.ROWS_ACCEPTED, 1L);
+  }
+
+  @Test
+  public void pushdownCountersBloomFilterDisabledByDefault() throws IOException {
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder().add("a", TypeInfoFactory.stringTypeInfo).build();
+    CorcInputFormat.setTypeInfo(conf, typeInfo);
+    SearchArgument searchArgument = SearchArgumentFactory.newBuilder().startAnd().equals("a", PredicateLeaf.Type.STRING, "A1").end().build();
+    CorcInputFormat.setSearchArgument(conf, searchArgument);
+
+    inputFormat.getRecordReader(split, conf, reporter).close();
+
+    verify(reporter, never()).incrCounter(eq(CorcCounter.ROW_GROUPS_SKIPPED_BY_BLOOM_FILTER), anyLong());
+  }
+
+  @Test(expected = IOException.class)
+  public void readBatchNotAFileSplit() throws IOException {
+    InputSplit split = mock(InputSplit.class);
+
+    inputFormat.getBatchRecordReader(split, conf, reporter);
+  }
+
   @Test
   public void getSplits() throws IOException {
     conf.set("mapred.input.dir", temporaryFolder.getRoot().getCanonicalPath());
@@ -135,6 +499,63 @@ public class CorcInputFormatTest {
     reader.close();
   }
 
+  @Test
+  public void getSplitsStripes() throws IOException {
+    writeLargerFile();
+    conf.set("mapred.input.dir", temporaryFolder.getRoot().getCanonicalPath());
+    conf.setEnum(CorcInputFormat.SPLIT_STRATEGY, CorcInputFormat.SplitStrategy.STRIPES);
+
+    InputSplit[] splits = inputFormat.getSplits(conf, 1);
+
+    assertThat(splits.length, is(2));
+    // largest first
+    assertThat(((FileSplit) splits[0]).getPath().getName(), is("part-00001"));
+    FileSplit actual = (FileSplit) splits[1];
+    assertThat(actual.getPath().getName(), is("part-00000"));
+    assertThat(actual.getStart(), is(3L));
+
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder().add("a", TypeInfoFactory.stringTypeInfo).build();
+    CorcInputFormat.setTypeInfo(conf, typeInfo);
+    CorcInputFormat.setConverterFactoryClass(conf, DefaultConverterFactory.class);
+    RecordReader<NullWritable, Corc> reader = inputFormat.getRecordReader(actual, conf, reporter);
+    Corc corc = reader.createValue();
+
+    assertThat(reader.next(NullWritable.get(), corc), is(true));
+    assertThat(corc.get("a"), is((Object) "A1"));
+    assertThat(reader.next(NullWritable.get(), corc), is(false));
+    reader.close();
+  }
+
+  @Test
+  public void getSplitsStripesSearchArgument() throws IOException {
+    writeLargerFile();
+    conf.set("mapred.input.dir", temporaryFolder.getRoot().getCanonicalPath());
+    conf.setEnum(CorcInputFormat.SPLIT_STRATEGY, CorcInputFormat.SplitStrategy.STRIPES);
+    SearchArgument searchArgument = SearchArgumentFactory
+        .newBuilder()
+        .startAnd()
+        .equals("a", PredicateLeaf.Type.STRING, "A1")
+        .end()
+        .build();
+    CorcInputFormat.setSearchArgument(conf, searchArgument);
+
+    InputSplit[] splits = inputFormat.getSplits(conf, 1);
+
+    assertThat(splits.length, is(1));
+    assertThat(((FileSplit) splits[0]).getPath().getName(), is("part-00000"));
+  }
+
+  private void writeLargerFile() throws IOException {
+    try (OrcWriter writer = new OrcWriter.Builder(conf, new Path(file.getParent(), "part-00001"))
+        .addField("a", TypeInfoFactory.stringTypeInfo)
+        .addField("b", TypeInfoFactory.stringTypeInfo)
+        .build()) {
+      for (int i = 0; i < 100; i++) {
+        writer.addRow("X" + i, "Y" + i);
+      }
+    }
+  }
+
   @Test
   public void readFullyReadSchemaFromSplit() throws IOException {
     StructTypeInfo typeInfo = new StructTypeInfoBuilder()
@@ -207,6 +628,129 @@ public class CorcInputFormatTest {
     assertThat(conf.get(CorcInputFormat.SCHEMA_TYPE_INFO), is("struct<a:string,b:string>"));
   }
 
+  @Test
+  public void readSchemaTypeInfo() throws IOException {
+    FileInputFormat.setInputPaths(conf, new Path(temporaryFolder.getRoot().getCanonicalPath()));
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder().add("a", TypeInfoFactory.stringTypeInfo).build();
+
+    StructTypeInfo schemaTypeInfo = CorcInputFormat.readSchemaTypeInfo(conf, typeInfo);
+
+    assertThat(schemaTypeInfo.getTypeName(), is("struct<a:string,b:string>"));
+  }
+
+  @Test
+  public void readSchemaTypeInfoEvolvedSchemas() throws IOException {
+    try (OrcWriter writer = new OrcWriter.Builder(conf, new Path(file.getParent(), "part-00001"))
+        .addField("a", TypeInfoFactory.stringTypeInfo)
+        .addField("b", TypeInfoFactory.stringTypeInfo)
+        .addField("c", TypeInfoFactory.stringTypeInfo)
+        .build()) {
+      writer.addRow("A2", "B2", "C2");
+    }
+    FileInputFormat.setInputPaths(conf, new Path(temporaryFolder.getRoot().getCanonicalPath()));
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder().add("a", TypeInfoFactory.stringTypeInfo).build();
+
+    assertThat(CorcInputFormat.readSchemaTypeInfo(conf, typeInfo), is(nullValue()));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void readSchemaTypeInfoDifferentColumnTypes() throws IOException {
+    try (OrcWriter writer = new OrcWriter.Builder(conf, new Path(file.getParent(), "part-00001"))
+        .addField("a", TypeInfoFactory.intTypeInfo)
+        .build()) {
+      writer.addRow(1);
+    }
+    FileInputFormat.setInputPaths(conf, new Path(temporaryFolder.getRoot().getCanonicalPath()));
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder().add("a", TypeInfoFactory.stringTypeInfo).build();
+
+    CorcInputFormat.readSchemaTypeInfo(conf, typeInfo);
+  }
+
+  @Test
+  public void readSchemaTypeInfoNoFiles() throws IOException {
+    FileInputFormat.setInputPaths(conf, new Path(temporaryFolder.newFolder("empty").getCanonicalPath()));
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder().add("a", TypeInfoFactory.stringTypeInfo).build();
+
+    assertThat(CorcInputFormat.readSchemaTypeInfo(conf, typeInfo), is(nullValue()));
+  }
+
+  @Test
+  public void readSchemaTypeInfoDisabled() throws IOException {
+    FileInputFormat.setInputPaths(conf, new Path(temporaryFolder.getRoot().getCanonicalPath()));
+    conf.setInt(CorcInputFormat.SCHEMA_SAMPLE_FILES, 0);
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder().add("a", TypeInfoFactory.stringTypeInfo).build();
+
+    assertThat(CorcInputFormat.readSchemaTypeInfo(conf, typeInfo), is(nullValue()));
+  }
+
+  @Test
+  public void readSchemaTypeInfoDiffersFromSplit() throws IOException {
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder()
+        .add("a", TypeInfoFactory.stringTypeInfo)
+        .add("c", TypeInfoFactory.stringTypeInfo)
+        .build();
+    CorcInputFormat.setTypeInfo(conf, typeInfo);
+    // as if sampled from newer files with an added column that are ordered differently
+    StructTypeInfo schemaTypeInfo = new StructTypeInfoBuilder()
+        .add("b", TypeInfoFactory.stringTypeInfo)
+        .add("a", TypeInfoFactory.stringTypeInfo)
+        .add("c", TypeInfoFactory.stringTypeInfo)
+        .build();
+    CorcInputFormat.setSchemaTypeInfo(conf, schemaTypeInfo);
+    CorcInputFormat.setConverterFactoryClass(conf, DefaultConverterFactory.class);
+
+    RecordReader<NullWritable, Corc> reader = inputFormat.getRecordReader(split, conf, reporter);
+    Corc corc = reader.createValue();
+
+    assertThat(reader.next(NullWritable.get(), corc), is(true));
+    assertThat(corc.get("a"), is((Object) "A1"));
+    assertThat(corc.get("c"), is(nullValue()));
+    reader.close();
+  }
+
+  @Test
+  public void readSchemaTypeInfoDiffersFromBatchSplit() throws IOException {
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder().add("a", TypeInfoFactory.stringTypeInfo).build();
+    CorcInputFormat.setTypeInfo(conf, typeInfo);
+    StructTypeInfo schemaTypeInfo = new StructTypeInfoBuilder()
+        .add("b", TypeInfoFactory.stringTypeInfo)
+        .add("a", TypeInfoFactory.stringTypeInfo)
+        .build();
+    CorcInputFormat.setSchemaTypeInfo(conf, schemaTypeInfo);
+
+    RecordReader<NullWritable, CorcBatch> reader = inputFormat.getBatchRecordReader(split, conf, reporter);
+    CorcBatch batch = reader.createValue();
+
+    assertThat(reader.next(NullWritable.get(), batch), is(true));
+    assertThat(batch.getString(batch.columnIndex("a"), 0), is("A1"));
+    reader.close();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void readSchemaTypeInfoDifferentColumnTypeInSplit() throws IOException {
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder().add("a", TypeInfoFactory.intTypeInfo).build();
+    CorcInputFormat.setTypeInfo(conf, typeInfo);
+    StructTypeInfo schemaTypeInfo = new StructTypeInfoBuilder()
+        .add("a", TypeInfoFactory.intTypeInfo)
+        .add("b", TypeInfoFactory.stringTypeInfo)
+        .build();
+    CorcInputFormat.setSchemaTypeInfo(conf, schemaTypeInfo);
+
+    inputFormat.getRecordReader(split, conf, reporter);
+  }
+
+  @Test
+  public void sampleFiles() {
+    List<Path> files = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      files.add(new Path("part-0000" + i));
+    }
+
+    assertThat(CorcInputFormat.sample(files, 3), is(Arrays.asList(files.get(0), files.get(4), files.get(9))));
+    assertThat(CorcInputFormat.sample(files, 1), is(Arrays.asList(files.get(0))));
+    assertThat(CorcInputFormat.sample(files, 20), is(files));
+  }
+
   @Test
   public void setSchemaTypeInfoNull() {
     CorcInputFormat.setSchemaTypeInfo(conf, null);
@@ -284,6 +828,41 @@ public class CorcInputFormatTest {
     assertThat(conf.get(ColumnProjectionUtils.READ_COLUMN_IDS_CONF_STR), is("0,1"));
   }
 
+  @Test
+  public void setInputReadColumnsSearchArgumentColumn() {
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder()
+        .add("a", TypeInfoFactory.stringTypeInfo)
+        .add("b", TypeInfoFactory.longTypeInfo)
+        .add("c", TypeInfoFactory.longTypeInfo)
+        .build();
+
+    conf.set(CorcInputFormat.INPUT_TYPE_INFO, "struct<a:string>");
+    SearchArgument searchArgument = SearchArgumentFactory.newBuilder().startAnd().equals("c", PredicateLeaf.Type.LONG, 1L).end().build();
+    CorcInputFormat.setSearchArgument(conf, searchArgument);
+
+    CorcInputFormat.setReadColumns(conf, typeInfo);
+
+    assertThat(conf.get(ColumnProjectionUtils.READ_COLUMN_NAMES_CONF_STR), is("a,c"));
+    assertThat(conf.get(ColumnProjectionUtils.READ_COLUMN_IDS_CONF_STR), is("0,2"));
+  }
+
+  @Test
+  public void setInputReadColumnsSearchArgumentColumnRowLevelDisabled() {
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder()
+        .add("a", TypeInfoFactory.stringTypeInfo)
+        .add("b", TypeInfoFactory.longTypeInfo)
+        .build();
+
+    conf.set(CorcInputFormat.INPUT_TYPE_INFO, "struct<a:string>");
+    SearchArgument searchArgument = SearchArgumentFactory.newBuilder().startAnd().equals("b", PredicateLeaf.Type.LONG, 1L).end().build();
+    CorcInputFormat.setSearchArgument(conf, searchArgument);
+    conf.setBoolean(CorcInputFormat.ENABLE_ROW_LEVEL_SEARCH_ARGUMENT, false);
+
+    CorcInputFormat.setReadColumns(conf, typeInfo);
+
+    assertThat(conf.get(ColumnProjectionUtils.READ_COLUMN_IDS_CONF_STR), is("0"));
+  }
+
   @Test(expected = IllegalStateException.class)
   public void setInputReadColumnsAllMissing() {
     StructTypeInfo typeInfo = new StructTypeInfoBuilder()
@@ -305,6 +884,84 @@ public class CorcInputFormatTest {
     CorcInputFormat.setReadColumns(conf, typeInfo);
   }
 
+  @Test
+  public void setInputReadColumnsNestedStruct() {
+    StructTypeInfo typeInfo = (StructTypeInfo) TypeInfoUtils
+        .getTypeInfoFromTypeString("struct<a:string,c:struct<x:string,y:struct<p:int,q:int>>>");
+
+    conf.set(CorcInputFormat.INPUT_TYPE_INFO, "struct<c:struct<y:struct<q:int>>>");
+
+    CorcInputFormat.setReadColumns(conf, typeInfo);
+
+    assertThat(conf.get(ColumnProjectionUtils.READ_COLUMN_IDS_CONF_STR), is("1"));
+    assertThat(ColumnProjectionUtils.getNestedColumnPaths(conf).contains("c.y.q"), is(true));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void setInputReadColumnsNestedStructMissingField() {
+    StructTypeInfo typeInfo = (StructTypeInfo) TypeInfoUtils
+        .getTypeInfoFromTypeString("struct<a:string,c:struct<x:string,y:string>>");
+
+    conf.set(CorcInputFormat.INPUT_TYPE_INFO, "struct<c:struct<w:string>>");
+
+    CorcInputFormat.setReadColumns(conf, typeInfo);
+  }
+
+  @Test
+  public void getIncludedColumnsNested() {
+    TypeDescription schema = TypeDescription
+        .fromString("struct<a:string,c:struct<x:string,y:string,z:struct<p:int,q:int>>,d:int>");
+
+    boolean[] included = CorcInputFormat.getIncludedColumns(schema, Arrays.asList(1, 2), Arrays.asList("c.z.q"));
+
+    assertThat(included, is(new boolean[] { true, false, true, false, false, true, false, true, true }));
+  }
+
+  @Test
+  public void newReaderOptionsFromConf() {
+    conf.setBoolean(OrcConf.SKIP_CORRUPT_DATA.getAttribute(), true);
+    TypeDescription schema = TypeDescription.fromString("struct<a:string,b:string>");
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder()
+        .add("a", TypeInfoFactory.stringTypeInfo)
+        .add("b", TypeInfoFactory.stringTypeInfo)
+        .build();
+
+    org.apache.orc.Reader.Options options = CorcInputFormat.newReaderOptions(conf, split, schema, typeInfo,
+        Arrays.asList(0), Collections.<String> emptySet(), null);
+
+    assertThat(options.getSkipCorruptRecords(), is(true));
+    assertThat(options.getInclude(), is(new boolean[] { true, true, false }));
+    assertThat(options.getLength(), is(split.getLength()));
+  }
+
+  @Test
+  public void readNestedColumnProjection() throws IOException {
+    StructTypeInfo cTypeInfo = new StructTypeInfoBuilder()
+        .add("x", TypeInfoFactory.stringTypeInfo)
+        .add("y", TypeInfoFactory.stringTypeInfo)
+        .build();
+    File nestedFile = new File(temporaryFolder.getRoot(), "part-00001");
+    Path nestedPath = new Path(nestedFile.getCanonicalPath());
+    try (OrcWriter writer = new OrcWriter.Builder(conf, nestedPath)
+        .addField("a", TypeInfoFactory.stringTypeInfo)
+        .addField("c", cTypeInfo)
+        .build()) {
+      writer.addRow("A1", Arrays.asList("X1", "Y1"));
+    }
+    FileSplit nestedSplit = new FileSplit(nestedPath, 0L, nestedFile.length(), (String[]) null);
+    StructTypeInfo typeInfo = (StructTypeInfo) TypeInfoUtils.getTypeInfoFromTypeString("struct<c:struct<y:string>>");
+    CorcInputFormat.setTypeInfo(conf, typeInfo);
+    CorcInputFormat.setConverterFactoryClass(conf, DefaultConverterFactory.class);
+
+    RecordReader<NullWritable, Corc> reader = inputFormat.getRecordReader(nestedSplit, conf, reporter);
+
+    Corc corc = reader.createValue();
+    assertThat(reader.next(NullWritable.get(), corc), is(true));
+    // the struct keeps the shape of the file, the fields that are not read are null
+    assertThat(corc.get("c"), is((Object) Arrays.asList(null, "Y1")));
+    reader.close();
+  }
+
   @Test
   public void setSearchArgument() {
     SearchArgument searchArgument = SearchArgumentFactory.newBuilder().startAnd().equals("a", PredicateLeaf.Type.STRING, "b").end().build();
@@ -344,6 +1001,44 @@ public class CorcInputFormatTest {
     assertThat(kryo, is(CorcInputFormat.toKryo(searchArgument)));
   }
 
+  @Test
+  public void getSearchArgumentTimestamp() {
+    Timestamp timestamp = Timestamp.valueOf("2019-01-01 00:00:00.123456789");
+    SearchArgument searchArgument = SearchArgumentFactory.newBuilder().startAnd().equals("a", PredicateLeaf.Type.TIMESTAMP, timestamp).end().build();
+    CorcInputFormat.setSearchArgument(conf, searchArgument);
+
+    SearchArgument sa = CorcInputFormat.getSearchArgument(conf);
+
+    assertThat(sa.getLeaves().get(0).getLiteral(), is((Object) timestamp));
+  }
+
+  @Test
+  public void getSearchArgumentColumnNamesNested() {
+    String type = "struct<a:string,b:struct<c:bigint,d:struct<e:int>>>";
+    TypeDescription schema = TypeDescription.fromString(type);
+    StructTypeInfo typeInfo = (StructTypeInfo) TypeInfoUtils.getTypeInfoFromTypeString(type);
+
+    String[] columnNames = CorcInputFormat.getSearchArgumentColumnNames(schema, typeInfo);
+
+    assertThat(columnNames, is(new String[] { null, "a", "b", "b.c", "b.d", "b.d.e" }));
+  }
+
+  @Test
+  public void getSearchArgumentColumnIds() {
+    StructTypeInfo typeInfo = (StructTypeInfo) TypeInfoUtils
+        .getTypeInfoFromTypeString("struct<a:string,b:struct<c:bigint>,d:bigint>");
+    SearchArgument searchArgument = SearchArgumentFactory
+        .newBuilder()
+        .startAnd()
+        .equals("d", PredicateLeaf.Type.LONG, 1L)
+        .equals("b.c", PredicateLeaf.Type.LONG, 1L)
+        .lessThan("d", PredicateLeaf.Type.LONG, 5L)
+        .end()
+        .build();
+
+    assertThat(CorcInputFormat.getSearchArgumentColumnIds(searchArgument, typeInfo), is(Arrays.asList(1, 2)));
+  }
+
   @Test
   public void getFilterDisabledSearchArgument() {
     StructTypeInfo typeInfo = new StructTypeInfoBuilder().add("a", TypeInfoFactory.stringTypeInfo).build();
@@ -21,6 +21,7 @@ import static org.junit.Assert.assertThat;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 
 import org.apache.hadoop.fs.FileSystem;
@@ -87,4 +88,18 @@ public class CorcOutputFormatTest {
     }
     ;
   }
+
+  @Test
+  public void setBloomFilterColumns() {
+    CorcOutputFormat.setBloomFilterColumns(conf, Arrays.asList("a", "b"));
+    CorcOutputFormat.setBloomFilterFpp(conf, 0.01);
+
+    assertThat(conf.get(CorcOutputFormat.BLOOM_FILTER_COLUMNS), is("a,b"));
+    assertThat(conf.getDouble(CorcOutputFormat.BLOOM_FILTER_FPP, 0.0), is(0.01));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void setBloomFilterFppInvalid() {
+    CorcOutputFormat.setBloomFilterFpp(conf, 1.0);
+  }
 }
@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.mapred;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.ql.io.orc.Reader;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory;
+import org.apache.hadoop.mapred.Reporter;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.hotels.corc.test.OrcWriter;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FileTailCacheTest {
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Mock
+  private Reporter reporter;
+
+  private final Configuration conf = new Configuration();
+  private final FileTailCache cache = new FileTailCache(2);
+
+  @Test
+  public void sharedBetweenReaders() throws IOException {
+    Path path = write("part-00000", 1);
+
+    Reader reader = cache.createReader(path, conf, reporter);
+    org.apache.orc.Reader orcReader = cache.createOrcReader(path, conf, reporter);
+
+    assertThat(reader.getNumberOfRows(), is(1L));
+    assertThat(orcReader.getNumberOfRows(), is(1L));
+    assertThat(orcReader.getSchema().toString(), is("struct<a:string>"));
+    assertThat(cache.size(), is(1));
+    verify(reporter).incrCounter(CorcCounter.FILE_TAIL_CACHE_MISSES, 1L);
+    verify(reporter).incrCounter(CorcCounter.FILE_TAIL_CACHE_HITS, 1L);
+  }
+
+  @Test
+  public void replacedFile() throws IOException {
+    Path path = write("part-00000", 1);
+    cache.createOrcReader(path, conf, reporter);
+    new File(path.toUri()).delete();
+    write("part-00000", 100);
+
+    org.apache.orc.Reader orcReader = cache.createOrcReader(path, conf, reporter);
+
+    assertThat(orcReader.getNumberOfRows(), is(100L));
+    verify(reporter, times(2)).incrCounter(CorcCounter.FILE_TAIL_CACHE_MISSES, 1L);
+  }
+
+  @Test
+  public void bounded() throws IOException {
+    Path a = write("a", 1);
+    Path b = write("b", 1);
+    Path c = write("c", 1);
+
+    cache.createOrcReader(a, conf, reporter);
+    cache.createOrcReader(b, conf, reporter);
+    cache.createOrcReader(a, conf, reporter);
+    cache.createOrcReader(c, conf, reporter);
+
+    assertThat(cache.size(), is(2));
+    cache.createOrcReader(a, conf, reporter);
+    cache.createOrcReader(b, conf, reporter);
+
+    verify(reporter, times(2)).incrCounter(CorcCounter.FILE_TAIL_CACHE_HITS, 1L);
+    verify(reporter, times(4)).incrCounter(CorcCounter.FILE_TAIL_CACHE_MISSES, 1L);
+  }
+
+  @Test
+  public void disabled() throws IOException {
+    Path path = write("part-00000", 1);
+
+    assertThat(FileTailCache.DISABLED.createReader(path, conf, reporter).getNumberOfRows(), is(1L));
+    assertThat(FileTailCache.DISABLED.size(), is(0));
+    verifyZeroInteractions(reporter);
+  }
+
+  private Path write(String name, int rows) throws IOException {
+    Path path = new Path(new File(temporaryFolder.getRoot(), name).getCanonicalPath());
+    try (OrcWriter writer = new OrcWriter.Builder(conf, path).addField("a", TypeInfoFactory.stringTypeInfo).build()) {
+      for (int i = 0; i < rows; i++) {
+        writer.addRow("A" + i);
+      }
+    }
+    return path;
+  }
+
+}
@@ -0,0 +1,148 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.mapred;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hadoop.hive.ql.io.sarg.PredicateLeaf;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgumentFactory;
+import org.apache.hadoop.mapred.Reporter;
+import org.apache.orc.Reader;
+import org.apache.orc.StripeInformation;
+import org.apache.orc.TypeDescription;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.hotels.corc.Filter;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PushdownCountersTest {
+
+  @Mock
+  private Reporter reporter;
+  @Mock
+  private Reader reader;
+  @Mock
+  private StripeInformation stripe0;
+  @Mock
+  private StripeInformation stripe1;
+  @Mock
+  private StripeInformation stripe2;
+
+  private PushdownCounters counters;
+
+  @Before
+  public void before() {
+    when(reader.getRowIndexStride()).thenReturn(10);
+    when(reader.getStripes()).thenReturn(Arrays.asList(stripe0, stripe1, stripe2));
+    when(reader.getNumberOfRows()).thenReturn(75L);
+    when(reader.getSchema()).thenReturn(TypeDescription.fromString("struct<a:string>"));
+    when(stripe0.getOffset()).thenReturn(3L);
+    when(stripe0.getNumberOfRows()).thenReturn(25L);
+    when(stripe1.getOffset()).thenReturn(100L);
+    when(stripe1.getNumberOfRows()).thenReturn(25L);
+    when(stripe2.getOffset()).thenReturn(200L);
+    when(stripe2.getNumberOfRows()).thenReturn(25L);
+    counters = new PushdownCounters(reporter, 2);
+  }
+
+  @Test
+  public void stripesInSplit() {
+    counters.evaluateStripes(reader, 0L, 200L, null, new String[] { null, "a" }, null);
+
+    verify(reporter).incrCounter(CorcCounter.STRIPES_READ, 2L);
+    verify(reporter).incrCounter(CorcCounter.STRIPES_SKIPPED, 0L);
+  }
+
+  @Test
+  public void rowGroupsSkipped() {
+    counters.evaluateStripes(reader, 0L, 200L, null, new String[] { null, "a" }, null);
+    for (int i = 0; i < 30; i++) {
+      counters.rowRead();
+    }
+    counters.report(true, Filter.ACCEPT);
+
+    verify(reporter).incrCounter(CorcCounter.ROW_GROUPS_READ, 4L);
+    verify(reporter).incrCounter(CorcCounter.ROW_GROUPS_SKIPPED, 2L);
+    verify(reporter).incrCounter(CorcCounter.ROWS_READ, 30L);
+  }
+
+  @Test
+  public void columnBytes() {
+    when(reader.getRawDataSizeOfColumns(Arrays.asList("a"))).thenReturn(750L);
+    counters.evaluateStripes(reader, 0L, 200L, null, new String[] { null, "a" }, new String[] { "a", "b" });
+
+    verify(reporter).incrCounter(CorcCounter.COLUMN_GROUP, "a", 500L);
+  }
+
+  @Test
+  public void columnBytesDisabled() {
+    counters = new PushdownCounters(reporter, 0);
+    counters.evaluateStripes(reader, 0L, 200L, null, new String[] { null, "a" }, new String[] { "a" });
+
+    verify(reporter, never()).incrCounter(eq(CorcCounter.COLUMN_GROUP), anyString(), anyLong());
+  }
+
+  @Test
+  public void columnBytesLimited() {
+    when(reader.getSchema()).thenReturn(TypeDescription.fromString("struct<a:string,b:string,c:string>"));
+    counters.evaluateStripes(reader, 0L, 200L, null, new String[] { null, "a", "b", "c" },
+        new String[] { "a", "b", "c" });
+
+    verify(reporter).incrCounter(eq(CorcCounter.COLUMN_GROUP), eq("a"), anyLong());
+    verify(reporter).incrCounter(eq(CorcCounter.COLUMN_GROUP), eq("b"), anyLong());
+    verify(reporter, never()).incrCounter(eq(CorcCounter.COLUMN_GROUP), eq("c"), anyLong());
+  }
+
+  @Test
+  public void leafNamesUnique() {
+    List<PredicateLeaf> leaves = SearchArgumentFactory
+        .newBuilder()
+        .startOr()
+        .equals("a", PredicateLeaf.Type.STRING, "x")
+        .equals("a", PredicateLeaf.Type.STRING, "y")
+        .end()
+        .build()
+        .getLeaves();
+
+    assertThat(PushdownCounters.getLeafName(0, leaves.get(0)), is("[0] EQUALS a"));
+    assertThat(PushdownCounters.getLeafName(1, leaves.get(1)), is(not(PushdownCounters.getLeafName(0, leaves.get(0)))));
+  }
+
+  @Test
+  public void bloomFiltersWithoutSearchArgument() throws IOException {
+    counters.evaluateStripes(reader, 0L, 200L, null, new String[] { null, "a" }, null);
+    counters.evaluateBloomFilters(reader, 0L, 200L, null, new String[] { null, "a" });
+
+    verify(reporter, never()).incrCounter(eq(CorcCounter.ROW_GROUPS_SKIPPED_BY_BLOOM_FILTER), anyLong());
+  }
+
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.mapred;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.ql.io.sarg.PredicateLeaf;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgumentFactory;
+import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapred.FileSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.RecordReader;
+import org.apache.hadoop.mapred.Reporter;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.hotels.corc.Corc;
+import com.hotels.corc.CorcBatch;
+import com.hotels.corc.StructTypeInfoBuilder;
+import com.hotels.corc.test.OrcWriter;
+
+/**
+ * Compares row level {@link SearchArgument} evaluation over {@link Corc} rows with the vectorized evaluation over
+ * {@link CorcBatch CorcBatches}, with and without late materialization of the payload column. The values of every row
+ * group span the whole range of each column so that no row group can be skipped and all rows are evaluated.
+ */
+public class RowLevelSearchArgumentPerformanceTest {
+
+  private static final int ROWS = 1000000;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final JobConf conf = new JobConf();
+  private final CorcInputFormat inputFormat = new CorcInputFormat();
+  private FileSplit split;
+
+  @Before
+  public void before() throws IOException {
+    File file = new File(temporaryFolder.getRoot(), "part-00000");
+    Path path = new Path(file.getCanonicalPath());
+    try (OrcWriter writer = new OrcWriter.Builder(conf, path)
+        .addField("a", TypeInfoFactory.longTypeInfo)
+        .addField("b", TypeInfoFactory.doubleTypeInfo)
+        .addField("c", TypeInfoFactory.stringTypeInfo)
+        .addField("d", TypeInfoFactory.stringTypeInfo)
+        .build()) {
+      for (int i = 0; i < ROWS; i++) {
+        writer.addRow((long) (i % 100), (double) (i % 1000), "c" + i % 10, "payload-" + i);
+      }
+    }
+    split = new FileSplit(path, 0L, file.length(), (String[]) null);
+
+    StructTypeInfo typeInfo = new StructTypeInfoBuilder()
+        .add("a", TypeInfoFactory.longTypeInfo)
+        .add("b", TypeInfoFactory.doubleTypeInfo)
+        .add("c", TypeInfoFactory.stringTypeInfo)
+        .add("d", TypeInfoFactory.stringTypeInfo)
+        .build();
+    CorcInputFormat.setTypeInfo(conf, typeInfo);
+    SearchArgument searchArgument = SearchArgumentFactory
+        .newBuilder()
+        .startAnd()
+        .between("a", PredicateLeaf.Type.LONG, 10L, 59L)
+        .startOr()
+        .lessThan("b", PredicateLeaf.Type.FLOAT, 500.0)
+        .equals("c", PredicateLeaf.Type.STRING, "c3")
+        .end()
+        .end()
+        .build();
+    CorcInputFormat.setSearchArgument(conf, searchArgument);
+    conf.setBoolean(CorcInputFormat.ENABLE_PUSHDOWN_COUNTERS, false);
+  }
+
+  @Test
+  public void rows() throws IOException {
+    RecordReader<NullWritable, Corc> reader = inputFormat.getRecordReader(split, conf, Reporter.NULL);
+    Corc corc = reader.createValue();
+    long accepted = 0;
+    while (reader.next(NullWritable.get(), corc)) {
+      accepted++;
+    }
+    reader.close();
+    assertThat(accepted, is(expected()));
+  }
+
+  @Test
+  public void batches() throws IOException {
+    RecordReader<NullWritable, CorcBatch> reader = inputFormat.getBatchRecordReader(split, conf, Reporter.NULL);
+    CorcBatch batch = reader.createValue();
+    long accepted = 0;
+    while (reader.next(NullWritable.get(), batch)) {
+      accepted += batch.size();
+    }
+    reader.close();
+    assertThat(accepted, is(expected()));
+  }
+
+  @Test
+  public void batchesLateMaterialization() throws IOException {
+    conf.setBoolean(CorcInputFormat.ENABLE_LATE_MATERIALIZATION, true);
+    batches();
+  }
+
+  private static long expected() {
+    long expected = 0;
+    for (int i = 0; i < ROWS; i++) {
+      long a = i % 100;
+      if (a >= 10 && a <= 59 && (i % 1000 < 500 || i % 10 == 3)) {
+        expected++;
+      }
+    }
+    return expected;
+  }
+
+}
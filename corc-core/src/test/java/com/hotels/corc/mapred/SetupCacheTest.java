@@ -0,0 +1,152 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.mapred;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import org.apache.hadoop.conf.Configurable;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hive.ql.io.sarg.PredicateLeaf;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgumentFactory;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
+import org.apache.hadoop.mapred.Reporter;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.hotels.corc.Converter;
+import com.hotels.corc.ConverterFactory;
+import com.hotels.corc.CorcSchema;
+import com.hotels.corc.DefaultConverterFactory;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SetupCacheTest {
+
+  private static final String TYPE = "struct<a:string>";
+
+  @Mock
+  private Reporter reporter;
+
+  private final Configuration conf = new Configuration();
+  private final SetupCache cache = new SetupCache(2);
+
+  @Test
+  public void typeInfo() {
+    StructTypeInfo typeInfo = cache.getTypeInfo(TYPE, reporter);
+
+    assertThat(typeInfo.getTypeName(), is(TYPE));
+    assertThat(cache.getTypeInfo(TYPE, reporter), is(sameInstance(typeInfo)));
+    verify(reporter).incrCounter(CorcCounter.SETUP_CACHE_MISSES, 1L);
+    verify(reporter).incrCounter(CorcCounter.SETUP_CACHE_HITS, 1L);
+  }
+
+  @Test
+  public void searchArgument() {
+    SearchArgument searchArgument = SearchArgumentFactory
+        .newBuilder()
+        .startAnd()
+        .equals("a", PredicateLeaf.Type.STRING, "b")
+        .end()
+        .build();
+    String kryo = CorcInputFormat.toKryo(searchArgument);
+
+    SearchArgument cached = cache.getSearchArgument(kryo, reporter);
+
+    assertThat(cached.toString(), is(searchArgument.toString()));
+    assertThat(cache.getSearchArgument(kryo, reporter), is(sameInstance(cached)));
+  }
+
+  @Test
+  public void converterFactory() {
+    ConverterFactory factory = cache.getConverterFactory(DefaultConverterFactory.class, conf, reporter);
+
+    assertThat(cache.getConverterFactory(DefaultConverterFactory.class, conf, reporter), is(sameInstance(factory)));
+  }
+
+  @Test
+  public void converterFactoryConfigurableNotCached() {
+    ConverterFactory factory = cache.getConverterFactory(ConfigurableConverterFactory.class, conf, reporter);
+
+    assertThat(cache.getConverterFactory(ConfigurableConverterFactory.class, conf, reporter),
+        is(not(sameInstance(factory))));
+    assertThat(cache.size(), is(0));
+    verifyZeroInteractions(reporter);
+  }
+
+  @Test
+  public void schema() {
+    StructTypeInfo typeInfo = cache.getTypeInfo(TYPE, reporter);
+    CorcSchema schema = cache.getSchema(typeInfo, new DefaultConverterFactory(), reporter);
+
+    assertThat(schema.getTypeInfo(), is(typeInfo));
+    assertThat(cache.getSchema(typeInfo, new DefaultConverterFactory(), reporter), is(sameInstance(schema)));
+  }
+
+  @Test
+  public void bounded() {
+    cache.getTypeInfo("struct<a:string>", reporter);
+    cache.getTypeInfo("struct<b:string>", reporter);
+    cache.getTypeInfo("struct<a:string>", reporter);
+    cache.getTypeInfo("struct<c:string>", reporter);
+
+    assertThat(cache.size(), is(2));
+    cache.getTypeInfo("struct<a:string>", reporter);
+    cache.getTypeInfo("struct<b:string>", reporter);
+
+    verify(reporter, times(2)).incrCounter(CorcCounter.SETUP_CACHE_HITS, 1L);
+    verify(reporter, times(4)).incrCounter(CorcCounter.SETUP_CACHE_MISSES, 1L);
+  }
+
+  @Test
+  public void disabled() {
+    StructTypeInfo typeInfo = SetupCache.DISABLED.getTypeInfo(TYPE, reporter);
+
+    assertThat(typeInfo.getTypeName(), is(TYPE));
+    assertThat(SetupCache.DISABLED.size(), is(0));
+    verifyZeroInteractions(reporter);
+  }
+
+  public static class ConfigurableConverterFactory implements ConverterFactory, Configurable {
+    private static final long serialVersionUID = 1L;
+
+    private Configuration conf;
+
+    @Override
+    public Converter newConverter(ObjectInspector inspector) {
+      return null;
+    }
+
+    @Override
+    public void setConf(Configuration conf) {
+      this.conf = conf;
+    }
+
+    @Override
+    public Configuration getConf() {
+      return conf;
+    }
+  }
+
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.mapred;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hadoop.fs.BlockLocation;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.FileSplit;
+import org.apache.orc.StripeInformation;
+import org.junit.Test;
+
+public class StripeSplitPlannerTest {
+
+  private final Path path = new Path("part-00000");
+  private final BlockLocation[] blocks = new BlockLocation[] {
+      new BlockLocation(null, new String[] { "host1", "host2" }, 0L, 100L),
+      new BlockLocation(null, new String[] { "host2", "host3" }, 100L, 100L) };
+
+  @Test
+  public void packWholeStripes() throws IOException {
+    List<StripeInformation> stripes = Arrays.asList(stripe(3L, 40L), stripe(43L, 40L), stripe(83L, 40L),
+        stripe(123L, 70L));
+
+    List<FileSplit> splits = StripeSplitPlanner.pack(path, stripes, blocks, 100L);
+
+    assertThat(splits.size(), is(3));
+    assertSplit(splits.get(0), 3L, 80L);
+    assertSplit(splits.get(1), 83L, 40L);
+    assertSplit(splits.get(2), 123L, 70L);
+  }
+
+  @Test
+  public void packStripeLargerThanSplitSize() throws IOException {
+    List<StripeInformation> stripes = Arrays.asList(stripe(3L, 150L), stripe(153L, 40L));
+
+    List<FileSplit> splits = StripeSplitPlanner.pack(path, stripes, blocks, 100L);
+
+    assertThat(splits.size(), is(2));
+    assertSplit(splits.get(0), 3L, 150L);
+    assertSplit(splits.get(1), 153L, 40L);
+  }
+
+  @Test
+  public void packSpansDroppedStripes() throws IOException {
+    List<StripeInformation> stripes = Arrays.asList(stripe(3L, 40L), stripe(83L, 40L));
+
+    List<FileSplit> splits = StripeSplitPlanner.pack(path, stripes, blocks, 100L);
+
+    assertThat(splits.size(), is(1));
+    assertSplit(splits.get(0), 3L, 120L);
+  }
+
+  @Test
+  public void hostsWithMostBytesFirst() throws IOException {
+    assertThat(StripeSplitPlanner.getHosts(blocks, 3L, 83L), is(new String[] { "host1", "host2" }));
+    assertThat(StripeSplitPlanner.getHosts(blocks, 83L, 193L), is(new String[] { "host2", "host3", "host1" }));
+    assertThat(StripeSplitPlanner.getHosts(null, 3L, 83L), is(new String[0]));
+  }
+
+  private static void assertSplit(FileSplit split, long start, long length) {
+    assertThat(split.getStart(), is(start));
+    assertThat(split.getLength(), is(length));
+  }
+
+  private static StripeInformation stripe(long offset, long length) {
+    StripeInformation stripe = mock(StripeInformation.class);
+    when(stripe.getOffset()).thenReturn(offset);
+    when(stripe.getLength()).thenReturn(length);
+    return stripe;
+  }
+
+}
@@ -21,6 +21,7 @@ import static org.mockito.Mockito.when;
 
 import org.apache.hadoop.hive.ql.io.sarg.SearchArgument.TruthValue;
 import org.apache.hadoop.io.LongWritable;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -44,39 +45,44 @@ public class BetweenEvaluatorTest {
 
   private final Evaluator<?> evaluator = new BetweenEvaluator<>(COL0, ONE, THREE);
 
+  @Before
+  public void before() {
+    when(corc.fieldIndex(COL0)).thenReturn(0);
+  }
+
   @Test
   public void lessThan() {
-    when(corc.getWritable(COL0)).thenReturn(ZERO);
+    when(corc.getWritable(0)).thenReturn(ZERO);
     assertThat(evaluator.evaluate(corc), is(TruthValue.NO));
   }
 
   @Test
   public void equalsMin() {
-    when(corc.getWritable(COL0)).thenReturn(ONE);
+    when(corc.getWritable(0)).thenReturn(ONE);
     assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
   }
 
   @Test
   public void middle() {
-    when(corc.getWritable(COL0)).thenReturn(TWO);
+    when(corc.getWritable(0)).thenReturn(TWO);
     assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
   }
 
   @Test
   public void equalsMax() {
-    when(corc.getWritable(COL0)).thenReturn(THREE);
+    when(corc.getWritable(0)).thenReturn(THREE);
     assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
   }
 
   @Test
   public void greaterThan() {
-    when(corc.getWritable(COL0)).thenReturn(FOUR);
+    when(corc.getWritable(0)).thenReturn(FOUR);
     assertThat(evaluator.evaluate(corc), is(TruthValue.NO));
   }
 
   @Test
   public void nullInput() {
-    when(corc.getWritable(COL0)).thenReturn(null);
+    when(corc.getWritable(0)).thenReturn(null);
     assertThat(evaluator.evaluate(corc), is(TruthValue.NULL));
   }
 
@@ -0,0 +1,236 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.sarg;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.apache.hadoop.hive.ql.io.sarg.PredicateLeaf;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument.TruthValue;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgumentFactory;
+import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory;
+import org.apache.hadoop.io.LongWritable;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.hotels.corc.Corc;
+import com.hotels.corc.StructTypeInfoBuilder;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CompiledExpressionTest {
+
+  private static final String COL0 = "col0";
+  private static final String COL1 = "col1";
+  private static final String COL2 = "col2";
+
+  @Mock
+  private Corc corc;
+
+  private final StructTypeInfo structTypeInfo = new StructTypeInfoBuilder()
+      .add(COL0, TypeInfoFactory.longTypeInfo)
+      .add(COL1, TypeInfoFactory.longTypeInfo)
+      .add(COL2, TypeInfoFactory.longTypeInfo)
+      .build();
+
+  @Before
+  public void before() {
+    when(corc.fieldIndex(COL0)).thenReturn(0);
+    when(corc.fieldIndex(COL1)).thenReturn(1);
+    when(corc.fieldIndex(COL2)).thenReturn(2);
+  }
+
+  @Test
+  public void andShortCircuits() {
+    when(corc.getWritable(0)).thenReturn(new LongWritable(1L));
+    SearchArgument searchArgument = SearchArgumentFactory
+        .newBuilder()
+        .startAnd()
+        .equals(COL0, PredicateLeaf.Type.LONG, 0L)
+        .equals(COL1, PredicateLeaf.Type.LONG, 0L)
+        .end()
+        .build();
+
+    assertThat(compile(searchArgument).evaluate(corc), is(TruthValue.NO));
+    verify(corc, never()).getWritable(COL1);
+  }
+
+  @Test
+  public void orShortCircuits() {
+    when(corc.getWritable(0)).thenReturn(new LongWritable(0L));
+    SearchArgument searchArgument = SearchArgumentFactory
+        .newBuilder()
+        .startOr()
+        .equals(COL0, PredicateLeaf.Type.LONG, 0L)
+        .equals(COL1, PredicateLeaf.Type.LONG, 0L)
+        .end()
+        .build();
+
+    assertThat(compile(searchArgument).evaluate(corc), is(TruthValue.YES));
+    verify(corc, never()).getWritable(COL1);
+  }
+
+  @Test
+  public void leafCounts() {
+    when(corc.getWritable(0)).thenReturn(new LongWritable(0L), new LongWritable(1L));
+    when(corc.getWritable(1)).thenReturn(new LongWritable(1L));
+    SearchArgument searchArgument = SearchArgumentFactory
+        .newBuilder()
+        .startAnd()
+        .equals(COL0, PredicateLeaf.Type.LONG, 0L)
+        .equals(COL1, PredicateLeaf.Type.LONG, 0L)
+        .end()
+        .build();
+    CompiledExpression expression = compile(searchArgument);
+
+    expression.evaluate(corc);
+    expression.evaluate(corc);
+
+    assertThat(expression.getEvaluations(0), is(2L));
+    assertThat(expression.getAccepts(0), is(1L));
+    assertThat(expression.getEvaluations(1), is(1L));
+    assertThat(expression.getAccepts(1), is(0L));
+  }
+
+  @Test
+  public void andReorderedAfterSample() {
+    when(corc.getWritable(0)).thenReturn(new LongWritable(0L));
+    when(corc.getWritable(1)).thenReturn(new LongWritable(1L));
+    SearchArgument searchArgument = SearchArgumentFactory
+        .newBuilder()
+        .startAnd()
+        .equals(COL0, PredicateLeaf.Type.LONG, 0L)
+        .equals(COL1, PredicateLeaf.Type.LONG, 0L)
+        .end()
+        .build();
+    CompiledExpression expression = compile(searchArgument, 10);
+
+    for (int i = 0; i < 20; i++) {
+      assertThat(expression.evaluate(corc), is(TruthValue.NO));
+    }
+    // only sampled rows evaluate col0 as col1 alone decides the result
+    verify(corc, times(10)).getWritable(COL0);
+    verify(corc, times(20)).getWritable(COL1);
+  }
+
+  @Test
+  public void notOrReorderedAfterSample() {
+    when(corc.getWritable(0)).thenReturn(new LongWritable(1L));
+    when(corc.getWritable(1)).thenReturn(new LongWritable(0L));
+    SearchArgument searchArgument = SearchArgumentFactory
+        .newBuilder()
+        .startNot()
+        .startOr()
+        .equals(COL0, PredicateLeaf.Type.LONG, 0L)
+        .equals(COL1, PredicateLeaf.Type.LONG, 0L)
+        .end()
+        .end()
+        .build();
+    CompiledExpression expression = compile(searchArgument, 10);
+
+    for (int i = 0; i < 20; i++) {
+      assertThat(expression.evaluate(corc), is(TruthValue.NO));
+    }
+    verify(corc, times(10)).getWritable(COL0);
+    verify(corc, times(20)).getWritable(COL1);
+  }
+
+  @Test
+  public void leafEvaluatedOncePerRow() {
+    when(corc.getWritable(0)).thenReturn(new LongWritable(1L));
+    when(corc.getWritable(1)).thenReturn(new LongWritable(1L));
+    when(corc.getWritable(2)).thenReturn(new LongWritable(1L));
+    // normalised to conjunctive normal form: (col0 = 0 or col1 = 1) and (col0 = 0 or col2 = 1)
+    SearchArgument searchArgument = SearchArgumentFactory
+        .newBuilder()
+        .startOr()
+        .equals(COL0, PredicateLeaf.Type.LONG, 0L)
+        .startAnd()
+        .equals(COL1, PredicateLeaf.Type.LONG, 1L)
+        .equals(COL2, PredicateLeaf.Type.LONG, 1L)
+        .end()
+        .end()
+        .build();
+    CompiledExpression expression = compile(searchArgument);
+
+    assertThat(expression.evaluate(corc), is(TruthValue.YES));
+    verify(corc, times(1)).getWritable(COL0);
+
+    assertThat(expression.evaluate(corc), is(TruthValue.YES));
+    verify(corc, times(2)).getWritable(COL0);
+  }
+
+  @Test
+  public void matchesSearchArgument() {
+    SearchArgument searchArgument = SearchArgumentFactory
+        .newBuilder()
+        .startOr()
+        .startAnd()
+        .lessThan(COL0, PredicateLeaf.Type.LONG, 1L)
+        .startNot()
+        .isNull(COL1, PredicateLeaf.Type.LONG)
+        .end()
+        .end()
+        .in(COL2, PredicateLeaf.Type.LONG, 0L, 2L)
+        .end()
+        .build();
+    CompiledExpression expression = compile(searchArgument);
+    List<PredicateLeaf> leaves = searchArgument.getLeaves();
+    LongWritable[] values = { null, new LongWritable(0L), new LongWritable(1L), new LongWritable(2L) };
+
+    for (LongWritable col0 : values) {
+      for (LongWritable col1 : values) {
+        for (LongWritable col2 : values) {
+          when(corc.getWritable(0)).thenReturn(col0);
+          when(corc.getWritable(1)).thenReturn(col1);
+          when(corc.getWritable(2)).thenReturn(col2);
+          TruthValue[] truthValues = new TruthValue[leaves.size()];
+          EvaluatorFactory factory = new EvaluatorFactory(structTypeInfo);
+          for (int i = 0; i < truthValues.length; i++) {
+            truthValues[i] = factory.newInstance(leaves.get(i)).evaluate(corc);
+          }
+          assertThat(expression.evaluate(corc) == TruthValue.YES,
+              is(searchArgument.evaluate(truthValues) == TruthValue.YES));
+        }
+      }
+    }
+  }
+
+  private CompiledExpression compile(SearchArgument searchArgument) {
+    return compile(searchArgument, 0);
+  }
+
+  private CompiledExpression compile(SearchArgument searchArgument, long sampleRows) {
+    EvaluatorFactory factory = new EvaluatorFactory(structTypeInfo);
+    List<PredicateLeaf> leaves = searchArgument.getLeaves();
+    Evaluator<?>[] evaluators = new Evaluator<?>[leaves.size()];
+    for (int i = 0; i < evaluators.length; i++) {
+      evaluators[i] = factory.newInstance(leaves.get(i));
+    }
+    return new CompiledExpression(searchArgument.getExpression(), evaluators, sampleRows);
+  }
+
+}
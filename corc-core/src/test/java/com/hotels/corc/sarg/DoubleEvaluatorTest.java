@@ -0,0 +1,140 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.sarg;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+
+import org.apache.hadoop.hive.ql.io.sarg.PredicateLeaf.Operator;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument.TruthValue;
+import org.apache.hadoop.hive.serde2.io.DoubleWritable;
+import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector.PrimitiveCategory;
+import org.apache.hadoop.io.FloatWritable;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.hotels.corc.Corc;
+
+@RunWith(MockitoJUnitRunner.class)
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public class DoubleEvaluatorTest {
+
+  private static final String COL0 = "col0";
+
+  private static final DoubleWritable ONE = new DoubleWritable(1.0);
+  private static final DoubleWritable TWO_AND_A_HALF = new DoubleWritable(2.5);
+  private static final DoubleWritable NAN = new DoubleWritable(Double.NaN);
+
+  @Mock
+  private Corc corc;
+
+  @Before
+  public void before() {
+    when(corc.fieldIndex(COL0)).thenReturn(0);
+  }
+
+  @Test
+  public void equals() {
+    Evaluator<?> evaluator = new DoubleEvaluator.Equals(COL0, PrimitiveCategory.DOUBLE, TWO_AND_A_HALF);
+    when(corc.getWritable(0)).thenReturn(new DoubleWritable(2.5));
+    assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
+    when(corc.getWritable(0)).thenReturn(ONE);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.NO));
+  }
+
+  @Test
+  public void floatEquals() {
+    Evaluator<?> evaluator = new DoubleEvaluator.Equals(COL0, PrimitiveCategory.FLOAT, new FloatWritable(0.1f));
+    when(corc.getWritable(0)).thenReturn(new FloatWritable(0.1f));
+    assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
+  }
+
+  @Test
+  public void zeroEqualsNegativeZero() {
+    Evaluator<?> evaluator = new DoubleEvaluator.Equals(COL0, PrimitiveCategory.DOUBLE, new DoubleWritable(-0.0));
+    when(corc.getWritable(0)).thenReturn(new DoubleWritable(0.0));
+    assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
+  }
+
+  @Test
+  public void lessThan() {
+    Evaluator<?> evaluator = new DoubleEvaluator.LessThan(COL0, PrimitiveCategory.DOUBLE, TWO_AND_A_HALF,
+        Operator.LESS_THAN);
+    when(corc.getWritable(0)).thenReturn(ONE);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
+    when(corc.getWritable(0)).thenReturn(TWO_AND_A_HALF);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.NO));
+    when(corc.getWritable(0)).thenReturn(NAN);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.NO));
+  }
+
+  @Test
+  public void lessThanEquals() {
+    Evaluator<?> evaluator = new DoubleEvaluator.LessThan(COL0, PrimitiveCategory.DOUBLE, TWO_AND_A_HALF,
+        Operator.LESS_THAN_EQUALS);
+    when(corc.getWritable(0)).thenReturn(TWO_AND_A_HALF);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
+  }
+
+  @Test
+  public void between() {
+    Evaluator<?> evaluator = new DoubleEvaluator.Between(COL0, PrimitiveCategory.DOUBLE, ONE, TWO_AND_A_HALF);
+    when(corc.getWritable(0)).thenReturn(new DoubleWritable(2.0));
+    assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
+    when(corc.getWritable(0)).thenReturn(new DoubleWritable(3.0));
+    assertThat(evaluator.evaluate(corc), is(TruthValue.NO));
+    when(corc.getWritable(0)).thenReturn(NAN);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.NO));
+  }
+
+  @Test
+  public void in() {
+    Evaluator<?> evaluator = new DoubleEvaluator.In(COL0, PrimitiveCategory.DOUBLE,
+        Arrays.asList(TWO_AND_A_HALF, new DoubleWritable(-0.0), NAN));
+    when(corc.getWritable(0)).thenReturn(TWO_AND_A_HALF);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
+    when(corc.getWritable(0)).thenReturn(new DoubleWritable(0.0));
+    assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
+    when(corc.getWritable(0)).thenReturn(ONE);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.NO));
+    when(corc.getWritable(0)).thenReturn(NAN);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.NO));
+  }
+
+  @Test
+  public void nullValue() {
+    Evaluator<?> evaluator = new DoubleEvaluator.Equals(COL0, PrimitiveCategory.DOUBLE, ONE);
+    when(corc.getWritable(0)).thenReturn(null);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.NULL));
+  }
+
+  @Test
+  public void betweenBatch() {
+    DoubleEvaluator evaluator = new DoubleEvaluator.Between(COL0, PrimitiveCategory.DOUBLE, ONE, TWO_AND_A_HALF);
+    long[] yes = new long[1];
+    long[] no = new long[1];
+    evaluator.evaluate(new double[] { 2.0, Double.NaN, 0.5, 2.5 }, 4, yes, no);
+    assertThat(yes, is(new long[] { 0b1001L }));
+    assertThat(no, is(new long[] { 0b0110L }));
+  }
+
+}
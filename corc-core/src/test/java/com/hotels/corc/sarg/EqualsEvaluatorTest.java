@@ -17,10 +17,15 @@ package com.hotels.corc.sarg;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.apache.hadoop.hive.ql.io.sarg.SearchArgument.TruthValue;
+import org.apache.hadoop.hive.serde2.objectinspector.SettableStructObjectInspector;
 import org.apache.hadoop.io.Text;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -41,21 +46,58 @@ public class EqualsEvaluatorTest {
 
   private final Evaluator<?> evaluator = new EqualsEvaluator<>(COL0, FOO);
 
+  @Before
+  public void before() {
+    when(corc.fieldIndex(COL0)).thenReturn(0);
+  }
+
   @Test
   public void stringIsEqual() {
-    when(corc.getWritable(COL0)).thenReturn(FOO);
+    when(corc.getWritable(0)).thenReturn(FOO);
     assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
   }
 
   @Test
   public void stringNotEqual() {
-    when(corc.getWritable(COL0)).thenReturn(BAR);
+    when(corc.getWritable(0)).thenReturn(BAR);
     assertThat(evaluator.evaluate(corc), is(TruthValue.NO));
   }
 
   @Test
   public void stringNull() {
-    when(corc.getWritable(COL0)).thenReturn(null);
+    when(corc.getWritable(0)).thenReturn(null);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.NULL));
+  }
+
+  @Test
+  public void fieldIndexResolvedOncePerSchema() {
+    SettableStructObjectInspector inspector = mock(SettableStructObjectInspector.class);
+    when(corc.getInspector()).thenReturn(inspector);
+    when(corc.getWritable(0)).thenReturn(FOO);
+
+    evaluator.evaluate(corc);
+    evaluator.evaluate(corc);
+
+    verify(corc, times(1)).fieldIndex(COL0);
+  }
+
+  @Test
+  public void fieldIndexResolvedAgainForNewSchema() {
+    when(corc.getInspector()).thenReturn(mock(SettableStructObjectInspector.class));
+    when(corc.getWritable(0)).thenReturn(FOO);
+    evaluator.evaluate(corc);
+
+    Corc other = mock(Corc.class);
+    when(other.getInspector()).thenReturn(mock(SettableStructObjectInspector.class));
+    when(other.fieldIndex(COL0)).thenReturn(1);
+    when(other.getWritable(1)).thenReturn(BAR);
+
+    assertThat(evaluator.evaluate(other), is(TruthValue.NO));
+  }
+
+  @Test
+  public void missingField() {
+    when(corc.fieldIndex(COL0)).thenReturn(-1);
     assertThat(evaluator.evaluate(corc), is(TruthValue.NULL));
   }
 
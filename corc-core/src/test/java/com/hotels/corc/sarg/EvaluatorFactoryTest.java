@@ -94,6 +94,30 @@ public class EvaluatorFactoryTest {
     factory.newInstance(predicateLeaf);
   }
 
+  @Test(expected = IllegalArgumentException.class)
+  public void nestedNotStructThrowsException() {
+    when(predicateLeaf.getColumnName()).thenReturn(COL0 + ".a");
+
+    StructTypeInfo structTypeInfo = new StructTypeInfoBuilder().add(COL0, TypeInfoFactory.stringTypeInfo).build();
+    EvaluatorFactory factory = new EvaluatorFactory(structTypeInfo);
+    factory.newInstance(predicateLeaf);
+  }
+
+  @Test
+  public void nestedLessThan() {
+    when(predicateLeaf.getColumnName()).thenReturn(COL0 + ".a");
+    when(predicateLeaf.getOperator()).thenReturn(Operator.LESS_THAN);
+    when(predicateLeaf.getLiteral()).thenReturn(1L);
+
+    StructTypeInfo nested = new StructTypeInfoBuilder().add("a", TypeInfoFactory.longTypeInfo).build();
+    StructTypeInfo structTypeInfo = new StructTypeInfoBuilder().add(COL0, nested).build();
+    EvaluatorFactory factory = new EvaluatorFactory(structTypeInfo);
+    Evaluator<?> evaluator = factory.newInstance(predicateLeaf);
+
+    assertThat(evaluator, instanceOf(NestedFieldEvaluator.class));
+    assertThat(((NestedFieldEvaluator<?>) evaluator).getEvaluator(), instanceOf(LongEvaluator.LessThan.class));
+  }
+
   @Test
   public void stringEquals() {
     when(predicateLeaf.getColumnName()).thenReturn(COL0);
@@ -104,7 +128,7 @@ public class EvaluatorFactoryTest {
     EvaluatorFactory factory = new EvaluatorFactory(structTypeInfo);
     Evaluator<?> evaluator = factory.newInstance(predicateLeaf);
 
-    assertThat(evaluator, instanceOf(EqualsEvaluator.class));
+    assertThat(evaluator, instanceOf(TextEvaluator.Equals.class));
   }
 
   @Test
@@ -117,7 +141,7 @@ public class EvaluatorFactoryTest {
     EvaluatorFactory factory = new EvaluatorFactory(structTypeInfo);
     Evaluator<?> evaluator = factory.newInstance(predicateLeaf);
 
-    assertThat(evaluator, instanceOf(EqualsEvaluator.class));
+    assertThat(evaluator, instanceOf(TextEvaluator.Equals.class));
   }
 
   @Test
@@ -130,7 +154,7 @@ public class EvaluatorFactoryTest {
     EvaluatorFactory factory = new EvaluatorFactory(structTypeInfo);
     Evaluator<?> evaluator = factory.newInstance(predicateLeaf);
 
-    assertThat(evaluator, instanceOf(LessThanEvaluator.class));
+    assertThat(evaluator, instanceOf(TextEvaluator.LessThan.class));
   }
 
   @Test
@@ -143,7 +167,7 @@ public class EvaluatorFactoryTest {
     EvaluatorFactory factory = new EvaluatorFactory(structTypeInfo);
     Evaluator<?> evaluator = factory.newInstance(predicateLeaf);
 
-    assertThat(evaluator, instanceOf(LessThanEvaluator.class));
+    assertThat(evaluator, instanceOf(TextEvaluator.LessThan.class));
   }
 
   @Test
@@ -156,7 +180,63 @@ public class EvaluatorFactoryTest {
     EvaluatorFactory factory = new EvaluatorFactory(structTypeInfo);
     Evaluator<?> evaluator = factory.newInstance(predicateLeaf);
 
-    assertThat(evaluator, instanceOf(InEvaluator.class));
+    assertThat(evaluator, instanceOf(TextEvaluator.In.class));
+  }
+
+  @Test
+  public void stringLargeIn() {
+    when(predicateLeaf.getColumnName()).thenReturn(COL0);
+    when(predicateLeaf.getOperator()).thenReturn(Operator.IN);
+    when(predicateLeaf.getLiteralList()).thenReturn(
+        Arrays.asList((Object) "a", "b", "c", "d", "e", "f", "g", "h", "i"));
+
+    StructTypeInfo structTypeInfo = new StructTypeInfoBuilder().add(COL0, TypeInfoFactory.stringTypeInfo).build();
+    EvaluatorFactory factory = new EvaluatorFactory(structTypeInfo);
+    Evaluator<?> evaluator = factory.newInstance(predicateLeaf);
+
+    assertThat(evaluator, instanceOf(HashInEvaluator.class));
+  }
+
+  @Test
+  public void longLargeIn() {
+    when(predicateLeaf.getColumnName()).thenReturn(COL0);
+    when(predicateLeaf.getOperator()).thenReturn(Operator.IN);
+    when(predicateLeaf.getLiteralList()).thenReturn(
+        Arrays.asList((Object) 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L));
+
+    StructTypeInfo structTypeInfo = new StructTypeInfoBuilder().add(COL0, TypeInfoFactory.longTypeInfo).build();
+    EvaluatorFactory factory = new EvaluatorFactory(structTypeInfo);
+    Evaluator<?> evaluator = factory.newInstance(predicateLeaf);
+
+    assertThat(evaluator, instanceOf(LongEvaluator.In.class));
+  }
+
+  @Test
+  public void doubleLargeIn() {
+    when(predicateLeaf.getColumnName()).thenReturn(COL0);
+    when(predicateLeaf.getOperator()).thenReturn(Operator.IN);
+    when(predicateLeaf.getLiteralList()).thenReturn(
+        Arrays.asList((Object) 1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 7.0, 8.0, 9.0));
+
+    StructTypeInfo structTypeInfo = new StructTypeInfoBuilder().add(COL0, TypeInfoFactory.doubleTypeInfo).build();
+    EvaluatorFactory factory = new EvaluatorFactory(structTypeInfo);
+    Evaluator<?> evaluator = factory.newInstance(predicateLeaf);
+
+    assertThat(evaluator, instanceOf(DoubleEvaluator.In.class));
+  }
+
+  @Test
+  public void decimalLargeIn() {
+    when(predicateLeaf.getColumnName()).thenReturn(COL0);
+    when(predicateLeaf.getOperator()).thenReturn(Operator.IN);
+    when(predicateLeaf.getLiteralList()).thenReturn(
+        Arrays.asList((Object) "1", "2", "3", "4", "5", "6", "7", "8", "9"));
+
+    StructTypeInfo structTypeInfo = new StructTypeInfoBuilder().add(COL0, TypeInfoFactory.decimalTypeInfo).build();
+    EvaluatorFactory factory = new EvaluatorFactory(structTypeInfo);
+    Evaluator<?> evaluator = factory.newInstance(predicateLeaf);
+
+    assertThat(evaluator, instanceOf(SortedInEvaluator.class));
   }
 
   @Test
@@ -169,7 +249,59 @@ public class EvaluatorFactoryTest {
     EvaluatorFactory factory = new EvaluatorFactory(structTypeInfo);
     Evaluator<?> evaluator = factory.newInstance(predicateLeaf);
 
-    assertThat(evaluator, instanceOf(BetweenEvaluator.class));
+    assertThat(evaluator, instanceOf(TextEvaluator.Between.class));
+  }
+
+  @Test
+  public void longEquals() {
+    when(predicateLeaf.getColumnName()).thenReturn(COL0);
+    when(predicateLeaf.getOperator()).thenReturn(Operator.EQUALS);
+    when(predicateLeaf.getLiteral()).thenReturn(1L);
+
+    StructTypeInfo structTypeInfo = new StructTypeInfoBuilder().add(COL0, TypeInfoFactory.longTypeInfo).build();
+    EvaluatorFactory factory = new EvaluatorFactory(structTypeInfo);
+    Evaluator<?> evaluator = factory.newInstance(predicateLeaf);
+
+    assertThat(evaluator, instanceOf(LongEvaluator.Equals.class));
+  }
+
+  @Test
+  public void dateLessThan() {
+    when(predicateLeaf.getColumnName()).thenReturn(COL0);
+    when(predicateLeaf.getOperator()).thenReturn(Operator.LESS_THAN);
+    when(predicateLeaf.getLiteral()).thenReturn(new Date(0L));
+
+    StructTypeInfo structTypeInfo = new StructTypeInfoBuilder().add(COL0, TypeInfoFactory.dateTypeInfo).build();
+    EvaluatorFactory factory = new EvaluatorFactory(structTypeInfo);
+    Evaluator<?> evaluator = factory.newInstance(predicateLeaf);
+
+    assertThat(evaluator, instanceOf(LongEvaluator.LessThan.class));
+  }
+
+  @Test
+  public void doubleBetween() {
+    when(predicateLeaf.getColumnName()).thenReturn(COL0);
+    when(predicateLeaf.getOperator()).thenReturn(Operator.BETWEEN);
+    when(predicateLeaf.getLiteralList()).thenReturn(Arrays.asList((Object) 1.0, 2.0));
+
+    StructTypeInfo structTypeInfo = new StructTypeInfoBuilder().add(COL0, TypeInfoFactory.doubleTypeInfo).build();
+    EvaluatorFactory factory = new EvaluatorFactory(structTypeInfo);
+    Evaluator<?> evaluator = factory.newInstance(predicateLeaf);
+
+    assertThat(evaluator, instanceOf(DoubleEvaluator.Between.class));
+  }
+
+  @Test
+  public void decimalEquals() {
+    when(predicateLeaf.getColumnName()).thenReturn(COL0);
+    when(predicateLeaf.getOperator()).thenReturn(Operator.EQUALS);
+    when(predicateLeaf.getLiteral()).thenReturn("1.5");
+
+    StructTypeInfo structTypeInfo = new StructTypeInfoBuilder().add(COL0, TypeInfoFactory.decimalTypeInfo).build();
+    EvaluatorFactory factory = new EvaluatorFactory(structTypeInfo);
+    Evaluator<?> evaluator = factory.newInstance(predicateLeaf);
+
+    assertThat(evaluator, instanceOf(EqualsEvaluator.class));
   }
 
   @Test
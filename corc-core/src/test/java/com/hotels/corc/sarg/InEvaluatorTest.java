@@ -23,6 +23,7 @@ import java.util.Arrays;
 
 import org.apache.hadoop.hive.ql.io.sarg.SearchArgument.TruthValue;
 import org.apache.hadoop.io.Text;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -44,21 +45,26 @@ public class InEvaluatorTest {
   @SuppressWarnings({ "rawtypes", "unchecked" })
   private final Evaluator<?> evaluator = new InEvaluator(COL0, Arrays.asList(FOO));
 
+  @Before
+  public void before() {
+    when(corc.fieldIndex(COL0)).thenReturn(0);
+  }
+
   @Test
   public void stringIsIn() {
-    when(corc.getWritable(COL0)).thenReturn(FOO);
+    when(corc.getWritable(0)).thenReturn(FOO);
     assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
   }
 
   @Test
   public void stringNotIn() {
-    when(corc.getWritable(COL0)).thenReturn(BAR);
+    when(corc.getWritable(0)).thenReturn(BAR);
     assertThat(evaluator.evaluate(corc), is(TruthValue.NO));
   }
 
   @Test
   public void stringNull() {
-    when(corc.getWritable(COL0)).thenReturn(null);
+    when(corc.getWritable(0)).thenReturn(null);
     assertThat(evaluator.evaluate(corc), is(TruthValue.NULL));
   }
 
@@ -21,6 +21,7 @@ import static org.mockito.Mockito.when;
 
 import org.apache.hadoop.hive.ql.io.sarg.SearchArgument.TruthValue;
 import org.apache.hadoop.io.Text;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -41,15 +42,20 @@ public class IsNullEvaluatorTest {
   @SuppressWarnings("rawtypes")
   private final Evaluator<?> evaluator = new IsNullEvaluator(COL0);
 
+  @Before
+  public void before() {
+    when(corc.fieldIndex(COL0)).thenReturn(0);
+  }
+
   @Test
   public void stringIsNotNull() {
-    when(corc.getWritable(COL0)).thenReturn(FOO);
+    when(corc.getWritable(0)).thenReturn(FOO);
     assertThat(evaluator.evaluate(corc), is(TruthValue.NO));
   }
 
   @Test
   public void stringIsNull() {
-    when(corc.getWritable(COL0)).thenReturn(null);
+    when(corc.getWritable(0)).thenReturn(null);
     assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
   }
 
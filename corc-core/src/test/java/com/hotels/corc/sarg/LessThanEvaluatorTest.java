@@ -22,6 +22,7 @@ import static org.mockito.Mockito.when;
 import org.apache.hadoop.hive.ql.io.sarg.PredicateLeaf.Operator;
 import org.apache.hadoop.hive.ql.io.sarg.SearchArgument.TruthValue;
 import org.apache.hadoop.io.LongWritable;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -43,58 +44,63 @@ public class LessThanEvaluatorTest {
 
   private Evaluator<?> evaluator;
 
+  @Before
+  public void before() {
+    when(corc.fieldIndex(COL0)).thenReturn(0);
+  }
+
   @Test
   public void lessThanIsLessThan() {
-    when(corc.getWritable(COL0)).thenReturn(ZERO);
+    when(corc.getWritable(0)).thenReturn(ZERO);
     evaluator = new LessThanEvaluator<>(COL0, ONE, Operator.LESS_THAN);
     assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
   }
 
   @Test
   public void lessThanIsEqualInput() {
-    when(corc.getWritable(COL0)).thenReturn(ONE);
+    when(corc.getWritable(0)).thenReturn(ONE);
     evaluator = new LessThanEvaluator<>(COL0, ONE, Operator.LESS_THAN);
     assertThat(evaluator.evaluate(corc), is(TruthValue.NO));
   }
 
   @Test
   public void lessThatIsGreaterThan() {
-    when(corc.getWritable(COL0)).thenReturn(TWO);
+    when(corc.getWritable(0)).thenReturn(TWO);
     evaluator = new LessThanEvaluator<>(COL0, ONE, Operator.LESS_THAN);
     assertThat(evaluator.evaluate(corc), is(TruthValue.NO));
   }
 
   @Test
   public void lessThanIsNullInput() {
-    when(corc.getWritable(COL0)).thenReturn(null);
+    when(corc.getWritable(0)).thenReturn(null);
     evaluator = new LessThanEvaluator<>(COL0, ONE, Operator.LESS_THAN);
     assertThat(evaluator.evaluate(corc), is(TruthValue.NULL));
   }
 
   @Test
   public void lessThanEqualIsLessThan() {
-    when(corc.getWritable(COL0)).thenReturn(ZERO);
+    when(corc.getWritable(0)).thenReturn(ZERO);
     evaluator = new LessThanEvaluator<>(COL0, ONE, Operator.LESS_THAN_EQUALS);
     assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
   }
 
   @Test
   public void lessThanEqualIsEqualInput() {
-    when(corc.getWritable(COL0)).thenReturn(ONE);
+    when(corc.getWritable(0)).thenReturn(ONE);
     evaluator = new LessThanEvaluator<>(COL0, ONE, Operator.LESS_THAN_EQUALS);
     assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
   }
 
   @Test
   public void lessThatEqualIsGreaterThan() {
-    when(corc.getWritable(COL0)).thenReturn(TWO);
+    when(corc.getWritable(0)).thenReturn(TWO);
     evaluator = new LessThanEvaluator<>(COL0, ONE, Operator.LESS_THAN_EQUALS);
     assertThat(evaluator.evaluate(corc), is(TruthValue.NO));
   }
 
   @Test
   public void lessThanEqualIsNullInput() {
-    when(corc.getWritable(COL0)).thenReturn(null);
+    when(corc.getWritable(0)).thenReturn(null);
     evaluator = new LessThanEvaluator<>(COL0, ONE, Operator.LESS_THAN_EQUALS);
     assertThat(evaluator.evaluate(corc), is(TruthValue.NULL));
   }
@@ -0,0 +1,152 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.sarg;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+
+import org.apache.hadoop.hive.ql.io.sarg.PredicateLeaf.Operator;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument.TruthValue;
+import org.apache.hadoop.hive.serde2.io.DateWritable;
+import org.apache.hadoop.hive.serde2.objectinspector.PrimitiveObjectInspector.PrimitiveCategory;
+import org.apache.hadoop.io.IntWritable;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.hotels.corc.Corc;
+
+@RunWith(MockitoJUnitRunner.class)
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public class LongEvaluatorTest {
+
+  private static final String COL0 = "col0";
+
+  private static final IntWritable MINUS_ONE = new IntWritable(-1);
+  private static final IntWritable SEVEN = new IntWritable(7);
+  private static final IntWritable EIGHT = new IntWritable(8);
+  private static final IntWritable THIRTY = new IntWritable(30);
+
+  @Mock
+  private Corc corc;
+
+  @Before
+  public void before() {
+    when(corc.fieldIndex(COL0)).thenReturn(0);
+  }
+
+  @Test
+  public void equalsIsTrue() {
+    when(corc.getWritable(0)).thenReturn(SEVEN);
+    Evaluator<?> evaluator = new LongEvaluator.Equals(COL0, PrimitiveCategory.INT, new IntWritable(7));
+    assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
+  }
+
+  @Test
+  public void equalsIsFalse() {
+    when(corc.getWritable(0)).thenReturn(EIGHT);
+    Evaluator<?> evaluator = new LongEvaluator.Equals(COL0, PrimitiveCategory.INT, SEVEN);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.NO));
+  }
+
+  @Test
+  public void lessThan() {
+    Evaluator<?> evaluator = new LongEvaluator.LessThan(COL0, PrimitiveCategory.INT, SEVEN, Operator.LESS_THAN);
+    when(corc.getWritable(0)).thenReturn(MINUS_ONE);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
+    when(corc.getWritable(0)).thenReturn(SEVEN);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.NO));
+  }
+
+  @Test
+  public void lessThanEquals() {
+    Evaluator<?> evaluator = new LongEvaluator.LessThan(COL0, PrimitiveCategory.INT, SEVEN,
+        Operator.LESS_THAN_EQUALS);
+    when(corc.getWritable(0)).thenReturn(SEVEN);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
+    when(corc.getWritable(0)).thenReturn(EIGHT);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.NO));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void lessThanInvalidOperator() {
+    new LongEvaluator.LessThan(COL0, PrimitiveCategory.INT, SEVEN, Operator.EQUALS);
+  }
+
+  @Test
+  public void between() {
+    Evaluator<?> evaluator = new LongEvaluator.Between(COL0, PrimitiveCategory.INT, SEVEN, THIRTY);
+    when(corc.getWritable(0)).thenReturn(SEVEN);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
+    when(corc.getWritable(0)).thenReturn(THIRTY);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
+    when(corc.getWritable(0)).thenReturn(MINUS_ONE);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.NO));
+  }
+
+  @Test
+  public void in() {
+    Evaluator<?> evaluator = new LongEvaluator.In(COL0, PrimitiveCategory.INT,
+        Arrays.asList(THIRTY, MINUS_ONE, SEVEN));
+    when(corc.getWritable(0)).thenReturn(SEVEN);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
+    when(corc.getWritable(0)).thenReturn(EIGHT);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.NO));
+  }
+
+  @Test
+  public void dateIn() {
+    Evaluator<?> evaluator = new LongEvaluator.In(COL0, PrimitiveCategory.DATE,
+        Arrays.asList(new DateWritable(10), new DateWritable(20)));
+    when(corc.getWritable(0)).thenReturn(new DateWritable(20));
+    assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
+  }
+
+  @Test
+  public void nullValue() {
+    Evaluator<?> evaluator = new LongEvaluator.Equals(COL0, PrimitiveCategory.INT, SEVEN);
+    when(corc.getWritable(0)).thenReturn(null);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.NULL));
+  }
+
+  @Test
+  public void lessThanBatch() {
+    LongEvaluator evaluator = new LongEvaluator.LessThan(COL0, PrimitiveCategory.INT, SEVEN, Operator.LESS_THAN);
+    long[] yes = new long[2];
+    long[] no = new long[2];
+    evaluator.evaluate(new long[] { -1L, 7L, 6L, 30L }, 3, yes, no);
+    assertThat(yes, is(new long[] { 0b101L, 0L }));
+    assertThat(no, is(new long[] { 0b010L, 0L }));
+  }
+
+  @Test
+  public void inBatch() {
+    LongEvaluator evaluator = new LongEvaluator.In(COL0, PrimitiveCategory.INT, Arrays.asList(SEVEN, THIRTY));
+    long[] values = new long[66];
+    values[65] = 30L;
+    long[] yes = new long[2];
+    long[] no = new long[2];
+    evaluator.evaluate(values, 66, yes, no);
+    assertThat(yes, is(new long[] { 0L, 0b10L }));
+    assertThat(no, is(new long[] { -1L, 0b01L }));
+  }
+
+}
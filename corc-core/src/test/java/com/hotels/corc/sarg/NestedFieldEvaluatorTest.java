@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.sarg;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+
+import org.apache.hadoop.hive.ql.io.orc.OrcStruct;
+import org.apache.hadoop.hive.ql.io.sarg.PredicateLeaf;
+import org.apache.hadoop.hive.ql.io.sarg.PredicateLeaf.Operator;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument.TruthValue;
+import org.apache.hadoop.hive.serde2.objectinspector.SettableStructObjectInspector;
+import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory;
+import org.apache.hadoop.io.Text;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.hotels.corc.Corc;
+import com.hotels.corc.StructTypeInfoBuilder;
+
+@RunWith(MockitoJUnitRunner.class)
+public class NestedFieldEvaluatorTest {
+
+  private static final String CONTEXT = "context";
+  private static final String OS = "context.device.os";
+
+  private final StructTypeInfo deviceTypeInfo = new StructTypeInfoBuilder()
+      .add("os", TypeInfoFactory.stringTypeInfo)
+      .build();
+  private final StructTypeInfo contextTypeInfo = new StructTypeInfoBuilder().add("device", deviceTypeInfo).build();
+  private final StructTypeInfo typeInfo = new StructTypeInfoBuilder().add(CONTEXT, contextTypeInfo).build();
+
+  @Mock
+  private Corc corc;
+  @Mock
+  private PredicateLeaf predicateLeaf;
+
+  private Evaluator<?> evaluator;
+
+  @Before
+  public void before() {
+    when(corc.fieldIndex(CONTEXT)).thenReturn(0);
+    when(predicateLeaf.getColumnName()).thenReturn(OS);
+    when(predicateLeaf.getOperator()).thenReturn(Operator.EQUALS);
+    when(predicateLeaf.getLiteral()).thenReturn("ios");
+    evaluator = new EvaluatorFactory(typeInfo).newInstance(predicateLeaf);
+  }
+
+  @Test
+  public void typical() {
+    assertThat(evaluator, instanceOf(NestedFieldEvaluator.class));
+    assertThat(((NestedFieldEvaluator<?>) evaluator).getEvaluator(), instanceOf(TextEvaluator.Equals.class));
+
+    when(corc.getWritable(0)).thenReturn(context(device(new Text("ios"))));
+    assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
+
+    when(corc.getWritable(0)).thenReturn(context(device(new Text("android"))));
+    assertThat(evaluator.evaluate(corc), is(TruthValue.NO));
+  }
+
+  @Test
+  public void nullLeaf() {
+    when(corc.getWritable(0)).thenReturn(context(device(null)));
+    assertThat(evaluator.evaluate(corc), is(TruthValue.NULL));
+  }
+
+  @Test
+  public void nullIntermediateStruct() {
+    when(corc.getWritable(0)).thenReturn(context(null));
+    assertThat(evaluator.evaluate(corc), is(TruthValue.NULL));
+  }
+
+  @Test
+  public void nullTopLevelStruct() {
+    when(corc.getWritable(0)).thenReturn(null);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.NULL));
+  }
+
+  private OrcStruct context(Object device) {
+    return struct(contextTypeInfo, "device", device);
+  }
+
+  private OrcStruct device(Object os) {
+    return struct(deviceTypeInfo, "os", os);
+  }
+
+  private static OrcStruct struct(StructTypeInfo typeInfo, String fieldName, Object value) {
+    SettableStructObjectInspector inspector = (SettableStructObjectInspector) OrcStruct.createObjectInspector(typeInfo);
+    OrcStruct struct = (OrcStruct) inspector.create();
+    inspector.setStructFieldData(struct, inspector.getStructFieldRef(fieldName), value);
+    return struct;
+  }
+
+}
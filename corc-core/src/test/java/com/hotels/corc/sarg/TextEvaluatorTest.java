@@ -0,0 +1,123 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.sarg;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+
+import org.apache.hadoop.hive.ql.io.sarg.PredicateLeaf.Operator;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument.TruthValue;
+import org.apache.hadoop.io.Text;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.hotels.corc.Corc;
+
+@RunWith(MockitoJUnitRunner.class)
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public class TextEvaluatorTest {
+
+  private static final String COL0 = "col0";
+
+  private static final Text BAR = new Text("bar");
+  private static final Text FOO = new Text("foo");
+  private static final Text FOOD = new Text("food");
+
+  @Mock
+  private Corc corc;
+
+  @Before
+  public void before() {
+    when(corc.fieldIndex(COL0)).thenReturn(0);
+  }
+
+  @Test
+  public void equals() {
+    Evaluator<?> evaluator = new TextEvaluator.Equals(COL0, FOO);
+    when(corc.getWritable(0)).thenReturn(new Text("foo"));
+    assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
+    when(corc.getWritable(0)).thenReturn(FOOD);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.NO));
+  }
+
+  @Test
+  public void equalsIgnoresStaleBytes() {
+    Text reused = new Text("food");
+    reused.set("foo");
+    Evaluator<?> evaluator = new TextEvaluator.Equals(COL0, reused);
+    when(corc.getWritable(0)).thenReturn(FOO);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
+  }
+
+  @Test
+  public void lessThan() {
+    Evaluator<?> evaluator = new TextEvaluator.LessThan(COL0, FOO, Operator.LESS_THAN);
+    when(corc.getWritable(0)).thenReturn(BAR);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
+    when(corc.getWritable(0)).thenReturn(FOO);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.NO));
+    when(corc.getWritable(0)).thenReturn(FOOD);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.NO));
+  }
+
+  @Test
+  public void lessThanEquals() {
+    Evaluator<?> evaluator = new TextEvaluator.LessThan(COL0, FOO, Operator.LESS_THAN_EQUALS);
+    when(corc.getWritable(0)).thenReturn(FOO);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
+    when(corc.getWritable(0)).thenReturn(FOOD);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.NO));
+  }
+
+  @Test
+  public void lessThanNonAscii() {
+    Evaluator<?> evaluator = new TextEvaluator.LessThan(COL0, new Text("\u00e9"), Operator.LESS_THAN);
+    when(corc.getWritable(0)).thenReturn(new Text("z"));
+    assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
+  }
+
+  @Test
+  public void between() {
+    Evaluator<?> evaluator = new TextEvaluator.Between(COL0, BAR, FOO);
+    when(corc.getWritable(0)).thenReturn(new Text("cat"));
+    assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
+    when(corc.getWritable(0)).thenReturn(FOOD);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.NO));
+  }
+
+  @Test
+  public void in() {
+    Evaluator<?> evaluator = new TextEvaluator.In(COL0, Arrays.asList(BAR, FOOD));
+    when(corc.getWritable(0)).thenReturn(new Text("food"));
+    assertThat(evaluator.evaluate(corc), is(TruthValue.YES));
+    when(corc.getWritable(0)).thenReturn(FOO);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.NO));
+  }
+
+  @Test
+  public void nullValue() {
+    Evaluator<?> evaluator = new TextEvaluator.Equals(COL0, FOO);
+    when(corc.getWritable(0)).thenReturn(null);
+    assertThat(evaluator.evaluate(corc), is(TruthValue.NULL));
+  }
+
+}
@@ -0,0 +1,280 @@
+/**
+ * Copyright (C) 2015-2019 Expedia Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hotels.corc.sarg;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DecimalColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.StructColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.hadoop.hive.ql.io.sarg.PredicateLeaf;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument.Builder;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgumentFactory;
+import org.apache.hadoop.hive.serde2.io.HiveDecimalWritable;
+import org.apache.hadoop.hive.serde2.typeinfo.StructTypeInfo;
+import org.apache.hadoop.hive.serde2.typeinfo.TypeInfoFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.hotels.corc.StructTypeInfoBuilder;
+
+public class VectorizedSearchArgumentFilterTest {
+
+  private static final int SIZE = 100;
+
+  private final Builder builder = SearchArgumentFactory.newBuilder();
+  private final StructTypeInfo nestedTypeInfo = new StructTypeInfoBuilder()
+      .add("b", TypeInfoFactory.longTypeInfo)
+      .build();
+  private final StructTypeInfo structTypeInfo = new StructTypeInfoBuilder()
+      .add("col0", TypeInfoFactory.longTypeInfo)
+      .add("col1", TypeInfoFactory.stringTypeInfo)
+      .add("col2", TypeInfoFactory.decimalTypeInfo)
+      .add("col3", nestedTypeInfo)
+      .build();
+
+  private VectorizedRowBatch batch;
+  private LongColumnVector col0;
+  private BytesColumnVector col1;
+  private DecimalColumnVector col2;
+  private StructColumnVector col3;
+  private LongColumnVector col3b;
+
+  @Before
+  public void before() {
+    col0 = new LongColumnVector(SIZE);
+    col1 = new BytesColumnVector(SIZE);
+    col1.initBuffer();
+    col2 = new DecimalColumnVector(SIZE, 10, 0);
+    col3b = new LongColumnVector(SIZE);
+    col3 = new StructColumnVector(SIZE, col3b);
+    batch = new VectorizedRowBatch(4, SIZE);
+    batch.cols[0] = col0;
+    batch.cols[1] = col1;
+    batch.cols[2] = col2;
+    batch.cols[3] = col3;
+    for (int row = 0; row < SIZE; row++) {
+      col0.vector[row] = row;
+      col1.setVal(row, ("v" + row % 10).getBytes());
+      col2.vector[row] = new HiveDecimalWritable(row);
+      col3b.vector[row] = row % 2;
+    }
+    batch.size = SIZE;
+  }
+
+  @Test
+  public void lessThan() {
+    SearchArgument searchArgument = builder.startAnd().lessThan("col0", PredicateLeaf.Type.LONG, 70L).end().build();
+
+    assertThat(filter(searchArgument), is(70));
+    assertThat(batch.selectedInUse, is(true));
+    assertThat(batch.selected[69], is(69));
+  }
+
+  @Test
+  public void allAccepted() {
+    SearchArgument searchArgument = builder.startAnd().lessThan("col0", PredicateLeaf.Type.LONG, 1000L).end().build();
+
+    assertThat(filter(searchArgument), is(SIZE));
+    assertThat(batch.selectedInUse, is(false));
+  }
+
+  @Test
+  public void and() {
+    SearchArgument searchArgument = builder
+        .startAnd()
+        .lessThan("col0", PredicateLeaf.Type.LONG, 70L)
+        .equals("col1", PredicateLeaf.Type.STRING, "v3")
+        .end()
+        .build();
+
+    assertThat(filter(searchArgument), is(7));
+    assertThat(selected(), is(new int[] { 3, 13, 23, 33, 43, 53, 63 }));
+  }
+
+  @Test
+  public void or() {
+    SearchArgument searchArgument = builder
+        .startOr()
+        .lessThan("col0", PredicateLeaf.Type.LONG, 2L)
+        .equals("col1", PredicateLeaf.Type.STRING, "v9")
+        .end()
+        .build();
+
+    assertThat(filter(searchArgument), is(12));
+    assertThat(batch.selected[0], is(0));
+    assertThat(batch.selected[1], is(1));
+    assertThat(batch.selected[2], is(9));
+  }
+
+  @Test
+  public void not() {
+    SearchArgument searchArgument = builder
+        .startNot()
+        .between("col0", PredicateLeaf.Type.LONG, 1L, 98L)
+        .end()
+        .build();
+
+    assertThat(filter(searchArgument), is(2));
+    assertThat(selected(), is(new int[] { 0, 99 }));
+  }
+
+  @Test
+  public void nullsAreNotAccepted() {
+    col0.noNulls = false;
+    col0.isNull[0] = true;
+    SearchArgument searchArgument = builder.startNot().equals("col0", PredicateLeaf.Type.LONG, 5L).end().build();
+
+    assertThat(filter(searchArgument), is(98));
+    assertThat(batch.selected[0], is(1));
+  }
+
+  @Test
+  public void isNull() {
+    col1.noNulls = false;
+    col1.isNull[42] = true;
+    col1.vector[42] = null;
+    SearchArgument searchArgument = builder.startAnd().isNull("col1", PredicateLeaf.Type.STRING).end().build();
+
+    assertThat(filter(searchArgument), is(1));
+    assertThat(batch.selected[0], is(42));
+  }
+
+  @Test
+  public void repeating() {
+    col0.isRepeating = true;
+    col0.vector[0] = 5L;
+    SearchArgument searchArgument = builder.startAnd().equals("col0", PredicateLeaf.Type.LONG, 5L).end().build();
+
+    assertThat(filter(searchArgument), is(SIZE));
+  }
+
+  @Test
+  public void repeatingNull() {
+    col0.isRepeating = true;
+    col0.noNulls = false;
+    col0.isNull[0] = true;
+    SearchArgument searchArgument = builder.startAnd().equals("col0", PredicateLeaf.Type.LONG, 0L).end().build();
+
+    assertThat(filter(searchArgument), is(0));
+  }
+
+  @Test
+  public void existingSelection() {
+    batch.selectedInUse = true;
+    batch.size = 3;
+    batch.selected[0] = 10;
+    batch.selected[1] = 50;
+    batch.selected[2] = 90;
+    SearchArgument searchArgument = builder.startAnd().lessThan("col0", PredicateLeaf.Type.LONG, 60L).end().build();
+
+    assertThat(filter(searchArgument), is(2));
+    assertThat(selected(), is(new int[] { 10, 50 }));
+  }
+
+  @Test
+  public void decimal() {
+    SearchArgument searchArgument = builder
+        .startAnd()
+        .lessThanEquals("col2", PredicateLeaf.Type.DECIMAL, new HiveDecimalWritable(1))
+        .end()
+        .build();
+
+    assertThat(filter(searchArgument), is(2));
+    assertThat(selected(), is(new int[] { 0, 1 }));
+  }
+
+  @Test
+  public void nestedField() {
+    col3.noNulls = false;
+    col3.isNull[1] = true;
+    SearchArgument searchArgument = builder.startAnd().equals("col3.b", PredicateLeaf.Type.LONG, 1L).end().build();
+
+    assertThat(filter(searchArgument), is(49));
+    assertThat(batch.selected[0], is(3));
+  }
+
+  @Test
+  public void counts() {
+    SearchArgument searchArgument = builder.startAnd().lessThan("col0", PredicateLeaf.Type.LONG, 70L).end().build();
+    VectorizedSearchArgumentFilter filter = new VectorizedSearchArgumentFilter(searchArgument, structTypeInfo);
+
+    filter.filter(batch);
+
+    assertThat(filter.getRowsEvaluated(), is(100L));
+    assertThat(filter.getRowsAccepted(), is(70L));
+  }
+
+  @Test
+  public void leafCounts() {
+    SearchArgument searchArgument = builder
+        .startAnd()
+        .lessThan("col0", PredicateLeaf.Type.LONG, 70L)
+        .lessThan("col0", PredicateLeaf.Type.LONG, 30L)
+        .end()
+        .build();
+    VectorizedSearchArgumentFilter filter = new VectorizedSearchArgumentFilter(searchArgument, structTypeInfo);
+
+    filter.filter(batch);
+
+    assertThat(filter.getRowsEvaluated(0), is(100L));
+    assertThat(filter.getRowsAccepted(0), is(70L));
+    assertThat(filter.getRowsEvaluated(1), is(100L));
+    assertThat(filter.getRowsAccepted(1), is(30L));
+  }
+
+  @Test
+  public void nullsInThreeValuedLogic() {
+    col0.noNulls = false;
+    for (int row = 0; row < SIZE; row += 7) {
+      col0.isNull[row] = true;
+    }
+    SearchArgument searchArgument = builder
+        .startOr()
+        .startNot()
+        .lessThan("col0", PredicateLeaf.Type.LONG, 50L)
+        .end()
+        .in("col1", PredicateLeaf.Type.STRING, "v1", "v2")
+        .end()
+        .build();
+
+    int expected = 0;
+    for (int row = 0; row < SIZE; row++) {
+      boolean notLessThan = !col0.isNull[row] && row >= 50;
+      boolean in = row % 10 == 1 || row % 10 == 2;
+      if (notLessThan || in) {
+        expected++;
+      }
+    }
+
+    assertThat(filter(searchArgument), is(expected));
+  }
+
+  private int filter(SearchArgument searchArgument) {
+    return new VectorizedSearchArgumentFilter(searchArgument, structTypeInfo).filter(batch);
+  }
+
+  private int[] selected() {
+    return Arrays.copyOf(batch.selected, batch.size);
+  }
+
+}